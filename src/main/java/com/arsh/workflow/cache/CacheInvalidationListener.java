@@ -0,0 +1,28 @@
+package com.arsh.workflow.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationListener implements MessageListener {
+
+    private final CacheInvalidator cacheInvalidator;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+
+        try {
+            cacheInvalidator.applyMessage(body);
+        } catch (Exception e) {
+            log.warn("Unable to apply cache invalidation {}: {}", body, e.getMessage());
+        }
+    }
+}
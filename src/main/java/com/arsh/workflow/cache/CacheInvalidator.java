@@ -0,0 +1,214 @@
+package com.arsh.workflow.cache;
+
+import com.arsh.workflow.datasource.ReplicaSet;
+import com.arsh.workflow.dto.response.TaskResponse;
+import com.arsh.workflow.dto.response.WorkflowResponse;
+import com.arsh.workflow.events.AfterCommitExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the read caches of every node in step with writes.
+ * <p>
+ * Invalidations run after the surrounding transaction commits (so a
+ * concurrent reader cannot re-cache the pre-commit row) and are fanned out
+ * to the other nodes over Redis pub/sub.
+ * Message format: {@code REGION|force|key1,key2,...}
+ * <p>
+ * With read replicas enabled a reader may re-cache a row from a replica
+ * that has not applied the write yet, so every invalidation is applied a
+ * second time once the replica staleness bound has passed.
+ * <p>
+ * User invalidations drop the cached user (by id and by name) and token
+ * revocation cut-off, so a revocation takes effect on every node at once.
+ * <p>
+ * Workflow invalidations also bump the workflow's ETag version (again
+ * after the staleness bound, so a tag handed out with a replica-stale
+ * body is superseded).
+ */
+@Component
+@Slf4j
+public class CacheInvalidator {
+
+    public static final String CHANNEL = "workflow-cache-invalidation";
+
+    private final NearCache<Long, WorkflowResponse> workflowReadCache;
+    private final NearCache<Long, TaskResponse> taskReadCache;
+    private final NearCache<Long, Long> taskWorkflowCache;
+    private final NearCache<Long, UserSnapshot> userByIdCache;
+    private final NearCache<String, Long> userByNameCache;
+    private final NearCache<Long, Long> tokenRevocationCache;
+    private final StringRedisTemplate redisTemplate;
+    private final AfterCommitExecutor afterCommitExecutor;
+    private final WorkflowVersionTracker versionTracker;
+    private final Executor replayExecutor;
+
+    public CacheInvalidator(NearCache<Long, WorkflowResponse> workflowReadCache,
+                            NearCache<Long, TaskResponse> taskReadCache,
+                            NearCache<Long, Long> taskWorkflowCache,
+                            NearCache<Long, UserSnapshot> userByIdCache,
+                            NearCache<String, Long> userByNameCache,
+                            NearCache<Long, Long> tokenRevocationCache,
+                            StringRedisTemplate redisTemplate,
+                            AfterCommitExecutor afterCommitExecutor,
+                            WorkflowVersionTracker versionTracker,
+                            ObjectProvider<ReplicaSet> replicaSet) {
+        this.workflowReadCache = workflowReadCache;
+        this.taskReadCache = taskReadCache;
+        this.taskWorkflowCache = taskWorkflowCache;
+        this.userByIdCache = userByIdCache;
+        this.userByNameCache = userByNameCache;
+        this.tokenRevocationCache = tokenRevocationCache;
+        this.redisTemplate = redisTemplate;
+        this.afterCommitExecutor = afterCommitExecutor;
+        this.versionTracker = versionTracker;
+
+        ReplicaSet replicas = replicaSet.getIfAvailable();
+        this.replayExecutor = replicas == null
+                ? null
+                : CompletableFuture.delayedExecutor(
+                        replicas.maxStaleness().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void workflowChanged(Long workflowId) {
+        dispatch(CacheRegion.WORKFLOW, false, List.of(workflowId));
+    }
+
+    public void taskChanged(Long workflowId, Long taskId) {
+        tasksChanged(workflowId, List.of(taskId));
+    }
+
+    public void tasksChanged(Long workflowId, Collection<Long> taskIds) {
+        if (!taskIds.isEmpty()) {
+            dispatch(CacheRegion.TASK, false, taskIds);
+        }
+        dispatch(CacheRegion.WORKFLOW, false, List.of(workflowId));
+    }
+
+    /**
+     * Forced eviction, also drops entries of terminal workflows.
+     */
+    public void evictTasks(Long workflowId, Collection<Long> taskIds) {
+        if (!taskIds.isEmpty()) {
+            dispatch(CacheRegion.TASK, true, taskIds);
+        }
+        dispatch(CacheRegion.WORKFLOW, true, List.of(workflowId));
+    }
+
+    public void evictWorkflow(Long workflowId) {
+        dispatch(CacheRegion.WORKFLOW, true, List.of(workflowId));
+    }
+
+    public void evictUser(Long userId) {
+        dispatch(CacheRegion.USER, true, List.of(userId));
+    }
+
+    /**
+     * Applies an invalidation to this node only.
+     */
+    public void applyLocal(CacheRegion region, boolean force, Collection<Long> keys) {
+        evict(region, force, keys);
+
+        if (replayExecutor != null) {
+            replayExecutor.execute(() -> evict(region, force, keys));
+        }
+    }
+
+    private void evict(CacheRegion region, boolean force, Collection<Long> keys) {
+        if (region == CacheRegion.WORKFLOW) {
+            versionTracker.forget(keys);
+        }
+
+        if (region == CacheRegion.USER) {
+            for (Long key : keys) {
+                UserSnapshot user = userByIdCache.getIfPresent(key);
+                if (user != null) {
+                    userByNameCache.evict(user.username());
+                }
+                userByIdCache.evict(key);
+                tokenRevocationCache.evict(key);
+            }
+            return;
+        }
+
+        NearCache<Long, ?> cache = region == CacheRegion.WORKFLOW
+                ? workflowReadCache
+                : taskReadCache;
+
+        for (Long key : keys) {
+            if (force) {
+                cache.evict(key);
+            } else {
+                cache.invalidate(key);
+            }
+        }
+
+        // Forced task evictions cover deletes, after which the mapping is gone too
+        if (region == CacheRegion.TASK && force) {
+            keys.forEach(taskWorkflowCache::evict);
+        }
+    }
+
+    void applyMessage(String message) {
+        String[] parts = message.split("\\|", 3);
+
+        if (parts.length != 3) {
+            log.warn("Malformed cache invalidation message: {}", message);
+            return;
+        }
+
+        List<Long> keys = Arrays.stream(parts[2].split(","))
+                .map(Long::valueOf)
+                .toList();
+
+        applyLocal(CacheRegion.valueOf(parts[0]), Boolean.parseBoolean(parts[1]), keys);
+    }
+
+    private void dispatch(CacheRegion region, boolean force, Collection<Long> keys) {
+        Runnable action = () -> {
+            if (region == CacheRegion.WORKFLOW) {
+                bumpVersions(keys);
+            }
+            applyLocal(region, force, keys);
+            broadcast(region, force, keys);
+        };
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            afterCommitExecutor.execute(action);
+        } else {
+            action.run();
+        }
+    }
+
+    private void bumpVersions(Collection<Long> workflowIds) {
+        versionTracker.bump(workflowIds);
+
+        if (replayExecutor != null) {
+            replayExecutor.execute(() -> versionTracker.bump(workflowIds));
+        }
+    }
+
+    private void broadcast(CacheRegion region, boolean force, Collection<Long> keys) {
+        String message = region + "|" + force + "|" + keys.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (Exception e) {
+            // Peers fall back to TTL expiry
+            log.warn("Unable to broadcast cache invalidation {}: {}", message, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.arsh.workflow.cache;
+
+public enum CacheRegion {
+    WORKFLOW,
+    TASK,
+    USER
+}
@@ -0,0 +1,121 @@
+package com.arsh.workflow.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded, time-evicting local cache in front of a repository read.
+ * <p>
+ * Entries whose value can no longer change (e.g. terminal workflows) are
+ * stored as immutable: they live for the longer TTL and ignore
+ * {@link #invalidate(Object)}. Only {@link #evict(Object)} removes them.
+ * <p>
+ * The bound is an entry count, or a total weight for caches whose values
+ * vary widely in size.
+ */
+public class NearCache<K, V> {
+
+    private record Entry<V>(V value, boolean immutable) {}
+
+    private final Cache<K, Entry<V>> cache;
+
+    public NearCache(String name,
+                     long maximumSize,
+                     Duration ttl,
+                     Duration immutableTtl,
+                     MeterRegistry meterRegistry) {
+
+        this(name, Caffeine.newBuilder().maximumSize(maximumSize), ttl, immutableTtl, meterRegistry);
+    }
+
+    /**
+     * Bounded by the summed {@code weigher} of the values instead of their count.
+     */
+    public NearCache(String name,
+                     long maximumWeight,
+                     ToIntFunction<V> weigher,
+                     Duration ttl,
+                     Duration immutableTtl,
+                     MeterRegistry meterRegistry) {
+
+        this(name,
+                Caffeine.newBuilder()
+                        .maximumWeight(maximumWeight)
+                        .<K, Entry<V>>weigher((key, entry) -> weigher.applyAsInt(entry.value())),
+                ttl, immutableTtl, meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private NearCache(String name,
+                      Caffeine<?, ?> bound,
+                      Duration ttl,
+                      Duration immutableTtl,
+                      MeterRegistry meterRegistry) {
+
+        this.cache = ((Caffeine<K, Entry<V>>) bound)
+                .expireAfter(new Expiry<K, Entry<V>>() {
+                    @Override
+                    public long expireAfterCreate(K key, Entry<V> entry, long currentTime) {
+                        return (entry.immutable() ? immutableTtl : ttl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(K key, Entry<V> entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(K key, Entry<V> entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    /**
+     * Returns the cached value or loads it. A {@code null} from the loader is
+     * not cached, so "not found" always goes back to the repository.
+     */
+    public V get(K key, Function<K, V> loader, Predicate<V> immutable) {
+        Entry<V> entry = cache.get(key, k -> {
+            V value = loader.apply(k);
+            return value == null ? null : new Entry<>(value, immutable.test(value));
+        });
+
+        return entry == null ? null : entry.value();
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        return get(key, loader, v -> false);
+    }
+
+    public V getIfPresent(K key) {
+        Entry<V> entry = cache.getIfPresent(key);
+        return entry == null ? null : entry.value();
+    }
+
+    /**
+     * Drops a mutable entry. Immutable entries are kept.
+     */
+    public void invalidate(K key) {
+        cache.asMap().computeIfPresent(key, (k, entry) -> entry.immutable() ? entry : null);
+    }
+
+    /**
+     * Drops the entry regardless of immutability (deletes, reassignment).
+     */
+    public void evict(K key) {
+        cache.invalidate(key);
+    }
+}
@@ -0,0 +1,16 @@
+package com.arsh.workflow.cache;
+
+import com.arsh.workflow.enums.Role;
+import com.arsh.workflow.model.User;
+
+/**
+ * What the user caches hold instead of the entity: a detached {@link User}
+ * could be mutated, lazily loaded or re-attached by whoever got it from
+ * the cache. Associations take {@code getReferenceById(id())}.
+ */
+public record UserSnapshot(Long id, String username, String password, Role role) {
+
+    public static UserSnapshot of(User user) {
+        return new UserSnapshot(user.getId(), user.getUsername(), user.getPassword(), user.getRole());
+    }
+}
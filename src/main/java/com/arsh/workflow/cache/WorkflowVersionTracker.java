@@ -0,0 +1,105 @@
+package com.arsh.workflow.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Cluster-wide change counter per workflow, the basis of read ETags.
+ * <p>
+ * Bumped after every committed workflow or task change (via
+ * {@link CacheInvalidator}) and cached locally until the matching
+ * invalidation arrives, so a conditional read costs no database round
+ * trip and usually no Redis one either. A missing key is seeded from the
+ * clock rather than zero, so a lost or expired key never hands out a
+ * version a client may already hold.
+ */
+@Component
+@Slf4j
+public class WorkflowVersionTracker {
+
+    private static final String KEY_PREFIX = "workflow:version:";
+
+    private static final DefaultRedisScript<Long> CURRENT_SCRIPT = new DefaultRedisScript<>();
+    private static final DefaultRedisScript<Long> BUMP_SCRIPT = new DefaultRedisScript<>();
+
+    static {
+        CURRENT_SCRIPT.setScriptText(
+                "local v = redis.call('get', KEYS[1]) " +
+                        "if not v then " +
+                        "   redis.call('set', KEYS[1], ARGV[1], 'EX', ARGV[2]) " +
+                        "   v = ARGV[1] " +
+                        "end " +
+                        "return tonumber(v)"
+        );
+        CURRENT_SCRIPT.setResultType(Long.class);
+
+        BUMP_SCRIPT.setScriptText(
+                "local v " +
+                        "if redis.call('exists', KEYS[1]) == 1 then " +
+                        "   v = redis.call('incr', KEYS[1]) " +
+                        "else " +
+                        "   v = tonumber(ARGV[1]) " +
+                        "   redis.call('set', KEYS[1], v) " +
+                        "end " +
+                        "redis.call('expire', KEYS[1], ARGV[2]) " +
+                        "return v"
+        );
+        BUMP_SCRIPT.setResultType(Long.class);
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final NearCache<Long, Long> workflowVersionCache;
+    private final String ttlSeconds;
+
+    public WorkflowVersionTracker(StringRedisTemplate redisTemplate,
+                                  NearCache<Long, Long> workflowVersionCache,
+                                  @Value("${workflow.etag.version-ttl-hours:168}") long ttlHours) {
+        this.redisTemplate = redisTemplate;
+        this.workflowVersionCache = workflowVersionCache;
+        this.ttlSeconds = String.valueOf(ttlHours * 3600);
+    }
+
+    /**
+     * @return the current version, or null when Redis is unreachable
+     */
+    public Long current(Long workflowId) {
+        return workflowVersionCache.get(workflowId, this::load);
+    }
+
+    public void bump(Collection<Long> workflowIds) {
+        for (Long workflowId : workflowIds) {
+            try {
+                redisTemplate.execute(BUMP_SCRIPT, List.of(KEY_PREFIX + workflowId), seed(), ttlSeconds);
+            } catch (Exception e) {
+                // Local copies still drop; peers fall back to cache TTL
+                log.warn("Unable to bump version of workflow {}: {}", workflowId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Drops local copies only.
+     */
+    public void forget(Collection<Long> workflowIds) {
+        workflowIds.forEach(workflowVersionCache::evict);
+    }
+
+    private Long load(Long workflowId) {
+        try {
+            return redisTemplate.execute(CURRENT_SCRIPT, List.of(KEY_PREFIX + workflowId), seed(), ttlSeconds);
+        } catch (Exception e) {
+            log.warn("Unable to read version of workflow {}: {}", workflowId, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String seed() {
+        return String.valueOf(System.currentTimeMillis());
+    }
+}
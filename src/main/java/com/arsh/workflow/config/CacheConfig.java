@@ -0,0 +1,146 @@
+package com.arsh.workflow.config;
+
+import com.arsh.workflow.cache.CacheInvalidationListener;
+import com.arsh.workflow.cache.CacheInvalidator;
+import com.arsh.workflow.cache.NearCache;
+import com.arsh.workflow.cache.UserSnapshot;
+import com.arsh.workflow.dto.response.TaskResponse;
+import com.arsh.workflow.dto.response.WorkflowAnalysisResponse;
+import com.arsh.workflow.dto.response.WorkflowResponse;
+import com.arsh.workflow.validation.CompiledTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    @Value("${workflow.cache.workflows.max-size:1000}")
+    private long workflowsMaxSize;
+
+    // Workflow snapshots embed their tasks, so they are bounded by task count
+    @Value("${workflow.cache.workflows.max-tasks:200000}")
+    private long workflowsMaxTasks;
+
+    @Value("${workflow.cache.tasks.max-size:50000}")
+    private long tasksMaxSize;
+
+    @Value("${workflow.cache.users.max-size:10000}")
+    private long usersMaxSize;
+
+    @Value("${workflow.cache.analysis.max-size:200}")
+    private long analysisMaxSize;
+
+    @Value("${workflow.cache.owners.max-size:100000}")
+    private long ownersMaxSize;
+
+    @Value("${workflow.cache.templates.max-size:1000}")
+    private long templatesMaxSize;
+
+    @Value("${workflow.cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${workflow.cache.immutable-ttl-seconds:3600}")
+    private long immutableTtlSeconds;
+
+    @Value("${workflow.cache.invalidation.auto-startup:true}")
+    private boolean invalidationAutoStartup;
+
+    // Weighed in tasks (plus one for the workflow row): a 50k-task
+    // snapshot takes the room of 50k small ones
+    @Bean
+    public NearCache<Long, WorkflowResponse> workflowReadCache(MeterRegistry meterRegistry) {
+        return new NearCache<>(
+                "workflows",
+                workflowsMaxTasks,
+                workflow -> 1 + (workflow.getTasks() == null ? 0 : workflow.getTasks().size()),
+                Duration.ofSeconds(ttlSeconds),
+                Duration.ofSeconds(immutableTtlSeconds),
+                meterRegistry
+        );
+    }
+
+    @Bean
+    public NearCache<Long, TaskResponse> taskReadCache(MeterRegistry meterRegistry) {
+        return nearCache("tasks", tasksMaxSize, meterRegistry);
+    }
+
+    // Task to workflow; a task never moves, so entries are loaded as immutable
+    @Bean
+    public NearCache<Long, Long> taskWorkflowCache(MeterRegistry meterRegistry) {
+        return nearCache("task-workflows", tasksMaxSize, meterRegistry);
+    }
+
+    @Bean
+    public NearCache<Long, UserSnapshot> userByIdCache(MeterRegistry meterRegistry) {
+        return nearCache("users-by-id", usersMaxSize, meterRegistry);
+    }
+
+    // Username to id; the user itself is in userByIdCache, so evicting the id drops it
+    @Bean
+    public NearCache<String, Long> userByNameCache(MeterRegistry meterRegistry) {
+        return nearCache("users-by-name", usersMaxSize, meterRegistry);
+    }
+
+    // Keyed by "workflowId:dagVersion"
+    @Bean
+    public NearCache<String, WorkflowAnalysisResponse> workflowAnalysisCache(MeterRegistry meterRegistry) {
+        return nearCache("workflow-analysis", analysisMaxSize, meterRegistry);
+    }
+
+    // ETag versions, dropped by the same invalidations as workflowReadCache
+    @Bean
+    public NearCache<Long, Long> workflowVersionCache(MeterRegistry meterRegistry) {
+        return nearCache("workflow-versions", workflowsMaxSize, meterRegistry);
+    }
+
+    // Owners never change, so entries are loaded as immutable
+    @Bean
+    public NearCache<Long, String> workflowOwnerCache(MeterRegistry meterRegistry) {
+        return nearCache("workflow-owners", ownersMaxSize, meterRegistry);
+    }
+
+    // Published templates never change, so entries are loaded as immutable
+    @Bean
+    public NearCache<Long, CompiledTemplate> workflowTemplateCache(MeterRegistry meterRegistry) {
+        return nearCache("workflow-templates", templatesMaxSize, meterRegistry);
+    }
+
+    // Per-user token revocation cut-off, see TokenRevocationService
+    @Bean
+    public NearCache<Long, Long> tokenRevocationCache(MeterRegistry meterRegistry) {
+        return nearCache("token-revocations", usersMaxSize, meterRegistry);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            CacheInvalidationListener listener) {
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer() {
+            @Override
+            public boolean isAutoStartup() {
+                return invalidationAutoStartup;
+            }
+        };
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(listener, new ChannelTopic(CacheInvalidator.CHANNEL));
+        return container;
+    }
+
+    private <K, V> NearCache<K, V> nearCache(String name, long maxSize, MeterRegistry meterRegistry) {
+        return new NearCache<>(
+                name,
+                maxSize,
+                Duration.ofSeconds(ttlSeconds),
+                Duration.ofSeconds(immutableTtlSeconds),
+                meterRegistry
+        );
+    }
+}
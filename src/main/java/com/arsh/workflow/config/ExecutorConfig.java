@@ -1,9 +1,12 @@
 package com.arsh.workflow.config;
 
+import com.arsh.workflow.util.MonitoredThreadPoolExecutor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 
 import java.util.concurrent.*;
@@ -23,18 +26,136 @@ public class ExecutorConfig {
     @Value("${workflow.executor.pool.thread-name-prefix:wf-exec-}")
     private String threadPrefix;
 
-    @Bean("workflowExecutorPool")
-    public ExecutorService workflowExecutorPool() {
+    @Value("${workflow.maintenance.pool.size:2}")
+    private int maintenancePoolSize;
+
+    @Value("${workflow.maintenance.pool.queue-capacity:1000}")
+    private int maintenanceQueueCapacity;
+
+    @Value("${workflow.stream.fanout.threads:4}")
+    private int streamThreads;
+
+    @Value("${workflow.auth.hashing.threads:4}")
+    private int hashingThreads;
+
+    @Value("${workflow.auth.hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    /**
+     * The task pool itself; its queue latency and utilisation drive
+     * workflow start admission. Work it cannot take is rejected rather
+     * than run on the submitting thread, which may be a scheduler or a
+     * Kafka listener; the executor service defers it instead.
+     */
+    @Bean("workflowExecutorThreadPool")
+    public MonitoredThreadPoolExecutor workflowExecutorThreadPool() {
 
         ThreadFactory threadFactory = new CustomizableThreadFactory(threadPrefix);
 
-        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(
+        return new MonitoredThreadPoolExecutor(
                 corePoolSize,
                 maxPoolSize,
                 60L, TimeUnit.SECONDS,
                 new ArrayBlockingQueue<>(queueCapacity),
                 threadFactory,
-                new ThreadPoolExecutor.CallerRunsPolicy()
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @Bean("workflowExecutorPool")
+    public ExecutorService workflowExecutorPool(MonitoredThreadPoolExecutor workflowExecutorThreadPool) {
+        return new DelegatingSecurityContextExecutorService(workflowExecutorThreadPool);
+    }
+
+    /**
+     * Scheduler for every {@code @Scheduled} job without one of its own,
+     * configured by the usual {@code spring.task.scheduling.*} properties.
+     * Declared because another scheduler below would otherwise replace
+     * Boot's default.
+     */
+    @Bean("taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Start admission on its own thread, so a long archive or purge pass
+     * never holds it up and it never holds up the other jobs.
+     */
+    @Bean("workflowAdmissionScheduler")
+    public ThreadPoolTaskScheduler workflowAdmissionScheduler() {
+
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("wf-admit-");
+        return scheduler;
+    }
+
+    /**
+     * Renews the idempotency claims of running requests; each renewal is
+     * one Redis round trip.
+     */
+    @Bean("idempotencyLeaseScheduler")
+    public ThreadPoolTaskScheduler idempotencyLeaseScheduler() {
+
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("wf-idem-");
+        return scheduler;
+    }
+
+    /**
+     * Background housekeeping (async deletes). Kept apart from the task pool
+     * so bulk deletes never compete with workflow execution for threads.
+     */
+    @Bean("workflowMaintenancePool")
+    public ExecutorService workflowMaintenancePool() {
+
+        return new ThreadPoolExecutor(
+                maintenancePoolSize,
+                maintenancePoolSize,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maintenanceQueueCapacity),
+                new CustomizableThreadFactory("wf-maint-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Senders for progress streams. Each subscriber has its own bounded
+     * queue and at most one drain task here at a time, so sends to one
+     * subscriber stay ordered, and the queue never holds more tasks
+     * than there are subscribers. A slow client ties up one thread, not
+     * the fan-out.
+     */
+    @Bean("workflowStreamPool")
+    public ExecutorService workflowStreamPool() {
+
+        return new ThreadPoolExecutor(
+                streamThreads,
+                streamThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("wf-stream-")
+        );
+    }
+
+    /**
+     * BCrypt for login and register, off the servlet threads. Small queue
+     * and no caller-runs: when it is full the request is rejected at once
+     * (503), so an auth spike cannot take Tomcat threads from the
+     * workflow API.
+     */
+    @Bean("passwordHashingPool")
+    public ExecutorService passwordHashingPool() {
+
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(
+                hashingThreads,
+                hashingThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hashingQueueCapacity),
+                new CustomizableThreadFactory("wf-hash-"),
+                new ThreadPoolExecutor.AbortPolicy()
         );
 
         return new DelegatingSecurityContextExecutorService(threadPool);
@@ -0,0 +1,33 @@
+package com.arsh.workflow.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Gzip for JSON responses above a size threshold, negotiated through
+ * {@code Accept-Encoding}. Only {@code application/json} is listed, so
+ * server-sent event streams are never buffered by the compressor.
+ */
+@Configuration
+public class HttpCompressionConfig {
+
+    @Bean
+    public WebServerFactoryCustomizer<ConfigurableServletWebServerFactory> jsonCompression(
+            @Value("${workflow.http.compression.enabled:true}") boolean enabled,
+            @Value("${workflow.http.compression.min-response-size:2048}") long minResponseSize
+    ) {
+        return factory -> {
+            Compression compression = new Compression();
+            compression.setEnabled(enabled);
+            compression.setMimeTypes(new String[]{MediaType.APPLICATION_JSON_VALUE});
+            compression.setMinResponseSize(DataSize.ofBytes(minResponseSize));
+            factory.setCompression(compression);
+        };
+    }
+}
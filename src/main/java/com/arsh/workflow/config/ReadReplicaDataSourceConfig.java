@@ -0,0 +1,103 @@
+package com.arsh.workflow.config;
+
+import com.arsh.workflow.datasource.ReadWriteRoutingDataSource;
+import com.arsh.workflow.datasource.ReadYourWritesTracker;
+import com.arsh.workflow.datasource.ReplicaLagMonitor;
+import com.arsh.workflow.datasource.ReplicaSet;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Only active when replica URLs are configured; otherwise Boot's single
+ * auto-configured datasource is used unchanged.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "workflow.datasource.replica", name = "urls")
+public class ReadReplicaDataSourceConfig {
+
+    @Value("${workflow.datasource.replica.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${workflow.datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${workflow.datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${workflow.datasource.replica.pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${workflow.datasource.replica.max-staleness-ms:2000}")
+    private long maxStalenessMs;
+
+    @Value("${workflow.datasource.replica.lag-query:SHOW REPLICA STATUS}")
+    private String lagQuery;
+
+    @Value("${workflow.datasource.replica.lag-column:Seconds_Behind_Source}")
+    private String lagColumn;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    public ReplicaSet replicaSet() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            replica.setPoolName("replica-" + i);
+
+            replicas.put("replica-" + i, replica);
+        }
+
+        return new ReplicaSet(replicas, Duration.ofMillis(maxStalenessMs));
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaSet replicaSet) {
+        return new ReplicaLagMonitor(replicaSet, lagQuery, lagColumn);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaSet replicaSet) {
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                replicaSet,
+                new ReadYourWritesTracker(Duration.ofMillis(maxStalenessMs), 100_000)
+        );
+
+        Map<Object, Object> targets = new HashMap<>(replicaSet.dataSources());
+        targets.put(ReadWriteRoutingDataSource.PRIMARY, primaryDataSource);
+
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
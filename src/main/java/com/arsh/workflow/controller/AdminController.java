@@ -0,0 +1,24 @@
+package com.arsh.workflow.controller;
+
+import com.arsh.workflow.security.TokenRevocationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final TokenRevocationService tokenRevocationService;
+
+    // Also needed after a role change: the old role travels in the token
+    @PostMapping("/users/{userId}/revoke-tokens")
+    public ResponseEntity<Void> revokeTokens(@PathVariable Long userId) {
+        tokenRevocationService.revokeAll(userId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -4,12 +4,15 @@ import com.arsh.workflow.dto.response.AuthResponseDto;
 import com.arsh.workflow.dto.request.LoginRequestDto;
 import com.arsh.workflow.dto.request.RegisterRequestDto;
 import com.arsh.workflow.service.impl.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -18,12 +21,12 @@ public class AuthController {
     private final AuthService authService;
 
     @PostMapping("/register")
-    public AuthResponseDto register(@RequestBody RegisterRequestDto req) {
-        return authService.register(req);
+    public CompletableFuture<AuthResponseDto> register(@RequestBody RegisterRequestDto req, HttpServletRequest request) {
+        return authService.register(req, request.getRemoteAddr());
     }
 
     @PostMapping("/login")
-    public AuthResponseDto login(@RequestBody LoginRequestDto req) {
-        return authService.login(req);
+    public CompletableFuture<AuthResponseDto> login(@RequestBody LoginRequestDto req, HttpServletRequest request) {
+        return authService.login(req, request.getRemoteAddr());
     }
 }
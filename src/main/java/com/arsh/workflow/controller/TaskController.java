@@ -1,9 +1,15 @@
 package com.arsh.workflow.controller;
 
+import com.arsh.workflow.dto.request.BulkTaskCommandRequest;
+import com.arsh.workflow.dto.response.BulkTaskCommandResponse;
 import com.arsh.workflow.dto.response.TaskResponse;
 import com.arsh.workflow.enums.TaskStatus;
 import com.arsh.workflow.service.TaskService;
+import com.arsh.workflow.util.ETags;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -24,7 +30,28 @@ public class TaskController {
     }
 
     @GetMapping("/{taskId}")
-    public TaskResponse getTask(@PathVariable Long taskId) {
-        return taskService.getTask(taskId);
+    public ResponseEntity<TaskResponse> getTask(@PathVariable Long taskId,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String current = taskService.currentETag(taskId);
+            if (ETags.matches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
+
+        TaskResponse response = taskService.getTask(taskId);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (response.getEtagVersion() != null) {
+            ok.eTag(ETags.task(taskId, response.getWorkflowId(), response.getEtagVersion()));
+        }
+        return ok.body(response);
+    }
+
+    /**
+     * Mixed status/assign commands in one transaction, with one result per command.
+     */
+    @PostMapping("/bulk")
+    public BulkTaskCommandResponse bulk(@RequestBody BulkTaskCommandRequest request) {
+        return taskService.executeBulk(request.getCommands());
     }
 }
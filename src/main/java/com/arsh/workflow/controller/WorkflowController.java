@@ -1,39 +1,92 @@
 package com.arsh.workflow.controller;
 
+import com.arsh.workflow.dto.request.BulkWorkflowRequest;
 import com.arsh.workflow.dto.request.CreateTaskRequest;
 import com.arsh.workflow.dto.request.CreateWorkflowRequest;
+import com.arsh.workflow.dto.response.BulkWorkflowResponse;
 import com.arsh.workflow.dto.response.PaginatedResponse;
 import com.arsh.workflow.dto.response.TaskResponse;
+import com.arsh.workflow.dto.response.WorkflowAnalysisResponse;
+import com.arsh.workflow.dto.response.WorkflowProgressResponse;
 import com.arsh.workflow.dto.response.WorkflowResponse;
 import com.arsh.workflow.enums.TaskStatus;
 import com.arsh.workflow.enums.WorkflowStatus;
-import com.arsh.workflow.service.WorkflowExecutorService;
+import com.arsh.workflow.enums.WorkflowView;
+import com.arsh.workflow.service.WorkflowAnalysisService;
+import com.arsh.workflow.service.WorkflowBulkService;
 import com.arsh.workflow.service.WorkflowService;
+import com.arsh.workflow.util.ETags;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+
 @RestController
 @RequestMapping("/api/workflow")
 @RequiredArgsConstructor
 public class WorkflowController {
 
     private final WorkflowService workflowService;
-    private final WorkflowExecutorService workflowExecutorService;
+    private final WorkflowAnalysisService workflowAnalysisService;
+    private final WorkflowBulkService workflowBulkService;
 
     @PostMapping("/create")
     public WorkflowResponse createWorkflow(@RequestBody CreateWorkflowRequest req) {
         return workflowService.createWorkflow(req);
     }
 
+    /**
+     * Accepted when the workflows were queued for start, Created otherwise.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkWorkflowResponse> createWorkflows(@RequestBody BulkWorkflowRequest req) {
+        BulkWorkflowResponse response = workflowBulkService.createWorkflows(req);
+        return ResponseEntity.status(response.isStartQueued() ? HttpStatus.ACCEPTED : HttpStatus.CREATED)
+                .body(response);
+    }
+
     @GetMapping("/{workflowId}")
-    public WorkflowResponse getWorkflow(@PathVariable Long workflowId) {
-        return workflowService.getWorkflow(workflowId);
+    public ResponseEntity<WorkflowResponse> getWorkflow(@PathVariable Long workflowId,
+                                                        @RequestParam(defaultValue = "full") String view,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        WorkflowView shape = WorkflowView.fromParam(view);
+
+        if (ifNoneMatch != null) {
+            String current = workflowService.currentETag(workflowId, shape);
+            if (ETags.matches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
+
+        WorkflowResponse response = workflowService.getWorkflow(workflowId, shape);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (response.getEtagVersion() != null) {
+            ok.eTag(ETags.workflow(workflowId, response.getEtagVersion(), shape));
+        }
+        return ok.body(response);
+    }
+
+    @GetMapping("/{workflowId}/progress")
+    public WorkflowProgressResponse getProgress(@PathVariable Long workflowId) {
+        return workflowService.getProgress(workflowId);
+    }
+
+    @GetMapping("/{workflowId}/analysis")
+    public WorkflowAnalysisResponse getAnalysis(@PathVariable Long workflowId) {
+        return workflowAnalysisService.analyze(workflowId);
     }
 
     @DeleteMapping("/delete/{workflowId}")
-    public WorkflowResponse deleteWorkflow(@PathVariable Long workflowId) {
-        return workflowService.deleteWorkflow(workflowId);
+    public ResponseEntity<WorkflowResponse> deleteWorkflow(@PathVariable Long workflowId,
+                                                           @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            return ResponseEntity.accepted().body(workflowService.deleteWorkflowAsync(workflowId));
+        }
+        return ResponseEntity.ok(workflowService.deleteWorkflow(workflowId));
     }
 
     @PostMapping("/addTask/{workflowId}")
@@ -41,10 +94,12 @@ public class WorkflowController {
         return workflowService.addTask(workflowId, req);
     }
 
+    // 202: the start is queued; poll the progress link for admission
     @PostMapping("/start/{workflowId}")
-    public WorkflowResponse startWorkflow(@PathVariable Long workflowId) {
-        WorkflowResponse res = workflowService.startWorkflow(workflowId);
-        workflowExecutorService.executeWorkflow(workflowId);
-        return res;
+    public ResponseEntity<WorkflowResponse> startWorkflow(@PathVariable Long workflowId) {
+        WorkflowResponse response = workflowService.startWorkflow(workflowId);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/workflow/" + workflowId + "/progress"))
+                .body(response);
     }
 }
@@ -1,11 +1,16 @@
 package com.arsh.workflow.controller;
 
 import com.arsh.workflow.dto.request.BatchTaskRequest;
+import com.arsh.workflow.dto.request.DagAppendRequest;
+import com.arsh.workflow.dto.response.DagBatchResult;
+import com.arsh.workflow.dto.response.DagStreamResult;
 import com.arsh.workflow.dto.response.TaskResponse;
 import com.arsh.workflow.service.WorkflowDagService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -20,10 +25,38 @@ public class WorkflowDagController {
 
     @PostMapping("/{workflowId}/tasks/batch")
     public ResponseEntity<List<TaskResponse>> createDagBatch(@PathVariable Long workflowId,
-                                                             @RequestBody List<BatchTaskRequest> batch)
+                                                             @RequestBody List<BatchTaskRequest> batch,
+                                                             @RequestParam(defaultValue = "false") boolean reduce)
     {
 
-        List<TaskResponse> response = workflowDagService.createBatchDag(workflowId, batch);
+        DagBatchResult result = workflowDagService.createBatchDag(workflowId, batch, reduce);
+        return ResponseEntity.ok()
+                .header("X-Dag-Edges-Removed", String.valueOf(result.getRemovedEdges()))
+                .body(result.getTasks());
+    }
+
+    @PostMapping("/{workflowId}/tasks/append")
+    public ResponseEntity<List<TaskResponse>> appendToDag(@PathVariable Long workflowId,
+                                                          @RequestBody DagAppendRequest request)
+    {
+
+        List<TaskResponse> response = workflowDagService.appendToDag(workflowId, request);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Large DAG upload: NDJSON (one task per line) or a JSON array,
+     * read straight off the request body. Parents must precede children.
+     */
+    @PostMapping(
+            value = "/{workflowId}/tasks/stream",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE}
+    )
+    public ResponseEntity<DagStreamResult> streamDag(@PathVariable Long workflowId,
+                                                     InputStream body)
+    {
+
+        DagStreamResult response = workflowDagService.streamDag(workflowId, body);
         return ResponseEntity.ok(response);
     }
 }
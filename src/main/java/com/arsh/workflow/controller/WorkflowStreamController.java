@@ -0,0 +1,30 @@
+package com.arsh.workflow.controller;
+
+import com.arsh.workflow.service.WorkflowStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Push alternative to polling GET /api/workflow/{id}. Clients reconnect
+ * with Last-Event-ID; a "reset" event means reload via /progress.
+ */
+@RestController
+@RequestMapping("/api/workflow")
+@RequiredArgsConstructor
+public class WorkflowStreamController {
+
+    private final WorkflowStreamService workflowStreamService;
+
+    @GetMapping(value = "/{workflowId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter workflowEvents(@PathVariable Long workflowId,
+                                     @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return workflowStreamService.subscribeWorkflow(workflowId, lastEventId);
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter myEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return workflowStreamService.subscribeUser(lastEventId);
+    }
+}
@@ -0,0 +1,34 @@
+package com.arsh.workflow.controller;
+
+import com.arsh.workflow.dto.request.CreateWorkflowRequest;
+import com.arsh.workflow.dto.response.WorkflowTemplateResponse;
+import com.arsh.workflow.service.WorkflowTemplateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+/**
+ * Runs of a published template are created through
+ * {@code POST /api/workflow/bulk} with its {@code templateId}.
+ */
+@RestController
+@RequestMapping("/api/workflow/templates")
+@RequiredArgsConstructor
+public class WorkflowTemplateController {
+
+    private final WorkflowTemplateService workflowTemplateService;
+
+    @PostMapping
+    public ResponseEntity<WorkflowTemplateResponse> publish(@RequestBody CreateWorkflowRequest req) {
+        WorkflowTemplateResponse response = workflowTemplateService.publish(req);
+        return ResponseEntity.created(URI.create("/api/workflow/templates/" + response.getId()))
+                .body(response);
+    }
+
+    @GetMapping("/{templateId}")
+    public WorkflowTemplateResponse getTemplate(@PathVariable Long templateId) {
+        return workflowTemplateService.getTemplate(templateId);
+    }
+}
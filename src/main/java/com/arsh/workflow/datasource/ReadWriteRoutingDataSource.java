@@ -0,0 +1,60 @@
+package com.arsh.workflow.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the
+ * primary.
+ * <p>
+ * Must be wrapped in a {@code LazyConnectionDataSourceProxy}: the JPA
+ * transaction manager marks the transaction read-only only after it has
+ * asked for a connection, so the physical connection has to be fetched
+ * lazily on the first statement.
+ * <p>
+ * A read-only transaction still goes to the primary when the caller wrote
+ * within the staleness bound (read-your-writes) or when no replica is
+ * fresh enough.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaSet replicas;
+    private final ReadYourWritesTracker writes;
+
+    public ReadWriteRoutingDataSource(ReplicaSet replicas, ReadYourWritesTracker writes) {
+        this.replicas = replicas;
+        this.writes = writes;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+
+        String user = currentUser();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null) {
+                writes.recordWrite(user);
+            }
+            return PRIMARY;
+        }
+
+        if (user != null && writes.wroteRecently(user)) {
+            return PRIMARY;
+        }
+
+        return replicas.pick().orElse(PRIMARY);
+    }
+
+    private String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null || !auth.isAuthenticated() ? null : auth.getName();
+    }
+}
@@ -0,0 +1,32 @@
+package com.arsh.workflow.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Remembers which users wrote within the replica staleness bound.
+ * Their reads stay on the primary until a replica is guaranteed to have
+ * caught up with the write. Entries expire on their own after the bound.
+ */
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Instant> lastWrites;
+
+    public ReadYourWritesTracker(Duration window, long maximumUsers) {
+        this.lastWrites = Caffeine.newBuilder()
+                .maximumSize(maximumUsers)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public void recordWrite(String user) {
+        lastWrites.put(user, Instant.now());
+    }
+
+    public boolean wroteRecently(String user) {
+        return lastWrites.getIfPresent(user) != null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.arsh.workflow.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Periodically measures replication lag on every replica.
+ * The probe query must return the lag in seconds in its first row; the
+ * default reads {@code Seconds_Behind_Source} from {@code SHOW REPLICA STATUS}.
+ * A replica that cannot be probed, or reports NULL (replication stopped),
+ * is taken out of rotation until the next successful probe.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final ReplicaSet replicas;
+    private final String lagQuery;
+    private final String lagColumn;
+
+    public ReplicaLagMonitor(ReplicaSet replicas, String lagQuery, String lagColumn) {
+        this.replicas = replicas;
+        this.lagQuery = lagQuery;
+        this.lagColumn = lagColumn;
+    }
+
+    @Scheduled(fixedDelayString = "${workflow.datasource.replica.lag-probe-interval-ms:1000}")
+    public void probe() {
+        replicas.dataSources().forEach(this::probe);
+    }
+
+    private void probe(String key, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+
+            if (rs.next()) {
+                long seconds = rs.getLong(lagColumn);
+                if (!rs.wasNull()) {
+                    replicas.updateLag(key, Duration.ofSeconds(seconds));
+                    return;
+                }
+            }
+
+            replicas.markUnavailable(key);
+            log.warn("Replica {} reports no replication lag, removed from rotation", key);
+
+        } catch (Exception e) {
+            replicas.markUnavailable(key);
+            log.warn("Replica {} lag probe failed: {}", key, e.getMessage());
+        }
+    }
+}
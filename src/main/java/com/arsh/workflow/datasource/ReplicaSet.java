@@ -0,0 +1,71 @@
+package com.arsh.workflow.datasource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Round-robin selection over the replicas whose last measured lag is
+ * within the staleness bound. A replica with unknown lag is skipped.
+ */
+public class ReplicaSet implements Closeable {
+
+    private final Map<String, DataSource> dataSources;
+    private final List<String> keys;
+    private final Duration maxStaleness;
+    private final Map<String, Duration> lag = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaSet(Map<String, DataSource> dataSources, Duration maxStaleness) {
+        this.dataSources = Map.copyOf(dataSources);
+        this.keys = List.copyOf(dataSources.keySet());
+        this.maxStaleness = maxStaleness;
+    }
+
+    public Map<String, DataSource> dataSources() {
+        return dataSources;
+    }
+
+    public Duration maxStaleness() {
+        return maxStaleness;
+    }
+
+    public void updateLag(String key, Duration measured) {
+        lag.put(key, measured);
+    }
+
+    public void markUnavailable(String key) {
+        lag.remove(key);
+    }
+
+    public Optional<String> pick() {
+        int size = keys.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+
+        for (int i = 0; i < size; i++) {
+            String key = keys.get((start + i) % size);
+            Duration current = lag.get(key);
+
+            if (current != null && current.compareTo(maxStaleness) <= 0) {
+                return Optional.of(key);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : dataSources.values()) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.arsh.workflow.dto.request;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkTaskCommandRequest {
+
+    // Applied in order; several commands may target the same task
+    private List<TaskCommandRequest> commands;
+}
@@ -0,0 +1,32 @@
+package com.arsh.workflow.dto.request;
+
+import jakarta.validation.Valid;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exactly one of: explicit {@code workflows}; an inline {@code template};
+ * or the id of a published template. A template is instantiated once per
+ * entry of {@code parameters}; {@code ${name}} placeholders in its name,
+ * titles and descriptions are filled per entry.
+ */
+@Getter
+@Setter
+public class BulkWorkflowRequest {
+
+    @Valid
+    private List<CreateWorkflowRequest> workflows;
+
+    @Valid
+    private CreateWorkflowRequest template;
+
+    private Long templateId;
+
+    private List<Map<String, String>> parameters;
+
+    // Queue every workflow for start in the same transaction
+    private boolean start = true;
+}
@@ -0,0 +1,18 @@
+package com.arsh.workflow.dto.request;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class DagAppendRequest {
+
+    // New tasks; dependsOn may name tasks of earlier appends
+    private List<BatchTaskRequest> tasks = new ArrayList<>();
+
+    // New edges, possibly between existing tasks
+    private List<DependencyRequest> dependencies = new ArrayList<>();
+}
@@ -0,0 +1,20 @@
+package com.arsh.workflow.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Extra edge between tasks that already exist (or are appended in the
+ * same request): {@code clientId} depends on {@code dependsOn}.
+ */
+@Getter
+@Setter
+public class DependencyRequest {
+
+    @NotBlank
+    private String clientId;
+
+    @NotBlank
+    private String dependsOn;
+}
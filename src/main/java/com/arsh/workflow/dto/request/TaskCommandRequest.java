@@ -0,0 +1,21 @@
+package com.arsh.workflow.dto.request;
+
+import com.arsh.workflow.enums.TaskCommandType;
+import com.arsh.workflow.enums.TaskStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class TaskCommandRequest {
+
+    private Long taskId;
+
+    private TaskCommandType type;
+
+    // STATUS only
+    private TaskStatus status;
+
+    // ASSIGN only
+    private Long userId;
+}
@@ -0,0 +1,17 @@
+package com.arsh.workflow.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BulkTaskCommandResponse {
+
+    private final int applied;
+
+    private final int rejected;
+
+    private final List<TaskCommandResult> results;
+}
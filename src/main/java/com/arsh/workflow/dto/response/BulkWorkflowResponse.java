@@ -0,0 +1,20 @@
+package com.arsh.workflow.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BulkWorkflowResponse {
+
+    // In request (or parameter set) order
+    private final List<Long> workflowIds;
+
+    private final long tasksCreated;
+
+    private final long dependenciesCreated;
+
+    private final boolean startQueued;
+}
@@ -0,0 +1,16 @@
+package com.arsh.workflow.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class DagBatchResult {
+
+    private final List<TaskResponse> tasks;
+
+    // Implied dependencies dropped by transitive reduction (0 when disabled)
+    private final int removedEdges;
+}
@@ -0,0 +1,15 @@
+package com.arsh.workflow.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class DagStreamResult {
+
+    private final Long workflowId;
+
+    private final long tasksCreated;
+
+    private final long dependenciesCreated;
+}
@@ -0,0 +1,26 @@
+package com.arsh.workflow.dto.response;
+
+import com.arsh.workflow.enums.TaskCommandOutcome;
+import com.arsh.workflow.enums.TaskCommandType;
+import com.arsh.workflow.enums.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TaskCommandResult {
+
+    // Position of the command in the request
+    private final int index;
+
+    private final Long taskId;
+
+    private final TaskCommandType type;
+
+    private final TaskCommandOutcome outcome;
+
+    // Task status after the command (null when the task was not found)
+    private final TaskStatus status;
+
+    private final String message;
+}
@@ -1,6 +1,7 @@
 package com.arsh.workflow.dto.response;
 
 import com.arsh.workflow.enums.TaskStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -11,6 +12,7 @@ import lombok.Setter;
 public class TaskResponse {
 
     private Long id;
+    private String clientId;
     private String title;
     private String description;
     private TaskStatus status;
@@ -19,4 +21,8 @@ public class TaskResponse {
     private String assignedToName;
 
     private Long workflowId;
+
+    // Workflow version read before this snapshot was loaded; backs the ETag
+    @JsonIgnore
+    private Long etagVersion;
 }
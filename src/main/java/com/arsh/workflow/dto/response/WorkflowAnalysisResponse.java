@@ -0,0 +1,36 @@
+package com.arsh.workflow.dto.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.SortedMap;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class WorkflowAnalysisResponse {
+
+    private Long workflowId;
+    private long dagVersion;
+
+    private int taskCount;
+    private int dependencyCount;
+    private int rootCount;
+    private int leafCount;
+
+    // Number of topological levels (= critical path length in tasks)
+    private int depth;
+
+    // Largest level: the pool size at which no READY task has to wait
+    private int maxWidth;
+    private int widestLevel;
+
+    private int criticalPathLength;
+    private List<Long> criticalPath;
+
+    // degree → number of tasks with that degree
+    private SortedMap<Integer, Integer> inDegreeHistogram;
+    private SortedMap<Integer, Integer> outDegreeHistogram;
+}
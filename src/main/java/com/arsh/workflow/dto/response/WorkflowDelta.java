@@ -0,0 +1,27 @@
+package com.arsh.workflow.dto.response;
+
+import com.arsh.workflow.enums.EventType;
+import com.arsh.workflow.enums.WorkflowStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * One server-sent progress update, derived from a workflow event.
+ */
+@Getter
+@AllArgsConstructor
+public class WorkflowDelta {
+
+    private final Long workflowId;
+
+    // Null for workflow-level events
+    private final Long taskId;
+
+    private final EventType type;
+
+    private final WorkflowStatus status;
+
+    private final Instant occurredAt;
+}
@@ -0,0 +1,27 @@
+package com.arsh.workflow.dto.response;
+
+import com.arsh.workflow.enums.WorkflowStatus;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class WorkflowProgressResponse {
+
+    private Long workflowId;
+    private WorkflowStatus status;
+
+    private int totalTasks;
+    private int pendingTasks;
+    private int readyTasks;
+    private int runningTasks;
+    private int completedTasks;
+    private int failedTasks;
+
+    // Set while a requested start waits for admission
+    private Instant startQueuedAt;
+}
@@ -1,6 +1,8 @@
 package com.arsh.workflow.dto.response;
 
 import com.arsh.workflow.enums.WorkflowStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -23,5 +25,15 @@ public class WorkflowResponse {
     private Instant updatedAt;
     private String updatedBy;
 
+    // Null (and omitted) in the summary and ids views
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<TaskResponse> tasks = new ArrayList<>();
+
+    // Ids view only
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Long> taskIds;
+
+    // Workflow version read before this snapshot was loaded; backs the ETag
+    @JsonIgnore
+    private Long etagVersion;
 }
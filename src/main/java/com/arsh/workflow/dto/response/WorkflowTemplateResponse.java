@@ -0,0 +1,28 @@
+package com.arsh.workflow.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class WorkflowTemplateResponse {
+
+    private final Long id;
+
+    private final String name;
+
+    // Publishing a name again creates the next version
+    private final int version;
+
+    private final int taskCount;
+
+    private final int dependencyCount;
+
+    private final int rootCount;
+
+    private final String createdBy;
+
+    private final Instant createdAt;
+}
@@ -0,0 +1,8 @@
+package com.arsh.workflow.enums;
+
+public enum TaskCommandOutcome {
+    APPLIED,
+    UNCHANGED,
+    NOT_FOUND,
+    INVALID
+}
@@ -0,0 +1,6 @@
+package com.arsh.workflow.enums;
+
+public enum TaskCommandType {
+    STATUS,
+    ASSIGN
+}
@@ -1,9 +1,38 @@
 package com.arsh.workflow.enums;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum TaskStatus {
     PENDING,
     READY,
     IN_PROGRESS,
     COMPLETED,
-    FAILED
+    FAILED;
+
+    // Allowed transitions: from → permitted targets
+    private static final Map<TaskStatus, Set<TaskStatus>> TRANSITIONS = new EnumMap<>(TaskStatus.class);
+
+    static {
+        TRANSITIONS.put(PENDING, EnumSet.of(READY));
+        TRANSITIONS.put(READY, EnumSet.of(IN_PROGRESS));
+        TRANSITIONS.put(IN_PROGRESS, EnumSet.of(COMPLETED, FAILED));
+        TRANSITIONS.put(COMPLETED, EnumSet.noneOf(TaskStatus.class));
+        TRANSITIONS.put(FAILED, EnumSet.noneOf(TaskStatus.class));
+    }
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED;
+    }
+
+    public boolean canTransitionTo(TaskStatus next) {
+        return TRANSITIONS.get(this).contains(next);
+    }
+
+    public Set<TaskStatus> allowedTransitions() {
+        return Collections.unmodifiableSet(TRANSITIONS.get(this));
+    }
 }
@@ -5,5 +5,10 @@ public enum WorkflowStatus {
     READY,
     RUNNING,
     COMPLETED,
-    FAILED
+    FAILED,
+    DELETING;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED;
+    }
 }
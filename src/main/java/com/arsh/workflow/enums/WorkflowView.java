@@ -0,0 +1,30 @@
+package com.arsh.workflow.enums;
+
+import com.arsh.workflow.exception.IllegalWorkflowOperationException;
+
+import java.util.Locale;
+
+/**
+ * Shape of a workflow read. Each view is loaded by its own query, so
+ * columns and joins a view does not return are never fetched.
+ */
+public enum WorkflowView {
+
+    // Workflow columns only
+    SUMMARY,
+
+    // Workflow columns plus task ids
+    IDS,
+
+    // Workflow columns plus every task with its assignee
+    FULL;
+
+    public static WorkflowView fromParam(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalWorkflowOperationException(
+                    "Unknown view '" + value + "' (expected summary, ids or full)");
+        }
+    }
+}
@@ -33,6 +33,29 @@ public final class WorkflowEventFactory {
                 .build();
     }
 
+    public static WorkflowEvent fromWorkflowStatusChange(
+            Long workflowId,
+            WorkflowStatus to
+    ) {
+
+        EventType type = switch (to) {
+            case COMPLETED -> EventType.WORKFLOW_COMPLETED;
+            case FAILED -> EventType.WORKFLOW_FAILED;
+            default -> throw new IllegalArgumentException(
+                    "No event mapping for workflow status " + to);
+        };
+
+        return WorkflowEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(type)
+                .workflowId(workflowId)
+                .status(to)
+                .source("WORKFLOW_COORDINATOR")
+                .occurredAt(Instant.now())
+                .version(VERSION)
+                .build();
+    }
+
     private static EventType resolveEventType(TaskStatus from, TaskStatus to) {
 
         if (from == TaskStatus.READY && to == TaskStatus.IN_PROGRESS) {
@@ -44,6 +44,9 @@ public class WorkflowEventConsumer {
             case TASK_FAILED ->
                     workflowCoordinator.onTaskFailed(event.getTaskId());
 
+            case WORKFLOW_STARTED, WORKFLOW_COMPLETED, WORKFLOW_FAILED ->
+                    log.info("Workflow {} {}", event.getWorkflowId(), event.getStatus());
+
             default ->
                     log.warn("Ignoring event type {}", event.getEventType());
         }
@@ -5,6 +5,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 public class WorkflowEventProducer {
@@ -15,4 +17,14 @@ public class WorkflowEventProducer {
     public void publish(Long workflowId, WorkflowEvent event) {
         kafkaTemplate.send(TOPIC, workflowId, event);
     }
+
+    /**
+     * Sends back to back without waiting on acks, so the producer packs
+     * them into as few record batches as partitions allow.
+     */
+    public void publishAll(List<WorkflowEvent> events) {
+        for (WorkflowEvent event : events) {
+            kafkaTemplate.send(TOPIC, event.getWorkflowId(), event);
+        }
+    }
 }
@@ -0,0 +1,50 @@
+package com.arsh.workflow.events.stream;
+
+import com.arsh.workflow.dto.response.WorkflowDelta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Fixed-size replay log of the most recent deltas seen by this node.
+ * Sequence numbers start at 1 and never repeat within a process.
+ */
+public class DeltaRingBuffer {
+
+    // owner: the workflow's owner, resolved once so replays need no lookup
+    public record Entry(long seq, WorkflowDelta delta, String owner) {}
+
+    private final Entry[] slots;
+    private long lastSeq;
+
+    public DeltaRingBuffer(int capacity) {
+        this.slots = new Entry[capacity];
+    }
+
+    public synchronized Entry append(WorkflowDelta delta, String owner) {
+        Entry entry = new Entry(++lastSeq, delta, owner);
+        slots[(int) (entry.seq() % slots.length)] = entry;
+        return entry;
+    }
+
+    /**
+     * Entries after {@code afterSeq}, oldest first.
+     *
+     * @return empty when some of them have already been overwritten
+     */
+    public synchronized Optional<List<Entry>> since(long afterSeq) {
+
+        long oldest = Math.max(1, lastSeq - slots.length + 1);
+
+        if (afterSeq > lastSeq || afterSeq + 1 < oldest) {
+            return Optional.empty();
+        }
+
+        List<Entry> entries = new ArrayList<>((int) (lastSeq - afterSeq));
+        for (long seq = afterSeq + 1; seq <= lastSeq; seq++) {
+            entries.add(slots[(int) (seq % slots.length)]);
+        }
+        return Optional.of(entries);
+    }
+}
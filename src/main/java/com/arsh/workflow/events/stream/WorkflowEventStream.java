@@ -0,0 +1,350 @@
+package com.arsh.workflow.events.stream;
+
+import com.arsh.workflow.cache.NearCache;
+import com.arsh.workflow.dto.response.WorkflowDelta;
+import com.arsh.workflow.events.WorkflowEvent;
+import com.arsh.workflow.exception.ServiceOverloadedException;
+import com.arsh.workflow.repository.WorkflowRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent progress stream, per workflow and per user.
+ * <p>
+ * Emitters are async servlet responses, so an idle subscriber holds no
+ * thread. Publishing never blocks: a delta's owner is resolved first,
+ * then the delta is queued for each matching subscriber, and each
+ * subscriber's queue is drained by one sender at a time on the stream
+ * pool. A subscriber whose queue fills up is reset (its backlog dropped
+ * for a {@code reset} event); one that falls behind again before taking
+ * that reset is disconnected. Registration and replay take the same lock
+ * as publishing, so a replay is always followed by exactly the live
+ * deltas it has not covered.
+ * <p>
+ * Event ids are {@code <node epoch>-<seq>}. A {@code Last-Event-ID} from
+ * another node or process, or one already evicted from the replay
+ * buffer, gets a {@code reset} event: the client reloads a snapshot.
+ */
+@Component
+@Slf4j
+public class WorkflowEventStream {
+
+    private static final String RESET = "reset";
+
+    /** What is queued for a subscriber: a delta, a reset or a heartbeat. */
+    private record Frame(DeltaRingBuffer.Entry entry, boolean reset) {
+        static final Frame RESET_FRAME = new Frame(null, true);
+        static final Frame PING = new Frame(null, false);
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Long workflowId;
+        private final String user;
+        private final BlockingQueue<Frame> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean resetPending;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, Long workflowId, String user, int queueCapacity) {
+            this.emitter = emitter;
+            this.workflowId = workflowId;
+            this.user = user;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Long, Set<Subscriber>> byWorkflow = new ConcurrentHashMap<>();
+    private final Map<String, Set<Subscriber>> byUser = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    // Orders appends to the replay buffer against registrations and replays
+    private final Object fanoutLock = new Object();
+
+    private final DeltaRingBuffer replay;
+    private final ExecutorService senders;
+    private final WorkflowRepository workflowRepository;
+    private final NearCache<Long, String> workflowOwnerCache;
+    private final long timeoutMs;
+    private final int maxSubscribers;
+    private final int subscriberQueue;
+
+    public WorkflowEventStream(
+            @Qualifier("workflowStreamPool") ExecutorService senders,
+            WorkflowRepository workflowRepository,
+            NearCache<Long, String> workflowOwnerCache,
+            @Value("${workflow.stream.replay-size:10000}") int replaySize,
+            @Value("${workflow.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${workflow.stream.max-subscribers:50000}") int maxSubscribers,
+            @Value("${workflow.stream.subscriber-queue:256}") int subscriberQueue
+    ) {
+        this.senders = senders;
+        this.workflowRepository = workflowRepository;
+        this.workflowOwnerCache = workflowOwnerCache;
+        this.replay = new DeltaRingBuffer(replaySize);
+        this.timeoutMs = timeoutMs;
+        this.maxSubscribers = maxSubscribers;
+        this.subscriberQueue = subscriberQueue;
+    }
+
+    public SseEmitter subscribeWorkflow(Long workflowId, String lastEventId) {
+        return subscribe(new SseEmitter(timeoutMs), workflowId, null, lastEventId);
+    }
+
+    public SseEmitter subscribeUser(String user, String lastEventId) {
+        return subscribe(new SseEmitter(timeoutMs), null, user, lastEventId);
+    }
+
+    public void publish(WorkflowEvent event) {
+
+        WorkflowDelta delta = new WorkflowDelta(
+                event.getWorkflowId(),
+                event.getTaskId(),
+                event.getEventType(),
+                event.getStatus(),
+                event.getOccurredAt()
+        );
+
+        // Before taking the lock: a cache miss costs a query
+        String owner = ownerOf(delta.getWorkflowId());
+
+        synchronized (fanoutLock) {
+            DeltaRingBuffer.Entry entry = replay.append(delta, owner);
+            Frame frame = new Frame(entry, false);
+
+            Set<Subscriber> workflowSubs = byWorkflow.get(delta.getWorkflowId());
+            if (workflowSubs != null) {
+                workflowSubs.forEach(s -> enqueue(s, frame));
+            }
+
+            Set<Subscriber> userSubs = owner == null ? null : byUser.get(owner);
+            if (userSubs != null) {
+                userSubs.forEach(s -> enqueue(s, frame));
+            }
+        }
+    }
+
+    /**
+     * Comment frames keep proxies from closing idle streams and surface
+     * dead connections.
+     */
+    @Scheduled(fixedDelayString = "${workflow.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+
+        if (subscribers.get() == 0) {
+            return;
+        }
+
+        synchronized (fanoutLock) {
+            byWorkflow.values().forEach(set -> set.forEach(s -> enqueue(s, Frame.PING)));
+            byUser.values().forEach(set -> set.forEach(s -> enqueue(s, Frame.PING)));
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.get();
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Long workflowId, String user, String lastEventId) {
+
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            throw new ServiceOverloadedException("Too many progress subscribers on this node");
+        }
+
+        Subscriber subscriber = new Subscriber(emitter, workflowId, user, subscriberQueue);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        synchronized (fanoutLock) {
+            register(subscriber);
+            if (lastEventId != null) {
+                replayTo(subscriber, lastEventId);
+            }
+        }
+
+        return emitter;
+    }
+
+    private void replayTo(Subscriber subscriber, String lastEventId) {
+
+        Optional<List<DeltaRingBuffer.Entry>> missed = parseSeq(lastEventId).flatMap(replay::since);
+
+        if (missed.isEmpty()) {
+            enqueue(subscriber, Frame.RESET_FRAME);
+            return;
+        }
+
+        for (DeltaRingBuffer.Entry entry : missed.get()) {
+            if (matches(subscriber, entry)) {
+                enqueue(subscriber, new Frame(entry, false));
+            }
+        }
+    }
+
+    private static boolean matches(Subscriber subscriber, DeltaRingBuffer.Entry entry) {
+        if (subscriber.workflowId != null) {
+            return subscriber.workflowId.equals(entry.delta().getWorkflowId());
+        }
+        return subscriber.user.equals(entry.owner());
+    }
+
+    private Optional<Long> parseSeq(String lastEventId) {
+
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash < 0 || !epoch.equals(lastEventId.substring(0, dash))) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(Long.parseLong(lastEventId.substring(dash + 1)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private String ownerOf(Long workflowId) {
+        return workflowOwnerCache.get(
+                workflowId,
+                id -> workflowRepository.findOwnerById(id).orElse(null),
+                owner -> true
+        );
+    }
+
+    private void register(Subscriber subscriber) {
+        if (subscriber.workflowId != null) {
+            byWorkflow.computeIfAbsent(subscriber.workflowId, k -> ConcurrentHashMap.newKeySet())
+                    .add(subscriber);
+        } else {
+            byUser.computeIfAbsent(subscriber.user, k -> ConcurrentHashMap.newKeySet())
+                    .add(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+
+        subscriber.closed = true;
+
+        boolean removed = subscriber.workflowId != null
+                ? removeFrom(byWorkflow, subscriber.workflowId, subscriber)
+                : removeFrom(byUser, subscriber.user, subscriber);
+
+        if (removed) {
+            subscribers.decrementAndGet();
+        }
+    }
+
+    private static <K> boolean removeFrom(Map<K, Set<Subscriber>> index, K key, Subscriber subscriber) {
+
+        boolean[] removed = new boolean[1];
+        index.computeIfPresent(key, (k, set) -> {
+            removed[0] = set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Called under the fan-out lock, so a subscriber's queue has one
+     * producer at a time.
+     */
+    private void enqueue(Subscriber subscriber, Frame frame) {
+
+        if (subscriber.closed) {
+            return;
+        }
+
+        if (!subscriber.queue.offer(frame)) {
+            if (frame == Frame.PING) {
+                return;
+            }
+            if (subscriber.resetPending) {
+                drop(subscriber, new IOException("Progress subscriber fell behind twice"));
+                return;
+            }
+
+            // Behind: the client reloads a snapshot instead of catching up
+            subscriber.queue.clear();
+            subscriber.resetPending = true;
+            subscriber.queue.offer(Frame.RESET_FRAME);
+            log.debug("Progress subscriber fell behind, sending reset");
+        }
+
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+                drop(subscriber, e);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+
+        try {
+            Frame frame;
+            while (!subscriber.closed && (frame = subscriber.queue.poll()) != null) {
+                if (!send(subscriber, frame)) {
+                    return;
+                }
+            }
+        } finally {
+            subscriber.draining.set(false);
+        }
+
+        // A frame queued after the last poll but before the flag dropped
+        if (!subscriber.closed && !subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private boolean send(Subscriber subscriber, Frame frame) {
+        try {
+            if (frame.entry() != null) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(epoch + "-" + frame.entry().seq())
+                        .name(Objects.toString(frame.entry().delta().getType()))
+                        .data(frame.entry().delta(), MediaType.APPLICATION_JSON));
+            } else if (frame.reset()) {
+                subscriber.resetPending = false;
+                subscriber.emitter.send(SseEmitter.event().name(RESET).data(""));
+            } else {
+                subscriber.emitter.send(SseEmitter.event().comment("hb"));
+            }
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber, e);
+            return false;
+        }
+    }
+
+    private void drop(Subscriber subscriber, Exception e) {
+        log.debug("Dropping progress subscriber: {}", e.getMessage());
+        remove(subscriber);
+        subscriber.queue.clear();
+        subscriber.emitter.completeWithError(e);
+    }
+}
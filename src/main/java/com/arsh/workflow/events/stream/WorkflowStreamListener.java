@@ -0,0 +1,29 @@
+package com.arsh.workflow.events.stream;
+
+import com.arsh.workflow.events.WorkflowEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds progress streams. Each node joins with its own consumer group so
+ * every node sees every event, starting from the live tail. The group is
+ * named after {@code workflow.stream.node-id}, which must stay the same
+ * across restarts of a node: a fresh id per start would leave an orphan
+ * group behind every time.
+ */
+@Component
+@RequiredArgsConstructor
+public class WorkflowStreamListener {
+
+    private final WorkflowEventStream workflowEventStream;
+
+    @KafkaListener(
+            topics = "workflow-events",
+            groupId = "workflow-stream-${workflow.stream.node-id}",
+            properties = "auto.offset.reset=latest"
+    )
+    public void consume(WorkflowEvent event) {
+        workflowEventStream.publish(event);
+    }
+}
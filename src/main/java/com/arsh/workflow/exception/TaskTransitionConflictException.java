@@ -0,0 +1,7 @@
+package com.arsh.workflow.exception;
+
+public class TaskTransitionConflictException extends RuntimeException {
+    public TaskTransitionConflictException(String message) {
+        super(message);
+    }
+}
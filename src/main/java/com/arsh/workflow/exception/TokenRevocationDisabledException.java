@@ -0,0 +1,7 @@
+package com.arsh.workflow.exception;
+
+public class TokenRevocationDisabledException extends RuntimeException {
+    public TokenRevocationDisabledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,5 @@
+package com.arsh.workflow.exception;
+
+public class WorkflowTemplateNotFoundException extends RuntimeException {
+  public WorkflowTemplateNotFoundException(String message) {super(message);}
+}
@@ -0,0 +1,103 @@
+package com.arsh.workflow.idempotency;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Hashes the request body as the application reads it, so even a
+ * streamed upload is fingerprinted without being buffered.
+ */
+class HashingRequestWrapper extends HttpServletRequestWrapper {
+
+    private final DigestInputStream digestStream;
+    private final ServletInputStream inputStream;
+    private BufferedReader reader;
+
+    HashingRequestWrapper(HttpServletRequest request) throws IOException {
+        super(request);
+
+        ServletInputStream original = request.getInputStream();
+        this.digestStream = new DigestInputStream(original, sha256());
+        this.inputStream = new ServletInputStream() {
+            @Override
+            public int read() throws IOException {
+                return digestStream.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return digestStream.read(b, off, len);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return original.isFinished();
+            }
+
+            @Override
+            public boolean isReady() {
+                return original.isReady();
+            }
+
+            @Override
+            public void setReadListener(ReadListener listener) {
+                original.setReadListener(listener);
+            }
+        };
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        if (reader == null) {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            reader = new BufferedReader(new InputStreamReader(inputStream, charset));
+        }
+        return reader;
+    }
+
+    /**
+     * Reads whatever the application left unread and returns the hash of
+     * the whole body.
+     */
+    String finish() throws IOException {
+        digestStream.transferTo(OutputStream.nullOutputStream());
+        return HexFormat.of().formatHex(digestStream.getMessageDigest().digest());
+    }
+
+    /**
+     * Hash of a body nobody else is going to read.
+     */
+    static String hash(InputStream body) throws IOException {
+        DigestInputStream stream = new DigestInputStream(body, sha256());
+        stream.transferTo(OutputStream.nullOutputStream());
+        return HexFormat.of().formatHex(stream.getMessageDigest().digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
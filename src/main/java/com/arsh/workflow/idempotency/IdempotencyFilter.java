@@ -0,0 +1,286 @@
+package com.arsh.workflow.idempotency;
+
+import com.arsh.workflow.util.ErrorResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code Idempotency-Key} support for POSTs to the workflow and task
+ * APIs (create, start, batch uploads, ...).
+ * <p>
+ * The first request with a key claims it and runs, renewing the claim
+ * until it finishes; its response (status, body and the headers the
+ * application set) is stored. A repeat while it runs waits for that
+ * response; a later repeat gets the stored response without touching the
+ * database. Keys are scoped to the user and bound to the method, URI,
+ * query string and body first used with them. Server errors, conflicts
+ * and throttling are not stored, so those can be retried with the same
+ * key.
+ * <p>
+ * Fails open: when Redis is unreachable the request runs normally.
+ */
+@Component
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    // Transport headers, or ones a replay sets itself
+    private static final Set<String> UNSTORED_HEADERS = Set.of(
+            "content-type", "content-length", "transfer-encoding", "connection", "date", "set-cookie",
+            REPLAYED_HEADER.toLowerCase(Locale.ROOT));
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final TaskScheduler leaseScheduler;
+    private final long waitTimeoutNanos;
+
+    public IdempotencyFilter(IdempotencyStore store,
+                             ObjectMapper objectMapper,
+                             @Qualifier("idempotencyLeaseScheduler") TaskScheduler leaseScheduler,
+                             @Value("${workflow.idempotency.wait-timeout-ms:10000}") long waitTimeoutMs) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.leaseScheduler = leaseScheduler;
+        this.waitTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(waitTimeoutMs);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String header = request.getHeader(HEADER);
+
+        if (header == null || auth == null || !auth.isAuthenticated()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (header.isBlank() || header.length() > MAX_KEY_LENGTH) {
+            ErrorResponses.write(response, objectMapper, HttpStatus.BAD_REQUEST,
+                    "Invalid Idempotency-Key", "Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        String key = auth.getName() + ":" + header;
+        String fingerprint = request.getMethod() + " " + request.getRequestURI()
+                + (request.getQueryString() == null ? "" : "?" + request.getQueryString());
+        IdempotencyRecord claim = IdempotencyRecord.inFlight(UUID.randomUUID().toString(), fingerprint);
+
+        IdempotencyRecord existing;
+        try {
+            existing = awaitClaim(key, claim);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException(e);
+        } catch (Exception e) {
+            log.warn("Idempotency store unavailable, running {} unguarded: {}", fingerprint, e.getMessage());
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (existing == null) {
+            runAndStore(request, response, filterChain, key, claim);
+        } else if (!existing.fingerprint().equals(fingerprint)) {
+            ErrorResponses.write(response, objectMapper, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key reused", "Key was first used for " + existing.fingerprint());
+        } else if (existing.state() == IdempotencyRecord.State.COMPLETED) {
+            // Not going to run, so the body is ours to read
+            if (existing.bodyHash() != null
+                    && !existing.bodyHash().equals(HashingRequestWrapper.hash(request.getInputStream()))) {
+                ErrorResponses.write(response, objectMapper, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key reused", "Key was first used with a different request body");
+            } else {
+                replay(response, existing);
+            }
+        } else {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            ErrorResponses.write(response, objectMapper, HttpStatus.CONFLICT,
+                    "Request in progress", "A request with this Idempotency-Key is still running");
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return !HttpMethod.POST.matches(request.getMethod())
+                || !(path.startsWith("/api/workflow") || path.startsWith("/api/task"));
+    }
+
+    /**
+     * Claims the key, or waits while another request holds it.
+     *
+     * @return null once claimed; otherwise a completed record, one for a
+     *         different request, or the in-flight record still there at
+     *         the deadline
+     */
+    private IdempotencyRecord awaitClaim(String key, IdempotencyRecord claim) throws InterruptedException {
+
+        long deadline = System.nanoTime() + waitTimeoutNanos;
+        long backoffMs = 25;
+
+        while (true) {
+            IdempotencyRecord existing = store.claim(key, claim);
+
+            if (existing == null
+                    || existing.state() == IdempotencyRecord.State.COMPLETED
+                    || !existing.fingerprint().equals(claim.fingerprint())
+                    || System.nanoTime() >= deadline) {
+                return existing;
+            }
+
+            // Released or expired in the meantime: the next claim takes over
+            TimeUnit.MILLISECONDS.sleep(backoffMs);
+            backoffMs = Math.min(backoffMs * 2, 500);
+        }
+    }
+
+    private void runAndStore(HttpServletRequest request,
+                             HttpServletResponse response,
+                             FilterChain filterChain,
+                             String key,
+                             IdempotencyRecord claim) throws ServletException, IOException {
+
+        // Headers already there (security, CORS) are the chain's, not the application's
+        Set<String> preset = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        preset.addAll(response.getHeaderNames());
+
+        HashingRequestWrapper hashing = new HashingRequestWrapper(request);
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        Lease lease = new Lease(key, claim);
+        ScheduledFuture<?> renewal = leaseScheduler.scheduleAtFixedRate(lease, store.renewInterval());
+        boolean stored = false;
+
+        try {
+            filterChain.doFilter(hashing, wrapper);
+
+            int status = wrapper.getStatus();
+            if (isFinal(status)) {
+                renewal.cancel(false);
+                stored = store.complete(key, claim, claim.completed(
+                        status,
+                        wrapper.getContentType(),
+                        headersOf(wrapper, preset),
+                        hashing.finish(),
+                        new String(wrapper.getContentAsByteArray(), StandardCharsets.UTF_8)
+                ));
+                if (!stored) {
+                    log.warn("Idempotency claim for {} was lost while it ran, response not stored",
+                            claim.fingerprint());
+                }
+            }
+        } finally {
+            renewal.cancel(false);
+            if (!stored) {
+                releaseQuietly(key, claim);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Keeps a running request's claim alive; stops once it is lost.
+     */
+    private final class Lease implements Runnable {
+
+        private final String key;
+        private final IdempotencyRecord claim;
+        private volatile boolean lost;
+
+        private Lease(String key, IdempotencyRecord claim) {
+            this.key = key;
+            this.claim = claim;
+        }
+
+        @Override
+        public void run() {
+            if (lost) {
+                return;
+            }
+            try {
+                if (!store.renew(key, claim)) {
+                    lost = true;
+                    log.warn("Idempotency claim for {} expired before it could be renewed", claim.fingerprint());
+                }
+            } catch (Exception e) {
+                // Retried next interval; the claim lasts three of them
+                log.warn("Unable to renew idempotency claim: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static Map<String, List<String>> headersOf(HttpServletResponse response, Set<String> preset) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (!preset.contains(name) && !UNSTORED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.putIfAbsent(name, List.copyOf(response.getHeaders(name)));
+            }
+        }
+        return headers;
+    }
+
+    private static boolean isFinal(int status) {
+        return status < 500
+                && status != HttpStatus.CONFLICT.value()
+                && status != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private void releaseQuietly(String key, IdempotencyRecord claim) {
+        try {
+            store.release(key, claim);
+        } catch (Exception e) {
+            // The claim expires on its own
+            log.warn("Unable to release idempotency key: {}", e.getMessage());
+        }
+    }
+
+    private void replay(HttpServletResponse response, IdempotencyRecord stored) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.headers() != null) {
+            stored.headers().forEach((name, values) -> {
+                response.setHeader(name, values.get(0));
+                values.stream().skip(1).forEach(value -> response.addHeader(name, value));
+            });
+        }
+        if (stored.body() != null) {
+            response.getOutputStream().write(stored.body().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
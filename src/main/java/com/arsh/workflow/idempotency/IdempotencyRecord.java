@@ -0,0 +1,42 @@
+package com.arsh.workflow.idempotency;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What is stored under an idempotency key: a claim by the request that
+ * is running, then the response it produced.
+ *
+ * @param owner       random id of the claiming request, unique per claim
+ * @param fingerprint method, URI and query string the key was first used with
+ * @param headers     response headers the application set, replayed as is
+ * @param bodyHash    SHA-256 of the request body the response was produced for
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record IdempotencyRecord(
+        State state,
+        String owner,
+        String fingerprint,
+        int status,
+        String contentType,
+        Map<String, List<String>> headers,
+        String bodyHash,
+        String body
+) {
+
+    public enum State { IN_FLIGHT, COMPLETED }
+
+    static IdempotencyRecord inFlight(String owner, String fingerprint) {
+        return new IdempotencyRecord(State.IN_FLIGHT, owner, fingerprint, 0, null, null, null, null);
+    }
+
+    IdempotencyRecord completed(int status,
+                                String contentType,
+                                Map<String, List<String>> headers,
+                                String bodyHash,
+                                String body) {
+        return new IdempotencyRecord(State.COMPLETED, owner, fingerprint, status, contentType, headers, bodyHash, body);
+    }
+}
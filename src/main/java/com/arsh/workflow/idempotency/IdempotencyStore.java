@@ -0,0 +1,145 @@
+package com.arsh.workflow.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Redis side of {@link IdempotencyFilter}. A key is claimed with a
+ * short-lived in-flight record, which only its owner can renew, replace
+ * with the final response or release. The owner renews it while the
+ * request runs, so only a claim whose owner died expires, and a retry
+ * can take over.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final String KEY_PREFIX = "idempotency:";
+
+    private static final DefaultRedisScript<String> CLAIM_SCRIPT = new DefaultRedisScript<>();
+    private static final DefaultRedisScript<Long> REPLACE_SCRIPT = new DefaultRedisScript<>();
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>();
+    private static final DefaultRedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>();
+
+    static {
+        // nil when claimed, otherwise the record already there
+        CLAIM_SCRIPT.setScriptText(
+                "if redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then " +
+                        "   return false " +
+                        "end " +
+                        "return redis.call('get', KEYS[1])"
+        );
+        CLAIM_SCRIPT.setResultType(String.class);
+
+        REPLACE_SCRIPT.setScriptText(
+                "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+                        "   redis.call('set', KEYS[1], ARGV[2], 'PX', ARGV[3]) " +
+                        "   return 1 " +
+                        "end " +
+                        "return 0"
+        );
+        REPLACE_SCRIPT.setResultType(Long.class);
+
+        RELEASE_SCRIPT.setScriptText(
+                "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+                        "   return redis.call('del', KEYS[1]) " +
+                        "end " +
+                        "return 0"
+        );
+        RELEASE_SCRIPT.setResultType(Long.class);
+
+        RENEW_SCRIPT.setScriptText(
+                "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+                        "   return redis.call('pexpire', KEYS[1], ARGV[2]) " +
+                        "end " +
+                        "return 0"
+        );
+        RENEW_SCRIPT.setResultType(Long.class);
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String inFlightTtlMs;
+    private final Duration renewInterval;
+    private final String completedTtlMs;
+
+    public IdempotencyStore(StringRedisTemplate redisTemplate,
+                            ObjectMapper objectMapper,
+                            @Value("${workflow.idempotency.in-flight-ttl-ms:60000}") long inFlightTtlMs,
+                            @Value("${workflow.idempotency.ttl-hours:24}") long ttlHours) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.inFlightTtlMs = String.valueOf(inFlightTtlMs);
+        this.renewInterval = Duration.ofMillis(Math.max(1, inFlightTtlMs / 3));
+        this.completedTtlMs = String.valueOf(Duration.ofHours(ttlHours).toMillis());
+    }
+
+    /**
+     * @return null when {@code claim} now holds the key, otherwise the
+     *         record already stored under it
+     */
+    public IdempotencyRecord claim(String key, IdempotencyRecord claim) {
+        String existing = redisTemplate.execute(CLAIM_SCRIPT, List.of(KEY_PREFIX + key), write(claim), inFlightTtlMs);
+        return existing == null ? null : read(existing);
+    }
+
+    public IdempotencyRecord get(String key) {
+        String value = redisTemplate.opsForValue().get(KEY_PREFIX + key);
+        return value == null ? null : read(value);
+    }
+
+    /**
+     * @return false when {@code claim} no longer holds the key, so the
+     *         result was not stored
+     */
+    public boolean complete(String key, IdempotencyRecord claim, IdempotencyRecord result) {
+        Long replaced = redisTemplate.execute(
+                REPLACE_SCRIPT, List.of(KEY_PREFIX + key), write(claim), write(result), completedTtlMs);
+        return Long.valueOf(1).equals(replaced);
+    }
+
+    /**
+     * Extends a claim by another in-flight TTL.
+     *
+     * @return false when {@code claim} no longer holds the key
+     */
+    public boolean renew(String key, IdempotencyRecord claim) {
+        Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(KEY_PREFIX + key), write(claim), inFlightTtlMs);
+        return Long.valueOf(1).equals(renewed);
+    }
+
+    /**
+     * How often a running request renews its claim: three times per TTL,
+     * so one slow renewal does not lose it.
+     */
+    public Duration renewInterval() {
+        return renewInterval;
+    }
+
+    public void release(String key, IdempotencyRecord claim) {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + key), write(claim));
+    }
+
+    // Deterministic for a given record, which the compare-and-set scripts rely on
+    private String write(IdempotencyRecord record) {
+        try {
+            return objectMapper.writeValueAsString(record);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private IdempotencyRecord read(String value) {
+        try {
+            return objectMapper.readValue(value, IdempotencyRecord.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable idempotency record", e);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.arsh.workflow.mapper;
 import com.arsh.workflow.dto.request.CreateTaskRequest;
 import com.arsh.workflow.dto.response.TaskResponse;
 import com.arsh.workflow.model.Task;
+import com.arsh.workflow.repository.projection.TaskRowView;
 
 public class TaskMapper {
 
@@ -10,6 +11,7 @@ public class TaskMapper {
         Task task = new Task();
         task.setTitle(dto.getTitle());
         task.setDescription(dto.getDescription());
+        task.setClientId(dto.getAlias());
 
         return task;
     }
@@ -19,6 +21,7 @@ public class TaskMapper {
         TaskResponse res = new TaskResponse();
 
         res.setId(task.getId());
+        res.setClientId(task.getClientId());
         res.setTitle(task.getTitle());
         res.setDescription(task.getDescription());
         res.setStatus(task.getStatus());
@@ -41,4 +44,21 @@ public class TaskMapper {
         return res;
     }
 
+    /**
+     * From a flat row: no entity graph, assignee already joined.
+     */
+    public static TaskResponse toResponse(TaskRowView row, Long workflowId) {
+        TaskResponse res = new TaskResponse();
+
+        res.setId(row.getId());
+        res.setClientId(row.getClientId());
+        res.setTitle(row.getTitle());
+        res.setDescription(row.getDescription());
+        res.setStatus(row.getStatus());
+        res.setAssignedToId(row.getAssignedToId());
+        res.setAssignedToName(row.getAssignedToName());
+        res.setWorkflowId(workflowId);
+
+        return res;
+    }
 }
@@ -1,8 +1,15 @@
 package com.arsh.workflow.mapper;
 
 import com.arsh.workflow.dto.request.CreateWorkflowRequest;
+import com.arsh.workflow.dto.response.TaskResponse;
+import com.arsh.workflow.dto.response.WorkflowProgressResponse;
 import com.arsh.workflow.dto.response.WorkflowResponse;
+import com.arsh.workflow.enums.WorkflowView;
+import com.arsh.workflow.model.ArchivedWorkflow;
 import com.arsh.workflow.model.Workflow;
+import com.arsh.workflow.repository.projection.WorkflowProgressView;
+
+import java.util.List;
 
 public class WorkflowMapper {
     public static Workflow toEntity(CreateWorkflowRequest req) {
@@ -12,6 +19,21 @@ public class WorkflowMapper {
     }
 
     public static WorkflowResponse toResponse(Workflow workflow) {
+        WorkflowResponse res = toSummaryResponse(workflow);
+
+        res.setTasks(
+                workflow.getTasks().stream()
+                        .map(TaskMapper::toResponse)
+                        .toList()
+        );
+
+        return res;
+    }
+
+    /**
+     * Workflow columns only; does not touch the lazy task collection.
+     */
+    public static WorkflowResponse toSummaryResponse(Workflow workflow) {
         WorkflowResponse res = new WorkflowResponse();
 
         res.setId(workflow.getId());
@@ -23,11 +45,72 @@ public class WorkflowMapper {
         res.setUpdatedAt(workflow.getUpdatedAt());
         res.setUpdatedBy(workflow.getUpdatedBy());
 
-        res.setTasks(
-                workflow.getTasks().stream()
-                        .map(TaskMapper::toResponse)
-                        .toList()
-        );
+        return res;
+    }
+
+    /**
+     * Narrows a full response to {@code view}. The full response itself
+     * is returned unchanged (it may be a shared cache entry).
+     */
+    public static WorkflowResponse toView(WorkflowResponse full, WorkflowView view) {
+        if (view == WorkflowView.FULL) {
+            return full;
+        }
+
+        WorkflowResponse res = new WorkflowResponse();
+
+        res.setId(full.getId());
+        res.setName(full.getName());
+        res.setStatus(full.getStatus());
+
+        res.setCreatedAt(full.getCreatedAt());
+        res.setCreatedBy(full.getCreatedBy());
+        res.setUpdatedAt(full.getUpdatedAt());
+        res.setUpdatedBy(full.getUpdatedBy());
+
+        res.setTasks(null);
+        if (view == WorkflowView.IDS) {
+            res.setTaskIds(full.getTasks().stream()
+                    .map(TaskResponse::getId)
+                    .toList());
+        }
+
+        res.setEtagVersion(full.getEtagVersion());
+        return res;
+    }
+
+    public static WorkflowResponse toResponse(ArchivedWorkflow archived, List<TaskResponse> tasks) {
+        WorkflowResponse res = new WorkflowResponse();
+
+        res.setId(archived.getId());
+        res.setName(archived.getName());
+        res.setStatus(archived.getStatus());
+
+        res.setCreatedAt(archived.getCreatedAt());
+        res.setCreatedBy(archived.getCreatedBy());
+        res.setUpdatedAt(archived.getUpdatedAt());
+        res.setUpdatedBy(archived.getUpdatedBy());
+
+        res.setTasks(tasks);
+
+        return res;
+    }
+
+    public static WorkflowProgressResponse toProgressResponse(WorkflowProgressView view) {
+        WorkflowProgressResponse res = new WorkflowProgressResponse();
+
+        res.setWorkflowId(view.getId());
+        res.setStatus(view.getStatus());
+        res.setTotalTasks(view.getTotalTasks());
+        res.setReadyTasks(view.getReadyTasks());
+        res.setRunningTasks(view.getRunningTasks());
+        res.setCompletedTasks(view.getCompletedTasks());
+        res.setFailedTasks(view.getFailedTasks());
+        res.setPendingTasks(view.getTotalTasks()
+                - view.getReadyTasks()
+                - view.getRunningTasks()
+                - view.getCompletedTasks()
+                - view.getFailedTasks());
 
         return res;
     }
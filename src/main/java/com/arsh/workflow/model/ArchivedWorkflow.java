@@ -0,0 +1,101 @@
+package com.arsh.workflow.model;
+
+import com.arsh.workflow.enums.WorkflowStatus;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A terminal workflow moved out of the hot tables.
+ * Keeps the original workflow id and audit columns; the tasks and edges
+ * live in {@link #getDag()} (see {@code WorkflowArchiveCodec}).
+ */
+@Entity
+@Table(name = "workflow_archive")
+public class ArchivedWorkflow {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WorkflowStatus status;
+
+    private String createdBy;
+
+    private String updatedBy;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+
+    @Column(nullable = false)
+    private int taskCount;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] dag;
+
+    protected ArchivedWorkflow() {
+        // JPA only
+    }
+
+    public ArchivedWorkflow(Workflow workflow, int taskCount, byte[] dag) {
+        this.id = workflow.getId();
+        this.name = workflow.getName();
+        this.status = workflow.getStatus();
+        this.createdBy = workflow.getCreatedBy();
+        this.updatedBy = workflow.getUpdatedBy();
+        this.createdAt = workflow.getCreatedAt();
+        this.updatedAt = workflow.getUpdatedAt();
+        this.archivedAt = Instant.now();
+        this.taskCount = taskCount;
+        this.dag = dag;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public WorkflowStatus getStatus() {
+        return status;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public String getUpdatedBy() {
+        return updatedBy;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Instant getArchivedAt() {
+        return archivedAt;
+    }
+
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    public byte[] getDag() {
+        return dag;
+    }
+}
@@ -0,0 +1,30 @@
+package com.arsh.workflow.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * An accepted start waiting for admission.
+ */
+@Entity
+@Table(name = "pending_workflow_starts")
+@Getter
+public class PendingWorkflowStart {
+
+    @Id
+    @Column(name = "workflow_id")
+    private Long workflowId;
+
+    @Column(name = "requested_by", nullable = false)
+    private String requestedBy;
+
+    @Column(name = "requested_at", nullable = false)
+    private Instant requestedAt;
+
+    protected PendingWorkflowStart() {}
+}
@@ -24,6 +24,22 @@ public class Task extends BaseAuditingEntity {
     @Column(nullable = false)
     private TaskStatus status;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // Alias from the submitting client, unique per workflow
+    @Column(name = "client_id")
+    private String clientId;
+
+    // Position in a topological order of the workflow's DAG
+    @Column(name = "topo_order")
+    private Long topoOrder;
+
+    // Node of the workflow's template; such tasks have no task_dependencies rows
+    @Column(name = "template_node", insertable = false, updatable = false)
+    private Integer templateNode;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_to_user_id")
     private User assignedTo;
@@ -70,6 +86,22 @@ public class Task extends BaseAuditingEntity {
         return status;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public Long getTopoOrder() {
+        return topoOrder;
+    }
+
+    public Integer getTemplateNode() {
+        return templateNode;
+    }
+
     public User getAssignedTo() {
         return assignedTo;
     }
@@ -108,6 +140,14 @@ public class Task extends BaseAuditingEntity {
         this.workflow = workflow;
     }
 
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    public void setTopoOrder(Long topoOrder) {
+        this.topoOrder = topoOrder;
+    }
+
     // ---------- DAG helpers (USE THESE) ----------
 
     public void addDependency(Task parent) {
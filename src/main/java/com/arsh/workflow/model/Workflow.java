@@ -21,7 +21,31 @@ public class Workflow extends BaseAuditingEntity {
     @Column(nullable = false)
     private WorkflowStatus status;
 
+    // ---- Progress counters ----
+    // Written only by bulk UPDATEs in WorkflowRepository, never by entity flushes.
 
+    @Column(name = "total_tasks", insertable = false, updatable = false)
+    private int totalTasks;
+
+    @Column(name = "ready_tasks", insertable = false, updatable = false)
+    private int readyTasks;
+
+    @Column(name = "running_tasks", insertable = false, updatable = false)
+    private int runningTasks;
+
+    @Column(name = "completed_tasks", insertable = false, updatable = false)
+    private int completedTasks;
+
+    @Column(name = "failed_tasks", insertable = false, updatable = false)
+    private int failedTasks;
+
+    // Bumped by every DAG mutation; also written only by bulk UPDATEs
+    @Column(name = "dag_version", insertable = false, updatable = false)
+    private long dagVersion;
+
+    // Set when instantiated from a template, whose edges the tasks share
+    @Column(name = "template_id", insertable = false, updatable = false)
+    private Long templateId;
 
     @OneToMany(
             mappedBy = "workflow",
@@ -50,6 +74,34 @@ public class Workflow extends BaseAuditingEntity {
         return tasks;
     }
 
+    public int getTotalTasks() {
+        return totalTasks;
+    }
+
+    public int getReadyTasks() {
+        return readyTasks;
+    }
+
+    public int getRunningTasks() {
+        return runningTasks;
+    }
+
+    public int getCompletedTasks() {
+        return completedTasks;
+    }
+
+    public int getFailedTasks() {
+        return failedTasks;
+    }
+
+    public long getDagVersion() {
+        return dagVersion;
+    }
+
+    public Long getTemplateId() {
+        return templateId;
+    }
+
     public void setName(String name) {
         this.name = name;
     }
@@ -0,0 +1,49 @@
+package com.arsh.workflow.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+
+/**
+ * One published version of a template. Immutable: changing a template
+ * means publishing the next version. Nodes and edges are written and
+ * read as plain rows by WorkflowTemplateRepository / WorkflowTemplateWriter.
+ */
+@Entity
+@Table(name = "workflow_templates")
+@Getter
+public class WorkflowTemplate extends BaseAuditingEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private int version;
+
+    @Column(name = "node_count", nullable = false)
+    private int nodeCount;
+
+    @Column(name = "edge_count", nullable = false)
+    private int edgeCount;
+
+    @Column(name = "root_count", nullable = false)
+    private int rootCount;
+
+    protected WorkflowTemplate() {}
+
+    public WorkflowTemplate(String name, int version, int nodeCount, int edgeCount, int rootCount) {
+        this.name = name;
+        this.version = version;
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.rootCount = rootCount;
+    }
+}
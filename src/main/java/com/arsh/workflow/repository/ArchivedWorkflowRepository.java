@@ -0,0 +1,7 @@
+package com.arsh.workflow.repository;
+
+import com.arsh.workflow.model.ArchivedWorkflow;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ArchivedWorkflowRepository extends JpaRepository<ArchivedWorkflow, Long> {
+}
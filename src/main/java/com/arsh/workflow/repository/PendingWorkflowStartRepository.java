@@ -0,0 +1,62 @@
+package com.arsh.workflow.repository;
+
+import com.arsh.workflow.model.PendingWorkflowStart;
+import com.arsh.workflow.repository.projection.UserLoadView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PendingWorkflowStartRepository extends JpaRepository<PendingWorkflowStart, Long> {
+
+    // Plain insert: a second start of the same workflow fails on the primary key
+    @Modifying
+    @Query(value = """
+        insert into pending_workflow_starts (workflow_id, requested_by, requested_at)
+        values (:workflowId, :user, :now)
+    """, nativeQuery = true)
+    int enqueue(@Param("workflowId") Long workflowId,
+                @Param("user") String user,
+                @Param("now") Instant now);
+
+    @Query("""
+        select p.workflowId
+        from PendingWorkflowStart p
+        order by p.requestedAt, p.workflowId
+    """)
+    List<Long> findOldest(Pageable pageable);
+
+    /**
+     * Rows of the set still queued, locked until the start transaction
+     * ends. A node racing for the same rows waits, then finds them gone,
+     * so each start is claimed exactly once.
+     */
+    @Query(value = """
+        select workflow_id from pending_workflow_starts
+        where workflow_id in (:ids)
+        for update
+    """, nativeQuery = true)
+    List<Long> lockQueued(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from PendingWorkflowStart p where p.workflowId in :ids")
+    int claim(@Param("ids") Collection<Long> ids);
+
+    @Query("select p.requestedAt from PendingWorkflowStart p where p.workflowId = :workflowId")
+    Optional<Instant> findRequestedAt(@Param("workflowId") Long workflowId);
+
+    @Query("""
+        select count(w) as workflows,
+               coalesce(sum(w.totalTasks), 0) as tasks
+        from PendingWorkflowStart p
+        join Workflow w on w.id = p.workflowId
+        where p.requestedBy = :user
+    """)
+    UserLoadView findQueuedLoad(@Param("user") String user);
+}
@@ -0,0 +1,182 @@
+package com.arsh.workflow.repository;
+
+import com.arsh.workflow.dto.request.BatchTaskRequest;
+import com.arsh.workflow.enums.TaskStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.IntToLongFunction;
+
+/**
+ * JDBC batch inserts for bulk DAG ingestion.
+ * Bypasses the persistence context (and therefore auditing), so audit
+ * columns and the initial version are written explicitly. Runs on the
+ * connection of the surrounding JPA transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskBatchWriter {
+
+    private static final String INSERT_TASK = """
+            INSERT INTO tasks (created_by, updated_by, created_at, updated_at,
+                               title, description, status, workflow_id,
+                               version, client_id, topo_order, template_node)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?)
+            """;
+
+    private static final String INSERT_DEPENDENCY =
+            "INSERT INTO task_dependencies (task_id, depends_on_task_id) VALUES (?, ?)";
+
+    private static final String UPDATE_TOPO_ORDER =
+            "UPDATE tasks SET topo_order = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts PENDING tasks with consecutive orders starting at {@code firstOrder}.
+     *
+     * @return generated ids, index-aligned with {@code tasks}
+     */
+    public long[] insertTasks(Long workflowId,
+                              List<BatchTaskRequest> tasks,
+                              long firstOrder,
+                              String user,
+                              Instant now) {
+
+        return insert(tasks, i -> workflowId, i -> firstOrder + i, null, user, now);
+    }
+
+    /**
+     * Inserts PENDING tasks of several workflows in one batch: task
+     * {@code i} goes to {@code workflowIds[i]} with order {@code orders[i]}
+     * and, for template runs, node {@code templateNodes[i]}.
+     *
+     * @param templateNodes null unless the workflows are template runs
+     * @return generated ids, index-aligned with {@code tasks}
+     */
+    public long[] insertTasks(long[] workflowIds,
+                              List<BatchTaskRequest> tasks,
+                              long[] orders,
+                              int[] templateNodes,
+                              String user,
+                              Instant now) {
+
+        return insert(tasks, i -> workflowIds[i], i -> orders[i], templateNodes, user, now);
+    }
+
+    /**
+     * Inserts the first {@code count} edges {@code children[k] → parents[k]}.
+     */
+    public void insertDependencies(long[] children, long[] parents, int count) {
+
+        if (count == 0) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_DEPENDENCY, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int k) throws SQLException {
+                ps.setLong(1, children[k]);
+                ps.setLong(2, parents[k]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return count;
+            }
+        });
+    }
+
+    /**
+     * Sets the topological order of the first {@code count} tasks:
+     * {@code ids[k]} gets {@code orders[k]}.
+     */
+    public void updateTopoOrders(long[] ids, long[] orders, int count) {
+
+        if (count == 0) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE_TOPO_ORDER, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int k) throws SQLException {
+                ps.setLong(1, orders[k]);
+                ps.setLong(2, ids[k]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return count;
+            }
+        });
+    }
+
+    private long[] insert(List<BatchTaskRequest> tasks,
+                          IntToLongFunction workflowOf,
+                          IntToLongFunction orderOf,
+                          int[] templateNodes,
+                          String user,
+                          Instant now) {
+
+        return jdbcTemplate.execute((ConnectionCallback<long[]>) connection -> {
+
+            try (PreparedStatement ps =
+                         connection.prepareStatement(INSERT_TASK, Statement.RETURN_GENERATED_KEYS)) {
+
+                Timestamp timestamp = Timestamp.from(now);
+
+                for (int i = 0; i < tasks.size(); i++) {
+                    BatchTaskRequest task = tasks.get(i);
+                    ps.setString(1, user);
+                    ps.setString(2, user);
+                    ps.setTimestamp(3, timestamp);
+                    ps.setTimestamp(4, timestamp);
+                    ps.setString(5, task.getTitle());
+                    ps.setString(6, task.getDescription());
+                    ps.setString(7, TaskStatus.PENDING.name());
+                    ps.setLong(8, workflowOf.applyAsLong(i));
+                    ps.setString(9, task.getClientId());
+                    ps.setLong(10, orderOf.applyAsLong(i));
+                    if (templateNodes == null) {
+                        ps.setNull(11, Types.INTEGER);
+                    } else {
+                        ps.setInt(11, templateNodes[i]);
+                    }
+                    ps.addBatch();
+                }
+
+                ps.executeBatch();
+                return generatedIds(ps, tasks.size());
+            }
+        });
+    }
+
+    static long[] generatedIds(PreparedStatement ps, int expected) throws SQLException {
+
+        long[] ids = new long[expected];
+        int i = 0;
+
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            while (keys.next() && i < expected) {
+                ids[i++] = keys.getLong(1);
+            }
+        }
+
+        if (i != expected) {
+            throw new IllegalStateException(
+                    "Expected " + expected + " generated ids but got " + i);
+        }
+        return ids;
+    }
+}
@@ -2,13 +2,27 @@ package com.arsh.workflow.repository;
 
 import com.arsh.workflow.enums.TaskStatus;
 import com.arsh.workflow.model.Task;
+import com.arsh.workflow.model.User;
+import com.arsh.workflow.repository.projection.TaskEdgeView;
+import com.arsh.workflow.repository.projection.TaskNodeView;
+import com.arsh.workflow.repository.projection.TaskOrderView;
+import com.arsh.workflow.repository.projection.TaskRowView;
+import com.arsh.workflow.repository.projection.TaskWorkflowView;
+import com.arsh.workflow.repository.projection.WorkflowCountView;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.util.Arrays;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
     Page<Task> findByWorkflowId(Long workflowId, Pageable pageable);
@@ -18,4 +32,271 @@ public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificat
     List<Task> findByWorkflowIdAndStatusIn(Long workflowId, List<TaskStatus> pending);
 
     List<Task> findByWorkflowIdAndStatusNot(Long workflowId, TaskStatus taskStatus);
+
+    @Query("""
+        select t.id as id,
+               t.clientId as clientId,
+               t.title as title,
+               t.description as description,
+               t.status as status,
+               u.id as assignedToId,
+               u.username as assignedToName
+        from Task t
+        left join t.assignedTo u
+        where t.workflow.id = :workflowId
+        order by t.id
+    """)
+    List<TaskRowView> findRowsByWorkflowId(@Param("workflowId") Long workflowId);
+
+    @Query("""
+        select t.id as taskId, p.id as parentId
+        from Task t
+        join t.dependsOn p
+        where t.workflow.id = :workflowId
+    """)
+    List<TaskEdgeView> findEdgesByWorkflowId(@Param("workflowId") Long workflowId);
+
+    /**
+     * Compare-and-set status transition; the row count decides the winner.
+     */
+    @Modifying
+    @Query("""
+        update Task t
+        set t.status = :to,
+            t.version = t.version + 1,
+            t.updatedAt = :now
+        where t.id = :taskId
+          and t.status = :from
+    """)
+    int compareAndSetStatus(@Param("taskId") Long taskId,
+                            @Param("from") TaskStatus from,
+                            @Param("to") TaskStatus to,
+                            @Param("now") Instant now);
+
+    /**
+     * Promotes every root (no task_dependencies row) of the workflows in
+     * one statement. Template tasks never have rows, so they are left to
+     * {@link #promoteTemplateRootsToReady}.
+     */
+    @Modifying
+    @Query("""
+        update Task t
+        set t.status = com.arsh.workflow.enums.TaskStatus.READY,
+            t.version = t.version + 1,
+            t.updatedAt = :now
+        where t.workflow.id in :workflowIds
+          and t.status = com.arsh.workflow.enums.TaskStatus.PENDING
+          and t.templateNode is null
+          and t.dependsOn is empty
+    """)
+    int promoteRootsToReady(@Param("workflowIds") Collection<Long> workflowIds, @Param("now") Instant now);
+
+    /**
+     * PENDING roots per workflow, as {@link #promoteRootsToReady} would
+     * promote them; sizes start admission passes.
+     */
+    @Query("""
+        select t.workflow.id as workflowId, count(t) as count
+        from Task t
+        where t.workflow.id in :workflowIds
+          and t.status = com.arsh.workflow.enums.TaskStatus.PENDING
+          and t.templateNode is null
+          and t.dependsOn is empty
+        group by t.workflow.id
+    """)
+    List<WorkflowCountView> countRoots(@Param("workflowIds") Collection<Long> workflowIds);
+
+    /**
+     * Roots of runs of one template: its first {@code rootCount} nodes.
+     */
+    @Modifying
+    @Query("""
+        update Task t
+        set t.status = com.arsh.workflow.enums.TaskStatus.READY,
+            t.version = t.version + 1,
+            t.updatedAt = :now
+        where t.workflow.id in :workflowIds
+          and t.status = com.arsh.workflow.enums.TaskStatus.PENDING
+          and t.templateNode < :rootCount
+    """)
+    int promoteTemplateRootsToReady(@Param("workflowIds") Collection<Long> workflowIds,
+                                    @Param("rootCount") int rootCount,
+                                    @Param("now") Instant now);
+
+    @Query("""
+        select t.id as id, t.templateNode as templateNode, t.status as status
+        from Task t
+        where t.workflow.id = :workflowId
+          and t.templateNode in :nodes
+    """)
+    List<TaskNodeView> findNodeStates(@Param("workflowId") Long workflowId,
+                                      @Param("nodes") Collection<Integer> nodes);
+
+    @Query("""
+        select t.id as id, t.templateNode as templateNode, t.status as status
+        from Task t
+        where t.workflow.id = :workflowId
+          and t.templateNode is not null
+    """)
+    List<TaskNodeView> findTemplateTasks(@Param("workflowId") Long workflowId);
+
+    /**
+     * READY tasks of RUNNING workflows untouched since {@code cutoff}: their
+     * submission was lost (a restart, a full deferred queue), oldest first.
+     */
+    @Query("""
+        select t.id as id, t.workflow.id as workflowId
+        from Task t
+        where t.status = com.arsh.workflow.enums.TaskStatus.READY
+          and t.updatedAt < :cutoff
+          and t.workflow.status = com.arsh.workflow.enums.WorkflowStatus.RUNNING
+        order by t.updatedAt
+    """)
+    List<TaskWorkflowView> findStalledReady(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+    @Query("""
+        select t.id as id, t.workflow.id as workflowId
+        from Task t
+        where t.workflow.id in :workflowIds
+          and t.status = :status
+        order by t.id
+    """)
+    List<TaskWorkflowView> findIdsByWorkflowIdInAndStatus(@Param("workflowIds") Collection<Long> workflowIds,
+                                                          @Param("status") TaskStatus status);
+
+    @Query("""
+        select t.id from Task t
+        where t.workflow.id = :workflowId
+          and t.status = :status
+        order by t.id
+    """)
+    List<Long> findIdsByWorkflowIdAndStatus(@Param("workflowId") Long workflowId,
+                                            @Param("status") TaskStatus status);
+
+    /**
+     * PENDING children of the given task whose parents are all COMPLETED.
+     */
+    @Query("""
+        select c.id
+        from Task p
+        join p.dependents c
+        where p.id = :parentId
+          and c.status = com.arsh.workflow.enums.TaskStatus.PENDING
+          and not exists (
+              select 1
+              from Task c2
+              join c2.dependsOn pp
+              where c2.id = c.id
+                and pp.status <> com.arsh.workflow.enums.TaskStatus.COMPLETED
+          )
+    """)
+    List<Long> findUnlockableDependentIds(@Param("parentId") Long parentId);
+
+    @Modifying
+    @Query("""
+        update Task t
+        set t.status = com.arsh.workflow.enums.TaskStatus.READY,
+            t.version = t.version + 1,
+            t.updatedAt = :now
+        where t.id in :taskIds
+          and t.status = com.arsh.workflow.enums.TaskStatus.PENDING
+    """)
+    int promotePendingToReady(@Param("taskIds") Collection<Long> taskIds, @Param("now") Instant now);
+
+    @Query("select t.workflow.id from Task t where t.id = :taskId")
+    Optional<Long> findWorkflowIdById(@Param("taskId") Long taskId);
+
+    /**
+     * Row locks in id order, so concurrent bulk commands cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Task t where t.id in :taskIds order by t.id")
+    List<Task> findAllByIdForUpdate(@Param("taskIds") Collection<Long> taskIds);
+
+    @Modifying
+    @Query("""
+        update Task t
+        set t.status = :to,
+            t.version = t.version + 1,
+            t.updatedAt = :now
+        where t.id in :taskIds
+          and t.status = :from
+    """)
+    int compareAndSetStatusIn(@Param("taskIds") Collection<Long> taskIds,
+                              @Param("from") TaskStatus from,
+                              @Param("to") TaskStatus to,
+                              @Param("now") Instant now);
+
+    @Modifying
+    @Query("""
+        update Task t
+        set t.assignedTo = :user,
+            t.version = t.version + 1,
+            t.updatedAt = :now
+        where t.id in :taskIds
+    """)
+    int assignAll(@Param("taskIds") Collection<Long> taskIds,
+                  @Param("user") User user,
+                  @Param("now") Instant now);
+
+    // ---- Topological order maintenance (incremental append) ----
+
+    @Query("select max(t.topoOrder) from Task t where t.workflow.id = :workflowId")
+    Long findMaxTopoOrder(@Param("workflowId") Long workflowId);
+
+    long countByWorkflowIdAndTopoOrderIsNull(Long workflowId);
+
+    @Query("""
+        select t.id as id, t.clientId as clientId, t.topoOrder as topoOrder
+        from Task t
+        where t.workflow.id = :workflowId
+          and t.clientId in :clientIds
+    """)
+    List<TaskOrderView> findOrderByClientIds(@Param("workflowId") Long workflowId,
+                                             @Param("clientIds") Collection<String> clientIds);
+
+    @Query("""
+        select t.id as id, t.clientId as clientId, t.topoOrder as topoOrder
+        from Task t
+        where t.workflow.id = :workflowId
+          and t.topoOrder between :lower and :upper
+    """)
+    List<TaskOrderView> findOrderWindow(@Param("workflowId") Long workflowId,
+                                        @Param("lower") long lower,
+                                        @Param("upper") long upper);
+
+    @Query(value = """
+        select d.task_id as taskId, d.depends_on_task_id as parentId
+        from tasks c
+        join task_dependencies d on d.task_id = c.id
+        join tasks p on p.id = d.depends_on_task_id
+        where c.workflow_id = :workflowId
+          and c.topo_order between :lower and :upper
+          and p.topo_order between :lower and :upper
+    """, nativeQuery = true)
+    List<TaskEdgeView> findEdgesInOrderWindow(@Param("workflowId") Long workflowId,
+                                              @Param("lower") long lower,
+                                              @Param("upper") long upper);
+
+    @Query(value = """
+        select task_id as taskId, depends_on_task_id as parentId
+        from task_dependencies
+        where task_id in (:taskIds)
+    """, nativeQuery = true)
+    List<TaskEdgeView> findEdgesByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    @Query("select t.id from Task t where t.workflow.id = :workflowId order by t.id")
+    List<Long> findIdsByWorkflowId(@Param("workflowId") Long workflowId, Pageable pageable);
+
+    @Modifying
+    @Query(value = "delete from task_dependencies where task_id in (:taskIds)", nativeQuery = true)
+    int deleteDependenciesByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    @Modifying
+    @Query(value = "delete from task_dependencies where depends_on_task_id in (:taskIds)", nativeQuery = true)
+    int deleteDependenciesByParentIds(@Param("taskIds") Collection<Long> taskIds);
+
+    @Modifying
+    @Query("delete from Task t where t.id in :taskIds")
+    int deleteAllByIdInBulk(@Param("taskIds") Collection<Long> taskIds);
 }
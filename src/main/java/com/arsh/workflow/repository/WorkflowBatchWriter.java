@@ -0,0 +1,102 @@
+package com.arsh.workflow.repository;
+
+import com.arsh.workflow.enums.WorkflowStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * JDBC batch inserts for bulk workflow creation, the workflow-level
+ * counterpart of {@link TaskBatchWriter}: audit columns are written
+ * explicitly and the surrounding JPA transaction's connection is used.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WorkflowBatchWriter {
+
+    private static final String INSERT_WORKFLOW = """
+            INSERT INTO workflows (created_by, updated_by, created_at, updated_at,
+                                   name, status, total_tasks, template_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_PENDING_START =
+            "INSERT INTO pending_workflow_starts (workflow_id, requested_by, requested_at) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts CREATED workflows whose task counter already holds
+     * {@code taskCounts[i]}.
+     *
+     * @param templateId template all of them run, or null
+     * @return generated ids, index-aligned with {@code names}
+     */
+    public long[] insertWorkflows(List<String> names,
+                                  int[] taskCounts,
+                                  Long templateId,
+                                  String user,
+                                  Instant now) {
+
+        return jdbcTemplate.execute((ConnectionCallback<long[]>) connection -> {
+
+            try (PreparedStatement ps =
+                         connection.prepareStatement(INSERT_WORKFLOW, Statement.RETURN_GENERATED_KEYS)) {
+
+                Timestamp timestamp = Timestamp.from(now);
+
+                for (int i = 0; i < names.size(); i++) {
+                    ps.setString(1, user);
+                    ps.setString(2, user);
+                    ps.setTimestamp(3, timestamp);
+                    ps.setTimestamp(4, timestamp);
+                    ps.setString(5, names.get(i));
+                    ps.setString(6, WorkflowStatus.CREATED.name());
+                    ps.setInt(7, taskCounts[i]);
+                    if (templateId == null) {
+                        ps.setNull(8, Types.BIGINT);
+                    } else {
+                        ps.setLong(8, templateId);
+                    }
+                    ps.addBatch();
+                }
+
+                ps.executeBatch();
+                return TaskBatchWriter.generatedIds(ps, names.size());
+            }
+        });
+    }
+
+    /**
+     * Queues starts for admission, as {@code PendingWorkflowStartRepository.enqueue}
+     * does for one workflow.
+     */
+    public void enqueueStarts(long[] workflowIds, String user, Instant now) {
+
+        Timestamp timestamp = Timestamp.from(now);
+
+        jdbcTemplate.batchUpdate(INSERT_PENDING_START, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, workflowIds[i]);
+                ps.setString(2, user);
+                ps.setTimestamp(3, timestamp);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return workflowIds.length;
+            }
+        });
+    }
+}
@@ -1,19 +1,214 @@
 package com.arsh.workflow.repository;
 
+import com.arsh.workflow.enums.WorkflowStatus;
 import com.arsh.workflow.model.Workflow;
+import com.arsh.workflow.repository.projection.UserLoadView;
+import com.arsh.workflow.repository.projection.WorkflowProgressView;
+import com.arsh.workflow.repository.projection.WorkflowTemplateView;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface WorkflowRepository extends JpaRepository<Workflow, Long> {
 
     @Query("""
-        select distinct w
+        select w.id
         from Workflow w
-        left join fetch w.tasks
+        where w.status in :statuses
+          and w.updatedAt < :cutoff
+        order by w.updatedAt
+    """)
+    List<Long> findArchivableIds(@Param("statuses") Collection<WorkflowStatus> statuses,
+                                 @Param("cutoff") Instant cutoff,
+                                 Pageable pageable);
+
+    @Modifying
+    @Query("delete from Workflow w where w.id = :id")
+    int deleteByIdInBulk(@Param("id") Long id);
+
+    /**
+     * Serialises DAG mutations of one workflow.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w from Workflow w where w.id = :id")
+    Optional<Workflow> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("select w.status from Workflow w where w.id = :id")
+    Optional<WorkflowStatus> findStatusById(@Param("id") Long id);
+
+    @Query("""
+        select w.id as id, w.templateId as templateId
+        from Workflow w
+        where w.id in :ids
+          and w.templateId is not null
+    """)
+    List<WorkflowTemplateView> findTemplateIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select w.createdBy from Workflow w where w.id = :id")
+    Optional<String> findOwnerById(@Param("id") Long id);
+
+    /**
+     * Locks the workflows of the set that are still CREATED, so a
+     * concurrent delete cannot slip in between start and promotion.
+     */
+    @Query(value = """
+        select id from workflows
+        where id in (:ids)
+          and status = 'CREATED'
+        for update
+    """, nativeQuery = true)
+    List<Long> lockCreated(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("""
+        update Workflow w
+        set w.status = com.arsh.workflow.enums.WorkflowStatus.READY,
+            w.updatedAt = :now
+        where w.id in :ids
+          and w.status = com.arsh.workflow.enums.WorkflowStatus.CREATED
+    """)
+    int markReady(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        update Workflow w
+        set w.status = com.arsh.workflow.enums.WorkflowStatus.RUNNING,
+            w.updatedAt = :now
+        where w.id = :id
+          and w.status = com.arsh.workflow.enums.WorkflowStatus.READY
+    """)
+    int markRunning(@Param("id") Long id, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        update Workflow w
+        set w.status = com.arsh.workflow.enums.WorkflowStatus.RUNNING,
+            w.updatedAt = :now
+        where w.id in :ids
+          and w.status = com.arsh.workflow.enums.WorkflowStatus.READY
+    """)
+    int markRunning(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    @Query("select w.id from Workflow w where w.id in :ids and w.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids,
+                                      @Param("status") WorkflowStatus status);
+
+    @Modifying
+    @Query("""
+        update Workflow w
+        set w.status = com.arsh.workflow.enums.WorkflowStatus.DELETING,
+            w.updatedAt = :now
+        where w.id = :id
+          and w.status <> com.arsh.workflow.enums.WorkflowStatus.DELETING
+    """)
+    int markDeleting(@Param("id") Long id, @Param("now") Instant now);
+
+    @Query("""
+        select w.id
+        from Workflow w
+        where w.status = com.arsh.workflow.enums.WorkflowStatus.DELETING
+          and w.updatedAt < :cutoff
+        order by w.updatedAt
+    """)
+    List<Long> findStalledDeletions(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+    @Query("""
+        select w.id as id,
+               w.status as status,
+               w.createdBy as createdBy,
+               w.totalTasks as totalTasks,
+               w.readyTasks as readyTasks,
+               w.runningTasks as runningTasks,
+               w.completedTasks as completedTasks,
+               w.failedTasks as failedTasks
+        from Workflow w
+        where w.id = :id
+    """)
+    Optional<WorkflowProgressView> findProgressById(@Param("id") Long id);
+
+    @Query("""
+        select count(w) as workflows,
+               coalesce(sum(w.totalTasks - w.completedTasks - w.failedTasks), 0) as tasks
+        from Workflow w
+        where w.createdBy = :user
+          and w.status in :statuses
+    """)
+    UserLoadView findActiveLoad(@Param("user") String user,
+                                @Param("statuses") Collection<WorkflowStatus> statuses);
+
+    @Modifying
+    @Query("update Workflow w set w.dagVersion = w.dagVersion + 1 where w.id = :id")
+    int bumpDagVersion(@Param("id") Long id);
+
+    @Modifying
+    @Query("update Workflow w set w.totalTasks = w.totalTasks + :count where w.id = :id")
+    int addToTotalTasks(@Param("id") Long id, @Param("count") int count);
+
+    @Modifying
+    @Query("""
+        update Workflow w
+        set w.readyTasks = w.readyTasks + :ready,
+            w.runningTasks = w.runningTasks + :running,
+            w.completedTasks = w.completedTasks + :completed,
+            w.failedTasks = w.failedTasks + :failed
+        where w.id = :id
+    """)
+    int adjustTaskCounters(@Param("id") Long id,
+                           @Param("ready") int ready,
+                           @Param("running") int running,
+                           @Param("completed") int completed,
+                           @Param("failed") int failed);
+
+    /**
+     * Adds each workflow's READY tasks to its ready counter, so a whole
+     * admission pass is counted with one UPDATE after its roots are promoted.
+     */
+    @Modifying
+    @Query("""
+        update Workflow w
+        set w.readyTasks = w.readyTasks + (
+            select count(t)
+            from Task t
+            where t.workflow.id = w.id
+              and t.status = com.arsh.workflow.enums.TaskStatus.READY
+        )
+        where w.id in :ids
+    """)
+    int addReadyTasks(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("""
+        update Workflow w
+        set w.status = com.arsh.workflow.enums.WorkflowStatus.COMPLETED,
+            w.updatedAt = :now
+        where w.id = :id
+          and w.status in (com.arsh.workflow.enums.WorkflowStatus.READY,
+                           com.arsh.workflow.enums.WorkflowStatus.RUNNING)
+          and w.completedTasks = w.totalTasks
+    """)
+    int completeIfAllTasksCompleted(@Param("id") Long id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("""
+        update Workflow w
+        set w.status = com.arsh.workflow.enums.WorkflowStatus.FAILED,
+            w.updatedAt = :now
         where w.id = :id
+          and w.status in (com.arsh.workflow.enums.WorkflowStatus.READY,
+                           com.arsh.workflow.enums.WorkflowStatus.RUNNING)
+          and w.failedTasks > 0
     """)
-    Optional<Workflow> findByIdWithTasks(@Param("id") Long id);
+    int failIfAnyTaskFailed(@Param("id") Long id, @Param("now") Instant now);
 }
@@ -0,0 +1,36 @@
+package com.arsh.workflow.repository;
+
+import com.arsh.workflow.model.WorkflowTemplate;
+import com.arsh.workflow.repository.projection.TemplateEdgeView;
+import com.arsh.workflow.repository.projection.TemplateNodeView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface WorkflowTemplateRepository extends JpaRepository<WorkflowTemplate, Long> {
+
+    @Query("""
+        select max(t.version)
+        from WorkflowTemplate t
+        where t.createdBy = :owner
+          and t.name = :name
+    """)
+    Integer findLatestVersion(@Param("owner") String owner, @Param("name") String name);
+
+    @Query(value = """
+        select node, client_id as clientId, title, description
+        from workflow_template_nodes
+        where template_id = :templateId
+        order by node
+    """, nativeQuery = true)
+    List<TemplateNodeView> findNodes(@Param("templateId") Long templateId);
+
+    @Query(value = """
+        select node, parent_node as parentNode
+        from workflow_template_edges
+        where template_id = :templateId
+    """, nativeQuery = true)
+    List<TemplateEdgeView> findEdges(@Param("templateId") Long templateId);
+}
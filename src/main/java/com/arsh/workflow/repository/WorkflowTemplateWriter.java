@@ -0,0 +1,51 @@
+package com.arsh.workflow.repository;
+
+import com.arsh.workflow.validation.CompiledTemplate;
+import com.arsh.workflow.validation.DagGraph;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch inserts of a template's nodes and edges, on the connection
+ * of the surrounding JPA transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WorkflowTemplateWriter {
+
+    private static final String INSERT_NODE = """
+            INSERT INTO workflow_template_nodes (template_id, node, client_id, title, description)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_EDGE =
+            "INSERT INTO workflow_template_edges (template_id, node, parent_node) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(Long templateId, CompiledTemplate template) {
+
+        List<Object[]> nodes = new ArrayList<>(template.size());
+        for (int node = 0; node < template.size(); node++) {
+            nodes.add(new Object[]{
+                    templateId, node, template.clientId(node), template.title(node), template.description(node)
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_NODE, nodes);
+
+        DagGraph graph = template.graph();
+        List<Object[]> edges = new ArrayList<>(template.edgeCount());
+        for (int node = 0; node < graph.size(); node++) {
+            for (int k = graph.parentsStart(node); k < graph.parentsEnd(node); k++) {
+                edges.add(new Object[]{templateId, node, graph.parentAt(k)});
+            }
+        }
+        if (!edges.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_EDGE, edges);
+        }
+    }
+}
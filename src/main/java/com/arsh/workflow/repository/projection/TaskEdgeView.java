@@ -0,0 +1,9 @@
+package com.arsh.workflow.repository.projection;
+
+/**
+ * One row of task_dependencies: {@code taskId} depends on {@code parentId}.
+ */
+public interface TaskEdgeView {
+    Long getTaskId();
+    Long getParentId();
+}
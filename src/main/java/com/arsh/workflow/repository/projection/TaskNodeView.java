@@ -0,0 +1,12 @@
+package com.arsh.workflow.repository.projection;
+
+import com.arsh.workflow.enums.TaskStatus;
+
+/**
+ * A task of a template run, by its template node.
+ */
+public interface TaskNodeView {
+    Long getId();
+    Integer getTemplateNode();
+    TaskStatus getStatus();
+}
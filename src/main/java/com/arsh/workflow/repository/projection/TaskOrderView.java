@@ -0,0 +1,7 @@
+package com.arsh.workflow.repository.projection;
+
+public interface TaskOrderView {
+    Long getId();
+    String getClientId();
+    Long getTopoOrder();
+}
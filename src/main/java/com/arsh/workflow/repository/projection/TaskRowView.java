@@ -0,0 +1,16 @@
+package com.arsh.workflow.repository.projection;
+
+import com.arsh.workflow.enums.TaskStatus;
+
+/**
+ * Flat task row without the entity graph (no dependency collections).
+ */
+public interface TaskRowView {
+    Long getId();
+    String getClientId();
+    String getTitle();
+    String getDescription();
+    TaskStatus getStatus();
+    Long getAssignedToId();
+    String getAssignedToName();
+}
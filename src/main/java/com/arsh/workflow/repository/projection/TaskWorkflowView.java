@@ -0,0 +1,9 @@
+package com.arsh.workflow.repository.projection;
+
+/**
+ * A task id with the workflow it belongs to.
+ */
+public interface TaskWorkflowView {
+    Long getId();
+    Long getWorkflowId();
+}
@@ -0,0 +1,9 @@
+package com.arsh.workflow.repository.projection;
+
+/**
+ * One row of workflow_template_edges: {@code node} depends on {@code parentNode}.
+ */
+public interface TemplateEdgeView {
+    Integer getNode();
+    Integer getParentNode();
+}
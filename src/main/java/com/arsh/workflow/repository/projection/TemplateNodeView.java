@@ -0,0 +1,11 @@
+package com.arsh.workflow.repository.projection;
+
+/**
+ * One row of workflow_template_nodes.
+ */
+public interface TemplateNodeView {
+    Integer getNode();
+    String getClientId();
+    String getTitle();
+    String getDescription();
+}
@@ -0,0 +1,9 @@
+package com.arsh.workflow.repository.projection;
+
+/**
+ * A user's started, unfinished workflows and their unfinished tasks.
+ */
+public interface UserLoadView {
+    long getWorkflows();
+    long getTasks();
+}
@@ -0,0 +1,9 @@
+package com.arsh.workflow.repository.projection;
+
+/**
+ * A per-workflow count.
+ */
+public interface WorkflowCountView {
+    Long getWorkflowId();
+    long getCount();
+}
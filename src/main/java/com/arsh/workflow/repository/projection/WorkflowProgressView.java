@@ -0,0 +1,14 @@
+package com.arsh.workflow.repository.projection;
+
+import com.arsh.workflow.enums.WorkflowStatus;
+
+public interface WorkflowProgressView {
+    Long getId();
+    WorkflowStatus getStatus();
+    String getCreatedBy();
+    int getTotalTasks();
+    int getReadyTasks();
+    int getRunningTasks();
+    int getCompletedTasks();
+    int getFailedTasks();
+}
@@ -0,0 +1,9 @@
+package com.arsh.workflow.repository.projection;
+
+/**
+ * A workflow instantiated from a template, with that template.
+ */
+public interface WorkflowTemplateView {
+    Long getId();
+    Long getTemplateId();
+}
@@ -0,0 +1,55 @@
+package com.arsh.workflow.security;
+
+import com.arsh.workflow.exception.RateLimitExceededException;
+import com.arsh.workflow.util.RedisTokenBucket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Per-IP and per-username buckets for the auth endpoints. The IP bucket
+ * caps spraying from one client; the username bucket caps guessing one
+ * account from many.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private static final String IP_KEY = "rate:auth:ip:";
+    private static final String USER_KEY = "rate:auth:user:";
+
+    private final RedisTokenBucket tokenBucket;
+    private final RedisTokenBucket.Limit ipLimit;
+    private final RedisTokenBucket.Limit userLimit;
+
+    public AuthRateLimiter(RedisTokenBucket tokenBucket,
+                           @Value("${workflow.auth.rate-limit.ip.capacity:20}") long ipCapacity,
+                           @Value("${workflow.auth.rate-limit.ip.refill-per-second:1}") double ipRefill,
+                           @Value("${workflow.auth.rate-limit.user.capacity:5}") long userCapacity,
+                           @Value("${workflow.auth.rate-limit.user.refill-per-second:0.1}") double userRefill) {
+        this.tokenBucket = tokenBucket;
+        this.ipLimit = new RedisTokenBucket.Limit(ipCapacity, ipRefill);
+        this.userLimit = new RedisTokenBucket.Limit(userCapacity, userRefill);
+    }
+
+    public void checkLogin(String clientIp, String username) {
+        check(IP_KEY + clientIp, ipLimit);
+        if (username != null) {
+            check(USER_KEY + username.toLowerCase(Locale.ROOT), userLimit);
+        }
+    }
+
+    public void checkRegister(String clientIp) {
+        check(IP_KEY + clientIp, ipLimit);
+    }
+
+    private void check(String key, RedisTokenBucket.Limit limit) {
+        long waitMs = tokenBucket.tryTake(key, limit);
+        if (waitMs > 0) {
+            throw new RateLimitExceededException(
+                    "Too many authentication attempts, retry later",
+                    Math.max(1, (waitMs + 999) / 1000)
+            );
+        }
+    }
+}
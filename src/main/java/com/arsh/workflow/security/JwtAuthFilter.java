@@ -1,18 +1,22 @@
 package com.arsh.workflow.security;
 
+import com.arsh.workflow.cache.UserSnapshot;
 import com.arsh.workflow.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -20,6 +24,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsServiceImpl userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -34,40 +39,54 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
-        // ✅ 2) Extract token IF present
+        // ✅ 2) Verify token IF present (one parse, usually a cache hit)
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            try {
-                username = jwtUtil.extractUsername(token);
-            } catch (Exception ignored) {
-                // Token invalid, skip authentication
+            Claims claims = jwtUtil.verify(authHeader.substring(7));
+
+            // ✅ 3) Set security context from the claims alone
+            Authentication authentication = claims == null ? null : authenticate(claims);
+            if (authentication != null) {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         }
 
-        // ✅ 3) Validate token + set security context
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        // Continue the chain
+        filterChain.doFilter(request, response);
+    }
+
+    private Authentication authenticate(Claims claims) {
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        String username = claims.getSubject();
+        if (username == null) {
+            return null;
+        }
 
-            if (jwtUtil.isTokenValid(token)) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
+        Long userId = claims.get(JwtUtil.CLAIM_USER_ID, Long.class);
+        String role = claims.get(JwtUtil.CLAIM_ROLE, String.class);
 
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+        // Tokens issued before roles were embedded: fall back to the (cached) user row
+        if (userId == null || role == null) {
+            UserSnapshot user = userDetailsService.loadUser(username);
+            if (user == null) {
+                return null;
             }
+            userId = user.id();
+            role = user.role().name();
         }
 
-        // Continue the chain
-        filterChain.doFilter(request, response);
+        if (tokenRevocationService.isRevoked(userId, claims.getIssuedAt())) {
+            return null;
+        }
+
+        return new UsernamePasswordAuthenticationToken(
+                username,
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + role))
+        );
     }
 
     @Override
@@ -0,0 +1,100 @@
+package com.arsh.workflow.security;
+
+import com.arsh.workflow.cache.CacheInvalidator;
+import com.arsh.workflow.cache.NearCache;
+import com.arsh.workflow.exception.TokenRevocationDisabledException;
+import com.arsh.workflow.exception.UserNotFoundException;
+import com.arsh.workflow.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Revokes every token a user holds by recording a cut-off: tokens issued
+ * before it are rejected. The cut-off lives in Redis (until the last
+ * token it can affect has expired anyway) and is cached per node;
+ * revoking evicts that cache on all nodes.
+ * <p>
+ * Token issue times have second precision, so the cut-off is rounded up
+ * to the next second: a token issued within that second is rejected too.
+ * <p>
+ * Disabled by default ({@code jwt.revocation.enabled}), and then a
+ * revocation is refused rather than recorded to no effect. When enabled
+ * and Redis is unreachable, tokens are accepted rather than locking
+ * everyone out.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private static final String KEY_PREFIX = "auth:revoked-before:";
+
+    // Cached for users without a cut-off, so they cost no Redis round trip
+    private static final Long NONE = 0L;
+
+    private final StringRedisTemplate redisTemplate;
+    private final NearCache<Long, Long> tokenRevocationCache;
+    private final CacheInvalidator cacheInvalidator;
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final Duration keyTtl;
+
+    public TokenRevocationService(StringRedisTemplate redisTemplate,
+                                  NearCache<Long, Long> tokenRevocationCache,
+                                  CacheInvalidator cacheInvalidator,
+                                  UserRepository userRepository,
+                                  @Value("${jwt.revocation.enabled:false}") boolean enabled,
+                                  @Value("${jwt.expiration}") long expiration) {
+        this.redisTemplate = redisTemplate;
+        this.tokenRevocationCache = tokenRevocationCache;
+        this.cacheInvalidator = cacheInvalidator;
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.keyTtl = Duration.ofMillis(expiration).plusSeconds(1);
+    }
+
+    public boolean isRevoked(Long userId, Date issuedAt) {
+
+        if (!enabled) {
+            return false;
+        }
+
+        Long revokedBefore = tokenRevocationCache.get(userId, this::load);
+        if (revokedBefore == null || NONE.equals(revokedBefore)) {
+            return false;
+        }
+        return issuedAt == null || issuedAt.getTime() < revokedBefore;
+    }
+
+    public void revokeAll(Long userId) {
+
+        if (!enabled) {
+            throw new TokenRevocationDisabledException(
+                    "Token revocation is disabled (jwt.revocation.enabled), tokens were not revoked");
+        }
+
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("User not found");
+        }
+
+        long cutOff = (System.currentTimeMillis() / 1000 + 1) * 1000;
+        redisTemplate.opsForValue().set(KEY_PREFIX + userId, String.valueOf(cutOff), keyTtl);
+
+        cacheInvalidator.evictUser(userId);
+    }
+
+    private Long load(Long userId) {
+        try {
+            String value = redisTemplate.opsForValue().get(KEY_PREFIX + userId);
+            return value == null ? NONE : Long.valueOf(value);
+        } catch (Exception e) {
+            // Not cached, so the next request retries
+            log.warn("Unable to read token revocation of user {}: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.arsh.workflow.security;
 
+import com.arsh.workflow.cache.NearCache;
+import com.arsh.workflow.cache.UserSnapshot;
 import com.arsh.workflow.model.User;
 import com.arsh.workflow.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -11,18 +13,48 @@ import org.springframework.stereotype.Service;
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository repo;
+    private final NearCache<String, Long> userByNameCache;
+    private final NearCache<Long, UserSnapshot> userByIdCache;
+
+    /**
+     * @return the (cached) user, or null when there is none
+     */
+    public UserSnapshot loadUser(String username) {
+
+        // Usernames are never reassigned while their user exists
+        Long id = userByNameCache.get(
+                username,
+                name -> repo.findByUsername(name).map(User::getId).orElse(null),
+                i -> true
+        );
+        if (id == null) {
+            return null;
+        }
+
+        UserSnapshot user = userByIdCache.get(id, i -> repo.findById(i).map(UserSnapshot::of).orElse(null));
+        if (user != null && user.username().equals(username)) {
+            return user;
+        }
+
+        // Cached for a user since deleted
+        userByNameCache.evict(username);
+        return repo.findByUsername(username).map(UserSnapshot::of).orElse(null);
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
-        User user = repo.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        UserSnapshot user = loadUser(username);
+
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found");
+        }
 
         return org.springframework.security.core.userdetails.User
                 .builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .roles(user.getRole().name())
+                .username(user.username())
+                .password(user.password())
+                .roles(user.role().name())
                 .build();
     }
 }
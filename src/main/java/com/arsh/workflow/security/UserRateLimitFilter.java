@@ -0,0 +1,77 @@
+package com.arsh.workflow.security;
+
+import com.arsh.workflow.util.ErrorResponses;
+import com.arsh.workflow.util.LeasedRateLimiter;
+import com.arsh.workflow.util.RedisTokenBucket;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Per-user request rate on the workflow and task APIs. Runs after
+ * {@link JwtAuthFilter}; unauthenticated requests are left to the
+ * authorization rules.
+ */
+@Component
+public class UserRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String KEY_PREFIX = "rate:api:user:";
+
+    private final LeasedRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final RedisTokenBucket.Limit limit;
+    private final boolean enabled;
+
+    public UserRateLimitFilter(LeasedRateLimiter rateLimiter,
+                               ObjectMapper objectMapper,
+                               @Value("${workflow.rate-limit.api.enabled:true}") boolean enabled,
+                               @Value("${workflow.rate-limit.api.capacity:200}") long capacity,
+                               @Value("${workflow.rate-limit.api.refill-per-second:50}") double refillPerSecond) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.limit = new RedisTokenBucket.Limit(capacity, refillPerSecond);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+
+        if (auth != null && auth.isAuthenticated()) {
+            long waitMs = rateLimiter.tryTake(KEY_PREFIX + auth.getName(), limit);
+            if (waitMs > 0) {
+                reject(response, waitMs);
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return !enabled || !(path.startsWith("/api/workflow") || path.startsWith("/api/task"));
+    }
+
+    private void reject(HttpServletResponse response, long waitMs) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (waitMs + 999) / 1000)));
+        ErrorResponses.write(response, objectMapper, HttpStatus.TOO_MANY_REQUESTS,
+                "Too Many Requests", "Request rate limit exceeded");
+    }
+}
@@ -0,0 +1,38 @@
+package com.arsh.workflow.service;
+
+import com.arsh.workflow.model.Task;
+import com.arsh.workflow.model.Workflow;
+import com.arsh.workflow.repository.projection.TaskEdgeView;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dependency questions about a workflow's tasks, wherever its edges
+ * live: rows of task_dependencies for workflows built from submitted
+ * tasks, or the shared edges of the template a workflow runs.
+ */
+public interface DependencyResolver {
+
+    /**
+     * Moves every PENDING root of the workflows to READY.
+     *
+     * @return how many were promoted
+     */
+    int promoteRoots(Collection<Long> workflowIds, Instant now);
+
+    /**
+     * How many tasks {@link #promoteRoots} would promote, per workflow;
+     * workflows without any are absent.
+     */
+    Map<Long, Integer> countRoots(Collection<Long> workflowIds);
+
+    /**
+     * PENDING children of a completed task whose parents are all COMPLETED.
+     */
+    List<Long> findUnlockableDependents(Task completed);
+
+    List<TaskEdgeView> findEdges(Workflow workflow);
+}
@@ -1,10 +1,17 @@
 package com.arsh.workflow.service;
 
+import com.arsh.workflow.dto.request.TaskCommandRequest;
+import com.arsh.workflow.dto.response.BulkTaskCommandResponse;
 import com.arsh.workflow.dto.response.TaskResponse;
 import com.arsh.workflow.enums.TaskStatus;
 
+import java.util.List;
+
 public interface TaskService {
     TaskResponse assignTask(Long taskId, Long userId);
     TaskResponse changeStatus(Long taskId, TaskStatus status);
+    boolean transition(Long workflowId, Long taskId, TaskStatus from, TaskStatus to);
     TaskResponse getTask(Long taskId);
+    String currentETag(Long taskId);
+    BulkTaskCommandResponse executeBulk(List<TaskCommandRequest> commands);
 }
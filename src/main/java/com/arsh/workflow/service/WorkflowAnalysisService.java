@@ -0,0 +1,7 @@
+package com.arsh.workflow.service;
+
+import com.arsh.workflow.dto.response.WorkflowAnalysisResponse;
+
+public interface WorkflowAnalysisService {
+    WorkflowAnalysisResponse analyze(Long workflowId);
+}
@@ -0,0 +1,14 @@
+package com.arsh.workflow.service;
+
+import com.arsh.workflow.dto.response.WorkflowResponse;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface WorkflowArchiveService {
+    List<Long> findArchivable(Instant cutoff, int limit);
+    boolean archive(Long workflowId);
+    Optional<WorkflowResponse> findArchived(Long workflowId);
+    void deleteArchived(Long workflowId);
+}
@@ -0,0 +1,9 @@
+package com.arsh.workflow.service;
+
+import com.arsh.workflow.dto.request.BulkWorkflowRequest;
+import com.arsh.workflow.dto.response.BulkWorkflowResponse;
+
+public interface WorkflowBulkService {
+
+    BulkWorkflowResponse createWorkflows(BulkWorkflowRequest request);
+}
@@ -1,12 +1,23 @@
 package com.arsh.workflow.service;
 
 import com.arsh.workflow.dto.request.BatchTaskRequest;
+import com.arsh.workflow.dto.request.DagAppendRequest;
+import com.arsh.workflow.dto.response.DagBatchResult;
+import com.arsh.workflow.dto.response.DagStreamResult;
 import com.arsh.workflow.dto.response.TaskResponse;
 
+import java.io.InputStream;
 import java.util.List;
 
 public interface WorkflowDagService {
 
-    List<TaskResponse> createBatchDag(Long workflowId,
-                                      List<BatchTaskRequest> batch);
+    DagBatchResult createBatchDag(Long workflowId,
+                                  List<BatchTaskRequest> batch,
+                                  boolean transitiveReduction);
+
+    List<TaskResponse> appendToDag(Long workflowId,
+                                   DagAppendRequest request);
+
+    DagStreamResult streamDag(Long workflowId,
+                              InputStream body);
 }
@@ -1,7 +1,27 @@
 package com.arsh.workflow.service;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
 public interface WorkflowExecutorService {
     void executeWorkflow(Long workflowId);
+    void submitReadyTasks(Map<Long, ? extends Collection<Long>> readyTasksByWorkflow);
     void runTask(Long taskId);
     void triggerNextTasks(Long taskId);
+
+    /**
+     * Offers tasks the pool turned away to it again, oldest first.
+     *
+     * @return how many are still waiting
+     */
+    int resubmitDeferred();
+
+    /**
+     * Submits up to {@code limit} READY tasks of RUNNING workflows left
+     * untouched since {@code readyBefore}, whose submission was lost.
+     *
+     * @return how many were found
+     */
+    int recoverStalledReady(Instant readyBefore, int limit);
 }
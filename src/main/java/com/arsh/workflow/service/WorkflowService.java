@@ -3,11 +3,18 @@ package com.arsh.workflow.service;
 import com.arsh.workflow.dto.request.CreateTaskRequest;
 import com.arsh.workflow.dto.request.CreateWorkflowRequest;
 import com.arsh.workflow.dto.response.TaskResponse;
+import com.arsh.workflow.dto.response.WorkflowProgressResponse;
 import com.arsh.workflow.dto.response.WorkflowResponse;
+import com.arsh.workflow.enums.WorkflowView;
+
 public interface WorkflowService {
     WorkflowResponse createWorkflow(CreateWorkflowRequest req);
     WorkflowResponse getWorkflow(Long workflowId);
+    WorkflowResponse getWorkflow(Long workflowId, WorkflowView view);
+    String currentETag(Long workflowId, WorkflowView view);
     WorkflowResponse deleteWorkflow(Long workflowId);
+    WorkflowResponse deleteWorkflowAsync(Long workflowId);
     TaskResponse addTask(Long workflowId, CreateTaskRequest req);
     WorkflowResponse startWorkflow(Long workflowId);
+    WorkflowProgressResponse getProgress(Long workflowId);
 }
@@ -0,0 +1,8 @@
+package com.arsh.workflow.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface WorkflowStreamService {
+    SseEmitter subscribeWorkflow(Long workflowId, String lastEventId);
+    SseEmitter subscribeUser(String lastEventId);
+}
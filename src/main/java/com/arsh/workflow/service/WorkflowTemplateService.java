@@ -0,0 +1,11 @@
+package com.arsh.workflow.service;
+
+import com.arsh.workflow.dto.request.CreateWorkflowRequest;
+import com.arsh.workflow.dto.response.WorkflowTemplateResponse;
+
+public interface WorkflowTemplateService {
+
+    WorkflowTemplateResponse publish(CreateWorkflowRequest request);
+
+    WorkflowTemplateResponse getTemplate(Long templateId);
+}
@@ -0,0 +1,63 @@
+package com.arsh.workflow.service.impl;
+
+/**
+ * The AIMD decisions behind {@link WorkflowStartAdmission}, counted in
+ * root tasks per pass. Not thread-safe: one admission thread drives it.
+ */
+final class AdmissionLimit {
+
+    private final double minLimit;
+    private final double maxLimit;
+    private final long targetLatencyMs;
+    private final double targetUtilisation;
+    private final double decreaseFactor;
+
+    private volatile double limit;
+
+    AdmissionLimit(double initialLimit,
+                   double minLimit,
+                   double maxLimit,
+                   long targetLatencyMs,
+                   double targetUtilisation,
+                   double decreaseFactor) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyMs = targetLatencyMs;
+        this.targetUtilisation = targetUtilisation;
+        this.decreaseFactor = decreaseFactor;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Decides whether a pass may admit anything. A missed latency target
+     * or a full queue cuts the limit and admits nothing.
+     */
+    boolean admits(long queueLatencyMs, boolean queueFull) {
+        if (queueLatencyMs > targetLatencyMs || queueFull) {
+            limit = Math.max(minLimit, limit * decreaseFactor);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Root tasks a pass may hand to the pool.
+     */
+    int budget() {
+        return Math.max(1, (int) limit);
+    }
+
+    /**
+     * Grows the limit by one after a pass that used its whole budget
+     * while the pool was still under the utilisation target.
+     */
+    void admitted(int rootTasks, double utilisation) {
+        if (rootTasks >= budget() && utilisation < targetUtilisation) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    double current() {
+        return limit;
+    }
+}
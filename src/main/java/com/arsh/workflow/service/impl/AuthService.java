@@ -4,15 +4,30 @@ import com.arsh.workflow.dto.request.LoginRequestDto;
 import com.arsh.workflow.dto.request.RegisterRequestDto;
 import com.arsh.workflow.dto.response.AuthResponseDto;
 import com.arsh.workflow.enums.Role;
+import com.arsh.workflow.exception.ServiceOverloadedException;
 import com.arsh.workflow.mapper.UserMapper;
 import com.arsh.workflow.model.User;
 import com.arsh.workflow.repository.UserRepository;
+import com.arsh.workflow.security.AuthRateLimiter;
 import com.arsh.workflow.util.JwtUtil;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Login and register. Both are rate limited per client (and per account
+ * for login) before any work is done, then run their BCrypt step on the
+ * bounded hashing pool; the servlet thread is released meanwhile.
+ */
 @Service
 public class AuthService {
 
@@ -20,33 +35,68 @@ public class AuthService {
     private final UserRepository repo;
     private final PasswordEncoder encoder;
     private final JwtUtil jwtUtil;
+    private final AuthRateLimiter rateLimiter;
+    private final ExecutorService hashingPool;
+    private final long maxQueueWaitNanos;
 
-    public AuthService(AuthenticationManager authManager, UserRepository repo, PasswordEncoder encoder, JwtUtil jwtUtil) {
+    public AuthService(AuthenticationManager authManager, UserRepository repo, PasswordEncoder encoder, JwtUtil jwtUtil,
+                       AuthRateLimiter rateLimiter,
+                       @Qualifier("passwordHashingPool") ExecutorService hashingPool,
+                       @Value("${workflow.auth.hashing.max-queue-wait-ms:2000}") long maxQueueWaitMs) {
         this.authManager = authManager;
         this.repo = repo;
         this.encoder = encoder;
         this.jwtUtil = jwtUtil;
+        this.rateLimiter = rateLimiter;
+        this.hashingPool = hashingPool;
+        this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMs);
     }
 
 
-    public AuthResponseDto register(RegisterRequestDto req) {
-        User user = UserMapper.toEntity(req);
+    public CompletableFuture<AuthResponseDto> register(RegisterRequestDto req, String clientIp) {
+        rateLimiter.checkRegister(clientIp);
+
+        return onHashingPool(() -> {
+            User user = UserMapper.toEntity(req);
 
-        user.setPassword(encoder.encode(req.getPassword()));
-        user.setRole(Role.USER);
+            user.setPassword(encoder.encode(req.getPassword()));
+            user.setRole(Role.USER);
 
-        repo.save(user);
+            repo.save(user);
 
-        return new AuthResponseDto(jwtUtil.generateToken(user.getUsername()));
+            return new AuthResponseDto(jwtUtil.generateToken(user.getUsername(), user.getId(), user.getRole()));
+        });
     }
 
-    public AuthResponseDto login(LoginRequestDto req) {
+    public CompletableFuture<AuthResponseDto> login(LoginRequestDto req, String clientIp) {
+        rateLimiter.checkLogin(clientIp, req.getUsername());
+
+        return onHashingPool(() -> {
+            Authentication authToken = new UsernamePasswordAuthenticationToken(req.getUsername(), req.getPassword());
+            authManager.authenticate(authToken);
 
-        Authentication authToken = new UsernamePasswordAuthenticationToken(req.getUsername(), req.getPassword());
-        authManager.authenticate(authToken);
+            User user = repo.findByUsername(req.getUsername())
+                    .orElseThrow(() -> new BadCredentialsException("Bad credentials"));
+
+            String token = jwtUtil.generateToken(user.getUsername(), user.getId(), user.getRole());
+
+            return new AuthResponseDto(token);
+        });
+    }
 
-        String token = jwtUtil.generateToken(req.getUsername());
+    private <T> CompletableFuture<T> onHashingPool(Supplier<T> work) {
+        long queuedAt = System.nanoTime();
 
-        return new AuthResponseDto(token);
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                // The client has most likely given up already; don't spend a hash on it
+                if (System.nanoTime() - queuedAt > maxQueueWaitNanos) {
+                    throw new ServiceOverloadedException("Authentication is at capacity, retry shortly");
+                }
+                return work.get();
+            }, hashingPool);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceOverloadedException("Authentication is at capacity, retry shortly");
+        }
     }
 }
@@ -0,0 +1,55 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.model.Task;
+import com.arsh.workflow.model.Workflow;
+import com.arsh.workflow.repository.projection.TaskEdgeView;
+import com.arsh.workflow.service.DependencyResolver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The resolver callers get: template runs go to the template's edges,
+ * everything else to task_dependencies. Root promotion asks both, since
+ * one admission pass can start both kinds.
+ */
+@Primary
+@Component
+@RequiredArgsConstructor
+public class RoutingDependencyResolver implements DependencyResolver {
+
+    private final StoredDependencyResolver stored;
+    private final TemplateDependencyResolver template;
+
+    @Override
+    public int promoteRoots(Collection<Long> workflowIds, Instant now) {
+        return stored.promoteRoots(workflowIds, now) + template.promoteRoots(workflowIds, now);
+    }
+
+    @Override
+    public Map<Long, Integer> countRoots(Collection<Long> workflowIds) {
+        Map<Long, Integer> roots = new HashMap<>(stored.countRoots(workflowIds));
+        template.countRoots(workflowIds).forEach((id, count) -> roots.merge(id, count, Integer::sum));
+        return roots;
+    }
+
+    @Override
+    public List<Long> findUnlockableDependents(Task completed) {
+        return completed.getTemplateNode() == null
+                ? stored.findUnlockableDependents(completed)
+                : template.findUnlockableDependents(completed);
+    }
+
+    @Override
+    public List<TaskEdgeView> findEdges(Workflow workflow) {
+        return workflow.getTemplateId() == null
+                ? stored.findEdges(workflow)
+                : template.findEdges(workflow);
+    }
+}
@@ -0,0 +1,50 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.model.Task;
+import com.arsh.workflow.model.Workflow;
+import com.arsh.workflow.repository.TaskRepository;
+import com.arsh.workflow.repository.projection.TaskEdgeView;
+import com.arsh.workflow.repository.projection.WorkflowCountView;
+import com.arsh.workflow.service.DependencyResolver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Edges stored per task in task_dependencies.
+ */
+@Component
+@RequiredArgsConstructor
+public class StoredDependencyResolver implements DependencyResolver {
+
+    private final TaskRepository taskRepository;
+
+    @Override
+    public int promoteRoots(Collection<Long> workflowIds, Instant now) {
+        return taskRepository.promoteRootsToReady(workflowIds, now);
+    }
+
+    @Override
+    public Map<Long, Integer> countRoots(Collection<Long> workflowIds) {
+        Map<Long, Integer> roots = new HashMap<>();
+        for (WorkflowCountView row : taskRepository.countRoots(workflowIds)) {
+            roots.put(row.getWorkflowId(), (int) row.getCount());
+        }
+        return roots;
+    }
+
+    @Override
+    public List<Long> findUnlockableDependents(Task completed) {
+        return taskRepository.findUnlockableDependentIds(completed.getId());
+    }
+
+    @Override
+    public List<TaskEdgeView> findEdges(Workflow workflow) {
+        return taskRepository.findEdgesByWorkflowId(workflow.getId());
+    }
+}
@@ -1,23 +1,46 @@
 package com.arsh.workflow.service.impl;
 
+import com.arsh.workflow.cache.CacheInvalidator;
+import com.arsh.workflow.cache.NearCache;
+import com.arsh.workflow.cache.UserSnapshot;
+import com.arsh.workflow.cache.WorkflowVersionTracker;
+import com.arsh.workflow.dto.request.TaskCommandRequest;
+import com.arsh.workflow.dto.response.BulkTaskCommandResponse;
+import com.arsh.workflow.dto.response.TaskCommandResult;
 import com.arsh.workflow.dto.response.TaskResponse;
+import com.arsh.workflow.enums.TaskCommandOutcome;
 import com.arsh.workflow.enums.TaskStatus;
 import com.arsh.workflow.events.WorkflowEvent;
 import com.arsh.workflow.events.WorkflowEventFactory;
 import com.arsh.workflow.events.producer.WorkflowEventProducer;
+import com.arsh.workflow.exception.IllegalWorkflowOperationException;
 import com.arsh.workflow.exception.TaskNotFoundException;
+import com.arsh.workflow.exception.TaskTransitionConflictException;
 import com.arsh.workflow.mapper.TaskMapper;
 import com.arsh.workflow.model.Task;
 import com.arsh.workflow.model.User;
 import com.arsh.workflow.repository.TaskRepository;
 import com.arsh.workflow.repository.UserRepository;
+import com.arsh.workflow.repository.WorkflowRepository;
 import com.arsh.workflow.service.TaskService;
-import jakarta.transaction.Transactional;
+import com.arsh.workflow.util.ETags;
+import com.arsh.workflow.util.TaskCounterDelta;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 
 @Service
 @Slf4j
@@ -25,16 +48,37 @@ public class TaskServiceImpl implements TaskService {
 
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
+    private final WorkflowRepository workflowRepository;
     private final WorkflowEventProducer eventProducer;
+    private final NearCache<Long, TaskResponse> taskReadCache;
+    private final NearCache<Long, Long> taskWorkflowCache;
+    private final NearCache<Long, UserSnapshot> userByIdCache;
+    private final CacheInvalidator cacheInvalidator;
+    private final WorkflowVersionTracker versionTracker;
+    private final int maxBulkCommands;
 
     public TaskServiceImpl(
             TaskRepository taskRepository,
             UserRepository userRepository,
-            WorkflowEventProducer eventProducer
+            WorkflowRepository workflowRepository,
+            WorkflowEventProducer eventProducer,
+            NearCache<Long, TaskResponse> taskReadCache,
+            NearCache<Long, Long> taskWorkflowCache,
+            NearCache<Long, UserSnapshot> userByIdCache,
+            CacheInvalidator cacheInvalidator,
+            WorkflowVersionTracker versionTracker,
+            @Value("${workflow.task.bulk.max-commands:1000}") int maxBulkCommands
     ) {
         this.taskRepository = taskRepository;
         this.userRepository = userRepository;
+        this.workflowRepository = workflowRepository;
         this.eventProducer = eventProducer;
+        this.taskReadCache = taskReadCache;
+        this.taskWorkflowCache = taskWorkflowCache;
+        this.userByIdCache = userByIdCache;
+        this.cacheInvalidator = cacheInvalidator;
+        this.versionTracker = versionTracker;
+        this.maxBulkCommands = maxBulkCommands;
     }
 
 
@@ -46,22 +90,83 @@ public class TaskServiceImpl implements TaskService {
                 .orElseThrow(() ->
                         new TaskNotFoundException("Task with id " + taskId + " not found"));
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() ->
-                        new RuntimeException("User with id " + userId + " not found"));
+        UserSnapshot user = userByIdCache.get(
+                userId,
+                id -> userRepository.findById(id).map(UserSnapshot::of).orElse(null)
+        );
+
+        if (user == null) {
+            throw new RuntimeException("User with id " + userId + " not found");
+        }
+
+        task.setAssignedTo(userRepository.getReferenceById(user.id()));
+
+        // Assignment changes terminal tasks too, so bypass immutability
+        cacheInvalidator.evictTasks(task.getWorkflow().getId(), List.of(taskId));
 
-        task.setAssignedTo(user);
         return TaskMapper.toResponse(task);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public TaskResponse getTask(Long taskId) {
 
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() ->
-                        new TaskNotFoundException("Task with id " + taskId + " not found"));
+        TaskResponse response = taskReadCache.get(
+                taskId,
+                id -> {
+                    // Version first: the snapshot can only be newer than its tag
+                    Long version = taskRepository.findWorkflowIdById(id)
+                            .map(versionTracker::current)
+                            .orElse(null);
+                    TaskResponse loaded = taskRepository.findById(id)
+                            .map(TaskMapper::toResponse)
+                            .orElse(null);
+                    if (loaded != null) {
+                        loaded.setEtagVersion(version);
+                    }
+                    return loaded;
+                },
+                t -> t.getStatus().isTerminal()
+        );
 
-        return TaskMapper.toResponse(task);
+        if (response == null) {
+            throw new TaskNotFoundException("Task with id " + taskId + " not found");
+        }
+
+        return response;
+    }
+
+    /**
+     * Tag of the current state, from caches and Redis only (plus one
+     * lookup the first time a task's workflow is needed). A cached
+     * terminal task keeps the tag it was served with: its body cannot
+     * change, so later bumps of the workflow version do not stale it.
+     */
+    @Override
+    public String currentETag(Long taskId) {
+
+        TaskResponse cached = taskReadCache.getIfPresent(taskId);
+
+        if (cached != null && cached.getStatus().isTerminal()) {
+            return cached.getEtagVersion() == null
+                    ? null
+                    : ETags.task(taskId, cached.getWorkflowId(), cached.getEtagVersion());
+        }
+
+        Long workflowId = cached != null
+                ? cached.getWorkflowId()
+                : taskWorkflowCache.get(
+                        taskId,
+                        id -> taskRepository.findWorkflowIdById(id).orElse(null),
+                        w -> true
+                );
+
+        if (workflowId == null) {
+            return null;
+        }
+
+        Long version = versionTracker.current(workflowId);
+        return version == null ? null : ETags.task(taskId, workflowId, version);
     }
 
     @Override
@@ -79,44 +184,250 @@ public class TaskServiceImpl implements TaskService {
             return TaskMapper.toResponse(task);
         }
 
-        validateTransition(current, newStatus);
+        if (!transition(task.getWorkflow().getId(), taskId, current, newStatus)) {
+            throw new TaskTransitionConflictException(
+                    "Task " + taskId + " is no longer " + current);
+        }
 
-        task.setStatus(newStatus);
-        taskRepository.save(task);
+        // The managed entity is left untouched: the CAS already bumped its version
+        TaskResponse response = TaskMapper.toResponse(task);
+        response.setStatus(newStatus);
+
+        return response;
+    }
+
+    /**
+     * Single conditional UPDATE. Returns false when another caller moved
+     * the task first; callers that already know the workflow skip the SELECT.
+     */
+    @Override
+    @Transactional
+    public boolean transition(Long workflowId, Long taskId, TaskStatus from, TaskStatus to) {
 
-        publishAfterCommit(task, current, newStatus);
+        validateTransition(from, to);
+
+        if (taskRepository.compareAndSetStatus(taskId, from, to, Instant.now()) == 0) {
+            log.info("Task {} transition {} → {} lost the race", taskId, from, to);
+            return false;
+        }
+
+        TaskCounterDelta delta = TaskCounterDelta.of(from, to);
+        workflowRepository.adjustTaskCounters(
+                workflowId,
+                delta.ready(), delta.running(), delta.completed(), delta.failed()
+        );
+
+        publishAfterCommit(workflowId, taskId, from, to);
+        cacheInvalidator.taskChanged(workflowId, taskId);
 
         log.info(
                 "Task {} status changed {} → {} (event scheduled after commit)",
-                task.getId(), current, newStatus
+                taskId, from, to
         );
 
-        return TaskMapper.toResponse(task);
+        return true;
     }
 
+    private record Transition(TaskStatus from, TaskStatus to) {}
 
-    private void validateTransition(TaskStatus from, TaskStatus to) {
+    /**
+     * Applies the commands in request order against row-locked tasks, then
+     * writes them set-based: one conditional UPDATE per (from, to) pair and
+     * round, one assignment UPDATE per user, one counter UPDATE per
+     * workflow. A task's k-th transition in the request runs in round k,
+     * so chained commands (READY → IN_PROGRESS → COMPLETED) work.
+     */
+    @Override
+    @Transactional
+    public BulkTaskCommandResponse executeBulk(List<TaskCommandRequest> commands) {
 
-        if (from == TaskStatus.COMPLETED || from == TaskStatus.FAILED) {
-            throw new IllegalStateException("Terminal state: " + from);
+        if (commands == null || commands.isEmpty()) {
+            throw new IllegalWorkflowOperationException("Bulk request must contain at least one command");
+        }
+        if (commands.size() > maxBulkCommands) {
+            throw new IllegalWorkflowOperationException(
+                    "Bulk request exceeds " + maxBulkCommands + " commands");
         }
 
-        if (from == TaskStatus.PENDING && to != TaskStatus.READY) {
-            throw new IllegalStateException("PENDING → READY only");
+        Set<Long> taskIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        for (TaskCommandRequest command : commands) {
+            if (command.getTaskId() != null) {
+                taskIds.add(command.getTaskId());
+            }
+            if (command.getUserId() != null) {
+                userIds.add(command.getUserId());
+            }
         }
 
-        if (from == TaskStatus.READY && to != TaskStatus.IN_PROGRESS) {
-            throw new IllegalStateException("READY → IN_PROGRESS only");
+        Map<Long, Task> tasks = new HashMap<>(taskIds.size() * 2);
+        for (Task task : taskRepository.findAllByIdForUpdate(taskIds)) {
+            tasks.put(task.getId(), task);
         }
+        Map<Long, UserSnapshot> users = resolveUsers(userIds);
+
+        Map<Long, TaskStatus> statusNow = new HashMap<>();
+        Map<Long, Integer> transitionsSoFar = new HashMap<>();
+        List<Map<Transition, List<Long>>> rounds = new ArrayList<>();
+        Map<Long, Long> assignments = new LinkedHashMap<>();
+
+        Map<Long, TaskCounterDelta> counters = new HashMap<>();
+        Map<Long, Set<Long>> changedTasks = new HashMap<>();
+        Map<Long, Set<Long>> reassignedTasks = new HashMap<>();
+        List<WorkflowEvent> events = new ArrayList<>();
+
+        List<TaskCommandResult> results = new ArrayList<>(commands.size());
+        int applied = 0;
+
+        for (int i = 0; i < commands.size(); i++) {
+
+            TaskCommandRequest command = commands.get(i);
+            Long taskId = command.getTaskId();
+            Task task = taskId == null ? null : tasks.get(taskId);
+
+            if (task == null) {
+                results.add(result(i, command, TaskCommandOutcome.NOT_FOUND, null,
+                        "Task with id " + taskId + " not found"));
+                continue;
+            }
+
+            Long workflowId = task.getWorkflow().getId();
+            TaskStatus current = statusNow.getOrDefault(taskId, task.getStatus());
+
+            if (command.getType() == null) {
+                results.add(result(i, command, TaskCommandOutcome.INVALID, current,
+                        "Command type is required"));
+                continue;
+            }
+
+            switch (command.getType()) {
+
+                case STATUS -> {
+                    TaskStatus target = command.getStatus();
+
+                    if (target == null) {
+                        results.add(result(i, command, TaskCommandOutcome.INVALID, current,
+                                "Target status is required"));
+                    } else if (target == current) {
+                        results.add(result(i, command, TaskCommandOutcome.UNCHANGED, current, null));
+                    } else if (!current.canTransitionTo(target)) {
+                        results.add(result(i, command, TaskCommandOutcome.INVALID, current,
+                                "Illegal transition " + current + " → " + target
+                                        + " (allowed: " + current.allowedTransitions() + ")"));
+                    } else {
+                        int round = transitionsSoFar.merge(taskId, 1, Integer::sum) - 1;
+                        if (round == rounds.size()) {
+                            rounds.add(new LinkedHashMap<>());
+                        }
+                        rounds.get(round)
+                                .computeIfAbsent(new Transition(current, target), k -> new ArrayList<>())
+                                .add(taskId);
+
+                        statusNow.put(taskId, target);
+                        counters.merge(workflowId, TaskCounterDelta.of(current, target), TaskCounterDelta::plus);
+                        changedTasks.computeIfAbsent(workflowId, k -> new HashSet<>()).add(taskId);
+                        events.add(WorkflowEventFactory.fromTaskStatusChange(workflowId, taskId, current, target));
+
+                        results.add(result(i, command, TaskCommandOutcome.APPLIED, target, null));
+                        applied++;
+                    }
+                }
+
+                case ASSIGN -> {
+                    UserSnapshot user = command.getUserId() == null ? null : users.get(command.getUserId());
 
-        if (from == TaskStatus.IN_PROGRESS &&
-                to != TaskStatus.COMPLETED &&
-                to != TaskStatus.FAILED) {
-            throw new IllegalStateException("Invalid IN_PROGRESS transition");
+                    if (user == null) {
+                        results.add(result(i, command, TaskCommandOutcome.NOT_FOUND, current,
+                                "User with id " + command.getUserId() + " not found"));
+                    } else {
+                        // Last assignment of a task wins
+                        assignments.remove(taskId);
+                        assignments.put(taskId, user.id());
+                        reassignedTasks.computeIfAbsent(workflowId, k -> new HashSet<>()).add(taskId);
+
+                        results.add(result(i, command, TaskCommandOutcome.APPLIED, current, null));
+                        applied++;
+                    }
+                }
+            }
         }
+
+        Instant now = Instant.now();
+
+        for (Map<Transition, List<Long>> round : rounds) {
+            round.forEach((transition, ids) -> {
+                int updated = taskRepository.compareAndSetStatusIn(ids, transition.from(), transition.to(), now);
+                // Rows are locked, so a short count means a bug, not a race
+                if (updated != ids.size()) {
+                    throw new IllegalStateException(
+                            "Bulk " + transition.from() + " → " + transition.to()
+                                    + " updated " + updated + " of " + ids.size() + " tasks");
+                }
+            });
+        }
+
+        Map<Long, List<Long>> byUser = new LinkedHashMap<>();
+        assignments.forEach((taskId, userId) ->
+                byUser.computeIfAbsent(userId, k -> new ArrayList<>()).add(taskId));
+        byUser.forEach((userId, ids) -> taskRepository.assignAll(ids, userRepository.getReferenceById(userId), now));
+
+        counters.forEach((workflowId, delta) -> workflowRepository.adjustTaskCounters(
+                workflowId,
+                delta.ready(), delta.running(), delta.completed(), delta.failed()
+        ));
+
+        publishAllAfterCommit(events);
+        changedTasks.forEach(cacheInvalidator::tasksChanged);
+        reassignedTasks.forEach(cacheInvalidator::evictTasks);
+
+        log.info("Bulk task commands: {} applied, {} rejected ({} events scheduled after commit)",
+                applied, commands.size() - applied, events.size());
+
+        return new BulkTaskCommandResponse(applied, commands.size() - applied, results);
     }
 
-    private void publishAfterCommit(Task task,
+    private Map<Long, UserSnapshot> resolveUsers(Set<Long> userIds) {
+
+        Map<Long, UserSnapshot> users = new HashMap<>(userIds.size() * 2);
+        List<Long> misses = new ArrayList<>();
+
+        for (Long id : userIds) {
+            UserSnapshot cached = userByIdCache.getIfPresent(id);
+            if (cached != null) {
+                users.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            for (User user : userRepository.findAllById(misses)) {
+                users.put(user.getId(), UserSnapshot.of(user));
+            }
+        }
+
+        return users;
+    }
+
+    private static TaskCommandResult result(int index,
+                                            TaskCommandRequest command,
+                                            TaskCommandOutcome outcome,
+                                            TaskStatus status,
+                                            String message) {
+        return new TaskCommandResult(
+                index, command.getTaskId(), command.getType(), outcome, status, message);
+    }
+
+    private void validateTransition(TaskStatus from, TaskStatus to) {
+        if (!from.canTransitionTo(to)) {
+            throw new IllegalStateException(
+                    "Illegal transition " + from + " → " + to
+                            + " (allowed: " + from.allowedTransitions() + ")");
+        }
+    }
+
+    private void publishAfterCommit(Long workflowId,
+                                    Long taskId,
                                     TaskStatus from,
                                     TaskStatus to) {
 
@@ -126,8 +437,8 @@ public class TaskServiceImpl implements TaskService {
 
         WorkflowEvent event =
                 WorkflowEventFactory.fromTaskStatusChange(
-                        task.getWorkflow().getId(),
-                        task.getId(),
+                        workflowId,
+                        taskId,
                         from,
                         to
                 );
@@ -144,4 +455,20 @@ public class TaskServiceImpl implements TaskService {
                 }
         );
     }
+
+    private void publishAllAfterCommit(List<WorkflowEvent> events) {
+
+        if (events.isEmpty()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        eventProducer.publishAll(events);
+                    }
+                }
+        );
+    }
 }
@@ -0,0 +1,153 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.enums.TaskStatus;
+import com.arsh.workflow.model.Task;
+import com.arsh.workflow.model.Workflow;
+import com.arsh.workflow.repository.TaskRepository;
+import com.arsh.workflow.repository.WorkflowRepository;
+import com.arsh.workflow.repository.projection.TaskEdgeView;
+import com.arsh.workflow.repository.projection.TaskNodeView;
+import com.arsh.workflow.repository.projection.WorkflowTemplateView;
+import com.arsh.workflow.service.DependencyResolver;
+import com.arsh.workflow.validation.CompiledTemplate;
+import com.arsh.workflow.validation.DagGraph;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Edges of template runs, read from the compiled template rather than
+ * from per-run rows. Only the statuses of the tasks involved are read.
+ */
+@Component
+@RequiredArgsConstructor
+public class TemplateDependencyResolver implements DependencyResolver {
+
+    private record Edge(Long taskId, Long parentId) implements TaskEdgeView {
+
+        @Override
+        public Long getTaskId() {
+            return taskId;
+        }
+
+        @Override
+        public Long getParentId() {
+            return parentId;
+        }
+    }
+
+    private final TaskRepository taskRepository;
+    private final WorkflowRepository workflowRepository;
+    private final WorkflowTemplateRegistry templateRegistry;
+
+    /**
+     * One UPDATE per distinct template among the workflows; its roots
+     * are its first {@code rootCount} nodes.
+     */
+    @Override
+    public int promoteRoots(Collection<Long> workflowIds, Instant now) {
+
+        Map<Long, List<Long>> byTemplate = new LinkedHashMap<>();
+        for (WorkflowTemplateView run : workflowRepository.findTemplateIds(workflowIds)) {
+            byTemplate.computeIfAbsent(run.getTemplateId(), k -> new ArrayList<>()).add(run.getId());
+        }
+
+        int promoted = 0;
+        for (Map.Entry<Long, List<Long>> runs : byTemplate.entrySet()) {
+            int roots = templateRegistry.get(runs.getKey()).rootCount();
+            promoted += taskRepository.promoteTemplateRootsToReady(runs.getValue(), roots, now);
+        }
+        return promoted;
+    }
+
+    /**
+     * A template's root count is known without reading the runs' tasks.
+     */
+    @Override
+    public Map<Long, Integer> countRoots(Collection<Long> workflowIds) {
+        Map<Long, Integer> roots = new HashMap<>();
+        for (WorkflowTemplateView run : workflowRepository.findTemplateIds(workflowIds)) {
+            roots.put(run.getId(), templateRegistry.get(run.getTemplateId()).rootCount());
+        }
+        return roots;
+    }
+
+    @Override
+    public List<Long> findUnlockableDependents(Task completed) {
+
+        DagGraph graph = templateRegistry.get(completed.getWorkflow().getTemplateId()).graph();
+        int node = completed.getTemplateNode();
+
+        if (graph.childrenStart(node) == graph.childrenEnd(node)) {
+            return List.of();
+        }
+
+        // Children of the node and every parent of those children
+        Set<Integer> involved = new HashSet<>();
+        for (int k = graph.childrenStart(node); k < graph.childrenEnd(node); k++) {
+            int child = graph.childAt(k);
+            involved.add(child);
+            for (int p = graph.parentsStart(child); p < graph.parentsEnd(child); p++) {
+                involved.add(graph.parentAt(p));
+            }
+        }
+
+        Map<Integer, TaskNodeView> tasks = new HashMap<>(involved.size() * 2);
+        for (TaskNodeView task : taskRepository.findNodeStates(completed.getWorkflow().getId(), involved)) {
+            tasks.put(task.getTemplateNode(), task);
+        }
+
+        List<Long> unlockable = new ArrayList<>();
+        for (int k = graph.childrenStart(node); k < graph.childrenEnd(node); k++) {
+            int child = graph.childAt(k);
+            TaskNodeView task = tasks.get(child);
+            if (task != null && task.getStatus() == TaskStatus.PENDING && parentsCompleted(graph, child, tasks)) {
+                unlockable.add(task.getId());
+            }
+        }
+        return unlockable;
+    }
+
+    @Override
+    public List<TaskEdgeView> findEdges(Workflow workflow) {
+
+        CompiledTemplate template = templateRegistry.get(workflow.getTemplateId());
+        DagGraph graph = template.graph();
+
+        Long[] idOf = new Long[template.size()];
+        for (TaskNodeView task : taskRepository.findTemplateTasks(workflow.getId())) {
+            idOf[task.getTemplateNode()] = task.getId();
+        }
+
+        List<TaskEdgeView> edges = new ArrayList<>(template.edgeCount());
+        for (int node = 0; node < idOf.length; node++) {
+            if (idOf[node] == null) continue;
+            for (int k = graph.parentsStart(node); k < graph.parentsEnd(node); k++) {
+                Long parentId = idOf[graph.parentAt(k)];
+                if (parentId != null) {
+                    edges.add(new Edge(idOf[node], parentId));
+                }
+            }
+        }
+        return edges;
+    }
+
+    private static boolean parentsCompleted(DagGraph graph, int node, Map<Integer, TaskNodeView> tasks) {
+        for (int k = graph.parentsStart(node); k < graph.parentsEnd(node); k++) {
+            TaskNodeView parent = tasks.get(graph.parentAt(k));
+            if (parent == null || parent.getStatus() != TaskStatus.COMPLETED) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
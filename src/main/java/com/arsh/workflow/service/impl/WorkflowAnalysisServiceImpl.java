@@ -0,0 +1,93 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.cache.NearCache;
+import com.arsh.workflow.dto.response.WorkflowAnalysisResponse;
+import com.arsh.workflow.exception.WorkflowNotFoundException;
+import com.arsh.workflow.model.Workflow;
+import com.arsh.workflow.repository.TaskRepository;
+import com.arsh.workflow.repository.WorkflowRepository;
+import com.arsh.workflow.repository.projection.TaskEdgeView;
+import com.arsh.workflow.service.DependencyResolver;
+import com.arsh.workflow.service.WorkflowAnalysisService;
+import com.arsh.workflow.util.DagAnalyzer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WorkflowAnalysisServiceImpl implements WorkflowAnalysisService {
+
+    private final WorkflowRepository workflowRepository;
+    private final TaskRepository taskRepository;
+    private final DependencyResolver dependencyResolver;
+    private final NearCache<String, WorkflowAnalysisResponse> workflowAnalysisCache;
+
+    /**
+     * Keyed by (workflow, dag_version): a version never changes shape,
+     * so entries are immutable and need no invalidation.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public WorkflowAnalysisResponse analyze(Long workflowId) {
+
+        Workflow workflow = workflowRepository.findById(workflowId)
+                .orElseThrow(() ->
+                        new WorkflowNotFoundException("Workflow not found"));
+
+        if (!workflow.getCreatedBy().equals(getCurrentUser())) {
+            throw new AccessDeniedException("Not your workflow");
+        }
+
+        long dagVersion = workflow.getDagVersion();
+
+        return workflowAnalysisCache.get(
+                workflowId + ":" + dagVersion,
+                key -> compute(workflow, dagVersion),
+                a -> true
+        );
+    }
+
+    private WorkflowAnalysisResponse compute(Workflow workflow, long dagVersion) {
+
+        Long workflowId = workflow.getId();
+
+        long start = System.nanoTime();
+
+        // Ordered by id, which the analyzer relies on for binary search
+        long[] ids = taskRepository.findIdsByWorkflowId(workflowId, Pageable.unpaged())
+                .stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+
+        List<TaskEdgeView> edges = dependencyResolver.findEdges(workflow);
+        long[] parents = new long[edges.size()];
+        long[] children = new long[edges.size()];
+        for (int k = 0; k < parents.length; k++) {
+            parents[k] = edges.get(k).getParentId();
+            children[k] = edges.get(k).getTaskId();
+        }
+
+        WorkflowAnalysisResponse analysis =
+                DagAnalyzer.analyze(workflowId, dagVersion, ids, parents, children);
+
+        log.info("Analysed workflow {} v{} ({} tasks, {} deps) in {} ms",
+                workflowId, dagVersion, ids.length, parents.length,
+                (System.nanoTime() - start) / 1_000_000);
+
+        return analysis;
+    }
+
+    private String getCurrentUser() {
+        return SecurityContextHolder.getContext()
+                .getAuthentication()
+                .getName();
+    }
+}
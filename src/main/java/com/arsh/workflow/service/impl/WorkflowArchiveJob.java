@@ -0,0 +1,102 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.service.WorkflowArchiveService;
+import com.arsh.workflow.util.RedisDistributedLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Periodically moves terminal workflows older than the retention period
+ * into the archive. Candidates are fetched in chunks and each workflow is
+ * archived on its own, its rows deleted in short per-chunk transactions,
+ * so running workflows never wait on the archiver. Only one node runs a
+ * pass at a time.
+ */
+@Component
+@Slf4j
+public class WorkflowArchiveJob {
+
+    private static final String LOCK_KEY = "workflow:archiver:lock";
+
+    private final WorkflowArchiveService workflowArchiveService;
+    private final RedisDistributedLock redisDistributedLock;
+    private final Duration retention;
+    private final int chunkSize;
+    private final int maxPerRun;
+
+    public WorkflowArchiveJob(
+            WorkflowArchiveService workflowArchiveService,
+            RedisDistributedLock redisDistributedLock,
+            @Value("${workflow.archive.retention-days:30}") long retentionDays,
+            @Value("${workflow.archive.chunk-size:100}") int chunkSize,
+            @Value("${workflow.archive.max-per-run:10000}") int maxPerRun
+    ) {
+        this.workflowArchiveService = workflowArchiveService;
+        this.redisDistributedLock = redisDistributedLock;
+        this.retention = Duration.ofDays(retentionDays);
+        this.chunkSize = chunkSize;
+        this.maxPerRun = maxPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${workflow.archive.interval-ms:600000}")
+    public void archiveExpired() {
+
+        String token;
+        try {
+            token = redisDistributedLock.tryLock(LOCK_KEY, Duration.ofMinutes(30));
+        } catch (Exception e) {
+            log.warn("Archiver skipped, lock unavailable: {}", e.getMessage());
+            return;
+        }
+
+        if (token == null) {
+            return;
+        }
+
+        try {
+            runPass(Instant.now().minus(retention));
+        } finally {
+            redisDistributedLock.releaseLock(LOCK_KEY, token);
+        }
+    }
+
+    private void runPass(Instant cutoff) {
+        int archived = 0;
+
+        while (archived < maxPerRun) {
+
+            List<Long> chunk = workflowArchiveService.findArchivable(cutoff, chunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            int moved = 0;
+            for (Long workflowId : chunk) {
+                try {
+                    if (workflowArchiveService.archive(workflowId)) {
+                        moved++;
+                    }
+                } catch (Exception e) {
+                    log.error("Unable to archive workflow {}: {}", workflowId, e.getMessage(), e);
+                }
+            }
+
+            archived += moved;
+
+            // Everything in the chunk failed; stop instead of spinning on it
+            if (moved == 0) {
+                break;
+            }
+        }
+
+        if (archived > 0) {
+            log.info("Archived {} workflows older than {}", archived, cutoff);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.cache.CacheInvalidator;
+import com.arsh.workflow.dto.response.WorkflowResponse;
+import com.arsh.workflow.enums.WorkflowStatus;
+import com.arsh.workflow.mapper.WorkflowMapper;
+import com.arsh.workflow.model.ArchivedWorkflow;
+import com.arsh.workflow.model.Workflow;
+import com.arsh.workflow.repository.ArchivedWorkflowRepository;
+import com.arsh.workflow.repository.TaskRepository;
+import com.arsh.workflow.repository.WorkflowRepository;
+import com.arsh.workflow.repository.projection.TaskEdgeView;
+import com.arsh.workflow.repository.projection.TaskRowView;
+import com.arsh.workflow.service.DependencyResolver;
+import com.arsh.workflow.service.WorkflowArchiveService;
+import com.arsh.workflow.util.WorkflowArchiveCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@Slf4j
+public class WorkflowArchiveServiceImpl implements WorkflowArchiveService {
+
+    private static final List<WorkflowStatus> TERMINAL =
+            List.of(WorkflowStatus.COMPLETED, WorkflowStatus.FAILED);
+
+    private final WorkflowRepository workflowRepository;
+    private final TaskRepository taskRepository;
+    private final DependencyResolver dependencyResolver;
+    private final ArchivedWorkflowRepository archivedWorkflowRepository;
+    private final CacheInvalidator cacheInvalidator;
+    private final WorkflowPurger workflowPurger;
+    private final TransactionTemplate transactionTemplate;
+
+    public WorkflowArchiveServiceImpl(WorkflowRepository workflowRepository,
+                                      TaskRepository taskRepository,
+                                      DependencyResolver dependencyResolver,
+                                      ArchivedWorkflowRepository archivedWorkflowRepository,
+                                      CacheInvalidator cacheInvalidator,
+                                      WorkflowPurger workflowPurger,
+                                      TransactionTemplate transactionTemplate) {
+        this.workflowRepository = workflowRepository;
+        this.taskRepository = taskRepository;
+        this.dependencyResolver = dependencyResolver;
+        this.archivedWorkflowRepository = archivedWorkflowRepository;
+        this.cacheInvalidator = cacheInvalidator;
+        this.workflowPurger = workflowPurger;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findArchivable(Instant cutoff, int limit) {
+        return workflowRepository.findArchivableIds(TERMINAL, cutoff, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Moves one terminal workflow into the archive. The archive row is
+     * written and the workflow marked DELETING in one short transaction;
+     * its rows are then reclaimed by {@link WorkflowPurger}, a chunk per
+     * committed transaction. A pass cut short leaves the workflow
+     * DELETING with its archive in place, and the purger's stalled-delete
+     * sweep finishes it. Returns false if it is gone, no longer terminal
+     * or already being deleted.
+     */
+    @Override
+    public boolean archive(Long workflowId) {
+
+        Boolean archived = transactionTemplate.execute(status -> {
+            if (writeArchive(workflowId)) {
+                return true;
+            }
+            status.setRollbackOnly();
+            return false;
+        });
+
+        if (!Boolean.TRUE.equals(archived)) {
+            return false;
+        }
+
+        workflowPurger.purge(workflowId);
+        return true;
+    }
+
+    private boolean writeArchive(Long workflowId) {
+
+        Workflow workflow = workflowRepository.findById(workflowId).orElse(null);
+
+        if (workflow == null || !workflow.getStatus().isTerminal()) {
+            return false;
+        }
+
+        List<TaskRowView> tasks = taskRepository.findRowsByWorkflowId(workflowId);
+        List<TaskEdgeView> edges = dependencyResolver.findEdges(workflow);
+
+        byte[] dag = WorkflowArchiveCodec.encode(tasks, edges);
+        archivedWorkflowRepository.save(new ArchivedWorkflow(workflow, tasks.size(), dag));
+
+        // Lost to a concurrent delete: roll the archive row back with it
+        if (workflowRepository.markDeleting(workflowId, Instant.now()) == 0) {
+            return false;
+        }
+        cacheInvalidator.evictWorkflow(workflowId);
+
+        log.info("Workflow {} archived | tasks={} | edges={} | bytes={}",
+                workflowId, tasks.size(), edges.size(), dag.length);
+
+        return true;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<WorkflowResponse> findArchived(Long workflowId) {
+        return archivedWorkflowRepository.findById(workflowId)
+                .map(archived -> WorkflowMapper.toResponse(
+                        archived,
+                        WorkflowArchiveCodec.decodeTasks(workflowId, archived.getDag())
+                ));
+    }
+
+    @Override
+    @Transactional
+    public void deleteArchived(Long workflowId) {
+        archivedWorkflowRepository.deleteById(workflowId);
+        cacheInvalidator.evictWorkflow(workflowId);
+    }
+}
@@ -0,0 +1,314 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.dto.request.BatchTaskRequest;
+import com.arsh.workflow.dto.request.BulkWorkflowRequest;
+import com.arsh.workflow.dto.response.BulkWorkflowResponse;
+import com.arsh.workflow.exception.InvalidWorkflowDefinitionException;
+import com.arsh.workflow.exception.WorkflowTemplateNotFoundException;
+import com.arsh.workflow.model.WorkflowTemplate;
+import com.arsh.workflow.repository.TaskBatchWriter;
+import com.arsh.workflow.repository.WorkflowBatchWriter;
+import com.arsh.workflow.repository.WorkflowTemplateRepository;
+import com.arsh.workflow.service.WorkflowBulkService;
+import com.arsh.workflow.util.Placeholders;
+import com.arsh.workflow.validation.CompiledTemplate;
+import com.arsh.workflow.validation.DagGraph;
+import com.arsh.workflow.validation.WorkflowGraphValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Creates many workflows in one transaction with a fixed number of
+ * batched statements, however many workflows there are: one for the
+ * workflow rows, one for all their tasks (each workflow's in topological
+ * order), one for all edges and, when starting, one for the start queue.
+ * Starts are then admitted like any other, a pass at a time.
+ * <p>
+ * Runs of a published template are not validated again and store no
+ * edges: each task records its template node and shares the template's.
+ */
+@Service
+@Slf4j
+public class WorkflowBulkServiceImpl implements WorkflowBulkService {
+
+    // templateId is set for runs of a published template, whose nodes are the tasks
+    private record Definition(String name, List<BatchTaskRequest> tasks, DagGraph dag, Long templateId) {}
+
+    private final WorkflowGraphValidator workflowGraphValidator;
+    private final WorkflowBatchWriter workflowBatchWriter;
+    private final TaskBatchWriter taskBatchWriter;
+    private final WorkflowQuotaGuard quotaGuard;
+    private final WorkflowTemplateRepository templateRepository;
+    private final WorkflowTemplateRegistry templateRegistry;
+    private final int maxWorkflows;
+    private final int maxTasks;
+
+    public WorkflowBulkServiceImpl(WorkflowGraphValidator workflowGraphValidator,
+                                   WorkflowBatchWriter workflowBatchWriter,
+                                   TaskBatchWriter taskBatchWriter,
+                                   WorkflowQuotaGuard quotaGuard,
+                                   WorkflowTemplateRepository templateRepository,
+                                   WorkflowTemplateRegistry templateRegistry,
+                                   @Value("${workflow.bulk.max-workflows:1000}") int maxWorkflows,
+                                   @Value("${workflow.bulk.max-tasks:100000}") int maxTasks) {
+        this.workflowGraphValidator = workflowGraphValidator;
+        this.workflowBatchWriter = workflowBatchWriter;
+        this.taskBatchWriter = taskBatchWriter;
+        this.quotaGuard = quotaGuard;
+        this.templateRepository = templateRepository;
+        this.templateRegistry = templateRegistry;
+        this.maxWorkflows = maxWorkflows;
+        this.maxTasks = maxTasks;
+    }
+
+    private String getCurrentUser() {
+        return SecurityContextHolder.getContext()
+                .getAuthentication()
+                .getName();
+    }
+
+    @Override
+    @Transactional
+    public BulkWorkflowResponse createWorkflows(BulkWorkflowRequest request) {
+
+        List<Definition> definitions = definitionsOf(request);
+
+        // One source per request, so either every definition is a template run or none is
+        Long templateId = definitions.get(0).templateId();
+
+        int taskCount = 0;
+        int edgeCount = 0;
+        for (Definition d : definitions) {
+            taskCount += d.tasks().size();
+            edgeCount += templateId == null ? d.dag().edgeCount() : 0;
+        }
+
+        String user = getCurrentUser();
+        Instant now = Instant.now();
+
+        // Before any insert, so a refused start leaves nothing behind
+        if (request.isStart()) {
+            quotaGuard.checkStart(user, definitions.size(), taskCount);
+        }
+
+        // ---- Workflows ----
+        List<String> names = new ArrayList<>(definitions.size());
+        int[] taskCounts = new int[definitions.size()];
+        for (int w = 0; w < definitions.size(); w++) {
+            names.add(definitions.get(w).name());
+            taskCounts[w] = definitions.get(w).tasks().size();
+        }
+
+        long[] workflowIds = workflowBatchWriter.insertWorkflows(names, taskCounts, templateId, user, now);
+
+        // ---- Tasks: all workflows in one batch, parents first within each ----
+        long[] taskWorkflow = new long[taskCount];
+        long[] taskOrder = new long[taskCount];
+        int[] templateNodes = templateId == null ? null : new int[taskCount];
+        List<BatchTaskRequest> ordered = new ArrayList<>(taskCount);
+        int[] firstRow = new int[definitions.size()];
+
+        for (int w = 0, row = 0; w < definitions.size(); w++) {
+            Definition d = definitions.get(w);
+            firstRow[w] = row;
+            for (int position = 0; position < d.tasks().size(); position++, row++) {
+                int node = d.dag().topologicalAt(position);
+                ordered.add(d.tasks().get(node));
+                taskWorkflow[row] = workflowIds[w];
+                taskOrder[row] = position;
+                if (templateNodes != null) {
+                    templateNodes[row] = node;
+                }
+            }
+        }
+
+        long[] taskIds = taskBatchWriter.insertTasks(taskWorkflow, ordered, taskOrder, templateNodes, user, now);
+
+        // ---- Edges (none for template runs) ----
+        long[] children = new long[edgeCount];
+        long[] parents = new long[edgeCount];
+        int e = 0;
+
+        for (int w = 0; w < definitions.size() && templateId == null; w++) {
+            DagGraph dag = definitions.get(w).dag();
+            int[] rowOf = rowsByNode(dag, firstRow[w]);
+
+            for (int i = 0; i < dag.size(); i++) {
+                for (int k = dag.parentsStart(i); k < dag.parentsEnd(i); k++) {
+                    children[e] = taskIds[rowOf[i]];
+                    parents[e] = taskIds[rowOf[dag.parentAt(k)]];
+                    e++;
+                }
+            }
+        }
+
+        taskBatchWriter.insertDependencies(children, parents, e);
+
+        if (request.isStart()) {
+            workflowBatchWriter.enqueueStarts(workflowIds, user, now);
+        }
+
+        log.info("Bulk created {} workflow(s) with {} task(s) and {} dependencies (start={})",
+                workflowIds.length, taskCount, e, request.isStart());
+
+        return new BulkWorkflowResponse(
+                Arrays.stream(workflowIds).boxed().toList(),
+                taskCount,
+                e,
+                request.isStart()
+        );
+    }
+
+    /**
+     * Explicit definitions are validated one by one; an inline template
+     * once, its graph then shared by every instance; a published
+     * template not at all.
+     */
+    private List<Definition> definitionsOf(BulkWorkflowRequest request) {
+
+        boolean explicit = request.getWorkflows() != null && !request.getWorkflows().isEmpty();
+        boolean inline = request.getTemplate() != null;
+        boolean published = request.getTemplateId() != null;
+
+        if ((explicit ? 1 : 0) + (inline ? 1 : 0) + (published ? 1 : 0) != 1) {
+            throw new InvalidWorkflowDefinitionException(List.of(
+                    "Bulk request must contain exactly one of workflows, template or templateId."));
+        }
+
+        if (explicit && request.getWorkflows().size() > maxWorkflows) {
+            throw tooMany(request.getWorkflows().size());
+        }
+
+        List<Definition> definitions = explicit
+                ? request.getWorkflows().stream()
+                        .map(w -> definition(w.getName(), w.getTasks()))
+                        .toList()
+                : instantiate(inline ? definition(request.getTemplate().getName(), request.getTemplate().getTasks())
+                                     : published(request.getTemplateId()),
+                              request.getParameters());
+
+        checkLimits(definitions);
+        return definitions;
+    }
+
+    private Definition definition(String name, List<BatchTaskRequest> tasks) {
+
+        if (name == null || name.isBlank()) {
+            throw new InvalidWorkflowDefinitionException(List.of("Workflow name cannot be blank."));
+        }
+        if (tasks == null || tasks.isEmpty()) {
+            throw new InvalidWorkflowDefinitionException(
+                    List.of("Workflow '" + name + "' must contain at least one task."));
+        }
+        return new Definition(name, tasks, workflowGraphValidator.validateOrThrow(tasks), null);
+    }
+
+    /**
+     * A published template as a definition: tasks in node order, over
+     * the cached graph.
+     */
+    private Definition published(Long templateId) {
+
+        WorkflowTemplate row = templateRepository.findById(templateId)
+                .orElseThrow(() -> new WorkflowTemplateNotFoundException("Template not found"));
+
+        if (!row.getCreatedBy().equals(getCurrentUser())) {
+            throw new AccessDeniedException("Not your template");
+        }
+
+        CompiledTemplate template = templateRegistry.get(templateId);
+        List<BatchTaskRequest> tasks = new ArrayList<>(template.size());
+
+        for (int node = 0; node < template.size(); node++) {
+            BatchTaskRequest task = new BatchTaskRequest();
+            task.setClientId(template.clientId(node));
+            task.setTitle(template.title(node));
+            task.setDescription(template.description(node));
+            tasks.add(task);
+        }
+        return new Definition(row.getName(), tasks, template.graph(), templateId);
+    }
+
+    private List<Definition> instantiate(Definition shape, List<Map<String, String>> parameters) {
+
+        if (parameters == null || parameters.isEmpty()) {
+            throw new InvalidWorkflowDefinitionException(
+                    List.of("Template requires at least one parameter set."));
+        }
+        if (parameters.size() > maxWorkflows) {
+            throw tooMany(parameters.size());
+        }
+
+        List<Definition> definitions = new ArrayList<>(parameters.size());
+        List<String> errors = new ArrayList<>();
+
+        for (int p = 0; p < parameters.size(); p++) {
+
+            Map<String, String> values = parameters.get(p) == null ? Map.of() : parameters.get(p);
+            TreeSet<String> missing = new TreeSet<>();
+
+            String name = Placeholders.substitute(shape.name(), values, missing);
+            List<BatchTaskRequest> tasks = new ArrayList<>(shape.tasks().size());
+
+            for (BatchTaskRequest t : shape.tasks()) {
+                BatchTaskRequest task = new BatchTaskRequest();
+                task.setClientId(t.getClientId());
+                task.setTitle(Placeholders.substitute(t.getTitle(), values, missing));
+                task.setDescription(Placeholders.substitute(t.getDescription(), values, missing));
+                task.setDependsOn(t.getDependsOn());
+                tasks.add(task);
+            }
+
+            if (!missing.isEmpty()) {
+                errors.add("Parameter set #" + (p + 1) + " has no value for " + missing);
+            }
+            definitions.add(new Definition(name, tasks, shape.dag(), shape.templateId()));
+        }
+
+        if (!errors.isEmpty()) {
+            throw new InvalidWorkflowDefinitionException(errors);
+        }
+        return definitions;
+    }
+
+    private void checkLimits(List<Definition> definitions) {
+
+        if (definitions.size() > maxWorkflows) {
+            throw tooMany(definitions.size());
+        }
+
+        long tasks = definitions.stream().mapToLong(d -> d.tasks().size()).sum();
+        if (tasks > maxTasks) {
+            throw new InvalidWorkflowDefinitionException(List.of(
+                    "Bulk request has " + tasks + " tasks; at most " + maxTasks + " are allowed."));
+        }
+    }
+
+    private InvalidWorkflowDefinitionException tooMany(int workflows) {
+        return new InvalidWorkflowDefinitionException(List.of(
+                "Bulk request has " + workflows + " workflows; at most " + maxWorkflows + " are allowed."));
+    }
+
+    /**
+     * Batch row of each node, given that nodes were inserted in
+     * topological order from {@code firstRow}.
+     */
+    private static int[] rowsByNode(DagGraph dag, int firstRow) {
+        int[] rows = new int[dag.size()];
+        for (int position = 0; position < rows.length; position++) {
+            rows[dag.topologicalAt(position)] = firstRow + position;
+        }
+        return rows;
+    }
+}
@@ -1,11 +1,16 @@
 package com.arsh.workflow.service.impl;
 
-import com.arsh.workflow.enums.TaskStatus;
+import com.arsh.workflow.cache.CacheInvalidator;
 import com.arsh.workflow.enums.WorkflowStatus;
+import com.arsh.workflow.events.AfterCommitExecutor;
+import com.arsh.workflow.events.WorkflowEvent;
+import com.arsh.workflow.events.WorkflowEventFactory;
+import com.arsh.workflow.events.producer.WorkflowEventProducer;
 import com.arsh.workflow.exception.TaskNotFoundException;
 import com.arsh.workflow.model.Task;
-import com.arsh.workflow.model.Workflow;
 import com.arsh.workflow.repository.TaskRepository;
+import com.arsh.workflow.repository.WorkflowRepository;
+import com.arsh.workflow.service.DependencyResolver;
 import com.arsh.workflow.service.WorkflowCoordinator;
 import com.arsh.workflow.service.WorkflowExecutorService;
 import jakarta.transaction.Transactional;
@@ -13,13 +18,21 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class WorkflowCoordinatorImpl implements WorkflowCoordinator {
 
     private final TaskRepository taskRepository;
+    private final DependencyResolver dependencyResolver;
+    private final WorkflowRepository workflowRepository;
     private final WorkflowExecutorService workflowExecutorService;
+    private final CacheInvalidator cacheInvalidator;
+    private final WorkflowEventProducer eventProducer;
+    private final AfterCommitExecutor afterCommitExecutor;
 
     @Override
     @Transactional
@@ -28,26 +41,27 @@ public class WorkflowCoordinatorImpl implements WorkflowCoordinator {
         Task completedTask = taskRepository.findById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException("Task not found"));
 
-        Workflow workflow = completedTask.getWorkflow();
+        Long workflowId = completedTask.getWorkflow().getId();
+
+        // 1. Unlock dependents whose parents are all COMPLETED (set-based)
+        List<Long> unlockable = dependencyResolver.findUnlockableDependents(completedTask);
 
-        // 1. Unlock dependent tasks
-        for (Task candidate : workflow.getTasks()) {
+        if (!unlockable.isEmpty()) {
+            int unlocked = taskRepository.promotePendingToReady(unlockable, Instant.now());
 
-            if (candidate.getStatus() != TaskStatus.PENDING) continue;
+            workflowRepository.adjustTaskCounters(workflowId, unlocked, 0, 0, 0);
+            cacheInvalidator.tasksChanged(workflowId, unlockable);
 
-            boolean ready = candidate.getDependsOn()
-                    .stream()
-                    .allMatch(t -> t.getStatus() == TaskStatus.COMPLETED);
+            log.info("Unlocked {} task(s) {} (workflow={})", unlocked, unlockable, workflowId);
+        }
 
-            if (ready) {
-                candidate.setStatus(TaskStatus.READY);
-                log.info("Task {} unlocked (workflow={})",
-                        candidate.getId(), workflow.getId());
-            }
+        // 2. Completion is a counter comparison, not a scan
+        if (finishWorkflow(workflowId, WorkflowStatus.COMPLETED)) {
+            return;
         }
 
-        checkAndCompleteWorkflow(workflow);
-        workflowExecutorService.executeWorkflow(workflow.getId());
+        // Pool threads read through their own connections: submit once the promotions are visible
+        afterCommitExecutor.execute(() -> workflowExecutorService.executeWorkflow(workflowId));
     }
 
     @Override
@@ -57,19 +71,33 @@ public class WorkflowCoordinatorImpl implements WorkflowCoordinator {
         Task failedTask = taskRepository.findById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException("Task not found"));
 
-        workflowExecutorService.executeWorkflow(
-                failedTask.getWorkflow().getId()
-        );
+        // A permanently failed task ends the workflow; tasks already
+        // in flight finish, but nothing new is scheduled.
+        finishWorkflow(failedTask.getWorkflow().getId(), WorkflowStatus.FAILED);
     }
 
-    private void checkAndCompleteWorkflow(Workflow workflow) {
-        boolean allCompleted = workflow.getTasks()
-                .stream()
-                .allMatch(t -> t.getStatus() == TaskStatus.COMPLETED);
+    /**
+     * Conditional transition to a terminal status. Only the caller whose
+     * UPDATE matched publishes the workflow event.
+     */
+    private boolean finishWorkflow(Long workflowId, WorkflowStatus terminal) {
+
+        int updated = terminal == WorkflowStatus.COMPLETED
+                ? workflowRepository.completeIfAllTasksCompleted(workflowId, Instant.now())
+                : workflowRepository.failIfAnyTaskFailed(workflowId, Instant.now());
 
-        if (allCompleted && workflow.getStatus() != WorkflowStatus.COMPLETED) {
-            workflow.setStatus(WorkflowStatus.COMPLETED);
-            log.info("WORKFLOW COMPLETED | workflowId={}", workflow.getId());
+        if (updated == 0) {
+            return false;
         }
+
+        log.info("WORKFLOW {} | workflowId={}", terminal, workflowId);
+
+        cacheInvalidator.workflowChanged(workflowId);
+
+        WorkflowEvent event =
+                WorkflowEventFactory.fromWorkflowStatusChange(workflowId, terminal);
+        afterCommitExecutor.execute(() -> eventProducer.publish(workflowId, event));
+
+        return true;
     }
 }
@@ -1,30 +1,81 @@
 package com.arsh.workflow.service.impl;
 
+import com.arsh.workflow.cache.CacheInvalidator;
 import com.arsh.workflow.dto.request.BatchTaskRequest;
+import com.arsh.workflow.dto.request.DagAppendRequest;
+import com.arsh.workflow.dto.request.DependencyRequest;
+import com.arsh.workflow.dto.response.DagBatchResult;
+import com.arsh.workflow.dto.response.DagStreamResult;
 import com.arsh.workflow.dto.response.TaskResponse;
 import com.arsh.workflow.enums.TaskStatus;
 import com.arsh.workflow.enums.WorkflowStatus;
+import com.arsh.workflow.exception.IllegalWorkflowOperationException;
+import com.arsh.workflow.exception.InvalidWorkflowDefinitionException;
 import com.arsh.workflow.exception.WorkflowNotFoundException;
 import com.arsh.workflow.mapper.TaskMapper;
 import com.arsh.workflow.model.Task;
 import com.arsh.workflow.model.Workflow;
+import com.arsh.workflow.repository.TaskBatchWriter;
+import com.arsh.workflow.repository.TaskRepository;
 import com.arsh.workflow.repository.WorkflowRepository;
+import com.arsh.workflow.repository.projection.TaskEdgeView;
+import com.arsh.workflow.repository.projection.TaskOrderView;
 import com.arsh.workflow.service.WorkflowDagService;
+import com.arsh.workflow.validation.DagGraph;
+import com.arsh.workflow.validation.IncrementalTopologicalOrder;
+import com.arsh.workflow.validation.StreamingTaskReader;
+import com.arsh.workflow.validation.TransitiveReduction;
 import com.arsh.workflow.validation.WorkflowGraphValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import java.util.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class WorkflowDagServiceImpl implements WorkflowDagService {
 
+    // Bound on IN-list size when resolving client aliases
+    private static final int ALIAS_LOOKUP_CHUNK = 1000;
+
     private final WorkflowRepository workflowRepository;
+    private final TaskRepository taskRepository;
     private final WorkflowGraphValidator workflowGraphValidator;
+    private final CacheInvalidator cacheInvalidator;
+    private final TaskBatchWriter taskBatchWriter;
+    private final ObjectMapper objectMapper;
+
+    // Tasks parsed, validated and inserted per round trip when streaming
+    @Value("${workflow.dag.stream.chunk-size:1000}")
+    private int streamChunkSize;
+
+    // Recently streamed aliases kept in memory; older ones are looked up by index
+    @Value("${workflow.dag.stream.alias-cache-size:100000}")
+    private int streamAliasCacheSize;
+
+    // Transitive reduction is O(n² / 64) on deep batches, so it is refused above this
+    @Value("${workflow.dag.reduce.max-tasks:100000}")
+    private int reduceMaxTasks;
 
     private String getCurrentUser() {
         return SecurityContextHolder.getContext()
@@ -34,15 +85,136 @@ public class WorkflowDagServiceImpl implements WorkflowDagService {
 
     @Override
     @Transactional
-    public List<TaskResponse> createBatchDag(
+    public DagBatchResult createBatchDag(
             Long workflowId,
-            List<BatchTaskRequest> batch
+            List<BatchTaskRequest> batch,
+            boolean transitiveReduction
     ) {
 
-        // DTO-level DAG validation
-        workflowGraphValidator.validateOrThrow(batch);
+        Workflow workflow = lockForDagChange(workflowId);
+        ensureTopologicalOrder(workflowId);
+
+        Map<String, TaskOrderView> existing = findExisting(workflowId, aliasesOf(batch, List.of()));
+
+        Appended appended = appendTasks(workflow, batch, existing, transitiveReduction);
+        workflowRepository.bumpDagVersion(workflowId);
+        cacheInvalidator.workflowChanged(workflowId);
+
+        return new DagBatchResult(
+                appended.tasks().stream()
+                        .map(TaskMapper::toResponse)
+                        .toList(),
+                appended.removedEdges()
+        );
+    }
+
+    /**
+     * Appends tasks and edges to a CREATED workflow. New tasks are ordered
+     * after everything already stored; an edge between existing tasks
+     * only re-orders the region between its endpoints.
+     */
+    @Override
+    @Transactional
+    public List<TaskResponse> appendToDag(Long workflowId, DagAppendRequest request) {
+
+        List<BatchTaskRequest> newTasks =
+                request.getTasks() == null ? List.of() : request.getTasks();
+        List<DependencyRequest> newEdges =
+                request.getDependencies() == null ? List.of() : request.getDependencies();
+
+        if (newTasks.isEmpty() && newEdges.isEmpty()) {
+            throw new InvalidWorkflowDefinitionException(
+                    List.of("Append must contain at least one task or dependency.")
+            );
+        }
+
+        Workflow workflow = lockForDagChange(workflowId);
+        ensureTopologicalOrder(workflowId);
+
+        Map<String, TaskOrderView> existing = findExisting(workflowId, aliasesOf(newTasks, newEdges));
+
+        List<Task> created = newTasks.isEmpty()
+                ? List.of()
+                : appendTasks(workflow, newTasks, existing, false).tasks();
+
+        if (!newEdges.isEmpty()) {
+            appendEdges(workflowId, newEdges, existing, created);
+        }
+
+        workflowRepository.bumpDagVersion(workflowId);
+        cacheInvalidator.workflowChanged(workflowId);
+
+        return created.stream()
+                .map(TaskMapper::toResponse)
+                .toList();
+    }
+
+    /**
+     * Streams an NDJSON or JSON-array upload into a CREATED workflow.
+     * Tasks are parsed one at a time and written in chunks through JDBC,
+     * so memory is bounded by the chunk size and the alias cache rather
+     * than the upload. Parents must appear before their children (or
+     * already exist), which makes upload order a topological order: no
+     * cycle check is needed and orders are assigned on arrival.
+     * <p>
+     * The whole upload is one transaction: an invalid chunk rolls back
+     * every chunk before it, and the workflow row stays locked until the
+     * last one is written.
+     */
+    @Override
+    @Transactional
+    public DagStreamResult streamDag(Long workflowId, InputStream body) {
+
+        lockForDagChange(workflowId);
+        ensureTopologicalOrder(workflowId);
+
+        StreamState state = new StreamState(
+                nextTopologicalOrder(workflowId),
+                getCurrentUser(),
+                Instant.now(),
+                aliasCache(streamAliasCacheSize)
+        );
+
+        List<BatchTaskRequest> chunk = new ArrayList<>(streamChunkSize);
+
+        try (StreamingTaskReader reader = new StreamingTaskReader(objectMapper.getFactory(), body)) {
+
+            BatchTaskRequest task;
+            while ((task = reader.next()) != null) {
+                chunk.add(task);
+                if (chunk.size() == streamChunkSize) {
+                    writeStreamChunk(workflowId, chunk, state);
+                    chunk.clear();
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                writeStreamChunk(workflowId, chunk, state);
+            }
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (state.tasks == 0) {
+            throw new InvalidWorkflowDefinitionException(
+                    List.of("Workflow must contain at least one task.")
+            );
+        }
+
+        workflowRepository.addToTotalTasks(workflowId, Math.toIntExact(state.tasks));
+        workflowRepository.bumpDagVersion(workflowId);
+        cacheInvalidator.workflowChanged(workflowId);
+
+        log.info("Streamed {} tasks and {} dependencies into workflow {}",
+                state.tasks, state.dependencies, workflowId);
+
+        return new DagStreamResult(workflowId, state.tasks, state.dependencies);
+    }
+
+    private Workflow lockForDagChange(Long workflowId) {
 
-        Workflow workflow = workflowRepository.findById(workflowId)
+        Workflow workflow = workflowRepository.findByIdForUpdate(workflowId)
                 .orElseThrow(() ->
                         new WorkflowNotFoundException("Workflow not found"));
 
@@ -56,62 +228,456 @@ public class WorkflowDagServiceImpl implements WorkflowDagService {
             );
         }
 
-        // ---------- Build tasks in memory ----------
-        Map<String, Task> aliasMap = new HashMap<>();
+        // Its edges belong to the template and are shared with every other run
+        if (workflow.getTemplateId() != null) {
+            throw new IllegalWorkflowOperationException(
+                    "Cannot modify the DAG of a template run; publish a new template version instead"
+            );
+        }
+
+        return workflow;
+    }
 
-        for (BatchTaskRequest req : batch) {
+    // ---------- New tasks: validated alone, ordered after all stored tasks ----------
 
-            if (aliasMap.containsKey(req.getClientId())) {
-                throw new IllegalStateException(
-                        "Duplicate clientId: " + req.getClientId()
-                );
-            }
+    private record Appended(List<Task> tasks, int removedEdges) {}
+
+    private Appended appendTasks(Workflow workflow,
+                                 List<BatchTaskRequest> batch,
+                                 Map<String, TaskOrderView> existing,
+                                 boolean transitiveReduction) {
+
+        if (transitiveReduction && batch.size() > reduceMaxTasks) {
+            throw new InvalidWorkflowDefinitionException(List.of(
+                    "Transitive reduction is limited to " + reduceMaxTasks + " tasks per batch."));
+        }
+
+        DagGraph dag = workflowGraphValidator.validateAppend(batch, existing.keySet());
+
+        // Optional: skip in-batch edges implied by longer paths
+        boolean[] redundant = transitiveReduction
+                ? TransitiveReduction.redundantEdges(dag)
+                : new boolean[dag.edgeCount()];
+
+        int removed = TransitiveReduction.count(redundant);
+
+        if (transitiveReduction) {
+            log.info("Transitive reduction removed {} of {} dependencies (workflow={})",
+                    removed, dag.edgeCount(), workflow.getId());
+        }
+
+        long base = nextTopologicalOrder(workflow.getId());
+        Task[] tasks = new Task[batch.size()];
+        List<Task> ordered = new ArrayList<>(tasks.length);
+
+        for (int position = 0; position < tasks.length; position++) {
+
+            int i = dag.topologicalAt(position);
+            BatchTaskRequest req = batch.get(i);
 
             Task task = new Task();
             task.setTitle(req.getTitle());
             task.setDescription(req.getDescription());
             task.setStatus(TaskStatus.PENDING);
+            task.setClientId(req.getClientId());
+            task.setTopoOrder(base + position);
+            task.setWorkflow(workflow);
+
+            tasks[i] = task;
+            ordered.add(task);
+        }
+
+        for (int i = 0; i < tasks.length; i++) {
+
+            // Parents inside the batch, by dense index
+            for (int k = dag.parentsStart(i); k < dag.parentsEnd(i); k++) {
+                if (!redundant[k]) {
+                    tasks[i].addDependency(tasks[dag.parentAt(k)]);
+                }
+            }
+
+            // Parents from earlier appends
+            List<String> deps = batch.get(i).getDependsOn();
+            if (deps == null) continue;
+
+            for (String dep : deps) {
+                TaskOrderView parent = existing.get(dep);
+                if (parent != null) {
+                    tasks[i].addDependency(taskRepository.getReferenceById(parent.getId()));
+                }
+            }
+        }
+
+        taskRepository.saveAll(ordered);
+        taskRepository.flush();
+        workflowRepository.addToTotalTasks(workflow.getId(), tasks.length);
+
+        return new Appended(ordered, removed);
+    }
+
+    // ---------- Streamed uploads: one chunk at a time ----------
+
+    private static final class StreamState {
+        final long baseOrder;
+        final String user;
+        final Instant now;
+        final Map<String, Long> recentIds;
+        long tasks;
+        long dependencies;
+
+        StreamState(long baseOrder, String user, Instant now, Map<String, Long> recentIds) {
+            this.baseOrder = baseOrder;
+            this.user = user;
+            this.now = now;
+            this.recentIds = recentIds;
+        }
+    }
+
+    private void writeStreamChunk(Long workflowId, List<BatchTaskRequest> chunk, StreamState state) {
+
+        List<String> errors = new ArrayList<>();
+        int n = chunk.size();
+        long first = state.tasks + 1;
+
+        // ---- 1. Aliases of this chunk, by position ----
+        Map<String, Integer> local = new HashMap<>(n * 2);
+        int edgeCount = 0;
+
+        for (int i = 0; i < n; i++) {
+            BatchTaskRequest t = chunk.get(i);
+            String alias = t.getClientId();
+
+            if (alias == null || alias.isBlank()) {
+                errors.add("Task #" + (first + i) + ": alias (clientId) cannot be null or blank.");
+                continue;
+            }
+            if (t.getTitle() == null || t.getTitle().isBlank()) {
+                errors.add("Task '" + alias + "' must have a title.");
+            }
+            if (local.putIfAbsent(alias, i) != null || state.recentIds.containsKey(alias)) {
+                errors.add("Duplicate task alias: " + alias);
+            }
+            if (t.getDependsOn() != null) {
+                edgeCount += t.getDependsOn().size();
+            }
+        }
 
-            workflow.addTask(task);
-            aliasMap.put(req.getClientId(), task);
+        if (!errors.isEmpty()) {
+            throw new InvalidWorkflowDefinitionException(errors);
         }
 
-        // ---------- Resolve dependencies using helpers ----------
-        for (BatchTaskRequest req : batch) {
+        // ---- 2. One lookup for stored aliases: collisions and evicted parents ----
+        Set<String> lookup = new HashSet<>(local.keySet());
+        for (BatchTaskRequest t : chunk) {
+            if (t.getDependsOn() == null) continue;
+            for (String dep : t.getDependsOn()) {
+                if (dep != null && !local.containsKey(dep) && !state.recentIds.containsKey(dep)) {
+                    lookup.add(dep);
+                }
+            }
+        }
+
+        Map<String, TaskOrderView> stored = findExisting(workflowId, lookup);
+
+        for (String alias : local.keySet()) {
+            if (stored.containsKey(alias)) {
+                errors.add("Task alias already exists in workflow: " + alias);
+            }
+        }
+
+        // ---- 3. Resolve parents: earlier in chunk (by position) or stored (by id) ----
+        int[] edgeChild = new int[edgeCount];
+        int[] edgeLocalParent = new int[edgeCount];
+        long[] edgeParentId = new long[edgeCount];
+        int e = 0;
+
+        for (int i = 0; i < n; i++) {
+            BatchTaskRequest t = chunk.get(i);
+            List<String> deps = t.getDependsOn();
+            if (deps == null) continue;
+
+            String alias = t.getClientId();
+            Set<String> seen = new HashSet<>(deps.size() * 2);
+
+            for (String dep : deps) {
+
+                if (dep == null || dep.isBlank()) {
+                    errors.add("Task '" + alias + "' has a blank dependency alias.");
+                    continue;
+                }
+                if (alias.equals(dep)) {
+                    errors.add("Task '" + alias + "' cannot depend on itself.");
+                    continue;
+                }
+                if (!seen.add(dep)) {
+                    errors.add("Task '" + alias + "' has duplicate dependency '" + dep + "'");
+                    continue;
+                }
+
+                Integer position = local.get(dep);
+                Long parentId = position == null ? state.recentIds.get(dep) : null;
+                if (position == null && parentId == null && stored.containsKey(dep)) {
+                    parentId = stored.get(dep).getId();
+                }
+
+                if (position != null && position > i) {
+                    errors.add("Task '" + alias + "' depends on '" + dep
+                            + "', which appears later in the upload (parents must come first)");
+                    continue;
+                }
+                if (position == null && parentId == null) {
+                    errors.add("Task '" + alias + "' depends on non-existent alias '" + dep + "'");
+                    continue;
+                }
+
+                edgeChild[e] = i;
+                edgeLocalParent[e] = position == null ? -1 : position;
+                edgeParentId[e] = parentId == null ? 0L : parentId;
+                e++;
+            }
+        }
 
-            Task child = aliasMap.get(req.getClientId());
-            List<String> parentAliases = req.getDependsOn();
+        if (!errors.isEmpty()) {
+            throw new InvalidWorkflowDefinitionException(errors);
+        }
 
-            if (parentAliases == null || parentAliases.isEmpty()) {
+        // ---- 4. Batched writes ----
+        long[] ids = taskBatchWriter.insertTasks(
+                workflowId, chunk, state.baseOrder + state.tasks, state.user, state.now);
+
+        long[] children = new long[e];
+        long[] parents = new long[e];
+        for (int k = 0; k < e; k++) {
+            children[k] = ids[edgeChild[k]];
+            parents[k] = edgeLocalParent[k] >= 0 ? ids[edgeLocalParent[k]] : edgeParentId[k];
+        }
+        taskBatchWriter.insertDependencies(children, parents, e);
+
+        for (int i = 0; i < n; i++) {
+            state.recentIds.put(chunk.get(i).getClientId(), ids[i]);
+        }
+
+        state.tasks += n;
+        state.dependencies += e;
+    }
+
+    /**
+     * Access-ordered alias → id map; evicted aliases are still found
+     * through uk_tasks_workflow_client, just with a query.
+     */
+    private static Map<String, Long> aliasCache(int capacity) {
+        return new LinkedHashMap<>(Math.min(capacity, 1 << 16), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // ---------- New edges: Pearce–Kelly over the affected window ----------
+
+    private void appendEdges(Long workflowId,
+                             List<DependencyRequest> edges,
+                             Map<String, TaskOrderView> existing,
+                             List<Task> created) {
+
+        Map<String, Long> idByAlias = new HashMap<>();
+        Map<Long, Long> orderById = new HashMap<>();
+
+        existing.values().forEach(t -> {
+            idByAlias.put(t.getClientId(), t.getId());
+            orderById.put(t.getId(), t.getTopoOrder());
+        });
+        created.forEach(t -> {
+            idByAlias.put(t.getClientId(), t.getId());
+            orderById.put(t.getId(), t.getTopoOrder());
+        });
+
+        Map<Long, Set<Long>> linked = findParents(edges, idByAlias);
+
+        // Buffered for one batch; flushed before a re-order reads the window
+        long[] children = new long[edges.size()];
+        long[] parents = new long[edges.size()];
+        int pending = 0;
+        int reordered = 0;
+
+        for (DependencyRequest edge : edges) {
+
+            Long childId = idByAlias.get(edge.getClientId());
+            Long parentId = idByAlias.get(edge.getDependsOn());
+
+            if (childId == null || parentId == null) {
+                throw new InvalidWorkflowDefinitionException(List.of(
+                        "Dependency '" + edge.getClientId() + "' → '" + edge.getDependsOn()
+                                + "' references an unknown alias"));
+            }
+
+            if (childId.equals(parentId)) {
+                throw new InvalidWorkflowDefinitionException(List.of(
+                        "Task '" + edge.getClientId() + "' cannot depend on itself."));
+            }
+
+            if (!linked.computeIfAbsent(childId, k -> new HashSet<>()).add(parentId)) {
                 continue;
             }
 
-            // Clear any existing dependencies (safety)
-            child.clearDependencies();
+            long parentOrder = orderById.get(parentId);
+            long childOrder = orderById.get(childId);
 
-            for (String parentAlias : parentAliases) {
+            if (parentOrder > childOrder) {
+                taskBatchWriter.insertDependencies(children, parents, pending);
+                pending = 0;
 
-                Task parent = aliasMap.get(parentAlias);
+                Map<Long, Long> moved = reorderWindow(workflowId, parentId, childId, childOrder, parentOrder, edge);
 
-                if (parent == null) {
-                    throw new IllegalStateException(
-                            "Invalid dependsOn clientId: " + parentAlias
-                    );
+                long[] movedIds = new long[moved.size()];
+                long[] movedOrders = new long[moved.size()];
+                int m = 0;
+                for (Map.Entry<Long, Long> entry : moved.entrySet()) {
+                    movedIds[m] = entry.getKey();
+                    movedOrders[m++] = entry.getValue();
+                    orderById.computeIfPresent(entry.getKey(), (k, v) -> entry.getValue());
                 }
+                taskBatchWriter.updateTopoOrders(movedIds, movedOrders, m);
+                reordered += m;
+            }
 
-                child.addDependency(parent);
+            children[pending] = childId;
+            parents[pending++] = parentId;
+        }
+
+        taskBatchWriter.insertDependencies(children, parents, pending);
+
+        log.info("Appended {} dependencies to workflow {} ({} tasks re-ordered)",
+                edges.size(), workflowId, reordered);
+    }
+
+    /**
+     * Stored parents of every child named by {@code edges}, read in
+     * chunks, so duplicates are skipped without a query per edge.
+     */
+    private Map<Long, Set<Long>> findParents(List<DependencyRequest> edges, Map<String, Long> idByAlias) {
+
+        List<Long> childIds = edges.stream()
+                .map(edge -> idByAlias.get(edge.getClientId()))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        Map<Long, Set<Long>> parents = new HashMap<>();
+
+        for (int from = 0; from < childIds.size(); from += ALIAS_LOOKUP_CHUNK) {
+            List<Long> chunk = childIds.subList(from, Math.min(childIds.size(), from + ALIAS_LOOKUP_CHUNK));
+            for (TaskEdgeView view : taskRepository.findEdgesByTaskIds(chunk)) {
+                parents.computeIfAbsent(view.getTaskId(), k -> new HashSet<>()).add(view.getParentId());
             }
         }
 
-        // ---------- Entity-level DAG validation ----------
-        workflowGraphValidator.validateResolvedDag(workflow.getTasks());
+        return parents;
+    }
+
+    private Map<Long, Long> reorderWindow(Long workflowId,
+                                          Long parentId,
+                                          Long childId,
+                                          long lower,
+                                          long upper,
+                                          DependencyRequest edge) {
+
+        List<TaskOrderView> window = taskRepository.findOrderWindow(workflowId, lower, upper);
+        List<TaskEdgeView> windowEdges = taskRepository.findEdgesInOrderWindow(workflowId, lower, upper);
 
-        // ---------- Persist ONCE via aggregate root ----------
-        workflowRepository.save(workflow);
+        long[] ids = new long[window.size()];
+        long[] orders = new long[window.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = window.get(i).getId();
+            orders[i] = window.get(i).getTopoOrder();
+        }
+
+        long[] parents = new long[windowEdges.size()];
+        long[] children = new long[windowEdges.size()];
+        for (int k = 0; k < parents.length; k++) {
+            parents[k] = windowEdges.get(k).getParentId();
+            children[k] = windowEdges.get(k).getTaskId();
+        }
+
+        return IncrementalTopologicalOrder
+                .insertEdge(parentId, childId, ids, orders, parents, children)
+                .orElseThrow(() -> new InvalidWorkflowDefinitionException(List.of(
+                        "Dependency '" + edge.getClientId() + "' → '" + edge.getDependsOn()
+                                + "' would create a cycle")));
+    }
+
+    // ---------- Order bookkeeping ----------
+
+    private long nextTopologicalOrder(Long workflowId) {
+        Long max = taskRepository.findMaxTopoOrder(workflowId);
+        return max == null ? 0L : max + 1;
+    }
+
+    /**
+     * Workflows created before orders were tracked get one full ordering
+     * on their first append.
+     */
+    private void ensureTopologicalOrder(Long workflowId) {
+
+        if (taskRepository.countByWorkflowIdAndTopoOrderIsNull(workflowId) == 0) {
+            return;
+        }
 
-        return workflow.getTasks()
+        long[] ids = taskRepository.findIdsByWorkflowId(workflowId, Pageable.unpaged())
                 .stream()
-                .map(TaskMapper::toResponse)
-                .toList();
+                .mapToLong(Long::longValue)
+                .toArray();
+
+        List<TaskEdgeView> edges = taskRepository.findEdgesByWorkflowId(workflowId);
+        long[] parents = new long[edges.size()];
+        long[] children = new long[edges.size()];
+        for (int k = 0; k < parents.length; k++) {
+            parents[k] = edges.get(k).getParentId();
+            children[k] = edges.get(k).getTaskId();
+        }
+
+        long[] ordered = IncrementalTopologicalOrder.initialOrder(ids, parents, children);
+        long[] orders = new long[ordered.length];
+        Arrays.setAll(orders, i -> i);
+        taskBatchWriter.updateTopoOrders(ordered, orders, ordered.length);
+
+        log.info("Initialised topological order of workflow {} ({} tasks)", workflowId, ordered.length);
+    }
+
+    private Map<String, TaskOrderView> findExisting(Long workflowId, Set<String> aliases) {
+
+        Map<String, TaskOrderView> existing = new HashMap<>();
+        List<String> all = new ArrayList<>(aliases);
+
+        for (int from = 0; from < all.size(); from += ALIAS_LOOKUP_CHUNK) {
+            List<String> chunk = all.subList(from, Math.min(all.size(), from + ALIAS_LOOKUP_CHUNK));
+            for (TaskOrderView view : taskRepository.findOrderByClientIds(workflowId, chunk)) {
+                existing.put(view.getClientId(), view);
+            }
+        }
+
+        return existing;
+    }
+
+    private static Set<String> aliasesOf(List<BatchTaskRequest> tasks, List<DependencyRequest> edges) {
+
+        Set<String> aliases = new HashSet<>();
+
+        for (BatchTaskRequest task : tasks) {
+            if (task.getClientId() != null) {
+                aliases.add(task.getClientId());
+            }
+            if (task.getDependsOn() != null) {
+                aliases.addAll(task.getDependsOn());
+            }
+        }
+
+        for (DependencyRequest edge : edges) {
+            aliases.addAll(Arrays.asList(edge.getClientId(), edge.getDependsOn()));
+        }
+
+        aliases.remove(null);
+        return aliases;
     }
 }
@@ -1,26 +1,38 @@
 package com.arsh.workflow.service.impl;
 
+import com.arsh.workflow.cache.CacheInvalidator;
 import com.arsh.workflow.enums.EventType;
 import com.arsh.workflow.enums.TaskStatus;
 import com.arsh.workflow.enums.WorkflowStatus;
 import com.arsh.workflow.events.WorkflowEvent;
 import com.arsh.workflow.events.producer.WorkflowEventProducer;
 import com.arsh.workflow.model.Task;
-import com.arsh.workflow.model.Workflow;
 import com.arsh.workflow.repository.TaskRepository;
 import com.arsh.workflow.repository.WorkflowRepository;
+import com.arsh.workflow.repository.projection.TaskWorkflowView;
 import com.arsh.workflow.service.WorkflowExecutorService;
 import com.arsh.workflow.util.RedisDistributedLock;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -33,6 +45,9 @@ public class WorkflowExecutorServiceImpl implements WorkflowExecutorService {
     private final WorkflowRepository workflowRepository;
     private final RedisDistributedLock redisDistributedLock;
     private final WorkflowEventProducer eventProducer;
+    private final CacheInvalidator cacheInvalidator;
+    private final TransactionTemplate ownTransaction;
+    private final boolean lockEnabled;
 
     private final int maxRetries = 3;
     private final long baseBackoffMs = 500L;
@@ -45,13 +60,29 @@ public class WorkflowExecutorServiceImpl implements WorkflowExecutorService {
     // Idempotency TTL
     private static final Duration EXECUTION_TTL = Duration.ofHours(24);
 
+    // Times a task still found PENDING is offered again before it is left
+    // to whoever commits its promotion
+    private static final int MAX_NOT_READY_CHECKS = 5;
+
+    /** A task to offer again, and how often it has been found not READY yet. */
+    private record Deferred(Long taskId, int notReadyChecks) {}
+
+    // READY tasks the pool rejected, or found before their promotion was
+    // visible; start admission offers them again. Bounded: what does not
+    // fit is left READY in the database for findStalledReady to recover.
+    private final BlockingDeque<Deferred> deferred;
+
     public WorkflowExecutorServiceImpl(
             TaskServiceImpl taskService,
             TaskRepository taskRepository,
             WorkflowRepository workflowRepository,
             RedisDistributedLock redisDistributedLock,
             WorkflowEventProducer eventProducer,
-            @Qualifier("workflowExecutorPool") ExecutorService executorService
+            CacheInvalidator cacheInvalidator,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("workflowExecutorPool") ExecutorService executorService,
+            @Value("${workflow.executor.lock.enabled:true}") boolean lockEnabled,
+            @Value("${workflow.executor.deferred.capacity:10000}") int deferredCapacity
     ) {
         this.executorService = executorService;
         this.taskService = taskService;
@@ -59,54 +90,191 @@ public class WorkflowExecutorServiceImpl implements WorkflowExecutorService {
         this.workflowRepository = workflowRepository;
         this.redisDistributedLock = redisDistributedLock;
         this.eventProducer = eventProducer;
+        this.cacheInvalidator = cacheInvalidator;
+        this.lockEnabled = lockEnabled;
+        this.deferred = new LinkedBlockingDeque<>(deferredCapacity);
+
+        // Callers submit after their commit, while the finished transaction is still bound
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Override
     public void executeWorkflow(Long workflowId) {
 
-        // ---- WORKFLOW START (ONLY READY → RUNNING) ----
-        try {
-            Optional<Workflow> maybe = workflowRepository.findById(workflowId);
-            if (maybe.isPresent()) {
-                Workflow wf = maybe.get();
+        WorkflowStatus status = workflowRepository.findStatusById(workflowId).orElse(null);
+
+        if (status == null) {
+            return;
+        }
+
+        if (status == WorkflowStatus.DELETING) {
+            log.debug("Workflow {} is being deleted, nothing to execute", workflowId);
+            return;
+        }
+
+        if (status.isTerminal()) {
+            log.debug("Workflow {} already {}, nothing to execute", workflowId, status);
+            return;
+        }
 
-                if (wf.getStatus() == WorkflowStatus.READY) {
-                    wf.setStatus(WorkflowStatus.RUNNING);
-                    workflowRepository.save(wf);
+        if (status == WorkflowStatus.READY) {
+            markRunning(workflowId);
+        }
 
-                    log.info(
-                            "WORKFLOW STARTED | workflowId={} | totalTasks={}",
-                            wf.getId(),
-                            wf.getTasks().size()
-                    );
+        // ---- PICK READY TASKS ----
+        submit(workflowId, taskRepository.findIdsByWorkflowIdAndStatus(workflowId, TaskStatus.READY));
+    }
 
-                    emitWorkflowStartedEvent(wf);
+    /**
+     * Direct submission of tasks the caller just promoted to READY,
+     * without re-querying them. The workflows go READY → RUNNING in one
+     * statement and their start events leave as one producer batch.
+     */
+    @Override
+    public void submitReadyTasks(Map<Long, ? extends Collection<Long>> readyTasksByWorkflow) {
+
+        if (readyTasksByWorkflow.isEmpty()) {
+            return;
+        }
+
+        markRunning(readyTasksByWorkflow.keySet());
+        readyTasksByWorkflow.forEach(this::submit);
+    }
+
+    // ---- WORKFLOW START (ONLY READY → RUNNING) ----
+    private void markRunning(Long workflowId) {
+        try {
+            Boolean started = ownTransaction.execute(status -> {
+                if (workflowRepository.markRunning(workflowId, Instant.now()) != 1) {
+                    return false;
                 }
+                cacheInvalidator.workflowChanged(workflowId);
+                return true;
+            });
+
+            if (Boolean.TRUE.equals(started)) {
+                log.info("WORKFLOW STARTED | workflowId={}", workflowId);
+
+                eventProducer.publish(workflowId, workflowStartedEvent(workflowId));
             }
         } catch (Exception e) {
             log.warn("Unable to mark workflow {} RUNNING: {}", workflowId, e.getMessage());
         }
+    }
 
-        // ---- PICK READY TASKS ----
-        List<Task> readyTasks =
-                taskRepository.findByWorkflowIdAndStatus(workflowId, TaskStatus.READY);
+    private void markRunning(Collection<Long> workflowIds) {
+        try {
+            List<Long> ids = List.copyOf(workflowIds);
+
+            List<Long> started = ownTransaction.execute(status -> {
+                int marked = workflowRepository.markRunning(ids, Instant.now());
+
+                // Short only when some left READY meanwhile (e.g. deleted); ask which made it
+                List<Long> running = marked == ids.size()
+                        ? ids
+                        : workflowRepository.findIdsByIdInAndStatus(ids, WorkflowStatus.RUNNING);
+
+                running.forEach(cacheInvalidator::workflowChanged);
+                return running;
+            });
+
+            log.info("WORKFLOWS STARTED | count={}", started.size());
+
+            eventProducer.publishAll(started.stream()
+                    .map(this::workflowStartedEvent)
+                    .toList());
+        } catch (Exception e) {
+            log.warn("Unable to mark workflows {} RUNNING: {}", workflowIds, e.getMessage());
+        }
+    }
+
+    private void submit(Long workflowId, Collection<Long> taskIds) {
 
-        if (readyTasks == null || readyTasks.isEmpty()) {
+        if (taskIds == null || taskIds.isEmpty()) {
             log.debug("No READY tasks for workflow {}", workflowId);
             return;
         }
 
-        for (Task t : readyTasks) {
-            executorService.submit(() -> runTaskWithLock(t.getId()));
+        int rejected = 0;
+        int dropped = 0;
+        for (Long taskId : taskIds) {
+            Deferred task = new Deferred(taskId, 0);
+            if (!trySubmit(task)) {
+                rejected++;
+                if (!deferred.offer(task)) {
+                    dropped++;
+                }
+            }
+        }
+
+        if (rejected > 0) {
+            log.warn("Task pool full, deferred {} task(s) of workflow {} ({} left to recovery)",
+                    rejected - dropped, workflowId, dropped);
+        }
+    }
+
+    /**
+     * Submits READY tasks of RUNNING workflows that nobody has touched
+     * since {@code readyBefore}. Their submission was lost to a restart or
+     * a full deferred queue; the claim compare-and-set keeps a task that is
+     * in fact still queued somewhere from running twice.
+     */
+    @Override
+    public int recoverStalledReady(Instant readyBefore, int limit) {
+
+        Map<Long, List<Long>> byWorkflow = new LinkedHashMap<>();
+        for (TaskWorkflowView task : taskRepository.findStalledReady(readyBefore, PageRequest.of(0, limit))) {
+            byWorkflow.computeIfAbsent(task.getWorkflowId(), k -> new ArrayList<>()).add(task.getId());
+        }
+
+        byWorkflow.forEach(this::submit);
+        return byWorkflow.values().stream().mapToInt(List::size).sum();
+    }
+
+    @Override
+    public int resubmitDeferred() {
+
+        // Taken off before submitting, so a task that defers itself again
+        // has room; a rejected one goes back to the head
+        Deferred task;
+        while ((task = deferred.pollFirst()) != null) {
+            if (!trySubmit(task)) {
+                if (!deferred.offerFirst(task)) {
+                    log.warn("Deferred queue full, task {} left to recovery", task.taskId());
+                }
+                break;
+            }
+        }
+        return deferred.size();
+    }
+
+    private boolean trySubmit(Deferred task) {
+        try {
+            executorService.submit(() -> runTaskWithLock(task.taskId(), task.notReadyChecks()));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
         }
     }
 
     @Override
     public void runTask(Long taskId) {
-        runTaskWithLock(taskId);
+        runTaskWithLock(taskId, 0);
     }
 
-    private void runTaskWithLock(Long taskId) {
+    private void runTaskWithLock(Long taskId, int notReadyChecks) {
+
+        // The READY → IN_PROGRESS compare-and-set already guarantees a single
+        // runner; the lock only saves contended nodes a wasted round trip.
+        if (!lockEnabled) {
+            try {
+                runTaskWithRetries(taskId, null, notReadyChecks);
+            } catch (Exception e) {
+                log.error("Task {} execution error: {}", taskId, e.getMessage(), e);
+            }
+            return;
+        }
 
         String lockKey = "task:lock:" + taskId;
         String doneKey = "task:done:" + taskId;
@@ -135,7 +303,7 @@ public class WorkflowExecutorServiceImpl implements WorkflowExecutorService {
                 return;
             }
 
-            runTaskWithRetries(taskId, doneKey);
+            runTaskWithRetries(taskId, doneKey, notReadyChecks);
 
         } catch (Exception e) {
             log.error("Task {} execution error: {}", taskId, e.getMessage(), e);
@@ -146,19 +314,60 @@ public class WorkflowExecutorServiceImpl implements WorkflowExecutorService {
         }
     }
 
-    private void runTaskWithRetries(Long taskId, String doneKey) {
+    private void runTaskWithRetries(Long taskId, String doneKey, int notReadyChecks) {
+
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new RuntimeException("Task not found: " + taskId));
+
+        // Submitted READY but read PENDING: the promotion has not committed yet
+        if (task.getStatus() == TaskStatus.PENDING) {
+            if (notReadyChecks < MAX_NOT_READY_CHECKS) {
+                log.debug("Task {} not READY yet, deferring", taskId);
+                if (!deferred.offer(new Deferred(taskId, notReadyChecks + 1))) {
+                    log.warn("Deferred queue full, task {} left to recovery", taskId);
+                }
+            } else {
+                log.warn("Task {} still PENDING after {} checks. Skipping.", taskId, notReadyChecks);
+            }
+            return;
+        }
+
+        if (task.getStatus() != TaskStatus.READY) {
+            log.info("Task {} is {}, not READY. Skipping.", taskId, task.getStatus());
+            return;
+        }
+
+        Long workflowId = task.getWorkflow().getId();
+
+        // ---- CLAIM (row count decides the winner) ----
+        if (!taskService.transition(workflowId, taskId, TaskStatus.READY, TaskStatus.IN_PROGRESS)) {
+            return;
+        }
 
         int attempt = 0;
 
         while (true) {
             attempt++;
             try {
-                runTaskOnce(taskId, attempt, doneKey);
+                performTaskBusinessLogic(task);
+
+                // Lost to a concurrent cancel or failure: that outcome stands
+                if (!taskService.transition(workflowId, taskId, TaskStatus.IN_PROGRESS, TaskStatus.COMPLETED)) {
+                    log.warn("Task {} left IN_PROGRESS while running, not marking it completed", taskId);
+                    return;
+                }
+
+                if (doneKey != null) {
+                    redisDistributedLock.markExecuted(doneKey, EXECUTION_TTL);
+                }
+
+                log.info("Task {} completed on attempt {}", taskId, attempt);
                 return;
+
             } catch (Exception ex) {
 
                 if (attempt >= maxRetries) {
-                    markTaskFailed(taskId, ex);
+                    markTaskFailed(workflowId, taskId, ex);
                     return;
                 }
 
@@ -172,35 +381,9 @@ public class WorkflowExecutorServiceImpl implements WorkflowExecutorService {
         }
     }
 
-    private void runTaskOnce(Long taskId, int attempt, String doneKey) throws Exception {
-
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new RuntimeException("Task not found: " + taskId));
-
-        if (task.getStatus() == TaskStatus.COMPLETED ||
-                task.getStatus() == TaskStatus.IN_PROGRESS) {
-            return;
-        }
-
-        taskService.changeStatus(taskId, TaskStatus.IN_PROGRESS);
-
-        try {
-            performTaskBusinessLogic(task);
-
-            taskService.changeStatus(taskId, TaskStatus.COMPLETED);
-
-            redisDistributedLock.markExecuted(doneKey, EXECUTION_TTL);
-
-            log.info("Task {} completed on attempt {}", taskId, attempt);
-
-        } catch (Exception e) {
-            throw e;
-        }
-    }
-
-    private void markTaskFailed(Long taskId, Exception cause) {
+    private void markTaskFailed(Long workflowId, Long taskId, Exception cause) {
         try {
-            taskService.changeStatus(taskId, TaskStatus.FAILED);
+            taskService.transition(workflowId, taskId, TaskStatus.IN_PROGRESS, TaskStatus.FAILED);
         } catch (Exception e) {
             log.error("Unable to mark task {} FAILED: {}", taskId, e.getMessage());
         }
@@ -217,18 +400,16 @@ public class WorkflowExecutorServiceImpl implements WorkflowExecutorService {
     }
 
     // ---- TEMPORARY (Step 3 only) ----
-    private void emitWorkflowStartedEvent(Workflow workflow) {
+    private WorkflowEvent workflowStartedEvent(Long workflowId) {
 
-        WorkflowEvent event = WorkflowEvent.builder()
+        return WorkflowEvent.builder()
                 .eventId(UUID.randomUUID().toString())
                 .eventType(EventType.WORKFLOW_STARTED)
-                .workflowId(workflow.getId())
+                .workflowId(workflowId)
                 .status(WorkflowStatus.RUNNING)
                 .source("workflow-service")
                 .occurredAt(Instant.now())
                 .version(1)
                 .build();
-
-        eventProducer.publish(workflow.getId(), event);
     }
 }
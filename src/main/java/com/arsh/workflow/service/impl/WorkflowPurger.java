@@ -0,0 +1,171 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.cache.CacheInvalidator;
+import com.arsh.workflow.repository.TaskRepository;
+import com.arsh.workflow.repository.WorkflowRepository;
+import com.arsh.workflow.util.RedisDistributedLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Set-based workflow deletion.
+ * <p>
+ * The workflow is first marked DELETING, which takes it off the live path.
+ * Its rows are then removed in fixed order (edges, tasks, workflow) with a
+ * few bulk DELETE statements per chunk of task ids. Each chunk is its own
+ * short transaction, so no lock is held for the whole workflow.
+ * <p>
+ * Deletions interrupted by a restart are resumed by {@link #resumeStalled()},
+ * on one node at a time.
+ */
+@Component
+@Slf4j
+public class WorkflowPurger {
+
+    private static final String LOCK_KEY = "workflow:purger:lock";
+
+    private final TaskRepository taskRepository;
+    private final WorkflowRepository workflowRepository;
+    private final CacheInvalidator cacheInvalidator;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisDistributedLock redisDistributedLock;
+    private final ExecutorService maintenancePool;
+    private final int chunkSize;
+    private final Duration stallTimeout;
+
+    public WorkflowPurger(
+            TaskRepository taskRepository,
+            WorkflowRepository workflowRepository,
+            CacheInvalidator cacheInvalidator,
+            TransactionTemplate transactionTemplate,
+            RedisDistributedLock redisDistributedLock,
+            @Qualifier("workflowMaintenancePool") ExecutorService maintenancePool,
+            @Value("${workflow.delete.chunk-size:1000}") int chunkSize,
+            @Value("${workflow.delete.stall-timeout-minutes:10}") long stallTimeoutMinutes
+    ) {
+        this.taskRepository = taskRepository;
+        this.workflowRepository = workflowRepository;
+        this.cacheInvalidator = cacheInvalidator;
+        this.transactionTemplate = transactionTemplate;
+        this.redisDistributedLock = redisDistributedLock;
+        this.maintenancePool = maintenancePool;
+        this.chunkSize = chunkSize;
+        this.stallTimeout = Duration.ofMinutes(stallTimeoutMinutes);
+    }
+
+    public boolean markDeleting(Long workflowId) {
+        Integer updated = transactionTemplate.execute(status -> {
+            int rows = workflowRepository.markDeleting(workflowId, Instant.now());
+            cacheInvalidator.evictWorkflow(workflowId);
+            return rows;
+        });
+        return updated != null && updated > 0;
+    }
+
+    public void purge(Long workflowId) {
+
+        long started = System.currentTimeMillis();
+        int tasks = 0;
+
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> deleteTaskChunk(workflowId));
+            if (deleted == null || deleted == 0) {
+                break;
+            }
+            tasks += deleted;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            workflowRepository.deleteByIdInBulk(workflowId);
+            cacheInvalidator.evictWorkflow(workflowId);
+        });
+
+        log.info("Workflow {} deleted | tasks={} | took={}ms",
+                workflowId, tasks, System.currentTimeMillis() - started);
+    }
+
+    public void purgeAsync(Long workflowId) {
+        try {
+            maintenancePool.submit(() -> {
+                try {
+                    purge(workflowId);
+                } catch (Exception e) {
+                    log.error("Async delete of workflow {} failed, will be resumed: {}",
+                            workflowId, e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Maintenance pool full, workflow {} will be deleted by the next sweep", workflowId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${workflow.delete.sweep-interval-ms:300000}")
+    public void resumeStalled() {
+
+        String token;
+        try {
+            token = redisDistributedLock.tryLock(LOCK_KEY, Duration.ofMinutes(30));
+        } catch (Exception e) {
+            log.warn("Delete sweep skipped, lock unavailable: {}", e.getMessage());
+            return;
+        }
+
+        if (token == null) {
+            return;
+        }
+
+        try {
+            resumePass();
+        } finally {
+            redisDistributedLock.releaseLock(LOCK_KEY, token);
+        }
+    }
+
+    private void resumePass() {
+        List<Long> stalled = workflowRepository.findStalledDeletions(
+                Instant.now().minus(stallTimeout),
+                PageRequest.of(0, 100)
+        );
+
+        for (Long workflowId : stalled) {
+            log.info("Resuming interrupted delete of workflow {}", workflowId);
+            try {
+                purge(workflowId);
+            } catch (Exception e) {
+                log.error("Unable to resume delete of workflow {}: {}", workflowId, e.getMessage(), e);
+            }
+        }
+    }
+
+    private int deleteTaskChunk(Long workflowId) {
+
+        List<Long> taskIds = taskRepository.findIdsByWorkflowId(
+                workflowId,
+                PageRequest.of(0, chunkSize)
+        );
+
+        if (taskIds.isEmpty()) {
+            return 0;
+        }
+
+        // Both directions, so later chunks never reference these tasks
+        taskRepository.deleteDependenciesByTaskIds(taskIds);
+        taskRepository.deleteDependenciesByParentIds(taskIds);
+        taskRepository.deleteAllByIdInBulk(taskIds);
+
+        cacheInvalidator.evictTasks(workflowId, taskIds);
+
+        return taskIds.size();
+    }
+}
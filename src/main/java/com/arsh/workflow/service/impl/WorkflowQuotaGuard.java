@@ -0,0 +1,83 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.enums.WorkflowStatus;
+import com.arsh.workflow.exception.QuotaExceededException;
+import com.arsh.workflow.repository.PendingWorkflowStartRepository;
+import com.arsh.workflow.repository.UserRepository;
+import com.arsh.workflow.repository.WorkflowRepository;
+import com.arsh.workflow.repository.projection.UserLoadView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Per-user caps on started, unfinished workflows and on their unfinished
+ * tasks, checked when a start is requested (tasks can only be added
+ * before that). Starts still queued for admission count in full. The
+ * counts come from the workflow counters, so they cannot drift; the
+ * owner's user row is locked for the rest of the start transaction, so
+ * concurrent starts by one user cannot both slip under a cap. A limit of
+ * 0 disables that check.
+ */
+@Component
+public class WorkflowQuotaGuard {
+
+    private static final Set<WorkflowStatus> ACTIVE = EnumSet.of(WorkflowStatus.READY, WorkflowStatus.RUNNING);
+
+    private final WorkflowRepository workflowRepository;
+    private final UserRepository userRepository;
+    private final PendingWorkflowStartRepository pendingStartRepository;
+    private final long maxActiveWorkflows;
+    private final long maxInFlightTasks;
+
+    public WorkflowQuotaGuard(WorkflowRepository workflowRepository,
+                              UserRepository userRepository,
+                              PendingWorkflowStartRepository pendingStartRepository,
+                              @Value("${workflow.quota.max-active-workflows:100}") long maxActiveWorkflows,
+                              @Value("${workflow.quota.max-in-flight-tasks:500000}") long maxInFlightTasks) {
+        this.workflowRepository = workflowRepository;
+        this.userRepository = userRepository;
+        this.pendingStartRepository = pendingStartRepository;
+        this.maxActiveWorkflows = maxActiveWorkflows;
+        this.maxInFlightTasks = maxInFlightTasks;
+    }
+
+    /**
+     * Must run inside the start transaction.
+     */
+    public void checkStart(String owner, long tasks) {
+        checkStart(owner, 1, tasks);
+    }
+
+    /**
+     * Starts of {@code workflows} workflows with {@code tasks} tasks in
+     * total, all or nothing. Must run inside the start transaction.
+     */
+    public void checkStart(String owner, long workflows, long tasks) {
+
+        if (maxActiveWorkflows <= 0 && maxInFlightTasks <= 0) {
+            return;
+        }
+
+        userRepository.lockByUsername(owner);
+        UserLoadView load = workflowRepository.findActiveLoad(owner, ACTIVE);
+        UserLoadView queued = pendingStartRepository.findQueuedLoad(owner);
+
+        long active = load.getWorkflows() + queued.getWorkflows();
+        long inFlight = load.getTasks() + queued.getTasks();
+
+        if (maxActiveWorkflows > 0 && active + workflows > maxActiveWorkflows) {
+            throw new QuotaExceededException(
+                    "Active workflow quota of " + maxActiveWorkflows + " would be exceeded ("
+                            + active + " active, " + workflows + " requested)");
+        }
+
+        if (maxInFlightTasks > 0 && inFlight + tasks > maxInFlightTasks) {
+            throw new QuotaExceededException(
+                    "In-flight task quota of " + maxInFlightTasks + " would be exceeded ("
+                            + inFlight + " in flight, " + tasks + " requested)");
+        }
+    }
+}
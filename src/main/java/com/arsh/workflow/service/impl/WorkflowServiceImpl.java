@@ -1,35 +1,77 @@
 package com.arsh.workflow.service.impl;
 
+import com.arsh.workflow.cache.CacheInvalidator;
+import com.arsh.workflow.cache.NearCache;
+import com.arsh.workflow.cache.WorkflowVersionTracker;
 import com.arsh.workflow.dto.request.CreateTaskRequest;
 import com.arsh.workflow.dto.request.CreateWorkflowRequest;
 import com.arsh.workflow.dto.response.TaskResponse;
+import com.arsh.workflow.dto.response.WorkflowProgressResponse;
 import com.arsh.workflow.dto.response.WorkflowResponse;
 import com.arsh.workflow.enums.TaskStatus;
 import com.arsh.workflow.enums.WorkflowStatus;
+import com.arsh.workflow.enums.WorkflowView;
 import com.arsh.workflow.exception.IllegalWorkflowOperationException;
 import com.arsh.workflow.exception.WorkflowNotFoundException;
 import com.arsh.workflow.mapper.TaskMapper;
 import com.arsh.workflow.mapper.WorkflowMapper;
 import com.arsh.workflow.model.Task;
 import com.arsh.workflow.model.Workflow;
+import com.arsh.workflow.repository.PendingWorkflowStartRepository;
+import com.arsh.workflow.repository.TaskRepository;
 import com.arsh.workflow.repository.WorkflowRepository;
+import com.arsh.workflow.repository.projection.WorkflowProgressView;
+import com.arsh.workflow.service.WorkflowArchiveService;
 import com.arsh.workflow.service.WorkflowService;
-import jakarta.transaction.Transactional;
+import com.arsh.workflow.util.ETags;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
 
 @Service
 @Slf4j
 public class WorkflowServiceImpl implements WorkflowService {
 
     private final WorkflowRepository workflowRepository;
+    private final TaskRepository taskRepository;
+    private final NearCache<Long, WorkflowResponse> workflowReadCache;
+    private final CacheInvalidator cacheInvalidator;
+    private final WorkflowArchiveService workflowArchiveService;
+    private final WorkflowPurger workflowPurger;
+    private final WorkflowVersionTracker versionTracker;
+    private final NearCache<Long, String> workflowOwnerCache;
+    private final WorkflowQuotaGuard quotaGuard;
+    private final PendingWorkflowStartRepository pendingStartRepository;
 
     public WorkflowServiceImpl(
-            WorkflowRepository workflowRepository
+            WorkflowRepository workflowRepository,
+            TaskRepository taskRepository,
+            NearCache<Long, WorkflowResponse> workflowReadCache,
+            CacheInvalidator cacheInvalidator,
+            WorkflowArchiveService workflowArchiveService,
+            WorkflowPurger workflowPurger,
+            WorkflowVersionTracker versionTracker,
+            NearCache<Long, String> workflowOwnerCache,
+            WorkflowQuotaGuard quotaGuard,
+            PendingWorkflowStartRepository pendingStartRepository
     ) {
         this.workflowRepository = workflowRepository;
+        this.taskRepository = taskRepository;
+        this.workflowReadCache = workflowReadCache;
+        this.cacheInvalidator = cacheInvalidator;
+        this.workflowArchiveService = workflowArchiveService;
+        this.workflowPurger = workflowPurger;
+        this.versionTracker = versionTracker;
+        this.workflowOwnerCache = workflowOwnerCache;
+        this.quotaGuard = quotaGuard;
+        this.pendingStartRepository = pendingStartRepository;
     }
 
     private String getCurrentUser() {
@@ -55,36 +97,180 @@ public class WorkflowServiceImpl implements WorkflowService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public WorkflowResponse getWorkflow(Long workflowId) {
+        return getWorkflow(workflowId, WorkflowView.FULL);
+    }
 
-        Workflow workflow = workflowRepository.findByIdWithTasks(workflowId)
-                .orElseThrow(() ->
-                        new WorkflowNotFoundException("Workflow not found"));
+    @Override
+    @Transactional(readOnly = true)
+    public WorkflowResponse getWorkflow(Long workflowId, WorkflowView view) {
 
-        authorize(workflow);
-        return WorkflowMapper.toResponse(workflow);
+        WorkflowResponse response = view == WorkflowView.FULL
+                ? workflowReadCache.get(workflowId, this::loadFull, w -> w.getStatus().isTerminal())
+                : loadPartial(workflowId, view);
+
+        if (response == null) {
+            throw new WorkflowNotFoundException("Workflow not found");
+        }
+
+        authorize(response.getCreatedBy());
+        return response;
     }
 
+    /**
+     * Workflow row plus flat task rows (assignee joined in the same
+     * query); the entity graph and dependency sets are never loaded.
+     */
+    private WorkflowResponse loadFull(Long workflowId) {
+
+        // Version first: the snapshot can only be newer than its tag
+        Long version = versionTracker.current(workflowId);
+
+        WorkflowResponse loaded = workflowRepository.findById(workflowId)
+                .map(workflow -> {
+                    WorkflowResponse res = WorkflowMapper.toSummaryResponse(workflow);
+                    res.setTasks(taskRepository.findRowsByWorkflowId(workflowId).stream()
+                            .map(row -> TaskMapper.toResponse(row, workflowId))
+                            .toList());
+                    return res;
+                })
+                .or(() -> workflowArchiveService.findArchived(workflowId))
+                .orElse(null);
+
+        if (loaded != null) {
+            loaded.setEtagVersion(version);
+        }
+        return loaded;
+    }
+
+    /**
+     * Summary reads the workflow row only; ids adds an index-only id
+     * scan. A cached full snapshot is reused when this node has one.
+     */
+    private WorkflowResponse loadPartial(Long workflowId, WorkflowView view) {
+
+        WorkflowResponse cached = workflowReadCache.getIfPresent(workflowId);
+        if (cached != null) {
+            return WorkflowMapper.toView(cached, view);
+        }
+
+        Long version = versionTracker.current(workflowId);
+
+        WorkflowResponse loaded = workflowRepository.findById(workflowId)
+                .map(workflow -> {
+                    WorkflowResponse res = WorkflowMapper.toSummaryResponse(workflow);
+                    res.setTasks(null);
+                    if (view == WorkflowView.IDS) {
+                        res.setTaskIds(taskRepository.findIdsByWorkflowId(workflowId, Pageable.unpaged()));
+                    }
+                    return res;
+                })
+                .or(() -> workflowArchiveService.findArchived(workflowId)
+                        .map(archived -> WorkflowMapper.toView(archived, view)))
+                .orElse(null);
+
+        if (loaded != null) {
+            loaded.setEtagVersion(version);
+        }
+        return loaded;
+    }
 
+    /**
+     * Tag of the current state, from caches and Redis only. Null when it
+     * cannot be determined, in which case callers do a full read.
+     */
+    @Override
+    public String currentETag(Long workflowId, WorkflowView view) {
+
+        WorkflowResponse cached = workflowReadCache.getIfPresent(workflowId);
+        String owner = cached != null
+                ? cached.getCreatedBy()
+                : workflowOwnerCache.get(
+                        workflowId,
+                        id -> workflowRepository.findOwnerById(id).orElse(null),
+                        o -> true
+                );
+
+        if (owner == null) {
+            return null;
+        }
+        authorize(owner);
+
+        Long version = versionTracker.current(workflowId);
+        return version == null ? null : ETags.workflow(workflowId, version, view);
+    }
+
+
+    /**
+     * Synchronous set-based delete. Not transactional on purpose: the
+     * purge commits chunk by chunk instead of holding one huge transaction.
+     * A workflow already DELETING is left to whoever marked it (another
+     * request, the archiver or the stalled-delete sweep).
+     */
     @Override
-    @Transactional
     public WorkflowResponse deleteWorkflow(Long workflowId) {
 
-        Workflow workflow = workflowRepository.findById(workflowId)
+        Workflow workflow = workflowRepository.findById(workflowId).orElse(null);
+
+        if (workflow == null) {
+            return deleteArchivedWorkflow(workflowId);
+        }
+
+        authorize(workflow);
+
+        WorkflowResponse response = WorkflowMapper.toSummaryResponse(workflow);
+
+        if (!workflowPurger.markDeleting(workflowId)) {
+            response.setStatus(WorkflowStatus.DELETING);
+            return response;
+        }
+        workflowPurger.purge(workflowId);
+
+        return response;
+    }
+
+    /**
+     * Marks the workflow DELETING and reclaims its rows in the background.
+     */
+    @Override
+    public WorkflowResponse deleteWorkflowAsync(Long workflowId) {
+
+        Workflow workflow = workflowRepository.findById(workflowId).orElse(null);
+
+        if (workflow == null) {
+            return deleteArchivedWorkflow(workflowId);
+        }
+
+        authorize(workflow);
+
+        if (workflowPurger.markDeleting(workflowId)) {
+            workflowPurger.purgeAsync(workflowId);
+        }
+
+        WorkflowResponse response = WorkflowMapper.toSummaryResponse(workflow);
+        response.setStatus(WorkflowStatus.DELETING);
+
+        return response;
+    }
+
+    private WorkflowResponse deleteArchivedWorkflow(Long workflowId) {
+
+        WorkflowResponse archived = workflowArchiveService.findArchived(workflowId)
                 .orElseThrow(() ->
                         new WorkflowNotFoundException("Workflow not found"));
 
-        authorize(workflow);
-        workflowRepository.delete(workflow);
+        authorize(archived.getCreatedBy());
+        workflowArchiveService.deleteArchived(workflowId);
 
-        return WorkflowMapper.toResponse(workflow);
+        return archived;
     }
 
     @Override
     @Transactional
     public TaskResponse addTask(Long workflowId, CreateTaskRequest req) {
 
-        Workflow workflow = workflowRepository.findById(workflowId)
+        Workflow workflow = workflowRepository.findByIdForUpdate(workflowId)
                 .orElseThrow(() ->
                         new WorkflowNotFoundException("Workflow not found"));
 
@@ -96,14 +282,39 @@ public class WorkflowServiceImpl implements WorkflowService {
             );
         }
 
+        // Its tasks are the template's nodes, and only those
+        if (workflow.getTemplateId() != null) {
+            throw new IllegalWorkflowOperationException(
+                    "Cannot modify the DAG of a template run; publish a new template version instead"
+            );
+        }
+
         Task task = TaskMapper.toEntity(req);
         task.setStatus(TaskStatus.PENDING);
 
+        if (task.getClientId() != null
+                && !taskRepository.findOrderByClientIds(workflowId, List.of(task.getClientId())).isEmpty()) {
+            throw new IllegalWorkflowOperationException(
+                    "Task alias already exists in workflow: " + task.getClientId()
+            );
+        }
+
+        // A task without dependencies can always go last in the order
+        Long maxOrder = taskRepository.findMaxTopoOrder(workflowId);
+        task.setTopoOrder(maxOrder == null ? 0L : maxOrder + 1);
+
         workflow.addTask(task);
+        workflowRepository.addToTotalTasks(workflowId, 1);
+        workflowRepository.bumpDagVersion(workflowId);
+        cacheInvalidator.workflowChanged(workflowId);
 
         return TaskMapper.toResponse(task);
     }
 
+    /**
+     * Queues the start and returns at once; {@link WorkflowStartAdmission}
+     * runs it when the task pool has room. Quotas count queued starts.
+     */
     @Override
     @Transactional
     public WorkflowResponse startWorkflow(Long workflowId) {
@@ -114,31 +325,61 @@ public class WorkflowServiceImpl implements WorkflowService {
 
         authorize(workflow);
 
-        if (workflow.getStatus() != WorkflowStatus.CREATED) {
+        if (workflow.getTotalTasks() == 0) {
+            throw new IllegalWorkflowOperationException(
+                    "Cannot start workflow without tasks"
+            );
+        }
+
+        if (workflow.getStatus() != WorkflowStatus.CREATED
+                || pendingStartRepository.existsById(workflowId)) {
             throw new IllegalWorkflowOperationException(
                     "Workflow already started"
             );
         }
 
-        if (workflow.getTasks().isEmpty()) {
+        quotaGuard.checkStart(workflow.getCreatedBy(), workflow.getTotalTasks());
+
+        try {
+            pendingStartRepository.enqueue(workflowId, workflow.getCreatedBy(), Instant.now());
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent start of the same workflow
             throw new IllegalWorkflowOperationException(
-                    "Cannot start workflow without tasks"
+                    "Workflow already started"
             );
         }
 
-        workflow.getTasks().forEach(task -> {
-            if (task.getDependsOn() == null || task.getDependsOn().isEmpty()) {
-                task.setStatus(TaskStatus.READY);
-            }
-        });
+        log.info("Workflow {} start queued", workflowId);
+
+        return WorkflowMapper.toSummaryResponse(workflow);
+    }
 
-        workflow.setStatus(WorkflowStatus.READY);
+    /**
+     * Counter-only read: never touches the tasks table.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public WorkflowProgressResponse getProgress(Long workflowId) {
 
-        return WorkflowMapper.toResponse(workflow);
+        WorkflowProgressView view = workflowRepository.findProgressById(workflowId)
+                .orElseThrow(() ->
+                        new WorkflowNotFoundException("Workflow not found"));
+
+        authorize(view.getCreatedBy());
+
+        WorkflowProgressResponse res = WorkflowMapper.toProgressResponse(view);
+        if (view.getStatus() == WorkflowStatus.CREATED) {
+            pendingStartRepository.findRequestedAt(workflowId).ifPresent(res::setStartQueuedAt);
+        }
+        return res;
     }
 
     private void authorize(Workflow workflow) {
-        if (!workflow.getCreatedBy().equals(getCurrentUser())) {
+        authorize(workflow.getCreatedBy());
+    }
+
+    private void authorize(String owner) {
+        if (!owner.equals(getCurrentUser())) {
             throw new AccessDeniedException("Not your workflow");
         }
     }
@@ -0,0 +1,255 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.cache.CacheInvalidator;
+import com.arsh.workflow.enums.TaskStatus;
+import com.arsh.workflow.events.AfterCommitExecutor;
+import com.arsh.workflow.repository.PendingWorkflowStartRepository;
+import com.arsh.workflow.repository.TaskRepository;
+import com.arsh.workflow.repository.WorkflowRepository;
+import com.arsh.workflow.repository.projection.TaskWorkflowView;
+import com.arsh.workflow.service.DependencyResolver;
+import com.arsh.workflow.service.WorkflowExecutorService;
+import com.arsh.workflow.util.MonitoredThreadPoolExecutor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the pending-start queue into the task pool at the rate the pool
+ * can absorb.
+ * <p>
+ * Each pass admits the oldest queued starts whose root tasks fit in
+ * {@code limit}; the oldest is always admitted, so a workflow wider than
+ * the limit is not starved. The limit is AIMD ({@link AdmissionLimit}):
+ * while work waits no longer than the latency target it grows by one per
+ * pass that used all of it (held once the pool is near the utilisation
+ * target); when the target is missed, the queue is full or tasks the
+ * pool turned away are still waiting, nothing is admitted and the limit
+ * is cut. Each node sizes its own admissions to its own pool, and claims
+ * a pass's starts by locking and deleting their rows in one start
+ * transaction, so a start runs exactly once.
+ * <p>
+ * Turned-away tasks wait in memory, so a restart (or a full deferred
+ * queue) loses them; they stay READY in the database, though. Once
+ * nothing is deferred and the pool queue is empty, a pass every
+ * {@code recovery.interval-ms} (the first one right after startup)
+ * resubmits READY tasks of RUNNING workflows untouched for
+ * {@code recovery.stale-after-ms}.
+ */
+@Component
+@Slf4j
+public class WorkflowStartAdmission {
+
+    private final PendingWorkflowStartRepository pendingStartRepository;
+    private final WorkflowRepository workflowRepository;
+    private final TaskRepository taskRepository;
+    private final DependencyResolver dependencyResolver;
+    private final CacheInvalidator cacheInvalidator;
+    private final AfterCommitExecutor afterCommitExecutor;
+    private final WorkflowExecutorService workflowExecutorService;
+    private final TransactionTemplate transactionTemplate;
+    private final MonitoredThreadPoolExecutor pool;
+    private final AdmissionLimit admissionLimit;
+    private final long recoveryIntervalMs;
+    private final long staleAfterMs;
+    private final int recoveryBatchSize;
+
+    // Only touched by the scheduler thread; 0 runs recovery on the first pass
+    private long lastRecoveryMs;
+
+    // Only touched by the scheduler thread; volatile for the gauge
+    private volatile long queueDepth;
+
+    public WorkflowStartAdmission(
+            PendingWorkflowStartRepository pendingStartRepository,
+            WorkflowRepository workflowRepository,
+            TaskRepository taskRepository,
+            DependencyResolver dependencyResolver,
+            CacheInvalidator cacheInvalidator,
+            AfterCommitExecutor afterCommitExecutor,
+            WorkflowExecutorService workflowExecutorService,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("workflowExecutorThreadPool") MonitoredThreadPoolExecutor pool,
+            MeterRegistry meterRegistry,
+            @Value("${workflow.start.admission.initial-limit:16}") double initialLimit,
+            @Value("${workflow.start.admission.min-limit:1}") double minLimit,
+            @Value("${workflow.start.admission.max-limit:256}") double maxLimit,
+            @Value("${workflow.start.admission.target-queue-latency-ms:200}") long targetLatencyMs,
+            @Value("${workflow.start.admission.target-utilisation:0.9}") double targetUtilisation,
+            @Value("${workflow.start.admission.decrease-factor:0.5}") double decreaseFactor,
+            @Value("${workflow.executor.recovery.interval-ms:10000}") long recoveryIntervalMs,
+            @Value("${workflow.executor.recovery.stale-after-ms:30000}") long staleAfterMs,
+            @Value("${workflow.executor.recovery.batch-size:500}") int recoveryBatchSize
+    ) {
+        this.pendingStartRepository = pendingStartRepository;
+        this.workflowRepository = workflowRepository;
+        this.taskRepository = taskRepository;
+        this.dependencyResolver = dependencyResolver;
+        this.cacheInvalidator = cacheInvalidator;
+        this.afterCommitExecutor = afterCommitExecutor;
+        this.workflowExecutorService = workflowExecutorService;
+        this.transactionTemplate = transactionTemplate;
+        this.pool = pool;
+        this.admissionLimit = new AdmissionLimit(
+                initialLimit, minLimit, maxLimit, targetLatencyMs, targetUtilisation, decreaseFactor);
+        this.recoveryIntervalMs = recoveryIntervalMs;
+        this.staleAfterMs = staleAfterMs;
+        this.recoveryBatchSize = recoveryBatchSize;
+
+        Gauge.builder("workflow.start.pending", this, a -> a.queueDepth)
+                .description("Accepted workflow starts waiting for admission")
+                .register(meterRegistry);
+        Gauge.builder("workflow.start.admission.limit", admissionLimit, AdmissionLimit::current)
+                .description("Current per-pass admission limit, in root tasks")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${workflow.start.admission.interval-ms:250}",
+            scheduler = "workflowAdmissionScheduler"
+    )
+    public void admit() {
+
+        // Sampled every pass so each sample covers exactly one interval
+        long latencyMs = pool.sampleQueueLatencyMillis();
+
+        // Tasks turned away earlier go before any new start
+        int deferred = workflowExecutorService.resubmitDeferred();
+        if (deferred == 0 && pool.getQueue().isEmpty()) {
+            recoverStalled();
+        }
+
+        queueDepth = pendingStartRepository.count();
+        if (queueDepth == 0) {
+            return;
+        }
+
+        boolean queueFull = deferred > 0 || pool.getQueue().remainingCapacity() == 0;
+        if (!admissionLimit.admits(latencyMs, queueFull)) {
+            log.debug("Start admission backing off: queue latency {} ms, {} deferred, limit now {}",
+                    latencyMs, deferred, admissionLimit.current());
+            return;
+        }
+
+        // A workflow with tasks has at least one root, so this many fill the budget
+        int budget = admissionLimit.budget();
+        List<Long> candidates = pendingStartRepository.findOldest(PageRequest.of(0, budget));
+        Map<Long, Integer> roots = dependencyResolver.countRoots(candidates);
+
+        List<Long> workflowIds = new ArrayList<>(candidates.size());
+        int rootTasks = 0;
+        for (Long workflowId : candidates) {
+            int count = roots.getOrDefault(workflowId, 0);
+            if (!workflowIds.isEmpty() && rootTasks + count > budget) {
+                break;
+            }
+            workflowIds.add(workflowId);
+            rootTasks += count;
+        }
+
+        int admitted;
+        try {
+            admitted = transactionTemplate.execute(status -> start(workflowIds));
+        } catch (Exception e) {
+            // One bad start must not hold the others back: retry them singly
+            log.warn("Unable to start {} queued workflow(s) together: {}", workflowIds.size(), e.getMessage());
+            admitted = startEach(workflowIds);
+        }
+
+        queueDepth = Math.max(0, queueDepth - workflowIds.size());
+        admissionLimit.admitted(rootTasks, pool.utilisation());
+
+        log.debug("Admitted {} queued start(s) with {} root task(s), limit {}",
+                admitted, rootTasks, admissionLimit.current());
+    }
+
+    private void recoverStalled() {
+
+        long nowMs = System.currentTimeMillis();
+        if (nowMs - lastRecoveryMs < recoveryIntervalMs) {
+            return;
+        }
+        lastRecoveryMs = nowMs;
+
+        try {
+            int recovered = workflowExecutorService.recoverStalledReady(
+                    Instant.ofEpochMilli(nowMs - staleAfterMs), recoveryBatchSize);
+            if (recovered > 0) {
+                log.info("Resubmitted {} stalled READY task(s)", recovered);
+            }
+        } catch (Exception e) {
+            log.warn("Unable to recover stalled READY tasks: {}", e.getMessage());
+        }
+    }
+
+    private int startEach(List<Long> workflowIds) {
+
+        int admitted = 0;
+        for (Long workflowId : workflowIds) {
+            try {
+                admitted += transactionTemplate.execute(status -> start(List.of(workflowId)));
+            } catch (Exception e) {
+                // Rolled back, so the start stays queued for the next pass
+                log.warn("Unable to start queued workflow {}: {}", workflowId, e.getMessage());
+            }
+        }
+        return admitted;
+    }
+
+    /**
+     * Set-based start of everything admitted in one pass: roots of all the
+     * workflows are promoted and counted with one UPDATE each and handed
+     * straight to the executor once the transaction commits.
+     *
+     * @return how many started; starts claimed by another node first, or
+     *         whose workflow left CREATED while queued (e.g. is being
+     *         deleted), are skipped
+     */
+    private int start(List<Long> workflowIds) {
+
+        if (workflowIds.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> claimed = pendingStartRepository.lockQueued(workflowIds);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+        pendingStartRepository.claim(claimed);
+
+        List<Long> started = workflowRepository.lockCreated(claimed);
+        if (started.isEmpty()) {
+            return 0;
+        }
+
+        Instant now = Instant.now();
+        workflowRepository.markReady(started, now);
+        int promoted = dependencyResolver.promoteRoots(started, now);
+
+        Map<Long, List<Long>> readyTasks = new LinkedHashMap<>();
+        started.forEach(id -> readyTasks.put(id, new ArrayList<>()));
+        for (TaskWorkflowView task : taskRepository.findIdsByWorkflowIdInAndStatus(started, TaskStatus.READY)) {
+            readyTasks.get(task.getWorkflowId()).add(task.getId());
+        }
+
+        workflowRepository.addReadyTasks(started);
+        readyTasks.forEach(cacheInvalidator::tasksChanged);
+
+        afterCommitExecutor.execute(() -> workflowExecutorService.submitReadyTasks(readyTasks));
+
+        log.info("{} workflow(s) READY with {} root task(s)", started.size(), promoted);
+        return started.size();
+    }
+}
@@ -0,0 +1,52 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.cache.NearCache;
+import com.arsh.workflow.events.stream.WorkflowEventStream;
+import com.arsh.workflow.exception.WorkflowNotFoundException;
+import com.arsh.workflow.repository.WorkflowRepository;
+import com.arsh.workflow.service.WorkflowStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Service
+@RequiredArgsConstructor
+public class WorkflowStreamServiceImpl implements WorkflowStreamService {
+
+    private final WorkflowRepository workflowRepository;
+    private final NearCache<Long, String> workflowOwnerCache;
+    private final WorkflowEventStream workflowEventStream;
+
+    private String getCurrentUser() {
+        return SecurityContextHolder.getContext()
+                .getAuthentication()
+                .getName();
+    }
+
+    @Override
+    public SseEmitter subscribeWorkflow(Long workflowId, String lastEventId) {
+
+        String owner = workflowOwnerCache.get(
+                workflowId,
+                id -> workflowRepository.findOwnerById(id).orElse(null),
+                o -> true
+        );
+
+        if (owner == null) {
+            throw new WorkflowNotFoundException("Workflow not found");
+        }
+
+        if (!owner.equals(getCurrentUser())) {
+            throw new AccessDeniedException("Not your workflow");
+        }
+
+        return workflowEventStream.subscribeWorkflow(workflowId, lastEventId);
+    }
+
+    @Override
+    public SseEmitter subscribeUser(String lastEventId) {
+        return workflowEventStream.subscribeUser(getCurrentUser(), lastEventId);
+    }
+}
@@ -0,0 +1,75 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.cache.NearCache;
+import com.arsh.workflow.exception.WorkflowTemplateNotFoundException;
+import com.arsh.workflow.repository.WorkflowTemplateRepository;
+import com.arsh.workflow.repository.projection.TemplateEdgeView;
+import com.arsh.workflow.repository.projection.TemplateNodeView;
+import com.arsh.workflow.validation.CompiledTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Compiled templates by id. A template is read from its rows once per
+ * node and then served from memory, since a published version never
+ * changes.
+ */
+@Component
+public class WorkflowTemplateRegistry {
+
+    private final WorkflowTemplateRepository templateRepository;
+    private final NearCache<Long, CompiledTemplate> workflowTemplateCache;
+
+    public WorkflowTemplateRegistry(WorkflowTemplateRepository templateRepository,
+                                    NearCache<Long, CompiledTemplate> workflowTemplateCache) {
+        this.templateRepository = templateRepository;
+        this.workflowTemplateCache = workflowTemplateCache;
+    }
+
+    public CompiledTemplate get(Long templateId) {
+
+        CompiledTemplate template = workflowTemplateCache.get(templateId, this::load, t -> true);
+
+        if (template == null) {
+            throw new WorkflowTemplateNotFoundException("Template not found");
+        }
+        return template;
+    }
+
+    /**
+     * Seeds the cache with a template this node just published.
+     */
+    public void put(Long templateId, CompiledTemplate template) {
+        workflowTemplateCache.get(templateId, id -> template, t -> true);
+    }
+
+    private CompiledTemplate load(Long templateId) {
+
+        return templateRepository.findById(templateId)
+                .map(row -> {
+                    List<TemplateNodeView> nodes = templateRepository.findNodes(templateId);
+                    List<TemplateEdgeView> edges = templateRepository.findEdges(templateId);
+
+                    String[] clientIds = new String[nodes.size()];
+                    String[] titles = new String[nodes.size()];
+                    String[] descriptions = new String[nodes.size()];
+                    for (TemplateNodeView node : nodes) {
+                        clientIds[node.getNode()] = node.getClientId();
+                        titles[node.getNode()] = node.getTitle();
+                        descriptions[node.getNode()] = node.getDescription();
+                    }
+
+                    int[] edgeNodes = new int[edges.size()];
+                    int[] edgeParents = new int[edges.size()];
+                    for (int k = 0; k < edgeNodes.length; k++) {
+                        edgeNodes[k] = edges.get(k).getNode();
+                        edgeParents[k] = edges.get(k).getParentNode();
+                    }
+
+                    return CompiledTemplate.of(
+                            clientIds, titles, descriptions, edgeNodes, edgeParents, row.getRootCount());
+                })
+                .orElse(null);
+    }
+}
@@ -0,0 +1,118 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.dto.request.BatchTaskRequest;
+import com.arsh.workflow.dto.request.CreateWorkflowRequest;
+import com.arsh.workflow.dto.response.WorkflowTemplateResponse;
+import com.arsh.workflow.events.AfterCommitExecutor;
+import com.arsh.workflow.exception.IllegalWorkflowOperationException;
+import com.arsh.workflow.exception.InvalidWorkflowDefinitionException;
+import com.arsh.workflow.exception.WorkflowTemplateNotFoundException;
+import com.arsh.workflow.model.WorkflowTemplate;
+import com.arsh.workflow.repository.WorkflowTemplateRepository;
+import com.arsh.workflow.repository.WorkflowTemplateWriter;
+import com.arsh.workflow.service.WorkflowTemplateService;
+import com.arsh.workflow.validation.CompiledTemplate;
+import com.arsh.workflow.validation.WorkflowGraphValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Publishes templates: a definition is validated and compiled here, once
+ * per version, and every run of it afterwards reuses the result.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class WorkflowTemplateServiceImpl implements WorkflowTemplateService {
+
+    private final WorkflowGraphValidator workflowGraphValidator;
+    private final WorkflowTemplateRepository templateRepository;
+    private final WorkflowTemplateWriter templateWriter;
+    private final WorkflowTemplateRegistry templateRegistry;
+    private final AfterCommitExecutor afterCommitExecutor;
+
+    private String getCurrentUser() {
+        return SecurityContextHolder.getContext()
+                .getAuthentication()
+                .getName();
+    }
+
+    @Override
+    @Transactional
+    public WorkflowTemplateResponse publish(CreateWorkflowRequest request) {
+
+        String name = request.getName();
+        List<BatchTaskRequest> tasks = request.getTasks();
+
+        if (name == null || name.isBlank()) {
+            throw new InvalidWorkflowDefinitionException(List.of("Template name cannot be blank."));
+        }
+        if (tasks == null || tasks.isEmpty()) {
+            throw new InvalidWorkflowDefinitionException(
+                    List.of("Template '" + name + "' must contain at least one task."));
+        }
+
+        CompiledTemplate compiled = CompiledTemplate.compile(tasks, workflowGraphValidator.validateOrThrow(tasks));
+
+        Integer latest = templateRepository.findLatestVersion(getCurrentUser(), name);
+        WorkflowTemplate template = new WorkflowTemplate(
+                name,
+                latest == null ? 1 : latest + 1,
+                compiled.size(),
+                compiled.edgeCount(),
+                compiled.rootCount()
+        );
+
+        try {
+            template = templateRepository.saveAndFlush(template);
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent publish of the same name
+            throw new IllegalWorkflowOperationException(
+                    "Template '" + name + "' was published concurrently, retry"
+            );
+        }
+
+        templateWriter.insert(template.getId(), compiled);
+
+        Long templateId = template.getId();
+        afterCommitExecutor.execute(() -> templateRegistry.put(templateId, compiled));
+
+        log.info("Template {} '{}' v{} published with {} task(s)",
+                templateId, name, template.getVersion(), compiled.size());
+
+        return toResponse(template);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public WorkflowTemplateResponse getTemplate(Long templateId) {
+
+        WorkflowTemplate template = templateRepository.findById(templateId)
+                .orElseThrow(() -> new WorkflowTemplateNotFoundException("Template not found"));
+
+        if (!template.getCreatedBy().equals(getCurrentUser())) {
+            throw new AccessDeniedException("Not your template");
+        }
+        return toResponse(template);
+    }
+
+    private static WorkflowTemplateResponse toResponse(WorkflowTemplate template) {
+        return new WorkflowTemplateResponse(
+                template.getId(),
+                template.getName(),
+                template.getVersion(),
+                template.getNodeCount(),
+                template.getEdgeCount(),
+                template.getRootCount(),
+                template.getCreatedBy(),
+                template.getCreatedAt()
+        );
+    }
+}
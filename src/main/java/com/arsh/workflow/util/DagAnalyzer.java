@@ -0,0 +1,146 @@
+package com.arsh.workflow.util;
+
+import com.arsh.workflow.dto.response.WorkflowAnalysisResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Shape of a stored DAG in one Kahn pass over int arrays: levels,
+ * widest level, critical path and degree histograms.
+ * Task ids are mapped to dense ints by binary search over the sorted id array.
+ */
+public final class DagAnalyzer {
+
+    private DagAnalyzer() {}
+
+    /**
+     * @param sortedIds    task ids, ascending
+     * @param edgeParents  parent id of every dependency
+     * @param edgeChildren dependent id of every dependency, index-aligned
+     */
+    public static WorkflowAnalysisResponse analyze(Long workflowId,
+                                                   long dagVersion,
+                                                   long[] sortedIds,
+                                                   long[] edgeParents,
+                                                   long[] edgeChildren) {
+
+        int n = sortedIds.length;
+        int m = edgeParents.length;
+
+        // ---- Compact graph: out-degree CSR ----
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int[] inDegree = new int[n];
+        int[] offsets = new int[n + 1];
+
+        for (int k = 0; k < m; k++) {
+            from[k] = Arrays.binarySearch(sortedIds, edgeParents[k]);
+            to[k] = Arrays.binarySearch(sortedIds, edgeChildren[k]);
+            inDegree[to[k]]++;
+            offsets[from[k] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        int[] targets = new int[m];
+        int[] cursor = Arrays.copyOf(offsets, n);
+        for (int k = 0; k < m; k++) {
+            targets[cursor[from[k]]++] = to[k];
+        }
+
+        // ---- Histograms (before Kahn consumes in-degrees) ----
+        SortedMap<Integer, Integer> inHistogram = new TreeMap<>();
+        SortedMap<Integer, Integer> outHistogram = new TreeMap<>();
+        int roots = 0;
+        int leaves = 0;
+
+        for (int i = 0; i < n; i++) {
+            int out = offsets[i + 1] - offsets[i];
+            inHistogram.merge(inDegree[i], 1, Integer::sum);
+            outHistogram.merge(out, 1, Integer::sum);
+            if (inDegree[i] == 0) roots++;
+            if (out == 0) leaves++;
+        }
+
+        // ---- Kahn with longest-path levels ----
+        int[] level = new int[n];
+        int[] predecessor = new int[n];
+        Arrays.fill(predecessor, -1);
+
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+
+        for (int i = 0; i < n; i++) {
+            if (inDegree[i] == 0) queue[tail++] = i;
+        }
+
+        int deepest = -1;
+
+        while (head < tail) {
+            int current = queue[head++];
+
+            if (deepest < 0 || level[current] > level[deepest]) {
+                deepest = current;
+            }
+
+            for (int k = offsets[current]; k < offsets[current + 1]; k++) {
+                int next = targets[k];
+                if (level[current] + 1 > level[next]) {
+                    level[next] = level[current] + 1;
+                    predecessor[next] = current;
+                }
+                if (--inDegree[next] == 0) {
+                    queue[tail++] = next;
+                }
+            }
+        }
+
+        if (tail != n) {
+            throw new IllegalStateException("Stored workflow graph contains a cycle");
+        }
+
+        int depth = deepest < 0 ? 0 : level[deepest] + 1;
+
+        int[] width = new int[depth];
+        for (int i = 0; i < n; i++) {
+            width[level[i]]++;
+        }
+
+        int widestLevel = 0;
+        for (int l = 1; l < depth; l++) {
+            if (width[l] > width[widestLevel]) widestLevel = l;
+        }
+
+        List<Long> criticalPath = new ArrayList<>(depth);
+        for (int v = deepest; v >= 0; v = predecessor[v]) {
+            criticalPath.add(sortedIds[v]);
+        }
+        Collections.reverse(criticalPath);
+
+        // ---- Result ----
+        WorkflowAnalysisResponse res = new WorkflowAnalysisResponse();
+
+        res.setWorkflowId(workflowId);
+        res.setDagVersion(dagVersion);
+        res.setTaskCount(n);
+        res.setDependencyCount(m);
+        res.setRootCount(roots);
+        res.setLeafCount(leaves);
+        res.setDepth(depth);
+        res.setMaxWidth(depth == 0 ? 0 : width[widestLevel]);
+        res.setWidestLevel(widestLevel);
+        res.setCriticalPathLength(criticalPath.size());
+        res.setCriticalPath(criticalPath);
+        res.setInDegreeHistogram(inHistogram);
+        res.setOutDegreeHistogram(outHistogram);
+
+        return res;
+    }
+}
@@ -0,0 +1,55 @@
+package com.arsh.workflow.util;
+
+import com.arsh.workflow.enums.WorkflowView;
+
+import java.util.Locale;
+
+/**
+ * Weak ETags for workflow and task reads, derived from the workflow
+ * version. A task tag also names its workflow, which the server
+ * resolves itself when checking it.
+ */
+public final class ETags {
+
+    private ETags() {}
+
+    public static String workflow(Long workflowId, long version) {
+        return "W/\"w" + workflowId + "." + version + "\"";
+    }
+
+    /**
+     * Partial views carry their name, so no view validates another.
+     */
+    public static String workflow(Long workflowId, long version, WorkflowView view) {
+        return view == WorkflowView.FULL
+                ? workflow(workflowId, version)
+                : "W/\"w" + workflowId + "." + version + "-" + view.name().toLowerCase(Locale.ROOT) + "\"";
+    }
+
+    public static String task(Long taskId, Long workflowId, long version) {
+        return "W/\"t" + taskId + "." + workflowId + "." + version + "\"";
+    }
+
+    /**
+     * Weak comparison against an If-None-Match header value.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaque(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,36 @@
+package com.arsh.workflow.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Error bodies for servlet filters, in the same shape as
+ * GlobalExceptionHandler (which filters cannot reach).
+ */
+public final class ErrorResponses {
+
+    private ErrorResponses() {}
+
+    public static void write(HttpServletResponse response,
+                             ObjectMapper objectMapper,
+                             HttpStatus status,
+                             String error,
+                             String message) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", status.value());
+        body.put("error", error);
+        body.put("message", message);
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,80 @@
+package com.arsh.workflow.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node-local front for {@link RedisTokenBucket}, for limits checked on
+ * every request.
+ * <p>
+ * Tokens are leased from Redis in batches and handed out locally, so
+ * most requests cost no round trip. After a denial the key is refused
+ * locally until the bucket could have refilled. A lease that is not used
+ * up within its TTL is dropped (never returned), which errs on the strict
+ * side: across N nodes a key can be under-served by up to N batches, never
+ * over-served.
+ */
+@Component
+public class LeasedRateLimiter {
+
+    private static final class Lease {
+        long remaining;
+        long expiresAt;
+        long deniedUntil;
+    }
+
+    private final RedisTokenBucket tokenBucket;
+    private final long batchSize;
+    private final long leaseTtlNanos;
+    private final Cache<String, Lease> leases;
+
+    public LeasedRateLimiter(RedisTokenBucket tokenBucket,
+                             @Value("${workflow.rate-limit.lease.batch-size:10}") long batchSize,
+                             @Value("${workflow.rate-limit.lease.ttl-ms:1000}") long leaseTtlMs,
+                             @Value("${workflow.rate-limit.lease.max-keys:100000}") long maxKeys) {
+        this.tokenBucket = tokenBucket;
+        this.batchSize = batchSize;
+        this.leaseTtlNanos = TimeUnit.MILLISECONDS.toNanos(leaseTtlMs);
+        this.leases = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofMinutes(1))
+                .build();
+    }
+
+    /**
+     * @return 0 when allowed, otherwise how long to wait in milliseconds
+     */
+    public long tryTake(String key, RedisTokenBucket.Limit limit) {
+
+        Lease lease = leases.get(key, k -> new Lease());
+
+        // One Redis call per key and node at a time; other callers use its result
+        synchronized (lease) {
+            long now = System.nanoTime();
+
+            if (lease.remaining > 0 && now < lease.expiresAt) {
+                lease.remaining--;
+                return 0;
+            }
+            if (now < lease.deniedUntil) {
+                return TimeUnit.NANOSECONDS.toMillis(lease.deniedUntil - now) + 1;
+            }
+
+            RedisTokenBucket.Grant grant = tokenBucket.lease(key, limit, Math.min(batchSize, limit.capacity()));
+            if (grant.granted() > 0) {
+                lease.remaining = grant.granted() - 1;
+                lease.expiresAt = now + leaseTtlNanos;
+                return 0;
+            }
+
+            lease.remaining = 0;
+            lease.deniedUntil = now + TimeUnit.MILLISECONDS.toNanos(grant.waitMs());
+            return Math.max(1, grant.waitMs());
+        }
+    }
+}
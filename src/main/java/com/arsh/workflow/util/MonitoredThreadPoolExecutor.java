@@ -0,0 +1,76 @@
+package com.arsh.workflow.util;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread pool that reports how long work waits in its queue, for
+ * admission control in front of it.
+ */
+public class MonitoredThreadPoolExecutor extends ThreadPoolExecutor {
+
+    private static final class Timed implements Runnable {
+        private final Runnable task;
+        private final long enqueuedAt = System.nanoTime();
+
+        private Timed(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public MonitoredThreadPoolExecutor(int corePoolSize,
+                                       int maximumPoolSize,
+                                       long keepAliveTime,
+                                       TimeUnit unit,
+                                       BlockingQueue<Runnable> workQueue,
+                                       ThreadFactory threadFactory,
+                                       RejectedExecutionHandler handler) {
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(new Timed(command));
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        if (r instanceof Timed timed) {
+            long waited = System.nanoTime() - timed.enqueuedAt;
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+        }
+        super.beforeExecute(t, r);
+    }
+
+    /**
+     * Longest queue wait since the previous call: the worst wait of work
+     * that started, or the age of the oldest work still queued.
+     */
+    public long sampleQueueLatencyMillis() {
+        long waited = maxWaitNanos.getAndSet(0);
+
+        Runnable head = getQueue().peek();
+        if (head instanceof Timed timed) {
+            waited = Math.max(waited, System.nanoTime() - timed.enqueuedAt);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(waited);
+    }
+
+    /**
+     * Busy threads over the maximum pool size.
+     */
+    public double utilisation() {
+        return (double) getActiveCount() / getMaximumPoolSize();
+    }
+}
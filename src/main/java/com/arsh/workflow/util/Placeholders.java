@@ -0,0 +1,42 @@
+package com.arsh.workflow.util;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@code ${name}} substitution for workflow templates. Names without a
+ * value are reported rather than guessed at and stay in the text as is.
+ */
+public final class Placeholders {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}]+)}");
+
+    private Placeholders() {}
+
+    /**
+     * @param missing receives each name that has no value
+     */
+    public static String substitute(String text, Map<String, String> values, Collection<String> missing) {
+
+        if (text == null || text.indexOf("${") < 0) {
+            return text;
+        }
+
+        Matcher m = PLACEHOLDER.matcher(text);
+        StringBuilder out = new StringBuilder(text.length() + 16);
+
+        while (m.find()) {
+            String name = m.group(1).trim();
+            String value = values.get(name);
+            if (value == null) {
+                missing.add(name);
+                value = m.group();
+            }
+            m.appendReplacement(out, Matcher.quoteReplacement(value));
+        }
+        m.appendTail(out);
+        return out.toString();
+    }
+}
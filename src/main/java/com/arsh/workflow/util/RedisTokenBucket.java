@@ -0,0 +1,101 @@
+package com.arsh.workflow.util;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Token buckets shared by all nodes. Refill and take happen in one
+ * script against the Redis clock, so node clock skew cannot mint tokens.
+ * An idle bucket expires once it would be full again.
+ * <p>
+ * Fails open: when Redis is unreachable every request is allowed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RedisTokenBucket {
+
+    public record Limit(long capacity, double refillPerSecond) {}
+
+    /**
+     * @param granted tokens taken, 0 when the bucket could not cover the minimum
+     * @param waitMs  when nothing was granted, milliseconds until it could be
+     */
+    public record Grant(long granted, long waitMs) {}
+
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> TAKE_SCRIPT = new DefaultRedisScript<>();
+
+    static {
+        // Takes up to ARGV[3] tokens but at least ARGV[4]; returns {granted, waitMs}
+        TAKE_SCRIPT.setScriptText(
+                "local capacity = tonumber(ARGV[1]) " +
+                        "local rate = tonumber(ARGV[2]) " +
+                        "local wanted = tonumber(ARGV[3]) " +
+                        "local minimum = tonumber(ARGV[4]) " +
+                        "local t = redis.call('time') " +
+                        "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000) " +
+                        "local state = redis.call('hmget', KEYS[1], 'tokens', 'ts') " +
+                        "local tokens = tonumber(state[1]) or capacity " +
+                        "local ts = tonumber(state[2]) or now " +
+                        "tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000) " +
+                        "local granted = 0 " +
+                        "local wait = 0 " +
+                        "if tokens >= minimum then " +
+                        "   granted = math.min(wanted, math.floor(tokens)) " +
+                        "   tokens = tokens - granted " +
+                        "else " +
+                        "   wait = math.ceil((minimum - tokens) * 1000 / rate) " +
+                        "end " +
+                        "redis.call('hset', KEYS[1], 'tokens', tostring(tokens), 'ts', now) " +
+                        "redis.call('pexpire', KEYS[1], math.ceil(capacity * 1000 / rate)) " +
+                        "return {granted, wait}"
+        );
+        TAKE_SCRIPT.setResultType(List.class);
+    }
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * Takes one token.
+     *
+     * @return 0 when taken, otherwise how long to wait in milliseconds
+     */
+    public long tryTake(String key, Limit limit) {
+        Grant grant = take(key, limit, 1);
+        return grant.granted() > 0 ? 0 : grant.waitMs();
+    }
+
+    /**
+     * Takes as many tokens as are available, up to {@code max}, so a node
+     * can serve the next few requests without asking again.
+     */
+    public Grant lease(String key, Limit limit, long max) {
+        return take(key, limit, max);
+    }
+
+    private Grant take(String key, Limit limit, long wanted) {
+        try {
+            List<?> result = redisTemplate.execute(
+                    TAKE_SCRIPT,
+                    List.of(key),
+                    String.valueOf(limit.capacity()),
+                    String.valueOf(limit.refillPerSecond()),
+                    String.valueOf(wanted),
+                    "1"
+            );
+            if (result == null || result.size() != 2) {
+                return new Grant(wanted, 0);
+            }
+            return new Grant(((Number) result.get(0)).longValue(), ((Number) result.get(1)).longValue());
+        } catch (Exception e) {
+            log.warn("Rate limiter unavailable for {}: {}", key, e.getMessage());
+            return new Grant(wanted, 0);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.arsh.workflow.util;
+
+import com.arsh.workflow.enums.TaskStatus;
+
+/**
+ * Change to the workflow progress counters caused by one task transition.
+ * PENDING has no counter of its own (it is total minus the rest).
+ */
+public record TaskCounterDelta(int ready, int running, int completed, int failed) {
+
+    public static TaskCounterDelta of(TaskStatus from, TaskStatus to) {
+        return new TaskCounterDelta(
+                weight(TaskStatus.READY, from, to),
+                weight(TaskStatus.IN_PROGRESS, from, to),
+                weight(TaskStatus.COMPLETED, from, to),
+                weight(TaskStatus.FAILED, from, to)
+        );
+    }
+
+    public TaskCounterDelta plus(TaskCounterDelta other) {
+        return new TaskCounterDelta(
+                ready + other.ready,
+                running + other.running,
+                completed + other.completed,
+                failed + other.failed
+        );
+    }
+
+    private static int weight(TaskStatus counter, TaskStatus from, TaskStatus to) {
+        return (to == counter ? 1 : 0) - (from == counter ? 1 : 0);
+    }
+}
@@ -0,0 +1,163 @@
+package com.arsh.workflow.util;
+
+import com.arsh.workflow.dto.response.TaskResponse;
+import com.arsh.workflow.enums.TaskStatus;
+import com.arsh.workflow.repository.projection.TaskEdgeView;
+import com.arsh.workflow.repository.projection.TaskRowView;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Binary format of {@code workflow_archive.dag} (gzip-compressed):
+ * <pre>
+ * int   formatVersion
+ * int   taskCount
+ * task* : long id, nullable-utf clientId, utf title, nullable-utf description,
+ *         utf status, nullable-long assignedToId, nullable-utf assignedToName
+ * task* : int parentCount, int parentIndex*   (indexes into the task list)
+ * </pre>
+ * Version 1 archives, written without clientId, are still read.
+ */
+public final class WorkflowArchiveCodec {
+
+    private static final int FORMAT_VERSION = 2;
+
+    /** A decoded archive: its tasks, and its edges by task id. */
+    public record Decoded(List<TaskResponse> tasks, List<TaskEdgeView> edges) {}
+
+    private record Edge(Long taskId, Long parentId) implements TaskEdgeView {
+
+        @Override
+        public Long getTaskId() {
+            return taskId;
+        }
+
+        @Override
+        public Long getParentId() {
+            return parentId;
+        }
+    }
+
+    private WorkflowArchiveCodec() {}
+
+    public static byte[] encode(List<TaskRowView> tasks, List<TaskEdgeView> edges) {
+
+        Map<Long, Integer> index = new HashMap<>(tasks.size() * 2);
+        for (int i = 0; i < tasks.size(); i++) {
+            index.put(tasks.get(i).getId(), i);
+        }
+
+        List<List<Integer>> parents = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            parents.add(new ArrayList<>(1));
+        }
+        for (TaskEdgeView edge : edges) {
+            parents.get(index.get(edge.getTaskId())).add(index.get(edge.getParentId()));
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new GZIPOutputStream(bytes)))) {
+
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(tasks.size());
+
+            for (TaskRowView task : tasks) {
+                out.writeLong(task.getId());
+                writeNullable(out, task.getClientId());
+                out.writeUTF(task.getTitle());
+                writeNullable(out, task.getDescription());
+                out.writeUTF(task.getStatus().name());
+                out.writeBoolean(task.getAssignedToId() != null);
+                if (task.getAssignedToId() != null) {
+                    out.writeLong(task.getAssignedToId());
+                }
+                writeNullable(out, task.getAssignedToName());
+            }
+
+            for (List<Integer> taskParents : parents) {
+                out.writeInt(taskParents.size());
+                for (int parent : taskParents) {
+                    out.writeInt(parent);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to encode workflow archive", e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes the task list, for responses, which do not carry edges.
+     */
+    public static List<TaskResponse> decodeTasks(Long workflowId, byte[] dag) {
+        return decode(workflowId, dag, false).tasks();
+    }
+
+    public static Decoded decode(Long workflowId, byte[] dag) {
+        return decode(workflowId, dag, true);
+    }
+
+    private static Decoded decode(Long workflowId, byte[] dag, boolean withEdges) {
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(new ByteArrayInputStream(dag))))) {
+
+            int version = in.readInt();
+            if (version != 1 && version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported archive format version " + version);
+            }
+
+            int count = in.readInt();
+            List<TaskResponse> tasks = new ArrayList<>(count);
+
+            for (int i = 0; i < count; i++) {
+                TaskResponse res = new TaskResponse();
+                res.setId(in.readLong());
+                res.setClientId(version == 1 ? null : readNullable(in));
+                res.setTitle(in.readUTF());
+                res.setDescription(readNullable(in));
+                res.setStatus(TaskStatus.valueOf(in.readUTF()));
+                res.setAssignedToId(in.readBoolean() ? in.readLong() : null);
+                res.setAssignedToName(readNullable(in));
+                res.setWorkflowId(workflowId);
+                tasks.add(res);
+            }
+
+            if (!withEdges) {
+                return new Decoded(tasks, List.of());
+            }
+
+            List<TaskEdgeView> edges = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                int parents = in.readInt();
+                for (int k = 0; k < parents; k++) {
+                    edges.add(new Edge(tasks.get(i).getId(), tasks.get(in.readInt()).getId()));
+                }
+            }
+
+            return new Decoded(tasks, edges);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to decode workflow archive " + workflowId, e);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
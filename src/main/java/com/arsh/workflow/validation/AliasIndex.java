@@ -0,0 +1,54 @@
+package com.arsh.workflow.validation;
+
+/**
+ * Open-addressing String → dense int map, sized once for a known number
+ * of aliases. Avoids boxing and per-entry nodes of a HashMap.
+ */
+final class AliasIndex {
+
+    private final String[] keys;
+    private final int[] values;
+    private final int mask;
+
+    AliasIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+        this.keys = new String[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @return false when the alias is already present
+     */
+    boolean putIfAbsent(String alias, int value) {
+        int slot = slot(alias);
+        while (keys[slot] != null) {
+            if (keys[slot].equals(alias)) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = alias;
+        values[slot] = value;
+        return true;
+    }
+
+    /**
+     * @return the interned id, or -1 when unknown
+     */
+    int get(String alias) {
+        int slot = slot(alias);
+        while (keys[slot] != null) {
+            if (keys[slot].equals(alias)) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slot(String alias) {
+        int h = alias.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
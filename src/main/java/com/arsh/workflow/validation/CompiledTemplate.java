@@ -0,0 +1,147 @@
+package com.arsh.workflow.validation;
+
+import com.arsh.workflow.dto.request.BatchTaskRequest;
+
+import java.util.List;
+
+/**
+ * A published template, instantiated without any further validation.
+ * Nodes are numbered in a topological order with every root first, so
+ * a run's task for node {@code n} has topo_order {@code n} and is a root
+ * exactly when {@code n < rootCount()}. The graph's topological order is
+ * the identity. Immutable, so it can be cached for good.
+ */
+public final class CompiledTemplate {
+
+    private final DagGraph graph;
+    private final String[] titles;
+    private final String[] descriptions;
+    private final int rootCount;
+
+    private CompiledTemplate(DagGraph graph, String[] titles, String[] descriptions, int rootCount) {
+        this.graph = graph;
+        this.titles = titles;
+        this.descriptions = descriptions;
+        this.rootCount = rootCount;
+    }
+
+    /**
+     * Renumbers a validated submission: roots first, then every other
+     * task, each group in the validator's topological order.
+     */
+    public static CompiledTemplate compile(List<BatchTaskRequest> tasks, DagGraph dag) {
+
+        int n = dag.size();
+        int[] nodeOf = new int[n];
+        int next = 0;
+
+        for (int position = 0; position < n; position++) {
+            int i = dag.topologicalAt(position);
+            if (dag.parentsStart(i) == dag.parentsEnd(i)) {
+                nodeOf[i] = next++;
+            }
+        }
+        int roots = next;
+        for (int position = 0; position < n; position++) {
+            int i = dag.topologicalAt(position);
+            if (dag.parentsStart(i) != dag.parentsEnd(i)) {
+                nodeOf[i] = next++;
+            }
+        }
+
+        String[] clientIds = new String[n];
+        String[] titles = new String[n];
+        String[] descriptions = new String[n];
+        int[] edgeNodes = new int[dag.edgeCount()];
+        int[] edgeParents = new int[dag.edgeCount()];
+        int e = 0;
+
+        for (int i = 0; i < n; i++) {
+            BatchTaskRequest task = tasks.get(i);
+            clientIds[nodeOf[i]] = task.getClientId();
+            titles[nodeOf[i]] = task.getTitle();
+            descriptions[nodeOf[i]] = task.getDescription();
+
+            for (int k = dag.parentsStart(i); k < dag.parentsEnd(i); k++) {
+                edgeNodes[e] = nodeOf[i];
+                edgeParents[e] = nodeOf[dag.parentAt(k)];
+                e++;
+            }
+        }
+
+        return of(clientIds, titles, descriptions, edgeNodes, edgeParents, roots);
+    }
+
+    /**
+     * Rebuilds a stored template: edge {@code k} is
+     * {@code edgeNodes[k]} depends on {@code edgeParents[k]}.
+     */
+    public static CompiledTemplate of(String[] clientIds,
+                                      String[] titles,
+                                      String[] descriptions,
+                                      int[] edgeNodes,
+                                      int[] edgeParents,
+                                      int rootCount) {
+
+        int n = clientIds.length;
+        int m = edgeNodes.length;
+
+        int[] parentOffsets = new int[n + 1];
+        int[] childOffsets = new int[n + 1];
+        for (int k = 0; k < m; k++) {
+            parentOffsets[edgeNodes[k] + 1]++;
+            childOffsets[edgeParents[k] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            parentOffsets[i + 1] += parentOffsets[i];
+            childOffsets[i + 1] += childOffsets[i];
+        }
+
+        int[] parents = new int[m];
+        int[] children = new int[m];
+        int[] parentFill = new int[n];
+        int[] childFill = new int[n];
+        for (int k = 0; k < m; k++) {
+            int node = edgeNodes[k];
+            int parent = edgeParents[k];
+            parents[parentOffsets[node] + parentFill[node]++] = parent;
+            children[childOffsets[parent] + childFill[parent]++] = node;
+        }
+
+        int[] identity = new int[n];
+        for (int i = 0; i < n; i++) {
+            identity[i] = i;
+        }
+
+        DagGraph graph = new DagGraph(clientIds, parentOffsets, parents, childOffsets, children, identity);
+        return new CompiledTemplate(graph, titles, descriptions, rootCount);
+    }
+
+    public DagGraph graph() {
+        return graph;
+    }
+
+    public int size() {
+        return graph.size();
+    }
+
+    public int edgeCount() {
+        return graph.edgeCount();
+    }
+
+    public int rootCount() {
+        return rootCount;
+    }
+
+    public String clientId(int node) {
+        return graph.alias(node);
+    }
+
+    public String title(int node) {
+        return titles[node];
+    }
+
+    public String description(int node) {
+        return descriptions[node];
+    }
+}
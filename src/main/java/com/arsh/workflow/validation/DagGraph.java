@@ -0,0 +1,78 @@
+package com.arsh.workflow.validation;
+
+/**
+ * Validated workflow DAG over dense node ids (the position of each task in
+ * the submitted batch). Parent and child edges are kept as CSR int arrays:
+ * the parents of node {@code i} are {@code parentAt(k)} for
+ * {@code k in [parentsStart(i), parentsEnd(i))}, children likewise.
+ */
+public final class DagGraph {
+
+    private final String[] aliases;
+    private final int[] parentOffsets;
+    private final int[] parents;
+    private final int[] childOffsets;
+    private final int[] children;
+    private final int[] topologicalOrder;
+
+    DagGraph(String[] aliases,
+             int[] parentOffsets,
+             int[] parents,
+             int[] childOffsets,
+             int[] children,
+             int[] topologicalOrder) {
+        this.aliases = aliases;
+        this.parentOffsets = parentOffsets;
+        this.parents = parents;
+        this.childOffsets = childOffsets;
+        this.children = children;
+        this.topologicalOrder = topologicalOrder;
+    }
+
+    public int size() {
+        return aliases.length;
+    }
+
+    public int edgeCount() {
+        return parents.length;
+    }
+
+    public String alias(int node) {
+        return aliases[node];
+    }
+
+    // ---- Parents (dependsOn) ----
+
+    public int parentsStart(int node) {
+        return parentOffsets[node];
+    }
+
+    public int parentsEnd(int node) {
+        return parentOffsets[node + 1];
+    }
+
+    public int parentAt(int edge) {
+        return parents[edge];
+    }
+
+    // ---- Children (dependents) ----
+
+    public int childrenStart(int node) {
+        return childOffsets[node];
+    }
+
+    public int childrenEnd(int node) {
+        return childOffsets[node + 1];
+    }
+
+    public int childAt(int edge) {
+        return children[edge];
+    }
+
+    /**
+     * Node at position {@code i} of a topological order (parents first).
+     */
+    public int topologicalAt(int i) {
+        return topologicalOrder[i];
+    }
+}
@@ -0,0 +1,204 @@
+package com.arsh.workflow.validation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Topological order maintenance for DAGs whose tasks carry an order value.
+ *
+ * <p>{@link #insertEdge} is the Pearce–Kelly dynamic algorithm: a new edge
+ * that already agrees with the order costs nothing; otherwise only the
+ * affected region — the tasks ordered between the edge's child and parent —
+ * is searched and re-numbered, reusing the order values it already owns.
+ */
+public final class IncrementalTopologicalOrder {
+
+    private IncrementalTopologicalOrder() {}
+
+    /**
+     * Re-orders the window for a new edge {@code parent → child} where
+     * {@code ord(child) < ord(parent)}.
+     *
+     * @param nodeIds      every task with order in [ord(child), ord(parent)]
+     * @param nodeOrders   their current orders, index-aligned with {@code nodeIds}
+     * @param edgeParents  parents of the edges with both ends in the window
+     * @param edgeChildren children of those edges, index-aligned
+     * @return new orders of the tasks that move, or empty when the edge would close a cycle
+     */
+    public static Optional<Map<Long, Long>> insertEdge(long parentId,
+                                                       long childId,
+                                                       long[] nodeIds,
+                                                       long[] nodeOrders,
+                                                       long[] edgeParents,
+                                                       long[] edgeChildren) {
+
+        int n = nodeIds.length;
+        Map<Long, Integer> index = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            index.put(nodeIds[i], i);
+        }
+
+        int parent = index.get(parentId);
+        int child = index.get(childId);
+
+        int m = edgeParents.length;
+        int[] from = new int[m];
+        int[] to = new int[m];
+        for (int k = 0; k < m; k++) {
+            from[k] = index.get(edgeParents[k]);
+            to[k] = index.get(edgeChildren[k]);
+        }
+
+        int[][] forward = csr(n, from, to);
+        int[][] backward = csr(n, to, from);
+
+        // δF: reachable from child; reaching parent means a cycle
+        boolean[] inForward = new boolean[n];
+        int[] forwardSet = reach(child, forward, inForward, parent);
+        if (forwardSet == null) {
+            return Optional.empty();
+        }
+
+        // δB: tasks that reach parent
+        boolean[] inBackward = new boolean[n];
+        int[] backwardSet = reach(parent, backward, inBackward, -1);
+
+        // δB keeps its relative order and takes the lowest slots of the pool,
+        // δF keeps its relative order and takes the rest
+        sortByOrder(backwardSet, nodeOrders);
+        sortByOrder(forwardSet, nodeOrders);
+
+        long[] pool = new long[backwardSet.length + forwardSet.length];
+        int p = 0;
+        for (int v : backwardSet) pool[p++] = nodeOrders[v];
+        for (int v : forwardSet) pool[p++] = nodeOrders[v];
+        Arrays.sort(pool);
+
+        Map<Long, Long> moved = new HashMap<>();
+        p = 0;
+        for (int v : backwardSet) assign(v, pool[p++], nodeIds, nodeOrders, moved);
+        for (int v : forwardSet) assign(v, pool[p++], nodeIds, nodeOrders, moved);
+
+        return Optional.of(moved);
+    }
+
+    /**
+     * Full Kahn ordering, for workflows created before orders were tracked.
+     *
+     * @return {@code nodeIds} rearranged parents-first
+     */
+    public static long[] initialOrder(long[] nodeIds, long[] edgeParents, long[] edgeChildren) {
+
+        int n = nodeIds.length;
+        Map<Long, Integer> index = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            index.put(nodeIds[i], i);
+        }
+
+        int m = edgeParents.length;
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int[] indegree = new int[n];
+        for (int k = 0; k < m; k++) {
+            from[k] = index.get(edgeParents[k]);
+            to[k] = index.get(edgeChildren[k]);
+            indegree[to[k]]++;
+        }
+
+        int[][] forward = csr(n, from, to);
+        int[] offsets = forward[0];
+        int[] targets = forward[1];
+
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < n; i++) {
+            if (indegree[i] == 0) queue[tail++] = i;
+        }
+        while (head < tail) {
+            int current = queue[head++];
+            for (int k = offsets[current]; k < offsets[current + 1]; k++) {
+                if (--indegree[targets[k]] == 0) queue[tail++] = targets[k];
+            }
+        }
+
+        if (tail != n) {
+            throw new IllegalStateException("Stored workflow graph contains a cycle");
+        }
+
+        long[] ordered = new long[n];
+        for (int i = 0; i < n; i++) {
+            ordered[i] = nodeIds[queue[i]];
+        }
+        return ordered;
+    }
+
+    private static void assign(int v, long order, long[] nodeIds, long[] nodeOrders, Map<Long, Long> moved) {
+        if (nodeOrders[v] != order) {
+            moved.put(nodeIds[v], order);
+        }
+    }
+
+    /**
+     * Iterative DFS. Returns null as soon as {@code stopAt} is reached.
+     */
+    private static int[] reach(int start, int[][] graph, boolean[] seen, int stopAt) {
+
+        int[] offsets = graph[0];
+        int[] targets = graph[1];
+
+        int[] stack = new int[seen.length];
+        int[] found = new int[seen.length];
+        int top = 0;
+        int count = 0;
+
+        stack[top++] = start;
+        seen[start] = true;
+
+        while (top > 0) {
+            int current = stack[--top];
+            found[count++] = current;
+
+            for (int k = offsets[current]; k < offsets[current + 1]; k++) {
+                int next = targets[k];
+                if (next == stopAt) {
+                    return null;
+                }
+                if (!seen[next]) {
+                    seen[next] = true;
+                    stack[top++] = next;
+                }
+            }
+        }
+
+        return Arrays.copyOf(found, count);
+    }
+
+    private static int[][] csr(int n, int[] from, int[] to) {
+        int[] offsets = new int[n + 1];
+        for (int f : from) offsets[f + 1]++;
+        for (int i = 0; i < n; i++) offsets[i + 1] += offsets[i];
+
+        int[] targets = new int[from.length];
+        int[] cursor = Arrays.copyOf(offsets, n);
+        for (int k = 0; k < from.length; k++) {
+            targets[cursor[from[k]]++] = to[k];
+        }
+        return new int[][]{offsets, targets};
+    }
+
+    private static void sortByOrder(int[] nodes, long[] nodeOrders) {
+        long[] keyed = new long[nodes.length];
+        Map<Long, Integer> byOrder = new HashMap<>(nodes.length * 2);
+        for (int i = 0; i < nodes.length; i++) {
+            keyed[i] = nodeOrders[nodes[i]];
+            byOrder.put(keyed[i], nodes[i]);
+        }
+        Arrays.sort(keyed);
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = byOrder.get(keyed[i]);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.arsh.workflow.validation;
+
+import com.arsh.workflow.dto.request.BatchTaskRequest;
+import com.arsh.workflow.exception.InvalidWorkflowDefinitionException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pull reader over a task upload, one task at a time.
+ * Accepts either a top-level JSON array of tasks or NDJSON (one task
+ * object per line); only the task being read is ever held in memory.
+ * Unknown fields are skipped; syntax errors surface as
+ * {@link InvalidWorkflowDefinitionException}.
+ */
+public final class StreamingTaskReader implements Closeable {
+
+    private final JsonParser parser;
+    private final boolean array;
+    private JsonToken primed;
+    private long count;
+
+    public StreamingTaskReader(JsonFactory factory, InputStream in) throws IOException {
+        this.parser = factory.createParser(in);
+        JsonToken first;
+        try {
+            first = parser.nextToken();
+        } catch (JsonProcessingException e) {
+            parser.close();
+            throw malformed(e.getOriginalMessage());
+        }
+        this.array = first == JsonToken.START_ARRAY;
+        this.primed = array ? null : first;
+    }
+
+    /**
+     * @return the next task, or null once the upload is exhausted
+     */
+    public BatchTaskRequest next() throws IOException {
+        try {
+            return readNext();
+        } catch (JsonProcessingException e) {
+            throw malformed(e.getOriginalMessage());
+        }
+    }
+
+    private BatchTaskRequest readNext() throws IOException {
+
+        JsonToken token;
+        if (primed != null) {
+            token = primed;
+            primed = null;
+        } else {
+            token = parser.nextToken();
+        }
+
+        if (array && token == JsonToken.END_ARRAY) {
+            if (parser.nextToken() != null) {
+                throw malformed("unexpected content after the task array");
+            }
+            return null;
+        }
+
+        if (token == null) {
+            return null;
+        }
+
+        if (token != JsonToken.START_OBJECT) {
+            throw malformed("expected a task object but found " + token);
+        }
+
+        BatchTaskRequest task = readTask();
+        count++;
+        return task;
+    }
+
+    /**
+     * Number of tasks returned so far.
+     */
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private BatchTaskRequest readTask() throws IOException {
+
+        BatchTaskRequest task = new BatchTaskRequest();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            switch (field) {
+                case "clientId" -> task.setClientId(text(field, value));
+                case "title" -> task.setTitle(text(field, value));
+                case "description" -> task.setDescription(text(field, value));
+                case "dependsOn" -> task.setDependsOn(aliases(value));
+                default -> parser.skipChildren();
+            }
+        }
+
+        return task;
+    }
+
+    private List<String> aliases(JsonToken value) throws IOException {
+
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value != JsonToken.START_ARRAY) {
+            throw malformed("'dependsOn' must be an array of aliases");
+        }
+
+        List<String> aliases = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            aliases.add(text("dependsOn[]", token));
+        }
+        return aliases;
+    }
+
+    private String text(String field, JsonToken value) throws IOException {
+
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value != JsonToken.VALUE_STRING) {
+            throw malformed("'" + field + "' must be a string");
+        }
+        return parser.getText();
+    }
+
+    private InvalidWorkflowDefinitionException malformed(String reason) {
+        return new InvalidWorkflowDefinitionException(List.of(
+                "Malformed upload near task #" + (count + 1)
+                        + " (line " + parser.currentLocation().getLineNr() + "): " + reason
+        ));
+    }
+}
@@ -0,0 +1,107 @@
+package com.arsh.workflow.validation;
+
+import java.util.Arrays;
+
+/**
+ * Finds dependency edges implied by longer paths (C → A is redundant when
+ * C → B → A exists). Dropping them leaves reachability, and therefore
+ * execution order, unchanged.
+ *
+ * <p>Ancestor sets are computed 64 candidate ancestors at a time: one
+ * {@code long} mask per node per block, so memory stays O(n) instead of
+ * the O(n²) bits of a full reachability matrix.
+ *
+ * <p>A block only scans up to its furthest descendant, so a wide or
+ * shallow DAG costs about O(n + e) per block. The worst case, a long
+ * chain through every block, is still O((n + e) · n / 64), which is why
+ * {@code workflow.dag.reduce.max-tasks} caps the batch size.
+ */
+public final class TransitiveReduction {
+
+    private TransitiveReduction() {}
+
+    /**
+     * @return one flag per parent edge of {@code dag} (indexed like
+     *         {@link DagGraph#parentAt}), true when the edge is implied
+     */
+    public static boolean[] redundantEdges(DagGraph dag) {
+
+        int n = dag.size();
+        boolean[] redundant = new boolean[dag.edgeCount()];
+
+        if (dag.edgeCount() == 0) {
+            return redundant;
+        }
+
+        // Bits are topological positions; ancestors always sit at lower positions
+        int[] position = new int[n];
+        for (int pos = 0; pos < n; pos++) {
+            position[dag.topologicalAt(pos)] = pos;
+        }
+
+        // By position: position of the node's last child, or -1 for a leaf
+        int[] lastChild = new int[n];
+        Arrays.fill(lastChild, -1);
+        for (int node = 0; node < n; node++) {
+            for (int k = dag.parentsStart(node); k < dag.parentsEnd(node); k++) {
+                int parentPos = position[dag.parentAt(k)];
+                lastChild[parentPos] = Math.max(lastChild[parentPos], position[node]);
+            }
+        }
+
+        long[] mask = new long[n];   // by position: strict ancestors within the current block
+
+        for (int blockStart = 0; blockStart < n; blockStart += 64) {
+
+            int blockEnd = Math.min(n, blockStart + 64);
+
+            // Past the block's furthest descendant every mask would be empty
+            int reach = blockEnd - 1;
+
+            for (int pos = blockStart; pos <= reach; pos++) {
+
+                int node = dag.topologicalAt(pos);
+                long ancestors = 0L;
+                long viaOtherParents = 0L;
+
+                for (int k = dag.parentsStart(node); k < dag.parentsEnd(node); k++) {
+                    int parentPos = position[dag.parentAt(k)];
+                    if (parentPos < blockStart) continue;
+
+                    long parentAncestors = mask[parentPos];
+                    viaOtherParents |= parentAncestors;
+                    ancestors |= parentAncestors;
+                    if (parentPos < blockEnd) {
+                        ancestors |= 1L << (parentPos - blockStart);
+                    }
+                }
+
+                mask[pos] = ancestors;
+                if (pos < blockEnd || ancestors != 0L) {
+                    reach = Math.max(reach, lastChild[pos]);
+                }
+
+                // A direct parent that is also a strict ancestor of some parent is implied
+                if (viaOtherParents != 0L) {
+                    for (int k = dag.parentsStart(node); k < dag.parentsEnd(node); k++) {
+                        int parentPos = position[dag.parentAt(k)];
+                        if (parentPos >= blockStart && parentPos < blockEnd
+                                && (viaOtherParents & (1L << (parentPos - blockStart))) != 0L) {
+                            redundant[k] = true;
+                        }
+                    }
+                }
+            }
+        }
+
+        return redundant;
+    }
+
+    public static int count(boolean[] redundant) {
+        int removed = 0;
+        for (boolean r : redundant) {
+            if (r) removed++;
+        }
+        return removed;
+    }
+}
@@ -2,20 +2,44 @@ package com.arsh.workflow.validation;
 
 import com.arsh.workflow.dto.request.BatchTaskRequest;
 import com.arsh.workflow.exception.InvalidWorkflowDefinitionException;
-import com.arsh.workflow.model.Task;
 import org.springframework.stereotype.Component;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Component
 public class WorkflowGraphValidator {
 
+    // Longest cycle path spelled out in an error message
+    private static final int MAX_CYCLE_REPORT = 20;
+
     /**
      * DTO-level validation.
      * Validates clientIds, dependency references, and detects cycles
-     * BEFORE entities are created.
+     * BEFORE entities are created. Aliases are interned to dense ints
+     * (their batch position) and the graph is kept in CSR int arrays, so
+     * the pass is iterative and allocation-light even for 1M tasks.
+     *
+     * @return the validated graph, reusable for wiring entities
+     */
+    public DagGraph validateOrThrow(List<BatchTaskRequest> tasks) {
+        return validate(tasks, Set.of());
+    }
+
+    /**
+     * Validation of tasks appended to an existing DAG. Dependencies on
+     * {@code existingAliases} are legal and left out of the returned graph
+     * (the caller resolves them); they cannot close a cycle because the
+     * existing tasks have no edges into the new ones.
      */
-    public void validateOrThrow(List<BatchTaskRequest> tasks) {
+    public DagGraph validateAppend(List<BatchTaskRequest> tasks, Set<String> existingAliases) {
+        return validate(tasks, existingAliases);
+    }
+
+    private DagGraph validate(List<BatchTaskRequest> tasks, Set<String> existingAliases) {
 
         List<String> errors = new ArrayList<>();
 
@@ -25,10 +49,15 @@ public class WorkflowGraphValidator {
             );
         }
 
-        // ---- 1. Validate unique aliases ----
-        Map<String, BatchTaskRequest> aliasToTask = new HashMap<>();
+        int n = tasks.size();
+
+        // ---- 1. Intern unique aliases ----
+        AliasIndex index = new AliasIndex(n);
+        String[] aliases = new String[n];
+        int edgeCount = 0;
 
-        for (BatchTaskRequest t : tasks) {
+        for (int i = 0; i < n; i++) {
+            BatchTaskRequest t = tasks.get(i);
             String alias = t.getClientId();
 
             if (alias == null || alias.isBlank()) {
@@ -36,10 +65,16 @@ public class WorkflowGraphValidator {
                 continue;
             }
 
-            if (aliasToTask.containsKey(alias)) {
+            if (!index.putIfAbsent(alias, i)) {
                 errors.add("Duplicate task alias: " + alias);
-            } else {
-                aliasToTask.put(alias, t);
+            } else if (existingAliases.contains(alias)) {
+                errors.add("Task alias already exists in workflow: " + alias);
+            }
+
+            aliases[i] = alias;
+
+            if (t.getDependsOn() != null) {
+                edgeCount += t.getDependsOn().size();
             }
         }
 
@@ -47,34 +82,24 @@ public class WorkflowGraphValidator {
             throw new InvalidWorkflowDefinitionException(errors);
         }
 
-        // ---- 2. Build adjacency list ----
-        Map<String, List<String>> adj = new HashMap<>();
-        Map<String, Integer> indegree = new HashMap<>();
+        // ---- 2. Resolve dependencies into parent CSR ----
+        int[] parentOffsets = new int[n + 1];
+        int[] parents = new int[edgeCount];
+        int[] lastSeenBy = new int[n];      // child index + 1 that last referenced a parent
+        int e = 0;
 
-        for (String alias : aliasToTask.keySet()) {
-            adj.put(alias, new ArrayList<>());
-            indegree.put(alias, 0);
-        }
+        for (int i = 0; i < n; i++) {
 
-        // ---- 3. Validate dependencies ----
-        for (BatchTaskRequest task : tasks) {
+            parentOffsets[i] = e;
 
-            String alias = task.getClientId();
-            List<String> deps = task.getDependsOn();
+            String alias = aliases[i];
+            List<String> deps = tasks.get(i).getDependsOn();
+            Set<String> seenExisting = null;
 
             if (deps == null) continue;
 
-            Set<String> seenDeps = new HashSet<>();
-
             for (String depAlias : deps) {
 
-                if (!seenDeps.add(depAlias)) {
-                    errors.add(
-                            "Task '" + alias + "' has duplicate dependency '" + depAlias + "'"
-                    );
-                    continue;
-                }
-
                 if (depAlias == null || depAlias.isBlank()) {
                     errors.add(
                             "Task '" + alias + "' has a blank dependency alias."
@@ -89,114 +114,157 @@ public class WorkflowGraphValidator {
                     continue;
                 }
 
-                if (!aliasToTask.containsKey(depAlias)) {
+                int parent = index.get(depAlias);
+
+                if (parent < 0 && existingAliases.contains(depAlias)) {
+                    if (seenExisting == null) {
+                        seenExisting = new HashSet<>();
+                    }
+                    if (!seenExisting.add(depAlias)) {
+                        errors.add(
+                                "Task '" + alias + "' has duplicate dependency '" + depAlias + "'"
+                        );
+                    }
+                    continue;
+                }
+
+                if (parent < 0) {
                     errors.add(
                             "Task '" + alias + "' depends on non-existent alias '" + depAlias + "'"
                     );
                     continue;
                 }
 
-                // Edge: dep → alias
-                adj.get(depAlias).add(alias);
-                indegree.put(alias, indegree.get(alias) + 1);
+                if (lastSeenBy[parent] == i + 1) {
+                    errors.add(
+                            "Task '" + alias + "' has duplicate dependency '" + depAlias + "'"
+                    );
+                    continue;
+                }
+
+                lastSeenBy[parent] = i + 1;
+                parents[e++] = parent;
             }
         }
 
+        parentOffsets[n] = e;
+
+        if (e < parents.length) {
+            parents = Arrays.copyOf(parents, e);
+        }
+
         if (!errors.isEmpty()) {
             throw new InvalidWorkflowDefinitionException(errors);
         }
 
-        // ---- 4. Cycle detection (Kahn’s Algorithm) ----
-        Queue<String> queue = new ArrayDeque<>();
-        int visited = 0;
+        // ---- 3. Child CSR (counting sort by parent) ----
+        int[] childOffsets = new int[n + 1];
+
+        for (int k = 0; k < e; k++) {
+            childOffsets[parents[k] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            childOffsets[i + 1] += childOffsets[i];
+        }
+
+        int[] children = new int[e];
+        int[] cursor = new int[n];
+        System.arraycopy(childOffsets, 0, cursor, 0, n);
 
-        for (Map.Entry<String, Integer> e : indegree.entrySet()) {
-            if (e.getValue() == 0) {
-                queue.offer(e.getKey());
+        for (int i = 0; i < n; i++) {
+            for (int k = parentOffsets[i]; k < parentOffsets[i + 1]; k++) {
+                children[cursor[parents[k]]++] = i;
             }
         }
 
-        while (!queue.isEmpty()) {
-            String current = queue.poll();
-            visited++;
+        // ---- 4. Cycle detection (iterative Kahn, order array doubles as queue) ----
+        int[] indegree = cursor;   // reuse
+        for (int i = 0; i < n; i++) {
+            indegree[i] = parentOffsets[i + 1] - parentOffsets[i];
+        }
+
+        int[] order = new int[n];
+        int head = 0;
+        int tail = 0;
+
+        for (int i = 0; i < n; i++) {
+            if (indegree[i] == 0) {
+                order[tail++] = i;
+            }
+        }
+
+        while (head < tail) {
+            int current = order[head++];
 
-            for (String next : adj.get(current)) {
-                indegree.put(next, indegree.get(next) - 1);
-                if (indegree.get(next) == 0) {
-                    queue.offer(next);
+            for (int k = childOffsets[current]; k < childOffsets[current + 1]; k++) {
+                int next = children[k];
+                if (--indegree[next] == 0) {
+                    order[tail++] = next;
                 }
             }
         }
 
-        if (visited != aliasToTask.size()) {
+        if (tail != n) {
             throw new InvalidWorkflowDefinitionException(
-                    List.of("Workflow contains a cyclic dependency and is not a DAG.")
+                    List.of("Workflow contains a cyclic dependency and is not a DAG: "
+                            + describeCycle(aliases, parentOffsets, parents, indegree))
             );
         }
+
+        return new DagGraph(aliases, parentOffsets, parents, childOffsets, children, order);
     }
 
     /**
-     * ENTITY-level validation.
-     * Validates the resolved Task graph AFTER entities are wired together.
-     * Protects against runtime corruption.
+     * Every node Kahn could not drain still has an undrained parent, so
+     * walking parent links from any of them must revisit a node; the
+     * revisited stretch is a real cycle.
      */
-    public void validateResolvedDag(List<Task> tasks) {
-
-        if (tasks == null || tasks.isEmpty()) return;
-
-        Map<Task, List<Task>> graph = new HashMap<>();
-
-        for (Task task : tasks) {
-            graph.putIfAbsent(task, new ArrayList<>());
-
-            if (task.getDependsOn() != null) {
-                for (Task parent : task.getDependsOn()) {
-
-                    if (task == parent) {
-                        throw new IllegalStateException(
-                                "Task cannot depend on itself: " + task.getTitle()
-                        );
-                    }
-
-                    graph.get(task).add(parent);
-                }
-            }
+    private String describeCycle(String[] aliases,
+                                 int[] parentOffsets,
+                                 int[] parents,
+                                 int[] indegree) {
+
+        int n = aliases.length;
+        int[] step = new int[n];            // 1-based position on the walk, 0 = unvisited
+        int[] path = new int[n];
+        int length = 0;
+
+        int current = 0;
+        while (indegree[current] == 0) {
+            current++;
         }
 
-        // DFS cycle detection
-        Set<Task> visiting = new HashSet<>();
-        Set<Task> visited = new HashSet<>();
+        while (step[current] == 0) {
+            path[length++] = current;
+            step[current] = length;
 
-        for (Task task : graph.keySet()) {
-            if (!visited.contains(task)) {
-                dfs(task, graph, visiting, visited);
+            int next = -1;
+            for (int k = parentOffsets[current]; k < parentOffsets[current + 1]; k++) {
+                if (indegree[parents[k]] > 0) {
+                    next = parents[k];
+                    break;
+                }
             }
+            current = next;
         }
-    }
 
+        int from = step[current] - 1;
+        int cycleLength = length - from;
 
-    private void dfs(
-            Task node,
-            Map<Task, List<Task>> graph,
-            Set<Task> visiting,
-            Set<Task> visited
-    ) {
+        StringBuilder sb = new StringBuilder();
+        int shown = Math.min(cycleLength, MAX_CYCLE_REPORT);
 
-        if (visiting.contains(node)) {
-            throw new IllegalStateException(
-                    "Cycle detected in workflow DAG at task: " + node.getTitle()
-            );
+        for (int i = 0; i < shown; i++) {
+            sb.append('\'').append(aliases[path[from + i]]).append("' → ");
         }
 
-        if (visited.contains(node)) return;
-
-        visiting.add(node);
-
-        for (Task parent : graph.getOrDefault(node, List.of())) {
-            dfs(parent, graph, visiting, visited);
+        if (shown < cycleLength) {
+            sb.append("… (").append(cycleLength - shown).append(" more) → ");
         }
 
-        visiting.remove(node);
-        visited.add(node);
+        sb.append('\'').append(aliases[current]).append('\'')
+                .append(" (each task depends on the next)");
+
+        return sb.toString();
     }
 }
@@ -0,0 +1,44 @@
+-- Versioned, immutable workflow templates. Nodes are numbered in a
+-- topological order with every root first, so a run's roots are the tasks
+-- with template_node < root_count and its topo_order is its node.
+CREATE TABLE workflow_templates (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    created_by  VARCHAR(255),
+    updated_by  VARCHAR(255),
+    created_at  DATETIME(6),
+    updated_at  DATETIME(6),
+    name        VARCHAR(255) NOT NULL,
+    version     INT          NOT NULL,
+    node_count  INT          NOT NULL,
+    edge_count  INT          NOT NULL,
+    root_count  INT          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_workflow_templates_owner_name_version UNIQUE (created_by, name, version)
+);
+
+CREATE TABLE workflow_template_nodes (
+    template_id  BIGINT       NOT NULL,
+    node         INT          NOT NULL,
+    client_id    VARCHAR(255) NOT NULL,
+    title        VARCHAR(255) NOT NULL,
+    description  VARCHAR(255),
+    PRIMARY KEY (template_id, node),
+    CONSTRAINT fk_template_nodes_template FOREIGN KEY (template_id) REFERENCES workflow_templates (id)
+);
+
+-- Shared by every run of the template instead of task_dependencies rows.
+CREATE TABLE workflow_template_edges (
+    template_id  BIGINT NOT NULL,
+    node         INT    NOT NULL,
+    parent_node  INT    NOT NULL,
+    PRIMARY KEY (template_id, node, parent_node),
+    CONSTRAINT fk_template_edges_template FOREIGN KEY (template_id) REFERENCES workflow_templates (id)
+);
+
+ALTER TABLE workflows ADD COLUMN template_id BIGINT;
+ALTER TABLE workflows ADD CONSTRAINT fk_workflows_template FOREIGN KEY (template_id) REFERENCES workflow_templates (id);
+
+ALTER TABLE tasks ADD COLUMN template_node INT;
+
+-- TaskRepository.findNodeStates (template dependency resolution).
+CREATE INDEX idx_tasks_workflow_template_node ON tasks (workflow_id, template_node);
@@ -0,0 +1,3 @@
+-- Only served the processed-event retention sweep, which was dropped:
+-- dedup rows are looked up by primary key, so the index is write overhead.
+DROP INDEX idx_processed_events_processed_at ON processed_events;
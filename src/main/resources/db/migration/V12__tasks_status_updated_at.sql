@@ -0,0 +1,3 @@
+-- TaskRepository.findStalledReady: READY tasks not touched for a while,
+-- oldest first, polled by start admission to recover lost submissions.
+CREATE INDEX idx_tasks_status_updated_at ON tasks (status, updated_at);
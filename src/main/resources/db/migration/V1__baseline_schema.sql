@@ -0,0 +1,57 @@
+-- Baseline schema, equivalent to what Hibernate auto-DDL produced for the
+-- entity model before migrations were introduced. Existing databases are
+-- baselined at this version and only pick up the migrations that follow.
+
+CREATE TABLE users (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    created_by  VARCHAR(255),
+    updated_by  VARCHAR(255),
+    created_at  DATETIME(6),
+    updated_at  DATETIME(6),
+    username    VARCHAR(255) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    role        VARCHAR(32),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE workflows (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    created_by  VARCHAR(255),
+    updated_by  VARCHAR(255),
+    created_at  DATETIME(6),
+    updated_at  DATETIME(6),
+    name        VARCHAR(255) NOT NULL,
+    status      VARCHAR(32)  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE tasks (
+    id                   BIGINT       NOT NULL AUTO_INCREMENT,
+    created_by           VARCHAR(255),
+    updated_by           VARCHAR(255),
+    created_at           DATETIME(6),
+    updated_at           DATETIME(6),
+    title                VARCHAR(255) NOT NULL,
+    description          VARCHAR(255),
+    status               VARCHAR(32)  NOT NULL,
+    assigned_to_user_id  BIGINT,
+    workflow_id          BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_tasks_assigned_to FOREIGN KEY (assigned_to_user_id) REFERENCES users (id),
+    CONSTRAINT fk_tasks_workflow FOREIGN KEY (workflow_id) REFERENCES workflows (id)
+);
+
+CREATE TABLE task_dependencies (
+    task_id             BIGINT NOT NULL,
+    depends_on_task_id  BIGINT NOT NULL,
+    PRIMARY KEY (task_id, depends_on_task_id),
+    CONSTRAINT fk_task_dependencies_task FOREIGN KEY (task_id) REFERENCES tasks (id),
+    CONSTRAINT fk_task_dependencies_parent FOREIGN KEY (depends_on_task_id) REFERENCES tasks (id)
+);
+
+CREATE TABLE processed_events (
+    event_id      VARCHAR(255) NOT NULL,
+    processed_at  DATETIME(6),
+    PRIMARY KEY (event_id)
+);
@@ -0,0 +1,12 @@
+-- Secondary indexes derived from the repository queries on the hot path.
+
+-- TaskRepository.findByWorkflowIdAndStatus / ...StatusIn / ...StatusNot and
+-- findByWorkflowId (leading column), used on every executor and coordinator pass.
+CREATE INDEX idx_tasks_workflow_status ON tasks (workflow_id, status);
+
+-- Task.dependents and dependency-unlock lookups go from parent to children.
+-- The primary key only serves the child -> parent direction.
+CREATE INDEX idx_task_dependencies_parent ON task_dependencies (depends_on_task_id, task_id);
+
+-- ProcessedEventRepository retention sweep (range scan on processed_at).
+CREATE INDEX idx_processed_events_processed_at ON processed_events (processed_at);
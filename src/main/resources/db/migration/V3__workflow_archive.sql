@@ -0,0 +1,18 @@
+-- Cold storage for terminal workflows. Each row holds the whole DAG
+-- (tasks + edges) as one gzip-compressed blob.
+CREATE TABLE workflow_archive (
+    id           BIGINT       NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    status       VARCHAR(32)  NOT NULL,
+    created_by   VARCHAR(255),
+    updated_by   VARCHAR(255),
+    created_at   DATETIME(6),
+    updated_at   DATETIME(6),
+    archived_at  DATETIME(6)  NOT NULL,
+    task_count   INT          NOT NULL,
+    dag          LONGBLOB     NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- WorkflowRepository.findArchivableIds: terminal workflows by age.
+CREATE INDEX idx_workflows_status_updated_at ON workflows (status, updated_at);
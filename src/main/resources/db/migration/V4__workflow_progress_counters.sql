@@ -0,0 +1,14 @@
+-- Denormalised task counters, maintained with conditional UPDATEs as
+-- tasks change state. PENDING is derived: total - (ready + running + completed + failed).
+ALTER TABLE workflows ADD COLUMN total_tasks INT NOT NULL DEFAULT 0;
+ALTER TABLE workflows ADD COLUMN ready_tasks INT NOT NULL DEFAULT 0;
+ALTER TABLE workflows ADD COLUMN running_tasks INT NOT NULL DEFAULT 0;
+ALTER TABLE workflows ADD COLUMN completed_tasks INT NOT NULL DEFAULT 0;
+ALTER TABLE workflows ADD COLUMN failed_tasks INT NOT NULL DEFAULT 0;
+
+UPDATE workflows w
+SET total_tasks     = (SELECT COUNT(*) FROM tasks t WHERE t.workflow_id = w.id),
+    ready_tasks     = (SELECT COUNT(*) FROM tasks t WHERE t.workflow_id = w.id AND t.status = 'READY'),
+    running_tasks   = (SELECT COUNT(*) FROM tasks t WHERE t.workflow_id = w.id AND t.status = 'IN_PROGRESS'),
+    completed_tasks = (SELECT COUNT(*) FROM tasks t WHERE t.workflow_id = w.id AND t.status = 'COMPLETED'),
+    failed_tasks    = (SELECT COUNT(*) FROM tasks t WHERE t.workflow_id = w.id AND t.status = 'FAILED');
@@ -0,0 +1,2 @@
+-- Optimistic version for tasks; bumped by every status compare-and-set.
+ALTER TABLE tasks ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,9 @@
+-- Stable client alias per task, so later appends can reference earlier tasks,
+-- and a maintained topological position for incremental cycle checks.
+ALTER TABLE tasks ADD COLUMN client_id VARCHAR(255) NULL;
+ALTER TABLE tasks ADD COLUMN topo_order BIGINT NULL;
+
+CREATE UNIQUE INDEX uk_tasks_workflow_client ON tasks (workflow_id, client_id);
+
+-- Affected-region lookups when an appended edge violates the current order.
+CREATE INDEX idx_tasks_workflow_topo ON tasks (workflow_id, topo_order);
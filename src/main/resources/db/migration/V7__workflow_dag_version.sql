@@ -0,0 +1,2 @@
+-- Bumped on every DAG change; derived artefacts (analysis) are cached per version.
+ALTER TABLE workflows ADD COLUMN dag_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,2 @@
+-- WorkflowRepository.findActiveLoad: per-user quota check on every workflow start.
+CREATE INDEX idx_workflows_created_by_status ON workflows (created_by, status);
@@ -0,0 +1,16 @@
+-- Durable queue of accepted starts, drained by WorkflowStartAdmission.
+-- A row is claimed by deleting it in the same transaction that starts the
+-- workflow, so a failed start puts it back.
+CREATE TABLE pending_workflow_starts (
+    workflow_id   BIGINT       NOT NULL,
+    requested_by  VARCHAR(255) NOT NULL,
+    requested_at  DATETIME(6)  NOT NULL,
+    PRIMARY KEY (workflow_id),
+    CONSTRAINT fk_pending_starts_workflow FOREIGN KEY (workflow_id) REFERENCES workflows (id) ON DELETE CASCADE
+);
+
+-- PendingWorkflowStartRepository.findOldest (FIFO admission).
+CREATE INDEX idx_pending_starts_requested_at ON pending_workflow_starts (requested_at, workflow_id);
+
+-- PendingWorkflowStartRepository.findQueuedLoad (quota check).
+CREATE INDEX idx_pending_starts_requested_by ON pending_workflow_starts (requested_by);
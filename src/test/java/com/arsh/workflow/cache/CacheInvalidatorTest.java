@@ -0,0 +1,72 @@
+package com.arsh.workflow.cache;
+
+import com.arsh.workflow.datasource.ReplicaSet;
+import com.arsh.workflow.events.AfterCommitExecutor;
+import com.arsh.workflow.enums.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class CacheInvalidatorTest {
+
+    private final NearCache<Long, UserSnapshot> userByIdCache = cache("users-by-id");
+    private final NearCache<String, Long> userByNameCache = cache("users-by-name");
+    private final NearCache<Long, Long> tokenRevocationCache = cache("token-revocation");
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+
+    private final CacheInvalidator invalidator = new CacheInvalidator(
+            cache("workflows"),
+            cache("tasks"),
+            cache("task-workflows"),
+            userByIdCache,
+            userByNameCache,
+            tokenRevocationCache,
+            redisTemplate,
+            new AfterCommitExecutor(),
+            null,
+            new StaticListableBeanFactory().getBeanProvider(ReplicaSet.class));
+
+    @Test
+    void userEvictionDropsTheUserAndItsCutOffEverywhere() {
+        seed(7L);
+        seed(8L);
+
+        invalidator.evictUser(7L);
+
+        assertThat(userByIdCache.getIfPresent(7L)).isNull();
+        assertThat(userByNameCache.getIfPresent("user7")).isNull();
+        assertThat(tokenRevocationCache.getIfPresent(7L)).isNull();
+        assertThat(userByIdCache.getIfPresent(8L)).isNotNull();
+        assertThat(userByNameCache.getIfPresent("user8")).isEqualTo(8L);
+        assertThat(tokenRevocationCache.getIfPresent(8L)).isNotNull();
+        verify(redisTemplate).convertAndSend(CacheInvalidator.CHANNEL, "USER|true|7");
+    }
+
+    @Test
+    void peerMessageEvictsImmutableEntriesToo() {
+        seed(7L);
+
+        invalidator.applyMessage("USER|true|7");
+
+        assertThat(userByIdCache.getIfPresent(7L)).isNull();
+        assertThat(userByNameCache.getIfPresent("user7")).isNull();
+        assertThat(tokenRevocationCache.getIfPresent(7L)).isNull();
+    }
+
+    private void seed(Long userId) {
+        userByIdCache.get(userId, id -> new UserSnapshot(id, "user" + id, "hash", Role.USER));
+        userByNameCache.get("user" + userId, name -> userId, id -> true);
+        tokenRevocationCache.get(userId, id -> 1_000L, t -> true);
+    }
+
+    private static <K, V> NearCache<K, V> cache(String name) {
+        return new NearCache<>(name, 100, Duration.ofMinutes(1), Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+}
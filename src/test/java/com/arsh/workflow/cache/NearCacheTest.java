@@ -0,0 +1,79 @@
+package com.arsh.workflow.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NearCacheTest {
+
+    // Mutable entries expire after 50 ms, immutable ones after a minute
+    private final NearCache<Long, String> cache = new NearCache<>(
+            "test", 100, Duration.ofMillis(50), Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void loadsOnceAndServesFromTheCache() {
+        assertThat(cache.get(1L, this::load)).isEqualTo("v1");
+        assertThat(cache.get(1L, this::load)).isEqualTo("v1");
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void doesNotCacheNotFound() {
+        assertThat(cache.get(1L, id -> { loads.incrementAndGet(); return null; })).isNull();
+        assertThat(cache.get(1L, this::load)).isEqualTo("v2");
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void invalidateKeepsImmutableEntriesAndEvictDropsThem() {
+        cache.get(1L, this::load);
+        cache.get(2L, this::load, v -> true);
+
+        cache.invalidate(1L);
+        cache.invalidate(2L);
+        assertThat(cache.getIfPresent(1L)).isNull();
+        assertThat(cache.getIfPresent(2L)).isEqualTo("v2");
+
+        cache.evict(2L);
+        assertThat(cache.getIfPresent(2L)).isNull();
+    }
+
+    @Test
+    void immutableEntriesOutliveTheShortTtl() throws InterruptedException {
+        cache.get(1L, this::load);
+        cache.get(2L, this::load, v -> true);
+
+        Thread.sleep(150);
+
+        assertThat(cache.getIfPresent(1L)).isNull();
+        assertThat(cache.getIfPresent(2L)).isEqualTo("v2");
+    }
+
+    @Test
+    void aWeighedCacheIsBoundedByTotalWeight() throws InterruptedException {
+        NearCache<Long, String> weighed = new NearCache<>(
+                "weighed", 10, String::length, Duration.ofMinutes(1), Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+        weighed.get(1L, id -> "x".repeat(8));
+        weighed.get(2L, id -> "y".repeat(8));
+
+        // Eviction runs in Caffeine's maintenance pass, off the calling thread
+        for (int i = 0; i < 100 && weighed.getIfPresent(1L) != null && weighed.getIfPresent(2L) != null; i++) {
+            Thread.sleep(10);
+        }
+
+        assertThat(weighed.getIfPresent(1L) == null || weighed.getIfPresent(2L) == null).isTrue();
+    }
+
+    private String load(Long id) {
+        return "v" + loads.incrementAndGet();
+    }
+}
@@ -0,0 +1,127 @@
+package com.arsh.workflow.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and a replica.
+ * Each holds a single row naming itself, so a query shows where it ran.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private static final Duration STALENESS = Duration.ofSeconds(2);
+
+    private ReplicaSet replicas;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnlyTx;
+    private TransactionTemplate readWriteTx;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+
+        replicas = new ReplicaSet(Map.of("replica-0", replica), STALENESS);
+        replicas.updateLag("replica-0", Duration.ZERO);
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                replicas, new ReadYourWritesTracker(STALENESS, 100));
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.PRIMARY, primary,
+                "replica-0", replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(dataSource);
+
+        jdbc = new JdbcTemplate(dataSource);
+        readWriteTx = new TransactionTemplate(txManager);
+        readOnlyTx = new TransactionTemplate(txManager);
+        readOnlyTx.setReadOnly(true);
+
+        SecurityContextHolder.getContext()
+                .setAuthentication(new TestingAuthenticationToken("alice", null, "ROLE_USER"));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        assertThat(inReadOnlyTx()).isEqualTo("replica");
+    }
+
+    @Test
+    void readWriteTransactionGoesToPrimary() {
+        assertThat(inReadWriteTx()).isEqualTo("primary");
+    }
+
+    @Test
+    void statementsOutsideTransactionGoToPrimary() {
+        assertThat(whereAmI()).isEqualTo("primary");
+    }
+
+    @Test
+    void readsStayOnPrimaryAfterOwnWrite() {
+        inReadWriteTx();
+
+        assertThat(inReadOnlyTx()).isEqualTo("primary");
+
+        SecurityContextHolder.getContext()
+                .setAuthentication(new TestingAuthenticationToken("bob", null, "ROLE_USER"));
+
+        assertThat(inReadOnlyTx()).isEqualTo("replica");
+    }
+
+    @Test
+    void laggingReplicaIsSkipped() {
+        replicas.updateLag("replica-0", STALENESS.plusSeconds(1));
+
+        assertThat(inReadOnlyTx()).isEqualTo("primary");
+
+        replicas.markUnavailable("replica-0");
+
+        assertThat(inReadOnlyTx()).isEqualTo("primary");
+    }
+
+    private String inReadOnlyTx() {
+        return readOnlyTx.execute(status -> whereAmI());
+    }
+
+    private String inReadWriteTx() {
+        return readWriteTx.execute(status -> whereAmI());
+    }
+
+    private String whereAmI() {
+        return jdbc.queryForObject("select name from node", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+
+        JdbcTemplate init = new JdbcTemplate(ds);
+        init.execute("create table if not exists node (name varchar(16))");
+        init.update("delete from node");
+        init.update("insert into node values (?)", name);
+
+        return ds;
+    }
+}
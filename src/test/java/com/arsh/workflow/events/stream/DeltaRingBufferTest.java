@@ -0,0 +1,44 @@
+package com.arsh.workflow.events.stream;
+
+import com.arsh.workflow.dto.response.WorkflowDelta;
+import com.arsh.workflow.enums.EventType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeltaRingBufferTest {
+
+    @Test
+    void replaysEverythingAfterTheGivenSequence() {
+        DeltaRingBuffer buffer = new DeltaRingBuffer(4);
+        for (long task = 1; task <= 3; task++) {
+            buffer.append(delta(task), "alice");
+        }
+
+        List<DeltaRingBuffer.Entry> missed = buffer.since(1).orElseThrow();
+
+        assertThat(missed).extracting(DeltaRingBuffer.Entry::seq).containsExactly(2L, 3L);
+        assertThat(buffer.since(3)).hasValue(List.of());
+    }
+
+    @Test
+    void reportsAGapOnceEntriesAreOverwritten() {
+        DeltaRingBuffer buffer = new DeltaRingBuffer(4);
+        for (long task = 1; task <= 10; task++) {
+            buffer.append(delta(task), "alice");
+        }
+
+        assertThat(buffer.since(5)).isEmpty();
+        assertThat(buffer.since(6).orElseThrow())
+                .extracting(e -> e.delta().getTaskId())
+                .containsExactly(7L, 8L, 9L, 10L);
+        assertThat(buffer.since(11)).isEmpty();
+    }
+
+    private static WorkflowDelta delta(long taskId) {
+        return new WorkflowDelta(1L, taskId, EventType.TASK_COMPLETED, null, Instant.now());
+    }
+}
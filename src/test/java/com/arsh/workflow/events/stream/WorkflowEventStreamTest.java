@@ -0,0 +1,177 @@
+package com.arsh.workflow.events.stream;
+
+import com.arsh.workflow.cache.NearCache;
+import com.arsh.workflow.enums.EventType;
+import com.arsh.workflow.events.WorkflowEvent;
+import com.arsh.workflow.repository.WorkflowRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WorkflowEventStreamTest {
+
+    /** Records frames as their SSE text; sends wait on the gate. */
+    private static final class RecordingEmitter extends SseEmitter {
+        final List<String> frames = new CopyOnWriteArrayList<>();
+        final CountDownLatch gate;
+        final CountDownLatch sending = new CountDownLatch(1);
+        volatile Throwable error;
+
+        RecordingEmitter(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            frames.add(builder.build().stream()
+                    .map(part -> part.getData() instanceof String text ? text : "<delta>")
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            error = ex;
+        }
+
+        long deltas() {
+            return frames.stream().filter(f -> f.contains("event:TASK_COMPLETED")).count();
+        }
+
+        boolean wasReset() {
+            return frames.stream().anyMatch(f -> f.contains("event:reset"));
+        }
+    }
+
+    private final ExecutorService senders = Executors.newFixedThreadPool(2);
+    private final WorkflowRepository workflowRepository = mock(WorkflowRepository.class);
+
+    @AfterEach
+    void shutdown() {
+        senders.shutdownNow();
+    }
+
+    @Test
+    void aSlowSubscriberDoesNotHoldUpOthers() throws Exception {
+        WorkflowEventStream stream = stream(16);
+        CountDownLatch slowGate = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(slowGate);
+        RecordingEmitter fast = new RecordingEmitter(new CountDownLatch(0));
+
+        stream.subscribe(slow, 1L, null, null);
+        stream.subscribe(fast, 1L, null, null);
+
+        for (long task = 1; task <= 5; task++) {
+            stream.publish(event(1L, task));
+        }
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> fast.deltas() == 5);
+        assertThat(slow.frames).isEmpty();
+
+        slowGate.countDown();
+        await().atMost(Duration.ofSeconds(5)).until(() -> slow.deltas() == 5);
+    }
+
+    @Test
+    void aSubscriberThatFallsBehindIsResetThenDropped() throws Exception {
+        WorkflowEventStream stream = stream(2);
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingEmitter behind = new RecordingEmitter(gate);
+
+        stream.subscribe(behind, 1L, null, null);
+
+        // First is taken by the blocked sender, the next two fill the queue, the fourth overflows it
+        stream.publish(event(1L, 1));
+        assertThat(behind.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        for (long task = 2; task <= 4; task++) {
+            stream.publish(event(1L, task));
+        }
+        assertThat(behind.error).isNull();
+
+        // Behind again before the reset went out: disconnected
+        stream.publish(event(1L, 5));
+        stream.publish(event(1L, 6));
+        assertThat(behind.error).isNotNull();
+        assertThat(stream.subscriberCount()).isZero();
+
+        gate.countDown();
+    }
+
+    @Test
+    void resetsASubscriberThatCatchesUpAfterFallingBehind() {
+        WorkflowEventStream stream = stream(2);
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingEmitter behind = new RecordingEmitter(gate);
+
+        stream.subscribe(behind, 1L, null, null);
+        for (long task = 1; task <= 4; task++) {
+            stream.publish(event(1L, task));
+        }
+        gate.countDown();
+
+        await().atMost(Duration.ofSeconds(5)).until(behind::wasReset);
+        stream.publish(event(1L, 5));
+        await().atMost(Duration.ofSeconds(5)).until(() -> behind.frames.get(behind.frames.size() - 1).contains("-5"));
+        assertThat(behind.error).isNull();
+    }
+
+    @Test
+    void userSubscribersReplayByTheOwnerResolvedAtPublish() {
+        WorkflowEventStream stream = stream(16);
+        RecordingEmitter first = new RecordingEmitter(new CountDownLatch(0));
+        stream.subscribe(first, null, "alice", null);
+
+        stream.publish(event(1L, 1));
+        stream.publish(event(2L, 2));
+        stream.publish(event(1L, 3));
+        await().atMost(Duration.ofSeconds(5)).until(() -> first.deltas() == 2);
+
+        String lastEventId = first.frames.get(0).split("\n")[0].substring("id:".length());
+        RecordingEmitter resumed = new RecordingEmitter(new CountDownLatch(0));
+        stream.subscribe(resumed, null, "alice", lastEventId);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> resumed.deltas() == 1);
+        assertThat(resumed.frames.get(0)).contains("-3");
+    }
+
+    private WorkflowEventStream stream(int subscriberQueue) {
+        when(workflowRepository.findOwnerById(1L)).thenReturn(Optional.of("alice"));
+        when(workflowRepository.findOwnerById(2L)).thenReturn(Optional.of("bob"));
+
+        NearCache<Long, String> owners = new NearCache<>(
+                "workflow-owners", 100, Duration.ofMinutes(1), Duration.ofMinutes(1), new SimpleMeterRegistry());
+        return new WorkflowEventStream(senders, workflowRepository, owners, 100, 60_000, 100, subscriberQueue);
+    }
+
+    private static WorkflowEvent event(Long workflowId, long taskId) {
+        return WorkflowEvent.builder()
+                .eventType(EventType.TASK_COMPLETED)
+                .workflowId(workflowId)
+                .taskId(taskId)
+                .occurredAt(Instant.now())
+                .build();
+    }
+}
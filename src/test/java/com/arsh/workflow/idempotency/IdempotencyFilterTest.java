@@ -0,0 +1,248 @@
+package com.arsh.workflow.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterTest {
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder().findAndAddModules().build();
+
+    /** Single-node stand-in for Redis. */
+    private static final class MapStore extends IdempotencyStore {
+        final Map<String, IdempotencyRecord> records = new ConcurrentHashMap<>();
+        final AtomicInteger renewals = new AtomicInteger();
+
+        MapStore(long inFlightTtlMs) {
+            super(null, MAPPER, inFlightTtlMs, 24);
+        }
+
+        @Override
+        public IdempotencyRecord claim(String key, IdempotencyRecord claim) {
+            return records.putIfAbsent(key, claim);
+        }
+
+        @Override
+        public boolean complete(String key, IdempotencyRecord claim, IdempotencyRecord result) {
+            return records.replace(key, claim, result);
+        }
+
+        @Override
+        public boolean renew(String key, IdempotencyRecord claim) {
+            renewals.incrementAndGet();
+            return claim.equals(records.get(key));
+        }
+
+        @Override
+        public void release(String key, IdempotencyRecord claim) {
+            records.remove(key, claim);
+        }
+    }
+
+    /** What the application does for a request. */
+    private interface Handler {
+        void handle(HttpServletRequest req, HttpServletResponse res) throws IOException;
+    }
+
+    private final ThreadPoolTaskScheduler leaseScheduler = new ThreadPoolTaskScheduler();
+    private final MapStore store = new MapStore(30);
+    private final AtomicInteger runs = new AtomicInteger();
+
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        leaseScheduler.initialize();
+        filter = new IdempotencyFilter(store, MAPPER, leaseScheduler, 5_000);
+        authenticate();
+    }
+
+    @AfterEach
+    void clear() {
+        SecurityContextHolder.clearContext();
+        leaseScheduler.shutdown();
+    }
+
+    @Test
+    void replaysTheStoredResponseWithoutRunningAgain() throws Exception {
+        MockHttpServletResponse first = post("/api/workflow/create", "k1", 201);
+        MockHttpServletResponse second = post("/api/workflow/create", "k1", 201);
+
+        assertThat(runs).hasValue(1);
+        assertThat(second.getStatus()).isEqualTo(201);
+        assertThat(second.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(second.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void rejectsAKeyReusedElsewhereAndRetriesServerErrors() throws Exception {
+        post("/api/workflow/create", "k1", 201);
+        assertThat(post("/api/workflow/start/7", "k1", 200).getStatus()).isEqualTo(422);
+
+        post("/api/workflow/start/7", "k2", 503);
+        assertThat(post("/api/workflow/start/7", "k2", 200).getStatus()).isEqualTo(200);
+        assertThat(runs).hasValue(3);
+    }
+
+    @Test
+    void rejectsAKeyReusedWithAnotherQueryOrBody() throws Exception {
+        post("/api/workflow/1/tasks/batch", "k1", "[{\"clientId\":\"a\"}]", 200);
+
+        assertThat(post("/api/workflow/1/tasks/batch?reduce=true", "k1", "[{\"clientId\":\"a\"}]", 200).getStatus())
+                .isEqualTo(422);
+        assertThat(post("/api/workflow/1/tasks/batch", "k1", "[{\"clientId\":\"b\"}]", 200).getStatus())
+                .isEqualTo(422);
+        assertThat(post("/api/workflow/1/tasks/batch", "k1", "[{\"clientId\":\"a\"}]", 200).getStatus())
+                .isEqualTo(200);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void replaysTheHeadersTheApplicationSet() throws Exception {
+        Handler accepted = (req, res) -> {
+            runs.incrementAndGet();
+            res.setStatus(202);
+            res.setHeader("Location", "/api/workflow/7/progress");
+            res.setHeader("X-Dag-Edges-Removed", "2");
+        };
+
+        send(request("/api/workflow/start/7", "k1", ""), accepted);
+
+        MockHttpServletResponse replay = send(request("/api/workflow/start/7", "k1", ""), accepted);
+
+        assertThat(runs).hasValue(1);
+        assertThat(replay.getStatus()).isEqualTo(202);
+        assertThat(replay.getHeader("Location")).isEqualTo("/api/workflow/7/progress");
+        assertThat(replay.getHeader("X-Dag-Edges-Removed")).isEqualTo("2");
+    }
+
+    @Test
+    void aConcurrentDuplicateWaitsForTheFirstResult() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Handler slow = (req, res) -> {
+            running.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            res.setStatus(201);
+            res.getWriter().write("{\"run\":" + runs.incrementAndGet() + "}");
+        };
+
+        CompletableFuture<MockHttpServletResponse> first = CompletableFuture.supplyAsync(() -> {
+            authenticate();
+            return sendQuietly(request("/api/workflow/create", "k1", "{}"), slow);
+        });
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<MockHttpServletResponse> duplicate = CompletableFuture.supplyAsync(() -> {
+            authenticate();
+            return sendQuietly(request("/api/workflow/create", "k1", "{}"), slow);
+        });
+
+        // Still waiting while the first runs
+        Thread.sleep(100);
+        assertThat(duplicate).isNotDone();
+        release.countDown();
+
+        MockHttpServletResponse replay = duplicate.get(5, TimeUnit.SECONDS);
+        assertThat(runs).hasValue(1);
+        assertThat(replay.getStatus()).isEqualTo(201);
+        assertThat(replay.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(replay.getContentAsString()).isEqualTo(first.get(5, TimeUnit.SECONDS).getContentAsString());
+    }
+
+    @Test
+    void renewsTheClaimWhileTheRequestRuns() throws Exception {
+        // TTL 30 ms, renewed every 10 ms
+        send(request("/api/workflow/bulk", "k1", "{}"), (req, res) -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            res.setStatus(201);
+        });
+
+        assertThat(store.renewals.get()).isGreaterThanOrEqualTo(3);
+        assertThat(store.records.get("alice:k1").state()).isEqualTo(IdempotencyRecord.State.COMPLETED);
+    }
+
+    private MockHttpServletResponse post(String path, String key, int status) throws Exception {
+        return post(path, key, "", status);
+    }
+
+    private MockHttpServletResponse post(String path, String key, String body, int status) throws Exception {
+        return send(request(path, key, body), (req, res) -> {
+            req.getInputStream().readAllBytes();
+            res.setStatus(status);
+            res.setContentType("application/json");
+            res.getWriter().write("{\"run\":" + runs.incrementAndGet() + "}");
+        });
+    }
+
+    private static MockHttpServletRequest request(String path, String key, String body) {
+        int query = path.indexOf('?');
+        String uri = query < 0 ? path : path.substring(0, query);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setServletPath(uri);
+        if (query >= 0) {
+            request.setQueryString(path.substring(query + 1));
+        }
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, Handler handler) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) throws IOException {
+                handler.handle(req, res);
+            }
+        }));
+        return response;
+    }
+
+    private MockHttpServletResponse sendQuietly(MockHttpServletRequest request, Handler handler) {
+        try {
+            return send(request, handler);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "alice", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+}
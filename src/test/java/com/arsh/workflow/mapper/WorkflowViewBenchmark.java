@@ -0,0 +1,120 @@
+package com.arsh.workflow.mapper;
+
+import com.arsh.workflow.dto.response.TaskResponse;
+import com.arsh.workflow.dto.response.WorkflowResponse;
+import com.arsh.workflow.enums.TaskStatus;
+import com.arsh.workflow.enums.WorkflowStatus;
+import com.arsh.workflow.enums.WorkflowView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response size and serialization latency of each workflow view for a
+ * large workflow. Sample mode, so the report includes p99. Database time
+ * is not part of it; the views differ there too (summary reads one row,
+ * ids an index-only scan). Not run by surefire; start it with
+ * {@code mvn test-compile exec:exec -Dbenchmark=WorkflowViewBenchmark}
+ * or from the IDE. Payload sizes are logged once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Slf4j
+public class WorkflowViewBenchmark {
+
+    @Param({"20000"})
+    public int tasks;
+
+    @Param({"summary", "ids", "full"})
+    public String view;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private final ObjectMapper mapper = JsonMapper.builder().findAndAddModules().build();
+    private WorkflowResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        response = WorkflowMapper.toView(workflow(tasks), WorkflowView.fromParam(view));
+
+        byte[] raw = mapper.writeValueAsBytes(response);
+        log.info("{} view, {} tasks: {} bytes, {} gzipped",
+                view, tasks, raw.length, gzip(raw).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        byte[] raw = mapper.writeValueAsBytes(response);
+        return gzip ? gzip(raw) : raw;
+    }
+
+    static WorkflowResponse workflow(int size) {
+        WorkflowResponse res = new WorkflowResponse();
+        res.setId(1L);
+        res.setName("benchmark");
+        res.setStatus(WorkflowStatus.RUNNING);
+        res.setCreatedAt(Instant.parse("2026-01-01T00:00:00Z"));
+        res.setCreatedBy("bench");
+        res.setUpdatedAt(Instant.parse("2026-01-01T00:00:00Z"));
+        res.setUpdatedBy("bench");
+
+        TaskStatus[] statuses = TaskStatus.values();
+        List<TaskResponse> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            TaskResponse task = new TaskResponse();
+            task.setId(1000L + i);
+            task.setClientId("t" + i);
+            task.setTitle("Task " + i);
+            task.setDescription("Generated task number " + i);
+            task.setStatus(statuses[i % statuses.length]);
+            task.setAssignedToId((long) (i % 50));
+            task.setAssignedToName("user" + (i % 50));
+            task.setWorkflowId(1L);
+            list.add(task);
+        }
+        res.setTasks(list);
+        return res;
+    }
+
+    private static byte[] gzip(byte[] raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4);
+        try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+            zip.write(raw);
+        }
+        return out.toByteArray();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WorkflowViewBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,135 @@
+package com.arsh.workflow.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations against an in-memory H2 database in MySQL mode
+ * and asserts that every hot repository query is still served by its index.
+ * A migration or query change that drops one of these plans fails the build.
+ */
+class QueryPlanRegressionTest {
+
+    private static final String URL =
+            "jdbc:h2:mem:query-plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrate() throws SQLException {
+        Flyway.configure()
+                .dataSource(URL, "sa", "")
+                .load()
+                .migrate();
+
+        connection = DriverManager.getConnection(URL, "sa", "");
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        connection.close();
+    }
+
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+                // TaskRepository.findByWorkflowIdAndStatus
+                Arguments.of(
+                        "select * from tasks where workflow_id = 1 and status = 'READY'",
+                        "idx_tasks_workflow_status"),
+                // TaskRepository.findByWorkflowIdAndStatusIn
+                Arguments.of(
+                        "select * from tasks where workflow_id = 1 and status in ('PENDING', 'READY')",
+                        "idx_tasks_workflow_status"),
+                // TaskRepository.findByWorkflowId (either workflow_id-leading index will do)
+                Arguments.of(
+                        "select * from tasks where workflow_id = 1",
+                        "idx_tasks_workflow_status|fk_tasks_workflow"),
+                // TaskRepository.promoteRootsToReady (start admission, one pass)
+                Arguments.of(
+                        "update tasks t set status = 'READY' where workflow_id in (1, 2, 3) and status = 'PENDING'"
+                                + " and template_node is null and not exists (select 1 from task_dependencies d where d.task_id = t.id)",
+                        "idx_tasks_workflow_status"),
+                // TaskRepository.findIdsByWorkflowIdInAndStatus (start admission, one pass)
+                Arguments.of(
+                        "select id, workflow_id from tasks where workflow_id in (1, 2, 3) and status = 'READY'",
+                        "idx_tasks_workflow_status"),
+                // TaskRepository.findStalledReady (start admission, lost submissions)
+                Arguments.of(
+                        "select t.id, t.workflow_id from tasks t join workflows w on w.id = t.workflow_id"
+                                + " where t.status = 'READY' and t.updated_at < timestamp '2024-01-01 00:00:00'"
+                                + " and w.status = 'RUNNING' order by t.updated_at limit 500",
+                        "idx_tasks_status_updated_at"),
+                // WorkflowRepository.addReadyTasks (start admission, one pass)
+                Arguments.of(
+                        "update workflows w set ready_tasks = ready_tasks + (select count(*) from tasks t"
+                                + " where t.workflow_id = w.id and t.status = 'READY') where w.id in (1, 2, 3)",
+                        "idx_tasks_workflow_status"),
+                // TaskRepository.findNodeStates (template run completion)
+                Arguments.of(
+                        "select id, template_node, status from tasks where workflow_id = 1 and template_node in (1, 2, 3)",
+                        "idx_tasks_workflow_template_node"),
+                // TaskRepository.findOrderWindow (incremental DAG append)
+                Arguments.of(
+                        "select id, topo_order from tasks where workflow_id = 1 and topo_order between 5 and 50",
+                        "idx_tasks_workflow_topo"),
+                // Task.dependents (parent -> children)
+                Arguments.of(
+                        "select task_id from task_dependencies where depends_on_task_id = 1",
+                        "idx_task_dependencies_parent"),
+                // TaskRepository.deleteDependenciesByParentIds (chunked workflow delete)
+                Arguments.of(
+                        "delete from task_dependencies where depends_on_task_id in (1, 2, 3)",
+                        "idx_task_dependencies_parent|fk_task_dependencies_parent"),
+                // WorkflowRepository.findActiveLoad (quota check on start)
+                Arguments.of(
+                        "select count(*), sum(total_tasks) from workflows"
+                                + " where created_by = 'alice' and status in ('READY', 'RUNNING')",
+                        "idx_workflows_created_by_status"),
+                // PendingWorkflowStartRepository.findOldest (start admission)
+                Arguments.of(
+                        "select workflow_id from pending_workflow_starts order by requested_at, workflow_id limit 8",
+                        "idx_pending_starts_requested_at"),
+                // WorkflowRepository.findArchivableIds
+                Arguments.of(
+                        "select id from workflows where status in ('COMPLETED', 'FAILED')"
+                                + " and updated_at < timestamp '2024-01-01 00:00:00' order by updated_at limit 100",
+                        "idx_workflows_status_updated_at")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("hotQueries")
+    void hotQueryUsesIndex(String sql, String expectedIndex) throws SQLException {
+        assertThat(explain(sql))
+                .as("plan for: %s", sql)
+                .doesNotContain("tablescan")
+                .containsPattern(expectedIndex);
+    }
+
+    private static String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("explain " + sql)) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+
+        return plan.toString().toLowerCase(Locale.ROOT);
+    }
+}
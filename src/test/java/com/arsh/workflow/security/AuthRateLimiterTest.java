@@ -0,0 +1,79 @@
+package com.arsh.workflow.security;
+
+import com.arsh.workflow.exception.RateLimitExceededException;
+import com.arsh.workflow.util.RedisTokenBucket;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuthRateLimiterTest {
+
+    /** Counts tokens per key locally; no refill within a test. */
+    private static final class CountingBucket extends RedisTokenBucket {
+        final Map<String, Long> taken = new HashMap<>();
+        final List<String> keys = new ArrayList<>();
+
+        CountingBucket() {
+            super(null);
+        }
+
+        @Override
+        public long tryTake(String key, Limit limit) {
+            keys.add(key);
+            long used = taken.merge(key, 1L, Long::sum);
+            // Wait for one token at the refill rate
+            return used <= limit.capacity() ? 0 : (long) Math.ceil(1000 / limit.refillPerSecond());
+        }
+    }
+
+    private final CountingBucket bucket = new CountingBucket();
+
+    // 3 attempts per IP refilling 2/s, 2 per username refilling 0.1/s
+    private final AuthRateLimiter limiter = new AuthRateLimiter(bucket, 3, 2, 2, 0.1);
+
+    @Test
+    void loginTakesFromTheIpAndTheUsernameBuckets() {
+        limiter.checkLogin("10.0.0.1", "Alice");
+
+        assertThat(bucket.keys).containsExactly("rate:auth:ip:10.0.0.1", "rate:auth:user:alice");
+    }
+
+    @Test
+    void capsGuessingOneAccountFromManyAddresses() {
+        limiter.checkLogin("10.0.0.1", "alice");
+        limiter.checkLogin("10.0.0.2", "ALICE");
+
+        assertThatThrownBy(() -> limiter.checkLogin("10.0.0.3", "alice"))
+                .isInstanceOfSatisfying(RateLimitExceededException.class, e ->
+                        assertThat(e.getRetryAfterSeconds()).isEqualTo(10));
+
+        // Other accounts are unaffected
+        limiter.checkLogin("10.0.0.3", "bob");
+    }
+
+    @Test
+    void capsSprayingFromOneAddress() {
+        limiter.checkLogin("10.0.0.1", "a");
+        limiter.checkLogin("10.0.0.1", "b");
+        limiter.checkRegister("10.0.0.1");
+
+        // Half a second to the next token, rounded up to a whole Retry-After second
+        assertThatThrownBy(() -> limiter.checkLogin("10.0.0.1", "c"))
+                .isInstanceOfSatisfying(RateLimitExceededException.class, e ->
+                        assertThat(e.getRetryAfterSeconds()).isEqualTo(1));
+        assertThat(bucket.taken).doesNotContainKey("rate:auth:user:c");
+    }
+
+    @Test
+    void registerOnlyTakesFromTheIpBucket() {
+        limiter.checkRegister("10.0.0.1");
+
+        assertThat(bucket.keys).containsExactly("rate:auth:ip:10.0.0.1");
+    }
+}
@@ -0,0 +1,112 @@
+package com.arsh.workflow.security;
+
+import com.arsh.workflow.cache.NearCache;
+import com.arsh.workflow.enums.Role;
+import com.arsh.workflow.exception.TokenRevocationDisabledException;
+import com.arsh.workflow.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtAuthFilterTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-test-secret";
+    private static final long USER_ID = 7L;
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100, new SimpleMeterRegistry());
+    private final ValueOperations<String, String> values = valueOperations();
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+
+    @AfterEach
+    void clear() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void rejectsATokenIssuedBeforeTheCutOff() throws Exception {
+        String token = jwtUtil.generateToken("alice", USER_ID, Role.USER);
+        long issuedAt = jwtUtil.verify(token).getIssuedAt().getTime();
+        cutOffAt(issuedAt + 1_000);
+
+        assertThat(authenticate(filter(true), token)).isNull();
+    }
+
+    @Test
+    void acceptsATokenIssuedAtOrAfterTheCutOff() throws Exception {
+        String token = jwtUtil.generateToken("alice", USER_ID, Role.USER);
+        long issuedAt = jwtUtil.verify(token).getIssuedAt().getTime();
+        cutOffAt(issuedAt);
+
+        Authentication authentication = authenticate(filter(true), token);
+
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getName()).isEqualTo("alice");
+        assertThat(authentication.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void ignoresTheCutOffWhenRevocationIsDisabled() throws Exception {
+        String token = jwtUtil.generateToken("alice", USER_ID, Role.USER);
+        cutOffAt(Long.MAX_VALUE);
+
+        assertThat(authenticate(filter(false), token)).isNotNull();
+    }
+
+    @Test
+    void refusesToRevokeWhenDisabled() {
+        TokenRevocationService revocation = revocation(false);
+
+        assertThatThrownBy(() -> revocation.revokeAll(USER_ID))
+                .isInstanceOf(TokenRevocationDisabledException.class);
+    }
+
+    private void cutOffAt(long millis) {
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.get("auth:revoked-before:" + USER_ID)).thenReturn(String.valueOf(millis));
+    }
+
+    private JwtAuthFilter filter(boolean revocationEnabled) {
+        return new JwtAuthFilter(jwtUtil, null, revocation(revocationEnabled));
+    }
+
+    private TokenRevocationService revocation(boolean enabled) {
+        NearCache<Long, Long> cache = new NearCache<>(
+                "token-revocation", 100, Duration.ofMinutes(1), Duration.ofMinutes(1), new SimpleMeterRegistry());
+        return new TokenRevocationService(redisTemplate, cache, null, null, enabled, 60_000);
+    }
+
+    private static Authentication authenticate(JwtAuthFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/workflow/1");
+        request.setServletPath("/api/workflow/1");
+        request.addHeader("Authorization", "Bearer " + token);
+
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                seen.set(SecurityContextHolder.getContext().getAuthentication());
+            }
+        });
+        return seen.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ValueOperations<String, String> valueOperations() {
+        return mock(ValueOperations.class);
+    }
+}
@@ -0,0 +1,57 @@
+package com.arsh.workflow.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionLimitTest {
+
+    // initial 8, bounds [1, 10], 200 ms latency target, 90% utilisation target, halve on a miss
+    private final AdmissionLimit limit = new AdmissionLimit(8, 1, 10, 200, 0.9, 0.5);
+
+    @Test
+    void growsByOneAfterAFullPassUnderTheUtilisationTarget() {
+        assertThat(limit.admits(50, false)).isTrue();
+        limit.admitted(8, 0.5);
+
+        assertThat(limit.budget()).isEqualTo(9);
+    }
+
+    @Test
+    void holdsAfterAPartialPassOrABusyPool() {
+        limit.admitted(5, 0.5);
+        assertThat(limit.budget()).isEqualTo(8);
+
+        limit.admitted(8, 0.95);
+        assertThat(limit.budget()).isEqualTo(8);
+    }
+
+    @Test
+    void neverGrowsPastTheMaximum() {
+        for (int pass = 0; pass < 10; pass++) {
+            limit.admitted(limit.budget(), 0.1);
+        }
+        assertThat(limit.budget()).isEqualTo(10);
+    }
+
+    @Test
+    void halvesAndAdmitsNothingOnALatencyMiss() {
+        assertThat(limit.admits(250, false)).isFalse();
+        assertThat(limit.budget()).isEqualTo(4);
+    }
+
+    @Test
+    void halvesAndAdmitsNothingWhenTheQueueIsFull() {
+        assertThat(limit.admits(0, true)).isFalse();
+        assertThat(limit.budget()).isEqualTo(4);
+    }
+
+    @Test
+    void neverDropsBelowTheMinimum() {
+        for (int pass = 0; pass < 10; pass++) {
+            limit.admits(1_000, true);
+        }
+        assertThat(limit.current()).isEqualTo(1.0);
+        assertThat(limit.budget()).isEqualTo(1);
+    }
+}
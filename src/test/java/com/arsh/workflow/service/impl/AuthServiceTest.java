@@ -0,0 +1,129 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.controller.AuthController;
+import com.arsh.workflow.dto.request.LoginRequestDto;
+import com.arsh.workflow.exception.GlobalExceptionHandler;
+import com.arsh.workflow.exception.ServiceOverloadedException;
+import com.arsh.workflow.repository.UserRepository;
+import com.arsh.workflow.security.AuthRateLimiter;
+import com.arsh.workflow.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AuthServiceTest {
+
+    private final AuthenticationManager authManager = mock(AuthenticationManager.class);
+    private final UserRepository repo = mock(UserRepository.class);
+
+    // One hashing thread, one queued request
+    private final ThreadPoolExecutor hashingPool = new ThreadPoolExecutor(
+            1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutDown() {
+        release.countDown();
+        hashingPool.shutdownNow();
+    }
+
+    @Test
+    void refusesWhenThePoolIsSaturated() {
+        AuthService auth = service(2_000);
+        occupyTheHashingThread();
+        hashingPool.execute(() -> {});
+
+        assertThatThrownBy(() -> auth.login(login("alice"), "10.0.0.1"))
+                .isInstanceOf(ServiceOverloadedException.class);
+        verifyNoInteractions(authManager);
+    }
+
+    @Test
+    void dropsARequestThatQueuedPastTheMaximumWait() throws InterruptedException {
+        AuthService auth = service(20);
+        occupyTheHashingThread();
+
+        CompletableFuture<?> login = auth.login(login("alice"), "10.0.0.1");
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThatThrownBy(() -> login.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ServiceOverloadedException.class);
+        verifyNoInteractions(authManager);
+    }
+
+    @Test
+    void badCredentialsReachTheClientUnwrapped() throws Exception {
+        when(authManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new AuthController(service(2_000)))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        MvcResult result = mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"alice\",\"password\":\"wrong\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Bad credentials"));
+    }
+
+    private AuthService service(long maxQueueWaitMs) {
+        return new AuthService(authManager, repo, mock(PasswordEncoder.class), mock(JwtUtil.class),
+                mock(AuthRateLimiter.class), hashingPool, maxQueueWaitMs);
+    }
+
+    private void occupyTheHashingThread() {
+        CountDownLatch started = new CountDownLatch(1);
+        hashingPool.execute(() -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static LoginRequestDto login(String username) {
+        LoginRequestDto req = new LoginRequestDto();
+        req.setUsername(username);
+        req.setPassword("secret");
+        return req;
+    }
+}
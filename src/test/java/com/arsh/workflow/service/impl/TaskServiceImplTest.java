@@ -0,0 +1,313 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.cache.CacheInvalidator;
+import com.arsh.workflow.cache.NearCache;
+import com.arsh.workflow.cache.UserSnapshot;
+import com.arsh.workflow.cache.WorkflowVersionTracker;
+import com.arsh.workflow.dto.request.TaskCommandRequest;
+import com.arsh.workflow.dto.response.BulkTaskCommandResponse;
+import com.arsh.workflow.dto.response.TaskCommandResult;
+import com.arsh.workflow.dto.response.TaskResponse;
+import com.arsh.workflow.enums.Role;
+import com.arsh.workflow.enums.TaskCommandOutcome;
+import com.arsh.workflow.enums.TaskCommandType;
+import com.arsh.workflow.enums.TaskStatus;
+import com.arsh.workflow.events.WorkflowEvent;
+import com.arsh.workflow.events.producer.WorkflowEventProducer;
+import com.arsh.workflow.exception.IllegalWorkflowOperationException;
+import com.arsh.workflow.model.Task;
+import com.arsh.workflow.model.User;
+import com.arsh.workflow.model.Workflow;
+import com.arsh.workflow.repository.TaskRepository;
+import com.arsh.workflow.repository.UserRepository;
+import com.arsh.workflow.repository.WorkflowRepository;
+import com.arsh.workflow.util.ETags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskServiceImplTest {
+
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final WorkflowRepository workflowRepository = mock(WorkflowRepository.class);
+    private final WorkflowEventProducer eventProducer = mock(WorkflowEventProducer.class);
+    private final CacheInvalidator cacheInvalidator = mock(CacheInvalidator.class);
+    private final WorkflowVersionTracker versionTracker = mock(WorkflowVersionTracker.class);
+
+    private final NearCache<Long, TaskResponse> taskReadCache = cache("tasks");
+    private final NearCache<Long, Long> taskWorkflowCache = cache("task-workflows");
+    private final NearCache<Long, UserSnapshot> userByIdCache = cache("users-by-id");
+
+    // Tasks findAllByIdForUpdate returns, by id
+    private final Map<Long, Task> locked = new HashMap<>();
+
+    private final TaskServiceImpl service = new TaskServiceImpl(
+            taskRepository, userRepository, workflowRepository, eventProducer,
+            taskReadCache, taskWorkflowCache, userByIdCache,
+            cacheInvalidator, versionTracker, 10);
+
+    @BeforeEach
+    void setUp() {
+        when(taskRepository.findAllByIdForUpdate(any())).thenAnswer(inv ->
+                inv.<Collection<Long>>getArgument(0).stream().map(locked::get).filter(Objects::nonNull).toList());
+        when(taskRepository.compareAndSetStatusIn(any(), any(), any(), any()))
+                .thenAnswer(inv -> inv.<Collection<Long>>getArgument(0).size());
+    }
+
+    @AfterEach
+    void clear() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void resolvesTheTagsWorkflowServerSideOnce() {
+        when(taskRepository.findWorkflowIdById(11L)).thenReturn(Optional.of(3L));
+        when(versionTracker.current(3L)).thenReturn(5L, 6L);
+
+        assertThat(service.currentETag(11L)).isEqualTo(ETags.task(11L, 3L, 5L));
+        assertThat(service.currentETag(11L)).isEqualTo(ETags.task(11L, 3L, 6L));
+
+        // A tag naming another workflow never matches
+        assertThat(ETags.matches(ETags.task(11L, 4L, 6L), service.currentETag(11L))).isFalse();
+        verify(taskRepository, times(1)).findWorkflowIdById(11L);
+    }
+
+    @Test
+    void aMissingTaskHasNoTag() {
+        when(taskRepository.findWorkflowIdById(11L)).thenReturn(Optional.empty());
+
+        assertThat(service.currentETag(11L)).isNull();
+    }
+
+    @Test
+    void aCachedTerminalTaskKeepsItsTagAcrossVersionBumps() {
+        stubTask(11L, 3L, TaskStatus.COMPLETED);
+        when(versionTracker.current(3L)).thenReturn(5L);
+
+        TaskResponse first = service.getTask(11L);
+        String served = ETags.task(11L, 3L, first.getEtagVersion());
+
+        // Another task of the workflow changed
+        when(versionTracker.current(3L)).thenReturn(6L);
+
+        assertThat(service.currentETag(11L)).isEqualTo(served);
+        assertThat(ETags.task(11L, 3L, service.getTask(11L).getEtagVersion())).isEqualTo(served);
+    }
+
+    @Test
+    void aCachedLiveTaskFollowsTheWorkflowVersion() {
+        stubTask(11L, 3L, TaskStatus.IN_PROGRESS);
+        when(versionTracker.current(3L)).thenReturn(5L);
+
+        service.getTask(11L);
+        when(versionTracker.current(3L)).thenReturn(6L);
+
+        assertThat(service.currentETag(11L)).isEqualTo(ETags.task(11L, 3L, 6L));
+        verify(taskRepository, times(1)).findWorkflowIdById(11L);
+    }
+
+    @Test
+    void runsChainedTransitionsInRoundsAndAdjustsCountersOncePerWorkflow() {
+        bulkTask(1L, 3L, TaskStatus.READY);
+        bulkTask(2L, 3L, TaskStatus.READY);
+        bulkTask(3L, 4L, TaskStatus.IN_PROGRESS);
+
+        BulkTaskCommandResponse response = runBulk(
+                status(1L, TaskStatus.IN_PROGRESS),
+                status(2L, TaskStatus.IN_PROGRESS),
+                status(1L, TaskStatus.COMPLETED),
+                status(3L, TaskStatus.FAILED));
+
+        assertThat(response.getApplied()).isEqualTo(4);
+        assertThat(response.getResults()).extracting(TaskCommandResult::getStatus).containsExactly(
+                TaskStatus.IN_PROGRESS, TaskStatus.IN_PROGRESS, TaskStatus.COMPLETED, TaskStatus.FAILED);
+
+        // Task 1's second transition waits for the round after its first
+        InOrder rounds = inOrder(taskRepository);
+        rounds.verify(taskRepository).compareAndSetStatusIn(
+                eq(List.of(1L, 2L)), eq(TaskStatus.READY), eq(TaskStatus.IN_PROGRESS), any());
+        rounds.verify(taskRepository).compareAndSetStatusIn(
+                eq(List.of(3L)), eq(TaskStatus.IN_PROGRESS), eq(TaskStatus.FAILED), any());
+        rounds.verify(taskRepository).compareAndSetStatusIn(
+                eq(List.of(1L)), eq(TaskStatus.IN_PROGRESS), eq(TaskStatus.COMPLETED), any());
+
+        verify(workflowRepository).adjustTaskCounters(3L, -2, 1, 1, 0);
+        verify(workflowRepository).adjustTaskCounters(4L, 0, -1, 0, 1);
+        verify(workflowRepository, times(2)).adjustTaskCounters(anyLong(), anyInt(), anyInt(), anyInt(), anyInt());
+        verify(cacheInvalidator).tasksChanged(3L, Set.of(1L, 2L));
+        verify(cacheInvalidator).tasksChanged(4L, Set.of(3L));
+    }
+
+    @Test
+    void publishesOneEventBatchAfterCommit() {
+        bulkTask(1L, 3L, TaskStatus.READY);
+        bulkTask(2L, 3L, TaskStatus.IN_PROGRESS);
+
+        runBulk(status(1L, TaskStatus.IN_PROGRESS), status(2L, TaskStatus.COMPLETED));
+        verify(eventProducer, never()).publishAll(any());
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+
+        ArgumentCaptor<List<WorkflowEvent>> events = ArgumentCaptor.captor();
+        verify(eventProducer, times(1)).publishAll(events.capture());
+        verify(eventProducer, never()).publish(any(), any());
+        assertThat(events.getValue()).extracting(WorkflowEvent::getTaskId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void assignsWithOneUpdatePerUserAndTheLastAssignmentWins() {
+        bulkTask(1L, 3L, TaskStatus.PENDING);
+        bulkTask(2L, 3L, TaskStatus.PENDING);
+        bulkTask(3L, 3L, TaskStatus.COMPLETED);
+
+        // User 10 is cached, 11 is loaded
+        userByIdCache.get(10L, id -> new UserSnapshot(10L, "bob", "x", Role.USER));
+        User carol = mock(User.class);
+        when(carol.getId()).thenReturn(11L);
+        when(carol.getUsername()).thenReturn("carol");
+        when(userRepository.findAllById(List.of(11L))).thenReturn(List.of(carol));
+
+        User bobRef = mock(User.class);
+        User carolRef = mock(User.class);
+        when(userRepository.getReferenceById(10L)).thenReturn(bobRef);
+        when(userRepository.getReferenceById(11L)).thenReturn(carolRef);
+
+        BulkTaskCommandResponse response = runBulk(
+                assign(1L, 10L), assign(2L, 10L), assign(3L, 11L), assign(1L, 11L));
+
+        assertThat(response.getApplied()).isEqualTo(4);
+        verify(taskRepository).assignAll(eq(List.of(2L)), eq(bobRef), any());
+        verify(taskRepository).assignAll(eq(List.of(3L, 1L)), eq(carolRef), any());
+        verify(taskRepository, times(2)).assignAll(any(), any(), any());
+        verify(userRepository, times(1)).findAllById(any());
+
+        // Terminal tasks are cached as immutable, so reassignment forces them out
+        verify(cacheInvalidator).evictTasks(3L, Set.of(1L, 2L, 3L));
+        verify(workflowRepository, never()).adjustTaskCounters(anyLong(), anyInt(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void rejectsCommandsIndividuallyAndWritesNothingForThem() {
+        bulkTask(1L, 3L, TaskStatus.READY);
+
+        BulkTaskCommandResponse response = runBulk(
+                status(9L, TaskStatus.READY),
+                status(1L, TaskStatus.COMPLETED),
+                status(1L, TaskStatus.READY),
+                assign(1L, 99L));
+
+        assertThat(response.getApplied()).isZero();
+        assertThat(response.getRejected()).isEqualTo(4);
+        assertThat(response.getResults()).extracting(TaskCommandResult::getOutcome).containsExactly(
+                TaskCommandOutcome.NOT_FOUND, TaskCommandOutcome.INVALID,
+                TaskCommandOutcome.UNCHANGED, TaskCommandOutcome.NOT_FOUND);
+
+        verify(taskRepository, never()).compareAndSetStatusIn(any(), any(), any(), any());
+        verify(taskRepository, never()).assignAll(any(), any(), any());
+        verify(workflowRepository, never()).adjustTaskCounters(anyLong(), anyInt(), anyInt(), anyInt(), anyInt());
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+    }
+
+    @Test
+    void aShortConditionalUpdateFailsTheBatch() {
+        bulkTask(1L, 3L, TaskStatus.READY);
+        doReturn(0).when(taskRepository).compareAndSetStatusIn(any(), any(), any(), any());
+
+        assertThatThrownBy(() -> runBulk(status(1L, TaskStatus.IN_PROGRESS)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Bulk READY → IN_PROGRESS updated 0 of 1 tasks");
+    }
+
+    @Test
+    void refusesEmptyAndOversizedBatches() {
+        assertThatThrownBy(() -> service.executeBulk(List.of()))
+                .isInstanceOf(IllegalWorkflowOperationException.class);
+
+        TaskCommandRequest[] commands = new TaskCommandRequest[11];
+        Arrays.fill(commands, status(1L, TaskStatus.READY));
+        assertThatThrownBy(() -> service.executeBulk(List.of(commands)))
+                .hasMessage("Bulk request exceeds 10 commands");
+        verify(taskRepository, never()).findAllByIdForUpdate(any());
+    }
+
+    private BulkTaskCommandResponse runBulk(TaskCommandRequest... commands) {
+        TransactionSynchronizationManager.initSynchronization();
+        return service.executeBulk(List.of(commands));
+    }
+
+    private void bulkTask(Long taskId, Long workflowId, TaskStatus status) {
+        Workflow workflow = mock(Workflow.class);
+        when(workflow.getId()).thenReturn(workflowId);
+
+        Task task = mock(Task.class);
+        when(task.getId()).thenReturn(taskId);
+        when(task.getStatus()).thenReturn(status);
+        when(task.getWorkflow()).thenReturn(workflow);
+        locked.put(taskId, task);
+    }
+
+    private static TaskCommandRequest status(Long taskId, TaskStatus status) {
+        TaskCommandRequest command = new TaskCommandRequest();
+        command.setTaskId(taskId);
+        command.setType(TaskCommandType.STATUS);
+        command.setStatus(status);
+        return command;
+    }
+
+    private static TaskCommandRequest assign(Long taskId, Long userId) {
+        TaskCommandRequest command = new TaskCommandRequest();
+        command.setTaskId(taskId);
+        command.setType(TaskCommandType.ASSIGN);
+        command.setUserId(userId);
+        return command;
+    }
+
+    private void stubTask(Long taskId, Long workflowId, TaskStatus status) {
+        Workflow workflow = mock(Workflow.class);
+        when(workflow.getId()).thenReturn(workflowId);
+
+        Task task = mock(Task.class);
+        when(task.getId()).thenReturn(taskId);
+        when(task.getStatus()).thenReturn(status);
+        when(task.getWorkflow()).thenReturn(workflow);
+
+        when(taskRepository.findWorkflowIdById(taskId)).thenReturn(Optional.of(workflowId));
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+    }
+
+    private static <K, V> NearCache<K, V> cache(String name) {
+        return new NearCache<>(name, 100, Duration.ofMinutes(1), Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,180 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.enums.TaskStatus;
+import com.arsh.workflow.model.Task;
+import com.arsh.workflow.model.Workflow;
+import com.arsh.workflow.repository.TaskRepository;
+import com.arsh.workflow.repository.WorkflowRepository;
+import com.arsh.workflow.repository.projection.TaskEdgeView;
+import com.arsh.workflow.repository.projection.TaskNodeView;
+import com.arsh.workflow.repository.projection.WorkflowTemplateView;
+import com.arsh.workflow.validation.CompiledTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TemplateDependencyResolverTest {
+
+    private record Node(Long id, Integer templateNode, TaskStatus status) implements TaskNodeView {
+        @Override public Long getId() { return id; }
+        @Override public Integer getTemplateNode() { return templateNode; }
+        @Override public TaskStatus getStatus() { return status; }
+    }
+
+    private record Run(Long id, Long templateId) implements WorkflowTemplateView {
+        @Override public Long getId() { return id; }
+        @Override public Long getTemplateId() { return templateId; }
+    }
+
+    // Diamond a -> {b, c} -> d, numbered a=0, b=1, c=2, d=3
+    private static final CompiledTemplate DIAMOND = CompiledTemplate.of(
+            new String[]{"a", "b", "c", "d"},
+            new String[]{"A", "B", "C", "D"},
+            new String[4],
+            new int[]{1, 2, 3, 3},
+            new int[]{0, 0, 1, 2},
+            1
+    );
+
+    // Two independent roots
+    private static final CompiledTemplate PAIR = CompiledTemplate.of(
+            new String[]{"x", "y"},
+            new String[]{"X", "Y"},
+            new String[2],
+            new int[0],
+            new int[0],
+            2
+    );
+
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final WorkflowRepository workflowRepository = mock(WorkflowRepository.class);
+    private final WorkflowTemplateRegistry templateRegistry = mock(WorkflowTemplateRegistry.class);
+
+    private final TemplateDependencyResolver resolver =
+            new TemplateDependencyResolver(taskRepository, workflowRepository, templateRegistry);
+
+    private final Workflow run = workflow(7L, 100L);
+
+    @BeforeEach
+    void setUp() {
+        when(templateRegistry.get(100L)).thenReturn(DIAMOND);
+        when(templateRegistry.get(200L)).thenReturn(PAIR);
+    }
+
+    @Test
+    void promotesEachTemplatesRootsInOneUpdate() {
+        Instant now = Instant.now();
+        when(workflowRepository.findTemplateIds(List.of(1L, 2L, 3L)))
+                .thenReturn(List.of(new Run(1L, 100L), new Run(2L, 200L), new Run(3L, 100L)));
+        when(taskRepository.promoteTemplateRootsToReady(List.of(1L, 3L), 1, now)).thenReturn(2);
+        when(taskRepository.promoteTemplateRootsToReady(List.of(2L), 2, now)).thenReturn(2);
+
+        assertThat(resolver.promoteRoots(List.of(1L, 2L, 3L), now)).isEqualTo(4);
+        assertThat(resolver.countRoots(List.of(1L, 2L, 3L))).isEqualTo(Map.of(1L, 1, 2L, 2, 3L, 1));
+    }
+
+    @Test
+    void onlyTheLastParentToCompleteUnlocksTheChild() {
+        // b completes while c is still running
+        when(taskRepository.findNodeStates(7L, Set.of(1, 2, 3))).thenReturn(List.of(
+                new Node(11L, 1, TaskStatus.COMPLETED),
+                new Node(12L, 2, TaskStatus.IN_PROGRESS),
+                new Node(13L, 3, TaskStatus.PENDING)
+        ));
+        assertThat(resolver.findUnlockableDependents(task(run, 1))).isEmpty();
+
+        // then c completes
+        when(taskRepository.findNodeStates(7L, Set.of(1, 2, 3))).thenReturn(List.of(
+                new Node(11L, 1, TaskStatus.COMPLETED),
+                new Node(12L, 2, TaskStatus.COMPLETED),
+                new Node(13L, 3, TaskStatus.PENDING)
+        ));
+        assertThat(resolver.findUnlockableDependents(task(run, 2))).containsExactly(13L);
+    }
+
+    @Test
+    void unlocksOnlyPendingChildren() {
+        when(taskRepository.findNodeStates(7L, Set.of(0, 1, 2))).thenReturn(List.of(
+                new Node(10L, 0, TaskStatus.COMPLETED),
+                new Node(11L, 1, TaskStatus.PENDING),
+                new Node(12L, 2, TaskStatus.READY)
+        ));
+
+        assertThat(resolver.findUnlockableDependents(task(run, 0))).containsExactly(11L);
+    }
+
+    @Test
+    void aLeafReadsNothing() {
+        assertThat(resolver.findUnlockableDependents(task(run, 3))).isEmpty();
+        verify(taskRepository, never()).findNodeStates(anyLong(), anyCollection());
+    }
+
+    @Test
+    void translatesTemplateEdgesToTaskIds() {
+        when(taskRepository.findTemplateTasks(7L)).thenReturn(List.of(
+                new Node(10L, 0, TaskStatus.COMPLETED),
+                new Node(11L, 1, TaskStatus.READY),
+                new Node(12L, 2, TaskStatus.READY),
+                new Node(13L, 3, TaskStatus.PENDING)
+        ));
+
+        assertThat(resolver.findEdges(run))
+                .extracting(TaskEdgeView::getTaskId, TaskEdgeView::getParentId)
+                .containsExactlyInAnyOrder(
+                        tuple(11L, 10L),
+                        tuple(12L, 10L),
+                        tuple(13L, 11L),
+                        tuple(13L, 12L)
+                );
+    }
+
+    @Test
+    void routesByTemplateAndSumsRootsFromBoth() {
+        StoredDependencyResolver stored = mock(StoredDependencyResolver.class);
+        TemplateDependencyResolver template = mock(TemplateDependencyResolver.class);
+        RoutingDependencyResolver routing = new RoutingDependencyResolver(stored, template);
+
+        Task plain = task(workflow(1L, null), null);
+        Task node = task(run, 1);
+        routing.findUnlockableDependents(plain);
+        routing.findUnlockableDependents(node);
+        routing.findEdges(run);
+
+        verify(stored).findUnlockableDependents(plain);
+        verify(template).findUnlockableDependents(node);
+        verify(template).findEdges(run);
+        verify(stored, never()).findEdges(any());
+
+        when(stored.countRoots(List.of(1L, 7L))).thenReturn(Map.of(1L, 3));
+        when(template.countRoots(List.of(1L, 7L))).thenReturn(Map.of(7L, 1));
+        assertThat(routing.countRoots(List.of(1L, 7L))).isEqualTo(Map.of(1L, 3, 7L, 1));
+    }
+
+    private static Workflow workflow(Long id, Long templateId) {
+        Workflow workflow = mock(Workflow.class);
+        when(workflow.getId()).thenReturn(id);
+        when(workflow.getTemplateId()).thenReturn(templateId);
+        return workflow;
+    }
+
+    private static Task task(Workflow workflow, Integer templateNode) {
+        Task task = mock(Task.class);
+        when(task.getWorkflow()).thenReturn(workflow);
+        when(task.getTemplateNode()).thenReturn(templateNode);
+        return task;
+    }
+}
@@ -0,0 +1,79 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.cache.CacheInvalidator;
+import com.arsh.workflow.enums.WorkflowStatus;
+import com.arsh.workflow.model.ArchivedWorkflow;
+import com.arsh.workflow.model.Workflow;
+import com.arsh.workflow.repository.ArchivedWorkflowRepository;
+import com.arsh.workflow.repository.TaskRepository;
+import com.arsh.workflow.repository.WorkflowRepository;
+import com.arsh.workflow.service.DependencyResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WorkflowArchiveServiceImplTest {
+
+    private final WorkflowRepository workflowRepository = mock(WorkflowRepository.class);
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final DependencyResolver dependencyResolver = mock(DependencyResolver.class);
+    private final ArchivedWorkflowRepository archivedWorkflowRepository = mock(ArchivedWorkflowRepository.class);
+    private final WorkflowPurger workflowPurger = mock(WorkflowPurger.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private final WorkflowArchiveServiceImpl archiveService = new WorkflowArchiveServiceImpl(
+            workflowRepository, taskRepository, dependencyResolver, archivedWorkflowRepository,
+            mock(CacheInvalidator.class), workflowPurger, new TransactionTemplate(transactionManager));
+
+    private final SimpleTransactionStatus status = new SimpleTransactionStatus();
+
+    @BeforeEach
+    void setUp() {
+        Workflow workflow = mock(Workflow.class);
+        when(workflow.getId()).thenReturn(7L);
+        when(workflow.getStatus()).thenReturn(WorkflowStatus.COMPLETED);
+        when(workflowRepository.findById(7L)).thenReturn(Optional.of(workflow));
+        when(taskRepository.findRowsByWorkflowId(7L)).thenReturn(List.of());
+        when(dependencyResolver.findEdges(workflow)).thenReturn(List.of());
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+    }
+
+    @Test
+    void commitsTheArchiveBeforePurgingInChunks() {
+        when(workflowRepository.markDeleting(eq(7L), any())).thenReturn(1);
+
+        assertThat(archiveService.archive(7L)).isTrue();
+
+        InOrder order = inOrder(archivedWorkflowRepository, workflowRepository, transactionManager, workflowPurger);
+        order.verify(archivedWorkflowRepository).save(any(ArchivedWorkflow.class));
+        order.verify(workflowRepository).markDeleting(eq(7L), any());
+        order.verify(transactionManager).commit(status);
+        order.verify(workflowPurger).purge(7L);
+    }
+
+    @Test
+    void rollsTheArchiveBackWhenTheWorkflowIsAlreadyBeingDeleted() {
+        when(workflowRepository.markDeleting(eq(7L), any())).thenReturn(0);
+
+        assertThat(archiveService.archive(7L)).isFalse();
+
+        assertThat(status.isRollbackOnly()).isTrue();
+        verify(workflowPurger, never()).purge(anyLong());
+    }
+}
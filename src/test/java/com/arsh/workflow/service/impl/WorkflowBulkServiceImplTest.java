@@ -0,0 +1,264 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.dto.request.BatchTaskRequest;
+import com.arsh.workflow.dto.request.BulkWorkflowRequest;
+import com.arsh.workflow.dto.request.CreateWorkflowRequest;
+import com.arsh.workflow.dto.response.BulkWorkflowResponse;
+import com.arsh.workflow.exception.InvalidWorkflowDefinitionException;
+import com.arsh.workflow.exception.QuotaExceededException;
+import com.arsh.workflow.model.WorkflowTemplate;
+import com.arsh.workflow.repository.TaskBatchWriter;
+import com.arsh.workflow.repository.WorkflowBatchWriter;
+import com.arsh.workflow.repository.WorkflowTemplateRepository;
+import com.arsh.workflow.validation.CompiledTemplate;
+import com.arsh.workflow.validation.WorkflowGraphValidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class WorkflowBulkServiceImplTest {
+
+    // a -> {b, c} -> d, numbered a=0, b=1, c=2, d=3
+    private static final CompiledTemplate DIAMOND = CompiledTemplate.of(
+            new String[]{"a", "b", "c", "d"},
+            new String[]{"A", "B", "C", "D"},
+            new String[4],
+            new int[]{1, 2, 3, 3},
+            new int[]{0, 0, 1, 2},
+            1
+    );
+
+    private final WorkflowBatchWriter workflowBatchWriter = mock(WorkflowBatchWriter.class);
+    private final TaskBatchWriter taskBatchWriter = mock(TaskBatchWriter.class);
+    private final WorkflowQuotaGuard quotaGuard = mock(WorkflowQuotaGuard.class);
+    private final WorkflowTemplateRepository templateRepository = mock(WorkflowTemplateRepository.class);
+    private final WorkflowTemplateRegistry templateRegistry = mock(WorkflowTemplateRegistry.class);
+
+    // At most 3 workflows and 8 tasks per request
+    private final WorkflowBulkServiceImpl service = new WorkflowBulkServiceImpl(
+            new WorkflowGraphValidator(), workflowBatchWriter, taskBatchWriter, quotaGuard,
+            templateRepository, templateRegistry, 3, 8);
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+
+        // Workflow ids from 1, task ids from 100, in row order
+        when(workflowBatchWriter.insertWorkflows(anyList(), any(), any(), anyString(), any()))
+                .thenAnswer(inv -> LongStream.rangeClosed(1, inv.<List<?>>getArgument(0).size()).toArray());
+        when(taskBatchWriter.insertTasks(any(long[].class), anyList(), any(), any(), anyString(), any()))
+                .thenAnswer(inv -> LongStream.range(100, 100 + inv.<List<?>>getArgument(1).size()).toArray());
+    }
+
+    @AfterEach
+    void clear() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void insertsEachWorkflowsTasksParentsFirstAndTranslatesEdgesToTaskIds() {
+        BulkWorkflowRequest request = new BulkWorkflowRequest();
+        request.setWorkflows(List.of(
+                workflow("chain", task("c", "b"), task("b", "a"), task("a")),
+                workflow("pair", task("y", "x"), task("x"))
+        ));
+
+        BulkWorkflowResponse response = service.createWorkflows(request);
+
+        assertThat(response.getWorkflowIds()).containsExactly(1L, 2L);
+        assertThat(response.getTasksCreated()).isEqualTo(5);
+        assertThat(response.getDependenciesCreated()).isEqualTo(3);
+        verify(quotaGuard).checkStart("alice", 2, 5);
+        verify(workflowBatchWriter).enqueueStarts(eq(new long[]{1, 2}), eq("alice"), any());
+
+        TaskRows rows = captureTasks();
+        assertThat(rows.aliases()).containsExactly("a", "b", "c", "x", "y");
+        assertThat(rows.workflows()).containsExactly(1, 1, 1, 2, 2);
+        assertThat(rows.orders()).containsExactly(0, 1, 2, 0, 1);
+        assertThat(rows.templateNodes()).isNull();
+
+        // a=100, b=101, c=102, x=103, y=104
+        assertThat(captureEdges()).containsExactlyInAnyOrder("101->100", "102->101", "104->103");
+    }
+
+    @Test
+    void instantiatesAnInlineTemplateOncePerParameterSet() {
+        BulkWorkflowRequest request = new BulkWorkflowRequest();
+        request.setTemplate(workflow("build ${env}", task("b", "a"), task("a")));
+        request.setParameters(List.of(Map.of("env", "dev"), Map.of("env", "prod")));
+        request.setStart(false);
+
+        BulkWorkflowResponse response = service.createWorkflows(request);
+
+        assertThat(response.getDependenciesCreated()).isEqualTo(2);
+        verify(workflowBatchWriter).insertWorkflows(
+                eq(List.of("build dev", "build prod")), eq(new int[]{2, 2}), isNull(), eq("alice"), any());
+        verifyNoInteractions(quotaGuard);
+        assertThat(captureEdges()).containsExactlyInAnyOrder("101->100", "103->102");
+    }
+
+    @Test
+    void reportsEveryParameterSetWithMissingValuesAndInsertsNothing() {
+        BulkWorkflowRequest request = new BulkWorkflowRequest();
+        request.setTemplate(workflow("build ${env}", task("a")));
+        request.setParameters(List.of(Map.of("env", "dev"), Map.of(), Map.of("region", "eu")));
+
+        assertThatThrownBy(() -> service.createWorkflows(request))
+                .isInstanceOfSatisfying(InvalidWorkflowDefinitionException.class, e ->
+                        assertThat(e.getErrors()).containsExactly(
+                                "Parameter set #2 has no value for [env]",
+                                "Parameter set #3 has no value for [env]"));
+        verifyNoInteractions(workflowBatchWriter, taskBatchWriter);
+    }
+
+    @Test
+    void runsOfAPublishedTemplateRecordTheirNodesAndStoreNoEdges() {
+        publish(9L, "alice");
+
+        BulkWorkflowRequest request = new BulkWorkflowRequest();
+        request.setTemplateId(9L);
+        request.setParameters(List.of(Map.of(), Map.of()));
+
+        BulkWorkflowResponse response = service.createWorkflows(request);
+
+        assertThat(response.getDependenciesCreated()).isZero();
+        verify(workflowBatchWriter).insertWorkflows(
+                eq(List.of("nightly", "nightly")), eq(new int[]{4, 4}), eq(9L), eq("alice"), any());
+
+        TaskRows rows = captureTasks();
+        assertThat(rows.aliases()).containsExactly("a", "b", "c", "d", "a", "b", "c", "d");
+        assertThat(rows.templateNodes()).containsExactly(0, 1, 2, 3, 0, 1, 2, 3);
+        assertThat(captureEdges()).isEmpty();
+    }
+
+    @Test
+    void refusesAnotherUsersTemplate() {
+        publish(9L, "bob");
+
+        BulkWorkflowRequest request = new BulkWorkflowRequest();
+        request.setTemplateId(9L);
+        request.setParameters(List.of(Map.of()));
+
+        assertThatThrownBy(() -> service.createWorkflows(request)).isInstanceOf(AccessDeniedException.class);
+        verifyNoInteractions(workflowBatchWriter);
+    }
+
+    @Test
+    void enforcesTheWorkflowAndTaskLimits() {
+        BulkWorkflowRequest tooManyWorkflows = new BulkWorkflowRequest();
+        tooManyWorkflows.setTemplate(workflow("w", task("a")));
+        tooManyWorkflows.setParameters(List.of(Map.of(), Map.of(), Map.of(), Map.of()));
+
+        BulkWorkflowRequest tooManyTasks = new BulkWorkflowRequest();
+        tooManyTasks.setWorkflows(List.of(
+                workflow("one", task("a"), task("b"), task("c"), task("d"), task("e")),
+                workflow("two", task("a"), task("b"), task("c"), task("d"))
+        ));
+
+        BulkWorkflowRequest noSource = new BulkWorkflowRequest();
+
+        assertThatThrownBy(() -> service.createWorkflows(tooManyWorkflows))
+                .hasMessageContaining("4 workflows; at most 3");
+        assertThatThrownBy(() -> service.createWorkflows(tooManyTasks))
+                .isInstanceOfSatisfying(InvalidWorkflowDefinitionException.class, e ->
+                        assertThat(e.getErrors()).containsExactly("Bulk request has 9 tasks; at most 8 are allowed."));
+        assertThatThrownBy(() -> service.createWorkflows(noSource))
+                .isInstanceOf(InvalidWorkflowDefinitionException.class);
+        verifyNoInteractions(workflowBatchWriter, taskBatchWriter);
+    }
+
+    @Test
+    void aRefusedStartInsertsNothing() {
+        doThrow(new QuotaExceededException("Active workflow quota of 2 would be exceeded"))
+                .when(quotaGuard).checkStart(anyString(), anyLong(), anyLong());
+
+        BulkWorkflowRequest request = new BulkWorkflowRequest();
+        request.setWorkflows(List.of(workflow("one", task("a")), workflow("two", task("a"))));
+
+        assertThatThrownBy(() -> service.createWorkflows(request)).isInstanceOf(QuotaExceededException.class);
+        verifyNoInteractions(workflowBatchWriter, taskBatchWriter);
+    }
+
+    private record TaskRows(List<String> aliases, List<Integer> workflows, List<Integer> orders,
+                            List<Integer> templateNodes) {}
+
+    @SuppressWarnings("unchecked")
+    private TaskRows captureTasks() {
+        ArgumentCaptor<long[]> workflows = ArgumentCaptor.forClass(long[].class);
+        ArgumentCaptor<List<BatchTaskRequest>> tasks = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<long[]> orders = ArgumentCaptor.forClass(long[].class);
+        ArgumentCaptor<int[]> nodes = ArgumentCaptor.forClass(int[].class);
+
+        verify(taskBatchWriter).insertTasks(
+                workflows.capture(), tasks.capture(), orders.capture(), nodes.capture(), eq("alice"), any());
+
+        return new TaskRows(
+                tasks.getValue().stream().map(BatchTaskRequest::getClientId).toList(),
+                Arrays.stream(workflows.getValue()).mapToInt(id -> (int) id).boxed().toList(),
+                Arrays.stream(orders.getValue()).mapToInt(o -> (int) o).boxed().toList(),
+                nodes.getValue() == null ? null : Arrays.stream(nodes.getValue()).boxed().toList()
+        );
+    }
+
+    private List<String> captureEdges() {
+        ArgumentCaptor<long[]> children = ArgumentCaptor.forClass(long[].class);
+        ArgumentCaptor<long[]> parents = ArgumentCaptor.forClass(long[].class);
+        ArgumentCaptor<Integer> count = ArgumentCaptor.forClass(Integer.class);
+
+        verify(taskBatchWriter).insertDependencies(children.capture(), parents.capture(), count.capture());
+
+        return IntStream.range(0, count.getValue())
+                .mapToObj(k -> children.getValue()[k] + "->" + parents.getValue()[k])
+                .toList();
+    }
+
+    private void publish(Long templateId, String owner) {
+        WorkflowTemplate row = mock(WorkflowTemplate.class);
+        when(row.getName()).thenReturn("nightly");
+        when(row.getCreatedBy()).thenReturn(owner);
+        when(templateRepository.findById(templateId)).thenReturn(Optional.of(row));
+        when(templateRegistry.get(templateId)).thenReturn(DIAMOND);
+    }
+
+    private static CreateWorkflowRequest workflow(String name, BatchTaskRequest... tasks) {
+        CreateWorkflowRequest workflow = new CreateWorkflowRequest();
+        workflow.setName(name);
+        workflow.setTasks(List.of(tasks));
+        return workflow;
+    }
+
+    private static BatchTaskRequest task(String clientId, String... dependsOn) {
+        BatchTaskRequest task = new BatchTaskRequest();
+        task.setClientId(clientId);
+        task.setTitle(clientId.toUpperCase());
+        task.setDependsOn(List.of(dependsOn));
+        return task;
+    }
+}
@@ -0,0 +1,60 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.cache.CacheInvalidator;
+import com.arsh.workflow.events.AfterCommitExecutor;
+import com.arsh.workflow.events.producer.WorkflowEventProducer;
+import com.arsh.workflow.model.Task;
+import com.arsh.workflow.model.Workflow;
+import com.arsh.workflow.repository.TaskRepository;
+import com.arsh.workflow.repository.WorkflowRepository;
+import com.arsh.workflow.service.DependencyResolver;
+import com.arsh.workflow.service.WorkflowExecutorService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WorkflowCoordinatorImplTest {
+
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final DependencyResolver dependencyResolver = mock(DependencyResolver.class);
+    private final WorkflowRepository workflowRepository = mock(WorkflowRepository.class);
+    private final WorkflowExecutorService executorService = mock(WorkflowExecutorService.class);
+    private final AfterCommitExecutor afterCommitExecutor = mock(AfterCommitExecutor.class);
+
+    private final WorkflowCoordinatorImpl coordinator = new WorkflowCoordinatorImpl(
+            taskRepository, dependencyResolver, workflowRepository, executorService,
+            mock(CacheInvalidator.class), mock(WorkflowEventProducer.class), afterCommitExecutor);
+
+    @Test
+    void submitsUnlockedTasksOnlyAfterCommit() {
+        Workflow workflow = mock(Workflow.class);
+        when(workflow.getId()).thenReturn(3L);
+        Task completed = mock(Task.class);
+        when(completed.getWorkflow()).thenReturn(workflow);
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(completed));
+        when(dependencyResolver.findUnlockableDependents(completed)).thenReturn(List.of(8L));
+        when(taskRepository.promotePendingToReady(eq(List.of(8L)), any())).thenReturn(1);
+
+        coordinator.onTaskCompleted(5L);
+
+        // Pool threads would still read the uncommitted promotion as PENDING
+        verify(executorService, never()).executeWorkflow(anyLong());
+
+        ArgumentCaptor<Runnable> afterCommit = ArgumentCaptor.forClass(Runnable.class);
+        verify(afterCommitExecutor).execute(afterCommit.capture());
+        afterCommit.getValue().run();
+
+        verify(executorService).executeWorkflow(3L);
+        verify(workflowRepository).adjustTaskCounters(3L, 1, 0, 0, 0);
+    }
+}
@@ -0,0 +1,328 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.cache.CacheInvalidator;
+import com.arsh.workflow.dto.request.BatchTaskRequest;
+import com.arsh.workflow.dto.request.DagAppendRequest;
+import com.arsh.workflow.dto.request.DependencyRequest;
+import com.arsh.workflow.dto.response.DagStreamResult;
+import com.arsh.workflow.enums.WorkflowStatus;
+import com.arsh.workflow.exception.InvalidWorkflowDefinitionException;
+import com.arsh.workflow.model.Workflow;
+import com.arsh.workflow.repository.TaskBatchWriter;
+import com.arsh.workflow.repository.TaskRepository;
+import com.arsh.workflow.repository.WorkflowRepository;
+import com.arsh.workflow.repository.projection.TaskEdgeView;
+import com.arsh.workflow.repository.projection.TaskOrderView;
+import com.arsh.workflow.validation.WorkflowGraphValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WorkflowDagServiceImplTest {
+
+    private record Stored(Long id, String clientId, Long topoOrder) implements TaskOrderView {
+        @Override public Long getId() { return id; }
+        @Override public String getClientId() { return clientId; }
+        @Override public Long getTopoOrder() { return topoOrder; }
+    }
+
+    private record Edge(Long taskId, Long parentId) implements TaskEdgeView {
+        @Override public Long getTaskId() { return taskId; }
+        @Override public Long getParentId() { return parentId; }
+    }
+
+    /** One TaskBatchWriter.insertTasks call, copied: the service reuses its chunk list. */
+    private record Insert(List<String> aliases, long firstOrder) {}
+
+    private final WorkflowRepository workflowRepository = mock(WorkflowRepository.class);
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final TaskBatchWriter taskBatchWriter = mock(TaskBatchWriter.class);
+
+    private final WorkflowDagServiceImpl service = new WorkflowDagServiceImpl(
+            workflowRepository, taskRepository, new WorkflowGraphValidator(),
+            mock(CacheInvalidator.class), taskBatchWriter, new ObjectMapper());
+
+    // Rows of workflow 7 by alias, as uk_tasks_workflow_client would find them
+    private final Map<String, Stored> rows = new LinkedHashMap<>();
+    private final List<Insert> inserts = new ArrayList<>();
+    private final List<String> edges = new ArrayList<>();
+    private long nextId = 100;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+
+        // Two tasks per chunk; only the last two aliases stay in memory
+        ReflectionTestUtils.setField(service, "streamChunkSize", 2);
+        ReflectionTestUtils.setField(service, "streamAliasCacheSize", 2);
+
+        Workflow workflow = mock(Workflow.class);
+        when(workflow.getId()).thenReturn(7L);
+        when(workflow.getCreatedBy()).thenReturn("alice");
+        when(workflow.getStatus()).thenReturn(WorkflowStatus.CREATED);
+        when(workflow.getTemplateId()).thenReturn(null);
+        when(workflowRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(workflow));
+        when(taskRepository.findMaxTopoOrder(7L)).thenReturn(null);
+
+        when(taskRepository.findOrderByClientIds(eq(7L), anyCollection())).thenAnswer(inv ->
+                inv.<Collection<String>>getArgument(1).stream().map(rows::get).filter(r -> r != null).toList());
+
+        when(taskBatchWriter.insertTasks(eq(7L), any(), anyLong(), eq("alice"), any())).thenAnswer(inv -> {
+            List<BatchTaskRequest> chunk = inv.getArgument(1);
+            long firstOrder = inv.getArgument(2);
+            long[] ids = new long[chunk.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = nextId++;
+                rows.put(chunk.get(i).getClientId(), new Stored(ids[i], chunk.get(i).getClientId(), firstOrder + i));
+            }
+            inserts.add(new Insert(chunk.stream().map(BatchTaskRequest::getClientId).toList(), firstOrder));
+            return ids;
+        });
+
+        doAnswer(inv -> {
+            long[] children = inv.getArgument(0);
+            long[] parents = inv.getArgument(1);
+            int count = inv.getArgument(2);
+            for (int k = 0; k < count; k++) {
+                edges.add(children[k] + "->" + parents[k]);
+            }
+            return null;
+        }).when(taskBatchWriter).insertDependencies(any(), any(), anyInt());
+    }
+
+    @AfterEach
+    void clear() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void resolvesParentsAcrossChunksAndMapsThemToInsertedIds() {
+        when(taskRepository.findMaxTopoOrder(7L)).thenReturn(4L);
+
+        DagStreamResult result = stream(
+                task("a"), task("b", "a"),
+                task("c", "b"), task("d", "a", "c"),
+                task("e", "d"));
+
+        assertThat(result.getTasksCreated()).isEqualTo(5);
+        assertThat(result.getDependenciesCreated()).isEqualTo(5);
+        assertThat(inserts).containsExactly(
+                new Insert(List.of("a", "b"), 5),
+                new Insert(List.of("c", "d"), 7),
+                new Insert(List.of("e"), 9));
+
+        // a=100, b=101, c=102, d=103, e=104; "a" was evicted from memory before d, so it was looked up
+        assertThat(edges).containsExactly("101->100", "102->101", "103->100", "103->102", "104->103");
+        verify(workflowRepository).addToTotalTasks(7L, 5);
+    }
+
+    @Test
+    void parentsMayAlreadyExistInTheWorkflow() {
+        rows.put("seed", new Stored(50L, "seed", 0L));
+        when(taskRepository.findMaxTopoOrder(7L)).thenReturn(0L);
+
+        stream(task("a", "seed"));
+
+        assertThat(inserts).containsExactly(new Insert(List.of("a"), 1));
+        assertThat(edges).containsExactly("100->50");
+    }
+
+    @Test
+    void rejectsAParentThatComesLaterInTheSameChunk() {
+        assertThatThrownBy(() -> stream(task("b", "a"), task("a")))
+                .isInstanceOfSatisfying(InvalidWorkflowDefinitionException.class, e ->
+                        assertThat(e.getErrors()).containsExactly(
+                                "Task 'b' depends on 'a', which appears later in the upload (parents must come first)"));
+
+        verify(taskBatchWriter, never()).insertTasks(anyLong(), any(), anyLong(), anyString(), any());
+    }
+
+    @Test
+    void rejectsAParentThatComesInALaterChunk() {
+        // The first chunk is written before the second fails; the transaction rolls both back
+        assertThatThrownBy(() -> stream(task("a"), task("b"), task("c", "d"), task("d")))
+                .isInstanceOfSatisfying(InvalidWorkflowDefinitionException.class, e ->
+                        assertThat(e.getErrors()).containsExactly(
+                                "Task 'c' depends on 'd', which appears later in the upload (parents must come first)"));
+        assertThatThrownBy(() -> stream(task("x", "y"), task("z"), task("y")))
+                .isInstanceOfSatisfying(InvalidWorkflowDefinitionException.class, e ->
+                        assertThat(e.getErrors()).containsExactly("Task 'x' depends on non-existent alias 'y'"));
+
+        assertThat(inserts).containsExactly(new Insert(List.of("a", "b"), 0));
+        verify(workflowRepository, never()).addToTotalTasks(anyLong(), anyInt());
+    }
+
+    @Test
+    void rejectsAliasesAlreadyUsedInTheWorkflowOrUpload() {
+        rows.put("seed", new Stored(50L, "seed", 0L));
+
+        assertThatThrownBy(() -> stream(task("seed")))
+                .hasMessageContaining("Task alias already exists in workflow: seed");
+        assertThatThrownBy(() -> stream(task("a"), task("b"), task("a")))
+                .isInstanceOfSatisfying(InvalidWorkflowDefinitionException.class, e ->
+                        assertThat(e.getErrors()).containsExactly("Duplicate task alias: a"));
+    }
+
+    @Test
+    void refusesTransitiveReductionAboveTheCap() {
+        ReflectionTestUtils.setField(service, "reduceMaxTasks", 2);
+
+        assertThatThrownBy(() -> service.createBatchDag(7L, List.of(request("a"), request("b"), request("c")), true))
+                .isInstanceOfSatisfying(InvalidWorkflowDefinitionException.class, e ->
+                        assertThat(e.getErrors()).containsExactly(
+                                "Transitive reduction is limited to 2 tasks per batch."));
+
+        verify(taskBatchWriter, never()).insertTasks(anyLong(), any(), anyLong(), anyString(), any());
+    }
+
+    @Test
+    void appendsNewEdgesInOneBatchAndSkipsStoredOrRepeatedOnes() {
+        seed("a", "b", "c");
+        edges.add("51->50");
+
+        append(edge("b", "a"), edge("c", "a"), edge("c", "a"), edge("c", "b"));
+
+        assertThat(edges).containsExactly("51->50", "52->50", "52->51");
+        verify(taskBatchWriter, times(1)).insertDependencies(any(), any(), eq(2));
+        verify(taskBatchWriter, never()).updateTopoOrders(any(), any(), anyInt());
+    }
+
+    @Test
+    void flushesPendingEdgesBeforeAReorderReadsItsWindow() {
+        seed("a", "b", "c");
+
+        // c → b is still buffered when a → c needs the window
+        append(edge("c", "b"), edge("a", "c"));
+
+        assertThat(edges).containsExactly("52->51", "50->52");
+        assertThat(order("b")).isLessThan(order("c"));
+        assertThat(order("c")).isLessThan(order("a"));
+        verify(taskBatchWriter, times(1)).updateTopoOrders(any(), any(), anyInt());
+    }
+
+    @Test
+    void seesBufferedEdgesWhenCheckingForCycles() {
+        seed("a", "b");
+
+        // Without the flush the window would miss b → a and accept a → b
+        assertThatThrownBy(() -> append(edge("b", "a"), edge("a", "b")))
+                .isInstanceOfSatisfying(InvalidWorkflowDefinitionException.class, e ->
+                        assertThat(e.getErrors()).containsExactly("Dependency 'a' → 'b' would create a cycle"));
+    }
+
+    private void seed(String... aliases) {
+        for (int i = 0; i < aliases.length; i++) {
+            rows.put(aliases[i], new Stored(50L + i, aliases[i], (long) i));
+        }
+
+        when(taskRepository.findEdgesByTaskIds(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return storedEdges().stream().filter(e -> ids.contains(e.taskId())).toList();
+        });
+        when(taskRepository.findOrderWindow(eq(7L), anyLong(), anyLong())).thenAnswer(inv -> {
+            long lower = inv.getArgument(1);
+            long upper = inv.getArgument(2);
+            return rows.values().stream()
+                    .filter(r -> r.topoOrder() >= lower && r.topoOrder() <= upper)
+                    .map(TaskOrderView.class::cast)
+                    .toList();
+        });
+        when(taskRepository.findEdgesInOrderWindow(eq(7L), anyLong(), anyLong())).thenAnswer(inv -> {
+            long lower = inv.getArgument(1);
+            long upper = inv.getArgument(2);
+            return storedEdges().stream()
+                    .filter(e -> inWindow(e.taskId(), lower, upper) && inWindow(e.parentId(), lower, upper))
+                    .map(TaskEdgeView.class::cast)
+                    .toList();
+        });
+
+        doAnswer(inv -> {
+            long[] ids = inv.getArgument(0);
+            long[] orders = inv.getArgument(1);
+            int count = inv.getArgument(2);
+            for (int k = 0; k < count; k++) {
+                for (Map.Entry<String, Stored> row : rows.entrySet()) {
+                    if (row.getValue().id() == ids[k]) {
+                        row.setValue(new Stored(ids[k], row.getKey(), orders[k]));
+                    }
+                }
+            }
+            return null;
+        }).when(taskBatchWriter).updateTopoOrders(any(), any(), anyInt());
+    }
+
+    private List<Edge> storedEdges() {
+        return edges.stream()
+                .map(e -> e.split("->"))
+                .map(e -> new Edge(Long.valueOf(e[0]), Long.valueOf(e[1])))
+                .toList();
+    }
+
+    private boolean inWindow(Long id, long lower, long upper) {
+        return rows.values().stream()
+                .anyMatch(r -> r.id().equals(id) && r.topoOrder() >= lower && r.topoOrder() <= upper);
+    }
+
+    private long order(String alias) {
+        return rows.get(alias).topoOrder();
+    }
+
+    private void append(DependencyRequest... dependencies) {
+        DagAppendRequest request = new DagAppendRequest();
+        request.setDependencies(List.of(dependencies));
+        service.appendToDag(7L, request);
+    }
+
+    private static DependencyRequest edge(String clientId, String dependsOn) {
+        DependencyRequest edge = new DependencyRequest();
+        edge.setClientId(clientId);
+        edge.setDependsOn(dependsOn);
+        return edge;
+    }
+
+    private DagStreamResult stream(String... lines) {
+        byte[] body = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        return service.streamDag(7L, new ByteArrayInputStream(body));
+    }
+
+    private static BatchTaskRequest request(String clientId) {
+        BatchTaskRequest task = new BatchTaskRequest();
+        task.setClientId(clientId);
+        task.setTitle(clientId.toUpperCase());
+        return task;
+    }
+
+    private static String task(String clientId, String... dependsOn) {
+        String deps = dependsOn.length == 0 ? "" : ",\"dependsOn\":[\"" + String.join("\",\"", dependsOn) + "\"]";
+        return "{\"clientId\":\"" + clientId + "\",\"title\":\"" + clientId.toUpperCase() + "\"" + deps + "}";
+    }
+}
@@ -0,0 +1,130 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.cache.CacheInvalidator;
+import com.arsh.workflow.enums.TaskStatus;
+import com.arsh.workflow.events.producer.WorkflowEventProducer;
+import com.arsh.workflow.model.Task;
+import com.arsh.workflow.model.Workflow;
+import com.arsh.workflow.repository.TaskRepository;
+import com.arsh.workflow.repository.WorkflowRepository;
+import com.arsh.workflow.repository.projection.TaskWorkflowView;
+import com.arsh.workflow.util.RedisDistributedLock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WorkflowExecutorServiceImplTest {
+
+    private record Ready(Long id, Long workflowId) implements TaskWorkflowView {
+        @Override public Long getId() { return id; }
+        @Override public Long getWorkflowId() { return workflowId; }
+    }
+
+    private final TaskServiceImpl taskService = mock(TaskServiceImpl.class);
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final WorkflowRepository workflowRepository = mock(WorkflowRepository.class);
+    private final ExecutorService pool = mock(ExecutorService.class);
+
+    private final WorkflowExecutorServiceImpl executor = new WorkflowExecutorServiceImpl(
+            taskService, taskRepository, workflowRepository,
+            mock(RedisDistributedLock.class), mock(WorkflowEventProducer.class), mock(CacheInvalidator.class),
+            mock(PlatformTransactionManager.class), pool, false, 1);
+
+    private final Task task = mock(Task.class);
+
+    @BeforeEach
+    void setUp() {
+        Workflow workflow = mock(Workflow.class);
+        when(workflow.getId()).thenReturn(7L);
+        when(task.getId()).thenReturn(5L);
+        when(task.getWorkflow()).thenReturn(workflow);
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(task));
+        when(taskService.transition(anyLong(), anyLong(), any(), any())).thenReturn(true);
+
+        // Runs submissions on the calling thread
+        when(pool.submit(any(Runnable.class))).thenAnswer(inv -> {
+            inv.<Runnable>getArgument(0).run();
+            return null;
+        });
+    }
+
+    @Test
+    void defersATaskWhosePromotionIsNotVisibleYet() {
+        when(task.getStatus()).thenReturn(TaskStatus.PENDING, TaskStatus.READY);
+
+        executor.submitReadyTasks(Map.of(7L, List.of(5L)));
+        verify(taskService, never()).transition(anyLong(), anyLong(), any(), any());
+
+        assertThat(executor.resubmitDeferred()).isZero();
+        verify(taskService).transition(7L, 5L, TaskStatus.READY, TaskStatus.IN_PROGRESS);
+        verify(taskService).transition(7L, 5L, TaskStatus.IN_PROGRESS, TaskStatus.COMPLETED);
+    }
+
+    @Test
+    void givesUpOnATaskThatStaysPending() {
+        when(task.getStatus()).thenReturn(TaskStatus.PENDING);
+
+        executor.submitReadyTasks(Map.of(7L, List.of(5L)));
+        for (int pass = 0; pass < 10; pass++) {
+            executor.resubmitDeferred();
+        }
+
+        assertThat(executor.resubmitDeferred()).isZero();
+        verify(taskRepository, times(6)).findById(5L);
+        verify(taskService, never()).transition(anyLong(), anyLong(), any(), any());
+    }
+
+    @Test
+    void keepsRejectedTasksForTheNextPass() {
+        when(task.getStatus()).thenReturn(TaskStatus.READY);
+        when(pool.submit(any(Runnable.class))).thenThrow(new RejectedExecutionException());
+
+        executor.submitReadyTasks(Map.of(7L, List.of(5L)));
+        assertThat(executor.resubmitDeferred()).isEqualTo(1);
+
+        when(pool.submit(any(Runnable.class))).thenAnswer(inv -> {
+            inv.<Runnable>getArgument(0).run();
+            return null;
+        });
+        assertThat(executor.resubmitDeferred()).isZero();
+        verify(taskService).transition(7L, 5L, TaskStatus.IN_PROGRESS, TaskStatus.COMPLETED);
+    }
+
+    @Test
+    void leavesTasksBeyondTheDeferredCapacityToRecovery() {
+        when(pool.submit(any(Runnable.class))).thenThrow(new RejectedExecutionException());
+
+        executor.submitReadyTasks(Map.of(7L, List.of(5L, 6L)));
+
+        assertThat(executor.resubmitDeferred()).isEqualTo(1);
+    }
+
+    @Test
+    void recoversStalledReadyTasksFromTheDatabase() {
+        when(task.getStatus()).thenReturn(TaskStatus.READY);
+        Instant cutoff = Instant.parse("2024-01-01T00:00:00Z");
+        when(taskRepository.findStalledReady(cutoff, PageRequest.of(0, 500)))
+                .thenReturn(List.of(new Ready(5L, 7L)));
+
+        assertThat(executor.recoverStalledReady(cutoff, 500)).isEqualTo(1);
+        verify(taskService).transition(7L, 5L, TaskStatus.READY, TaskStatus.IN_PROGRESS);
+        verify(taskService).transition(7L, 5L, TaskStatus.IN_PROGRESS, TaskStatus.COMPLETED);
+    }
+}
@@ -0,0 +1,74 @@
+package com.arsh.workflow.service.impl;
+
+import com.arsh.workflow.cache.CacheInvalidator;
+import com.arsh.workflow.cache.NearCache;
+import com.arsh.workflow.cache.WorkflowVersionTracker;
+import com.arsh.workflow.dto.response.WorkflowResponse;
+import com.arsh.workflow.enums.WorkflowStatus;
+import com.arsh.workflow.model.Workflow;
+import com.arsh.workflow.repository.PendingWorkflowStartRepository;
+import com.arsh.workflow.repository.TaskRepository;
+import com.arsh.workflow.repository.WorkflowRepository;
+import com.arsh.workflow.service.WorkflowArchiveService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WorkflowServiceImplTest {
+
+    private final WorkflowRepository workflowRepository = mock(WorkflowRepository.class);
+    private final WorkflowPurger workflowPurger = mock(WorkflowPurger.class);
+
+    @SuppressWarnings("unchecked")
+    private final WorkflowServiceImpl workflowService = new WorkflowServiceImpl(
+            workflowRepository, mock(TaskRepository.class), mock(NearCache.class), mock(CacheInvalidator.class),
+            mock(WorkflowArchiveService.class), workflowPurger, mock(WorkflowVersionTracker.class),
+            mock(NearCache.class), mock(WorkflowQuotaGuard.class), mock(PendingWorkflowStartRepository.class));
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new TestingAuthenticationToken("alice", null, "ROLE_USER"));
+
+        Workflow workflow = new Workflow();
+        workflow.setCreatedBy("alice");
+        workflow.setStatus(WorkflowStatus.COMPLETED);
+        when(workflowRepository.findById(7L)).thenReturn(Optional.of(workflow));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void purgesAWorkflowItMarkedDeleting() {
+        when(workflowPurger.markDeleting(7L)).thenReturn(true);
+
+        WorkflowResponse response = workflowService.deleteWorkflow(7L);
+
+        assertThat(response.getStatus()).isEqualTo(WorkflowStatus.COMPLETED);
+        verify(workflowPurger).purge(7L);
+    }
+
+    @Test
+    void leavesAWorkflowAlreadyBeingDeletedToItsDeleter() {
+        when(workflowPurger.markDeleting(7L)).thenReturn(false);
+
+        WorkflowResponse response = workflowService.deleteWorkflow(7L);
+
+        assertThat(response.getStatus()).isEqualTo(WorkflowStatus.DELETING);
+        verify(workflowPurger, never()).purge(anyLong());
+    }
+}
@@ -0,0 +1,39 @@
+package com.arsh.workflow.util;
+
+import com.arsh.workflow.dto.response.WorkflowAnalysisResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DagAnalyzerTest {
+
+    @Test
+    void measuresLevelsWidthAndCriticalPath() {
+        // 1 → 2 → 4 → 5, 1 → 3, 6 on its own
+        WorkflowAnalysisResponse analysis = DagAnalyzer.analyze(
+                7L, 3L,
+                new long[]{1, 2, 3, 4, 5, 6},
+                new long[]{1, 1, 2, 4},
+                new long[]{2, 3, 4, 5});
+
+        assertThat(analysis.getDagVersion()).isEqualTo(3L);
+        assertThat(analysis.getDepth()).isEqualTo(4);
+        assertThat(analysis.getMaxWidth()).isEqualTo(2);
+        assertThat(analysis.getWidestLevel()).isZero();
+        assertThat(analysis.getCriticalPath()).containsExactly(1L, 2L, 4L, 5L);
+        assertThat(analysis.getRootCount()).isEqualTo(2);
+        assertThat(analysis.getLeafCount()).isEqualTo(3);
+        assertThat(analysis.getInDegreeHistogram()).containsEntry(0, 2).containsEntry(1, 4);
+        assertThat(analysis.getOutDegreeHistogram()).containsEntry(0, 3).containsEntry(1, 2).containsEntry(2, 1);
+    }
+
+    @Test
+    void handlesEmptyWorkflows() {
+        WorkflowAnalysisResponse analysis =
+                DagAnalyzer.analyze(1L, 0L, new long[0], new long[0], new long[0]);
+
+        assertThat(analysis.getDepth()).isZero();
+        assertThat(analysis.getMaxWidth()).isZero();
+        assertThat(analysis.getCriticalPath()).isEmpty();
+    }
+}
@@ -0,0 +1,31 @@
+package com.arsh.workflow.util;
+
+import com.arsh.workflow.enums.WorkflowView;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ETagsTest {
+
+    @Test
+    void matchesWeaklyWithinAList() {
+        String etag = ETags.workflow(7L, 42L);
+
+        assertThat(ETags.matches("\"w7.41\", " + etag, etag)).isTrue();
+        assertThat(ETags.matches("\"w7.42\"", etag)).isTrue();
+        assertThat(ETags.matches("*", etag)).isTrue();
+        assertThat(ETags.matches("W/\"w7.41\"", etag)).isFalse();
+        assertThat(ETags.matches("W/\"w7.42\"", null)).isFalse();
+    }
+
+    @Test
+    void viewsNeverValidateEachOther() {
+        String full = ETags.workflow(7L, 42L, WorkflowView.FULL);
+        String summary = ETags.workflow(7L, 42L, WorkflowView.SUMMARY);
+
+        assertThat(full).isEqualTo(ETags.workflow(7L, 42L));
+        assertThat(summary).isEqualTo("W/\"w7.42-summary\"");
+        assertThat(ETags.matches(full, summary)).isFalse();
+        assertThat(ETags.matches(summary, ETags.workflow(7L, 42L, WorkflowView.IDS))).isFalse();
+    }
+}
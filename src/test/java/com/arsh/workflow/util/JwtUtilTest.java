@@ -0,0 +1,34 @@
+package com.arsh.workflow.util;
+
+import com.arsh.workflow.enums.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-test-secret";
+
+    @Test
+    void verifiesOnceAndServesRepeatsFromTheCache() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100, new SimpleMeterRegistry());
+        String token = jwtUtil.generateToken("alice", 7L, Role.USER);
+
+        assertThat(jwtUtil.extractUsername(token)).isEqualTo("alice");
+        assertThat(jwtUtil.verify(token).get(JwtUtil.CLAIM_USER_ID, Long.class)).isEqualTo(7L);
+        assertThat(jwtUtil.verify(token).get(JwtUtil.CLAIM_ROLE, String.class)).isEqualTo("USER");
+        assertThat(jwtUtil.verify(token)).isSameAs(jwtUtil.verify(token));
+    }
+
+    @Test
+    void rejectsForgedAndExpiredTokens() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100, new SimpleMeterRegistry());
+        JwtUtil otherKey = new JwtUtil(SECRET.replace('t', 'x'), 60_000, 100, new SimpleMeterRegistry());
+        JwtUtil expired = new JwtUtil(SECRET, -1_000, 100, new SimpleMeterRegistry());
+
+        assertThat(jwtUtil.isTokenValid(otherKey.generateToken("alice", 7L, Role.USER))).isFalse();
+        assertThat(jwtUtil.isTokenValid(expired.generateToken("alice", 7L, Role.USER))).isFalse();
+        assertThat(jwtUtil.verify("not.a.token")).isNull();
+    }
+}
@@ -0,0 +1,53 @@
+package com.arsh.workflow.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeasedRateLimiterTest {
+
+    private static final RedisTokenBucket.Limit LIMIT = new RedisTokenBucket.Limit(100, 10);
+
+    /** Hands out scripted grants and counts round trips. */
+    private static final class ScriptedBucket extends RedisTokenBucket {
+        final Deque<Grant> grants = new ArrayDeque<>();
+        int calls;
+
+        ScriptedBucket() {
+            super(null);
+        }
+
+        @Override
+        public Grant lease(String key, Limit limit, long max) {
+            calls++;
+            return grants.removeFirst();
+        }
+    }
+
+    @Test
+    void servesALeaseLocallyThenAsksAgain() {
+        ScriptedBucket bucket = new ScriptedBucket();
+        bucket.grants.add(new RedisTokenBucket.Grant(3, 0));
+        bucket.grants.add(new RedisTokenBucket.Grant(1, 0));
+        LeasedRateLimiter limiter = new LeasedRateLimiter(bucket, 3, 60_000, 10);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.tryTake("k", LIMIT)).isZero();
+        }
+        assertThat(bucket.calls).isEqualTo(2);
+    }
+
+    @Test
+    void refusesLocallyAfterADenial() {
+        ScriptedBucket bucket = new ScriptedBucket();
+        bucket.grants.add(new RedisTokenBucket.Grant(0, 60_000));
+        LeasedRateLimiter limiter = new LeasedRateLimiter(bucket, 3, 60_000, 10);
+
+        assertThat(limiter.tryTake("k", LIMIT)).isEqualTo(60_000);
+        assertThat(limiter.tryTake("k", LIMIT)).isPositive();
+        assertThat(bucket.calls).isEqualTo(1);
+    }
+}
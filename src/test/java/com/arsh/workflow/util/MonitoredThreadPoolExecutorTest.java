@@ -0,0 +1,49 @@
+package com.arsh.workflow.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MonitoredThreadPoolExecutorTest {
+
+    @Test
+    void reportsHowLongWorkWaitsThenResets() throws Exception {
+        MonitoredThreadPoolExecutor pool = new MonitoredThreadPoolExecutor(
+                1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(4),
+                Executors.defaultThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch queuedRan = new CountDownLatch(1);
+
+            pool.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            pool.execute(queuedRan::countDown);
+
+            Thread.sleep(60);
+            assertThat(pool.utilisation()).isEqualTo(1.0);
+            assertThat(pool.sampleQueueLatencyMillis()).isGreaterThanOrEqualTo(50);
+
+            release.countDown();
+            assertThat(queuedRan.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(pool.sampleQueueLatencyMillis()).isGreaterThanOrEqualTo(50);
+            assertThat(pool.sampleQueueLatencyMillis()).isZero();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.arsh.workflow.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlaceholdersTest {
+
+    @Test
+    void substitutesEveryOccurrence() {
+        List<String> missing = new ArrayList<>();
+
+        String out = Placeholders.substitute(
+                "Import ${region} (${ region }) into ${target}",
+                Map.of("region", "eu-west", "target", "$warehouse\\1"),
+                missing);
+
+        assertThat(out).isEqualTo("Import eu-west (eu-west) into $warehouse\\1");
+        assertThat(missing).isEmpty();
+    }
+
+    @Test
+    void reportsNamesWithoutAValue() {
+        List<String> missing = new ArrayList<>();
+
+        String out = Placeholders.substitute("Load ${date} for ${region}", Map.of("region", "us"), missing);
+
+        assertThat(out).isEqualTo("Load ${date} for us");
+        assertThat(missing).containsExactly("date");
+    }
+
+    @Test
+    void leavesPlainTextAndNullAlone() {
+        List<String> missing = new ArrayList<>();
+
+        assertThat(Placeholders.substitute("No $placeholders {here}", Map.of(), missing))
+                .isEqualTo("No $placeholders {here}");
+        assertThat(Placeholders.substitute(null, Map.of(), missing)).isNull();
+        assertThat(missing).isEmpty();
+    }
+}
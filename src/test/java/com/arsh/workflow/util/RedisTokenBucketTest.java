@@ -0,0 +1,54 @@
+package com.arsh.workflow.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RedisTokenBucketTest {
+
+    private static final RedisTokenBucket.Limit LIMIT = new RedisTokenBucket.Limit(5, 0.5);
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final RedisTokenBucket bucket = new RedisTokenBucket(redisTemplate);
+
+    @Test
+    void passesTheLimitToTheScriptAndReadsItsGrant() {
+        script("1", List.of(1L, 0L));
+        script("8", List.of(0L, 1500L));
+
+        assertThat(bucket.tryTake("rate:auth:ip:10.0.0.1", LIMIT)).isZero();
+        assertThat(bucket.lease("rate:auth:ip:10.0.0.1", LIMIT, 8)).isEqualTo(new RedisTokenBucket.Grant(0, 1500));
+    }
+
+    @Test
+    void aTakeThatGetsNothingReportsTheWait() {
+        script("1", List.of(0L, 2000L));
+
+        assertThat(bucket.tryTake("rate:auth:user:alice", LIMIT)).isEqualTo(2000);
+    }
+
+    @Test
+    void failsOpenWhenRedisIsDown() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThat(bucket.tryTake("rate:auth:ip:10.0.0.1", LIMIT)).isZero();
+        assertThat(bucket.lease("rate:auth:ip:10.0.0.1", LIMIT, 8)).isEqualTo(new RedisTokenBucket.Grant(8, 0));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void script(String wanted, List<Long> result) {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), eq("5"), eq("0.5"), eq(wanted), eq("1")))
+                .thenReturn(result);
+    }
+}
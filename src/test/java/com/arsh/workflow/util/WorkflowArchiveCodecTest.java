@@ -0,0 +1,103 @@
+package com.arsh.workflow.util;
+
+import com.arsh.workflow.dto.response.TaskResponse;
+import com.arsh.workflow.enums.TaskStatus;
+import com.arsh.workflow.repository.projection.TaskEdgeView;
+import com.arsh.workflow.repository.projection.TaskRowView;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class WorkflowArchiveCodecTest {
+
+    private record Row(Long id, String clientId, String title, String description, TaskStatus status,
+                       Long assignedToId, String assignedToName) implements TaskRowView {
+        @Override public Long getId() { return id; }
+        @Override public String getClientId() { return clientId; }
+        @Override public String getTitle() { return title; }
+        @Override public String getDescription() { return description; }
+        @Override public TaskStatus getStatus() { return status; }
+        @Override public Long getAssignedToId() { return assignedToId; }
+        @Override public String getAssignedToName() { return assignedToName; }
+    }
+
+    private record Edge(Long taskId, Long parentId) implements TaskEdgeView {
+        @Override public Long getTaskId() { return taskId; }
+        @Override public Long getParentId() { return parentId; }
+    }
+
+    @Test
+    void roundTripsTasksAndEdges() {
+        // a -> {b, c} -> d
+        List<TaskRowView> rows = List.of(
+                new Row(10L, "a", "Fetch", "from s3", TaskStatus.COMPLETED, 3L, "alice"),
+                new Row(11L, "b", "Parse", null, TaskStatus.COMPLETED, null, null),
+                new Row(12L, "c", "Index", null, TaskStatus.FAILED, null, null),
+                new Row(13L, null, "Report", null, TaskStatus.PENDING, null, null)
+        );
+        List<TaskEdgeView> edges = List.of(
+                new Edge(11L, 10L), new Edge(12L, 10L), new Edge(13L, 11L), new Edge(13L, 12L));
+
+        WorkflowArchiveCodec.Decoded decoded =
+                WorkflowArchiveCodec.decode(7L, WorkflowArchiveCodec.encode(rows, edges));
+
+        assertThat(decoded.tasks())
+                .extracting(TaskResponse::getId, TaskResponse::getClientId, TaskResponse::getTitle,
+                        TaskResponse::getDescription, TaskResponse::getStatus,
+                        TaskResponse::getAssignedToId, TaskResponse::getAssignedToName,
+                        TaskResponse::getWorkflowId)
+                .containsExactly(
+                        tuple(10L, "a", "Fetch", "from s3", TaskStatus.COMPLETED, 3L, "alice", 7L),
+                        tuple(11L, "b", "Parse", null, TaskStatus.COMPLETED, null, null, 7L),
+                        tuple(12L, "c", "Index", null, TaskStatus.FAILED, null, null, 7L),
+                        tuple(13L, null, "Report", null, TaskStatus.PENDING, null, null, 7L));
+
+        assertThat(decoded.edges())
+                .extracting(TaskEdgeView::getTaskId, TaskEdgeView::getParentId)
+                .containsExactlyInAnyOrder(tuple(11L, 10L), tuple(12L, 10L), tuple(13L, 11L), tuple(13L, 12L));
+    }
+
+    @Test
+    void decodeTasksSkipsTheEdges() {
+        byte[] dag = WorkflowArchiveCodec.encode(
+                List.of(new Row(1L, "a", "A", null, TaskStatus.COMPLETED, null, null),
+                        new Row(2L, "b", "B", null, TaskStatus.COMPLETED, null, null)),
+                List.of(new Edge(2L, 1L)));
+
+        assertThat(WorkflowArchiveCodec.decodeTasks(7L, dag)).extracting(TaskResponse::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void readsVersionOneArchivesWithoutClientIds() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(1);
+            out.writeInt(2);
+            for (long id = 1; id <= 2; id++) {
+                out.writeLong(id);
+                out.writeUTF("T" + id);
+                out.writeBoolean(false);
+                out.writeUTF("COMPLETED");
+                out.writeBoolean(false);
+                out.writeBoolean(false);
+            }
+            out.writeInt(0);
+            out.writeInt(1);
+            out.writeInt(0);
+        }
+
+        WorkflowArchiveCodec.Decoded decoded = WorkflowArchiveCodec.decode(7L, bytes.toByteArray());
+
+        assertThat(decoded.tasks()).extracting(TaskResponse::getTitle).containsExactly("T1", "T2");
+        assertThat(decoded.tasks()).extracting(TaskResponse::getClientId).containsOnlyNulls();
+        assertThat(decoded.edges()).extracting(TaskEdgeView::getTaskId, TaskEdgeView::getParentId)
+                .containsExactly(tuple(2L, 1L));
+    }
+}
@@ -0,0 +1,101 @@
+package com.arsh.workflow.validation;
+
+import com.arsh.workflow.dto.request.BatchTaskRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledTemplateTest {
+
+    private final WorkflowGraphValidator validator = new WorkflowGraphValidator();
+
+    private final List<BatchTaskRequest> tasks = List.of(
+            task("report", "clean", "load"),
+            task("clean", "extract"),
+            task("load", "extract", "schema"),
+            task("extract"),
+            task("schema")
+    );
+
+    @Test
+    void numbersRootsFirstInTopologicalOrder() {
+        CompiledTemplate template = CompiledTemplate.compile(tasks, validator.validateOrThrow(tasks));
+        DagGraph graph = template.graph();
+
+        assertThat(template.rootCount()).isEqualTo(2);
+        assertThat(template.edgeCount()).isEqualTo(5);
+
+        for (int node = 0; node < template.size(); node++) {
+            boolean root = graph.parentsStart(node) == graph.parentsEnd(node);
+            assertThat(root).isEqualTo(node < template.rootCount());
+            assertThat(graph.topologicalAt(node)).isEqualTo(node);
+
+            for (int k = graph.parentsStart(node); k < graph.parentsEnd(node); k++) {
+                assertThat(graph.parentAt(k)).isLessThan(node);
+            }
+        }
+        assertThat(template.clientId(template.size() - 1)).isEqualTo("report");
+    }
+
+    @Test
+    void storedRowsRebuildTheSameGraph() {
+        CompiledTemplate template = CompiledTemplate.compile(tasks, validator.validateOrThrow(tasks));
+        DagGraph graph = template.graph();
+
+        String[] clientIds = new String[template.size()];
+        String[] titles = new String[template.size()];
+        List<int[]> edges = new ArrayList<>();
+        for (int node = 0; node < template.size(); node++) {
+            clientIds[node] = template.clientId(node);
+            titles[node] = template.title(node);
+            for (int k = graph.parentsStart(node); k < graph.parentsEnd(node); k++) {
+                edges.add(new int[]{node, graph.parentAt(k)});
+            }
+        }
+
+        // Rows come back in no particular order
+        int[] edgeNodes = new int[edges.size()];
+        int[] edgeParents = new int[edges.size()];
+        for (int e = 0; e < edges.size(); e++) {
+            edgeNodes[e] = edges.get(edges.size() - 1 - e)[0];
+            edgeParents[e] = edges.get(edges.size() - 1 - e)[1];
+        }
+
+        CompiledTemplate rebuilt = CompiledTemplate.of(
+                clientIds, titles, new String[template.size()], edgeNodes, edgeParents, template.rootCount());
+        DagGraph copy = rebuilt.graph();
+
+        for (int node = 0; node < template.size(); node++) {
+            assertThat(rebuilt.clientId(node)).isEqualTo(template.clientId(node));
+            assertThat(parents(copy, node)).containsExactlyInAnyOrderElementsOf(parents(graph, node));
+            assertThat(children(copy, node)).containsExactlyInAnyOrderElementsOf(children(graph, node));
+        }
+    }
+
+    private static List<Integer> parents(DagGraph graph, int node) {
+        List<Integer> parents = new ArrayList<>();
+        for (int k = graph.parentsStart(node); k < graph.parentsEnd(node); k++) {
+            parents.add(graph.parentAt(k));
+        }
+        return parents;
+    }
+
+    private static List<Integer> children(DagGraph graph, int node) {
+        List<Integer> children = new ArrayList<>();
+        for (int k = graph.childrenStart(node); k < graph.childrenEnd(node); k++) {
+            children.add(graph.childAt(k));
+        }
+        return children;
+    }
+
+    private static BatchTaskRequest task(String alias, String... dependsOn) {
+        BatchTaskRequest req = new BatchTaskRequest();
+        req.setClientId(alias);
+        req.setTitle(alias);
+        req.setDependsOn(List.of(dependsOn));
+        return req;
+    }
+}
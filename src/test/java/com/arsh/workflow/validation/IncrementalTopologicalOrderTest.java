@@ -0,0 +1,46 @@
+package com.arsh.workflow.validation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IncrementalTopologicalOrderTest {
+
+    // Window: a(0) → b(1), c(2) unrelated, d(3)
+    private static final long A = 10, B = 11, C = 12, D = 13;
+    private static final long[] IDS = {A, B, C, D};
+    private static final long[] ORDERS = {0, 1, 2, 3};
+
+    @Test
+    void movesOnlyTheAffectedRegion() {
+        // New edge d → a: a (and its descendant b) must now follow d
+        Map<Long, Long> moved = IncrementalTopologicalOrder
+                .insertEdge(D, A, IDS, ORDERS.clone(), new long[]{A}, new long[]{B})
+                .orElseThrow();
+
+        assertThat(moved).containsOnly(
+                Map.entry(D, 0L),
+                Map.entry(A, 1L),
+                Map.entry(B, 3L));
+    }
+
+    @Test
+    void rejectsAnEdgeThatClosesACycle() {
+        // b → a while a → b already exists
+        assertThat(IncrementalTopologicalOrder
+                .insertEdge(B, A, new long[]{A, B}, new long[]{0, 1}, new long[]{A}, new long[]{B}))
+                .isEmpty();
+    }
+
+    @Test
+    void initialOrderPutsParentsFirst() {
+        long[] ordered = IncrementalTopologicalOrder.initialOrder(
+                new long[]{B, A, C},
+                new long[]{A, B},
+                new long[]{B, C});
+
+        assertThat(ordered).containsExactly(A, B, C);
+    }
+}
@@ -0,0 +1,71 @@
+package com.arsh.workflow.validation;
+
+import com.arsh.workflow.dto.request.BatchTaskRequest;
+import com.arsh.workflow.exception.InvalidWorkflowDefinitionException;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingTaskReaderTest {
+
+    private final JsonFactory factory = new JsonFactory();
+
+    @Test
+    void readsNdjsonLineByLine() throws IOException {
+        List<BatchTaskRequest> tasks = readAll("""
+                {"clientId":"a","title":"A"}
+                {"clientId":"b","title":"B","dependsOn":["a"],"extra":{"ignored":[1,2]}}
+                """);
+
+        assertThat(tasks).extracting(BatchTaskRequest::getClientId).containsExactly("a", "b");
+        assertThat(tasks.get(0).getDependsOn()).isNull();
+        assertThat(tasks.get(1).getDependsOn()).containsExactly("a");
+    }
+
+    @Test
+    void readsJsonArray() throws IOException {
+        List<BatchTaskRequest> tasks = readAll("""
+                [{"clientId":"a","title":"A","description":null},
+                 {"clientId":"b","title":"B","dependsOn":[]}]
+                """);
+
+        assertThat(tasks).extracting(BatchTaskRequest::getTitle).containsExactly("A", "B");
+    }
+
+    @Test
+    void rejectsNonStringAliases() {
+        assertThatThrownBy(() -> readAll("""
+                {"clientId":"a","title":"A"}
+                {"clientId":"b","title":"B","dependsOn":[1]}
+                """))
+                .isInstanceOf(InvalidWorkflowDefinitionException.class)
+                .hasMessageContaining("task #2");
+    }
+
+    @Test
+    void rejectsUnclosedArray() {
+        assertThatThrownBy(() -> readAll("[{\"clientId\":\"a\",\"title\":\"A\"}"))
+                .isInstanceOf(InvalidWorkflowDefinitionException.class)
+                .hasMessageContaining("Malformed upload near task #2");
+    }
+
+    private List<BatchTaskRequest> readAll(String body) throws IOException {
+        List<BatchTaskRequest> tasks = new ArrayList<>();
+        try (StreamingTaskReader reader = new StreamingTaskReader(
+                factory, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)))) {
+            BatchTaskRequest task;
+            while ((task = reader.next()) != null) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,112 @@
+package com.arsh.workflow.validation;
+
+import com.arsh.workflow.dto.request.BatchTaskRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransitiveReductionTest {
+
+    private final WorkflowGraphValidator validator = new WorkflowGraphValidator();
+
+    @Test
+    void dropsEdgesImpliedByLongerPaths() {
+        DagGraph dag = validator.validateOrThrow(List.of(
+                task("a"),
+                task("b", "a"),
+                task("c", "a", "b")
+        ));
+
+        boolean[] redundant = TransitiveReduction.redundantEdges(dag);
+
+        assertThat(TransitiveReduction.count(redundant)).isEqualTo(1);
+        assertThat(dag.alias(dag.parentAt(indexOf(redundant)))).isEqualTo("a");
+    }
+
+    @Test
+    void keepsDiamonds() {
+        DagGraph dag = validator.validateOrThrow(List.of(
+                task("a"),
+                task("b", "a"),
+                task("c", "a"),
+                task("d", "b", "c")
+        ));
+
+        assertThat(TransitiveReduction.count(TransitiveReduction.redundantEdges(dag))).isZero();
+    }
+
+    @Test
+    void findsShortcutsAcrossBlocks() {
+        // 200-long chain plus a shortcut from the last task to the first
+        List<BatchTaskRequest> tasks = new ArrayList<>();
+        tasks.add(task("t0"));
+        for (int i = 1; i < 200; i++) {
+            tasks.add(i == 199 ? task("t199", "t198", "t0") : task("t" + i, "t" + (i - 1)));
+        }
+
+        boolean[] redundant = TransitiveReduction.redundantEdges(validator.validateOrThrow(tasks));
+
+        assertThat(TransitiveReduction.count(redundant)).isEqualTo(1);
+    }
+
+    @Test
+    void agreesWithPairwiseReachabilityOnRandomDags() {
+        SplittableRandom random = new SplittableRandom(7L);
+
+        for (int round = 0; round < 20; round++) {
+            int size = 50 + random.nextInt(250);
+            DagGraph dag = validator.validateOrThrow(
+                    WorkflowGraphValidatorBenchmark.layered(size, 1 + random.nextInt(4), random.nextLong()));
+
+            assertThat(TransitiveReduction.redundantEdges(dag)).isEqualTo(bruteForce(dag));
+        }
+    }
+
+    /** An edge is implied when another parent of the child reaches its parent. */
+    private static boolean[] bruteForce(DagGraph dag) {
+        int n = dag.size();
+        boolean[][] reaches = new boolean[n][n];   // [ancestor][descendant]
+
+        for (int pos = 0; pos < n; pos++) {
+            int node = dag.topologicalAt(pos);
+            for (int k = dag.parentsStart(node); k < dag.parentsEnd(node); k++) {
+                int parent = dag.parentAt(k);
+                reaches[parent][node] = true;
+                for (int a = 0; a < n; a++) {
+                    if (reaches[a][parent]) reaches[a][node] = true;
+                }
+            }
+        }
+
+        boolean[] redundant = new boolean[dag.edgeCount()];
+        for (int node = 0; node < n; node++) {
+            for (int k = dag.parentsStart(node); k < dag.parentsEnd(node); k++) {
+                for (int j = dag.parentsStart(node); j < dag.parentsEnd(node); j++) {
+                    if (j != k && reaches[dag.parentAt(k)][dag.parentAt(j)]) {
+                        redundant[k] = true;
+                    }
+                }
+            }
+        }
+        return redundant;
+    }
+
+    private static int indexOf(boolean[] flags) {
+        for (int i = 0; i < flags.length; i++) {
+            if (flags[i]) return i;
+        }
+        return -1;
+    }
+
+    private static BatchTaskRequest task(String alias, String... dependsOn) {
+        BatchTaskRequest req = new BatchTaskRequest();
+        req.setClientId(alias);
+        req.setTitle(alias);
+        req.setDependsOn(List.of(dependsOn));
+        return req;
+    }
+}
@@ -0,0 +1,102 @@
+package com.arsh.workflow.validation;
+
+import com.arsh.workflow.dto.request.BatchTaskRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validator throughput on generated batches. Not run by surefire; start it with
+ * {@code mvn test-compile exec:exec -Dbenchmark=WorkflowGraphValidatorBenchmark}
+ * or from the IDE.
+ *
+ * <ul>
+ *   <li>{@code chain}: one task per level, the deepest possible DAG</li>
+ *   <li>{@code layered}: each task depends on up to 3 random earlier tasks</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class WorkflowGraphValidatorBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"chain", "layered"})
+    public String shape;
+
+    private final WorkflowGraphValidator validator = new WorkflowGraphValidator();
+    private List<BatchTaskRequest> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        batch = "chain".equals(shape) ? chain(size) : layered(size, 3, 42L);
+    }
+
+    @Benchmark
+    public DagGraph validate() {
+        return validator.validateOrThrow(batch);
+    }
+
+    static List<BatchTaskRequest> chain(int size) {
+        List<BatchTaskRequest> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(task(i, i == 0 ? List.of() : List.of("t" + (i - 1))));
+        }
+        return tasks;
+    }
+
+    static List<BatchTaskRequest> layered(int size, int maxParents, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<BatchTaskRequest> tasks = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            int parents = Math.min(i, random.nextInt(maxParents + 1));
+            List<String> deps = new ArrayList<>(parents);
+
+            for (int p = 0; p < parents; p++) {
+                String dep = "t" + random.nextInt(i);
+                if (!deps.contains(dep)) {
+                    deps.add(dep);
+                }
+            }
+            tasks.add(task(i, deps));
+        }
+        return tasks;
+    }
+
+    private static BatchTaskRequest task(int i, List<String> deps) {
+        BatchTaskRequest req = new BatchTaskRequest();
+        req.setClientId("t" + i);
+        req.setTitle("Task " + i);
+        req.setDependsOn(deps);
+        return req;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WorkflowGraphValidatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,86 @@
+package com.arsh.workflow.validation;
+
+import com.arsh.workflow.dto.request.BatchTaskRequest;
+import com.arsh.workflow.exception.InvalidWorkflowDefinitionException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkflowGraphValidatorTest {
+
+    private final WorkflowGraphValidator validator = new WorkflowGraphValidator();
+
+    @Test
+    void ordersParentsBeforeChildren() {
+        DagGraph dag = validator.validateOrThrow(List.of(
+                task("d", "b", "c"),
+                task("b", "a"),
+                task("c", "a"),
+                task("a")
+        ));
+
+        int[] position = new int[dag.size()];
+        for (int i = 0; i < dag.size(); i++) {
+            position[dag.topologicalAt(i)] = i;
+        }
+
+        for (int child = 0; child < dag.size(); child++) {
+            for (int k = dag.parentsStart(child); k < dag.parentsEnd(child); k++) {
+                assertThat(position[dag.parentAt(k)]).isLessThan(position[child]);
+            }
+        }
+        assertThat(dag.edgeCount()).isEqualTo(4);
+    }
+
+    @Test
+    void reportsTheCyclePath() {
+        List<BatchTaskRequest> tasks = List.of(
+                task("root"),
+                task("a", "root", "c"),
+                task("b", "a"),
+                task("c", "b"),
+                task("leaf", "c")
+        );
+
+        assertThatThrownBy(() -> validator.validateOrThrow(tasks))
+                .isInstanceOf(InvalidWorkflowDefinitionException.class)
+                .satisfies(ex -> assertThat(((InvalidWorkflowDefinitionException) ex).getErrors())
+                        .singleElement()
+                        .asString()
+                        .contains("'a' → 'c' → 'b' → 'a'"));
+    }
+
+    @Test
+    void validatesDeepChainsWithoutRecursion() {
+        DagGraph dag = validator.validateOrThrow(WorkflowGraphValidatorBenchmark.chain(100_000));
+
+        assertThat(dag.topologicalAt(0)).isZero();
+        assertThat(dag.topologicalAt(99_999)).isEqualTo(99_999);
+    }
+
+    @Test
+    void rejectsDuplicateAndUnknownReferences() {
+        List<BatchTaskRequest> tasks = List.of(
+                task("a"),
+                task("b", "a", "a", "missing")
+        );
+
+        assertThatThrownBy(() -> validator.validateOrThrow(tasks))
+                .isInstanceOf(InvalidWorkflowDefinitionException.class)
+                .satisfies(ex -> assertThat(((InvalidWorkflowDefinitionException) ex).getErrors())
+                        .containsExactly(
+                                "Task 'b' has duplicate dependency 'a'",
+                                "Task 'b' depends on non-existent alias 'missing'"));
+    }
+
+    private static BatchTaskRequest task(String alias, String... dependsOn) {
+        BatchTaskRequest req = new BatchTaskRequest();
+        req.setClientId(alias);
+        req.setTitle(alias);
+        req.setDependsOn(List.of(dependsOn));
+        return req;
+    }
+}